@@ -0,0 +1,158 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.grizzly.connector;
+
+/**
+ * Immutable snapshot of the {@link GrizzlyConnector} connection pool statistics.
+ *
+ * @author Stepan Kopriva (stepan.kopriva at oracle.com)
+ * @see GrizzlyConnector#getConnectionPoolStatistics()
+ */
+public final class ConnectionPoolStatistics {
+
+    private final long hits;
+    private final long misses;
+    private final long offered;
+    private final long rejected;
+    private final long expired;
+    private final long invalid;
+
+    /**
+     * Create new connection pool statistics snapshot.
+     *
+     * @param hits     number of requests served by a pooled connection.
+     * @param misses   number of requests that required a new connection.
+     * @param offered  number of connections returned to the pool.
+     * @param rejected number of connections the pool refused to keep.
+     * @param expired  number of pooled connections closed since their time to live expired.
+     * @param invalid  number of pooled connections closed since they failed the validation.
+     */
+    ConnectionPoolStatistics(final long hits,
+                             final long misses,
+                             final long offered,
+                             final long rejected,
+                             final long expired,
+                             final long invalid) {
+        this.hits = hits;
+        this.misses = misses;
+        this.offered = offered;
+        this.rejected = rejected;
+        this.expired = expired;
+        this.invalid = invalid;
+    }
+
+    /**
+     * Get the number of requests that have been served by a connection reused from the pool.
+     *
+     * @return number of connection pool hits.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the number of requests that required a new connection to be opened.
+     *
+     * @return number of connection pool misses.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Get the ratio of requests served by a pooled connection.
+     *
+     * @return connection pool hit ratio in the range {@code [0, 1]}, or {@code 0} if no request has been made yet.
+     */
+    public double getHitRatio() {
+        final long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Get the number of connections that have been returned to the pool after a request has been completed.
+     *
+     * @return number of connections offered to the pool.
+     */
+    public long getOffered() {
+        return offered;
+    }
+
+    /**
+     * Get the number of connections the pool refused to keep (e.g. because the pool limits have been reached).
+     *
+     * @return number of rejected connections.
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Get the number of pooled connections closed because their
+     * {@link org.glassfish.jersey.client.ClientProperties#CONNECTION_POOL_TTL time to live} has expired.
+     *
+     * @return number of expired connections.
+     */
+    public long getExpired() {
+        return expired;
+    }
+
+    /**
+     * Get the number of pooled connections closed because they failed the validation after a period of
+     * {@link org.glassfish.jersey.client.ClientProperties#CONNECTION_POOL_VALIDATE_AFTER_INACTIVITY inactivity}.
+     *
+     * @return number of invalid connections.
+     */
+    public long getInvalid() {
+        return invalid;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolStatistics{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", offered=" + offered +
+                ", rejected=" + rejected +
+                ", expired=" + expired +
+                ", invalid=" + invalid +
+                '}';
+    }
+}
@@ -74,15 +74,24 @@ import com.ning.http.client.AsyncHttpClientConfig;
 import com.ning.http.client.Request;
 import com.ning.http.client.RequestBuilder;
 import com.ning.http.client.providers.grizzly.GrizzlyAsyncHttpProvider;
+import com.ning.http.client.providers.grizzly.GrizzlyConnectionsPool;
 
 /**
  * The transport using the AsyncHttpClient.
+ * <p>
+ * The connector keeps persistent HTTP connections in a connection pool that can be tuned using the
+ * {@link ClientProperties#CONNECTION_POOL_MAX_TOTAL}, {@link ClientProperties#CONNECTION_POOL_MAX_PER_HOST},
+ * {@link ClientProperties#CONNECTION_POOL_IDLE_TIMEOUT}, {@link ClientProperties#CONNECTION_POOL_TTL} and
+ * {@link ClientProperties#CONNECTION_POOL_VALIDATE_AFTER_INACTIVITY} properties. The connection pool usage
+ * can be monitored via {@link #getConnectionPoolStatistics()}.
+ * </p>
  *
  * @author Stepan Kopriva (stepan.kopriva at oracle.com)
  */
 public class GrizzlyConnector extends RequestWriter implements Connector {
 
     private AsyncHttpClient client;
+    private MonitoredConnectionsPool connectionsPool;
 
     /**
      * Create the new Grizzly async client connector.
@@ -109,15 +118,59 @@ public class GrizzlyConnector extends RequestWriter implements Connector {
 
             builder.setRequestTimeoutInMs(PropertiesHelper.getValue(configuration.getProperties(),
                     ClientProperties.READ_TIMEOUT, 0));
+
+            configureConnectionPool(builder, configuration.getProperties());
         } else {
             executorService = Executors.newCachedThreadPool();
             builder.setExecutorService(executorService);
         }
 
-        AsyncHttpClientConfig config = builder.setAllowPoolingConnection(true).build();
+        builder.setAllowPoolingConnection(true);
+
+        // the pool has to be configured with the final client configuration limits
+        final AsyncHttpClientConfig poolConfig = builder.build();
+        this.connectionsPool = new MonitoredConnectionsPool(new GrizzlyConnectionsPool(poolConfig),
+                getPoolProperty(configuration, ClientProperties.CONNECTION_POOL_TTL),
+                getPoolProperty(configuration, ClientProperties.CONNECTION_POOL_VALIDATE_AFTER_INACTIVITY));
+
+        AsyncHttpClientConfig config = builder.setConnectionsPool(connectionsPool).build();
         this.client = new AsyncHttpClient(new GrizzlyAsyncHttpProvider(config), config);
     }
 
+    private static void configureConnectionPool(final AsyncHttpClientConfig.Builder builder,
+                                                final Map<String, Object> properties) {
+        final Integer maxTotal = PropertiesHelper.getValue(properties,
+                ClientProperties.CONNECTION_POOL_MAX_TOTAL, Integer.class);
+        if (maxTotal != null) {
+            builder.setMaximumConnectionsTotal(maxTotal > 0 ? maxTotal : -1);
+        }
+
+        final Integer maxPerHost = PropertiesHelper.getValue(properties,
+                ClientProperties.CONNECTION_POOL_MAX_PER_HOST, Integer.class);
+        if (maxPerHost != null) {
+            builder.setMaximumConnectionsPerHost(maxPerHost > 0 ? maxPerHost : -1);
+        }
+
+        final Integer idleTimeout = PropertiesHelper.getValue(properties,
+                ClientProperties.CONNECTION_POOL_IDLE_TIMEOUT, Integer.class);
+        if (idleTimeout != null) {
+            builder.setIdleConnectionInPoolTimeoutInMs(idleTimeout);
+        }
+    }
+
+    private static long getPoolProperty(final Configuration configuration, final String name) {
+        return configuration == null ? 0 : PropertiesHelper.getValue(configuration.getProperties(), name, 0);
+    }
+
+    /**
+     * Get the current statistics of the connector connection pool.
+     *
+     * @return connection pool statistics snapshot.
+     */
+    public ConnectionPoolStatistics getConnectionPoolStatistics() {
+        return connectionsPool.getStatistics();
+    }
+
     /*
      * Sends the {@link javax.ws.rs.core.Request} via Grizzly transport and returns the {@link javax.ws.rs.core.Response}.
      */
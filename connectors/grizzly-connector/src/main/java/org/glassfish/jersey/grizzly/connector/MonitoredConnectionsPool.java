@@ -0,0 +1,201 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.grizzly.connector;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.glassfish.grizzly.Connection;
+
+import com.ning.http.client.ConnectionsPool;
+
+/**
+ * Connection pool decorator that collects the pool statistics and enforces the connection
+ * time to live and validation after inactivity on top of the decorated pool.
+ *
+ * @author Stepan Kopriva (stepan.kopriva at oracle.com)
+ */
+final class MonitoredConnectionsPool implements ConnectionsPool<String, Connection> {
+
+    private static final Logger LOGGER = Logger.getLogger(MonitoredConnectionsPool.class.getName());
+
+    /**
+     * Pooled connection metadata.
+     */
+    private static final class ConnectionInfo {
+        private final long created;
+        private volatile long idleSince;
+
+        private ConnectionInfo(final long now) {
+            this.created = now;
+            this.idleSince = now;
+        }
+    }
+
+    private final ConnectionsPool<String, Connection> delegate;
+    private final long timeToLive;
+    private final long validateAfterInactivity;
+
+    private final Map<Connection, ConnectionInfo> connections =
+            Collections.synchronizedMap(new WeakHashMap<Connection, ConnectionInfo>());
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong offered = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong invalid = new AtomicLong();
+
+    /**
+     * Create new monitored connection pool.
+     *
+     * @param delegate                decorated connection pool.
+     * @param timeToLive              connection time to live in milliseconds, {@code <= 0} means unlimited.
+     * @param validateAfterInactivity inactivity period in milliseconds after which the pooled connection
+     *                                is validated before reuse, {@code <= 0} disables the validation.
+     */
+    MonitoredConnectionsPool(final ConnectionsPool<String, Connection> delegate,
+                             final long timeToLive,
+                             final long validateAfterInactivity) {
+        this.delegate = delegate;
+        this.timeToLive = timeToLive;
+        this.validateAfterInactivity = validateAfterInactivity;
+    }
+
+    @Override
+    public boolean offer(final String uri, final Connection connection) {
+        final long now = System.currentTimeMillis();
+
+        ConnectionInfo info = connections.get(connection);
+        if (info == null) {
+            info = new ConnectionInfo(now);
+            connections.put(connection, info);
+        } else if (isExpired(info, now)) {
+            expired.incrementAndGet();
+            discard(connection);
+            return false;
+        }
+        info.idleSince = now;
+
+        final boolean accepted = delegate.offer(uri, connection);
+        if (accepted) {
+            offered.incrementAndGet();
+        } else {
+            rejected.incrementAndGet();
+            connections.remove(connection);
+        }
+        return accepted;
+    }
+
+    @Override
+    public Connection poll(final String uri) {
+        Connection connection;
+        while ((connection = delegate.poll(uri)) != null) {
+            final long now = System.currentTimeMillis();
+            final ConnectionInfo info = connections.get(connection);
+
+            if (info != null) {
+                if (isExpired(info, now)) {
+                    expired.incrementAndGet();
+                    discard(connection);
+                    continue;
+                }
+                if (validateAfterInactivity > 0
+                        && now - info.idleSince > validateAfterInactivity
+                        && !connection.isOpen()) {
+                    invalid.incrementAndGet();
+                    discard(connection);
+                    continue;
+                }
+            }
+
+            hits.incrementAndGet();
+            return connection;
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    @Override
+    public boolean removeAll(final Connection connection) {
+        connections.remove(connection);
+        return delegate.removeAll(connection);
+    }
+
+    @Override
+    public boolean canCacheConnection() {
+        return delegate.canCacheConnection();
+    }
+
+    @Override
+    public void destroy() {
+        connections.clear();
+        delegate.destroy();
+    }
+
+    /**
+     * Get the current connection pool statistics snapshot.
+     *
+     * @return connection pool statistics.
+     */
+    ConnectionPoolStatistics getStatistics() {
+        return new ConnectionPoolStatistics(hits.get(), misses.get(), offered.get(), rejected.get(),
+                expired.get(), invalid.get());
+    }
+
+    private boolean isExpired(final ConnectionInfo info, final long now) {
+        return timeToLive > 0 && now - info.created > timeToLive;
+    }
+
+    private void discard(final Connection connection) {
+        connections.remove(connection);
+        delegate.removeAll(connection);
+        try {
+            connection.close();
+        } catch (Exception e) {
+            LOGGER.log(Level.FINE, "Unable to close a discarded pooled connection.", e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.grizzly.connector;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the reuse of pooled persistent connections.
+ *
+ * @author Stepan Kopriva (stepan.kopriva at oracle.com)
+ */
+public class ConnectionPoolTest extends JerseyTest {
+
+    private static final int REQUEST_COUNT = 10;
+
+    private GrizzlyConnector connector;
+
+    @Path("test")
+    public static class PoolResource {
+
+        @GET
+        public String get() {
+            return "GET";
+        }
+    }
+
+    @Override
+    protected Application configure() {
+        return new ResourceConfig(PoolResource.class);
+    }
+
+    @Override
+    protected void configureClient(ClientConfig clientConfig) {
+        clientConfig.setProperty(ClientProperties.CONNECTION_POOL_MAX_PER_HOST, 2);
+        clientConfig.setProperty(ClientProperties.CONNECTION_POOL_MAX_TOTAL, 4);
+        clientConfig.setProperty(ClientProperties.CONNECTION_POOL_IDLE_TIMEOUT, 10000);
+        clientConfig.setProperty(ClientProperties.CONNECTION_POOL_VALIDATE_AFTER_INACTIVITY, 1000);
+
+        connector = new GrizzlyConnector(clientConfig);
+        clientConfig.connector(connector);
+    }
+
+    @Test
+    public void testConnectionReuse() {
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            final Response response = target("test").request().get();
+            assertEquals(200, response.getStatus());
+            assertEquals("GET", response.readEntity(String.class));
+        }
+
+        final ConnectionPoolStatistics statistics = connector.getConnectionPoolStatistics();
+        assertEquals(REQUEST_COUNT, statistics.getHits() + statistics.getMisses());
+        assertTrue("Expected pooled connections to be reused: " + statistics, statistics.getHits() > 0);
+        assertTrue(statistics.getHitRatio() > 0);
+    }
+}
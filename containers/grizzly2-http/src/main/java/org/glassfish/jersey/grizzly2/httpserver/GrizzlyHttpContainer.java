@@ -48,12 +48,16 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.UriBuilder;
+import javax.ws.rs.ext.RuntimeDelegate;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
@@ -61,7 +65,9 @@ import javax.inject.Provider;
 import org.glassfish.jersey.internal.inject.AbstractBinder;
 import org.glassfish.jersey.internal.inject.ReferencingFactory;
 import org.glassfish.jersey.internal.util.ExtendedLogger;
+import org.glassfish.jersey.internal.util.PropertiesHelper;
 import org.glassfish.jersey.internal.util.collection.Ref;
+import org.glassfish.jersey.message.internal.HeadersFactory;
 import org.glassfish.jersey.process.internal.RequestScoped;
 import org.glassfish.jersey.server.ApplicationHandler;
 import org.glassfish.jersey.server.ContainerException;
@@ -80,6 +86,8 @@ import org.glassfish.hk2.api.TypeLiteral;
 import org.glassfish.hk2.utilities.Binder;
 
 import org.glassfish.grizzly.CompletionHandler;
+import org.glassfish.grizzly.ReadHandler;
+import org.glassfish.grizzly.http.io.NIOInputStream;
 import org.glassfish.grizzly.http.server.HttpHandler;
 import org.glassfish.grizzly.http.server.Request;
 import org.glassfish.grizzly.http.server.Response;
@@ -160,9 +168,35 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
 
         private final String name;
         private final Response grizzlyResponse;
+        private final boolean nonBlocking;
+        private final int nonBlockingWriteQueueLimit;
+
+        private final AtomicBoolean suspended = new AtomicBoolean(false);
+        private volatile boolean suspendedByContainer = false;
+        private volatile TimeoutHandler timeoutHandler;
+        private volatile NonBlockingOutputStream nonBlockingStream;
+
+        private final org.glassfish.grizzly.http.server.TimeoutHandler grizzlyTimeoutHandler =
+                new org.glassfish.grizzly.http.server.TimeoutHandler() {
+
+                    @Override
+                    public boolean onTimeout(Response response) {
+                        final TimeoutHandler handler = timeoutHandler;
+                        if (handler != null) {
+                            handler.onTimeout(ResponseWriter.this);
+                        }
+
+                        // TODO should we return true ins some cases instead?
+                        // Returning false relies on the fact that the timeoutHandler
+                        // will resume the response.
+                        return false;
+                    }
+                };
 
-        ResponseWriter(final Response response) {
+        ResponseWriter(final Response response, final boolean nonBlocking, final int nonBlockingWriteQueueLimit) {
             this.grizzlyResponse = response;
+            this.nonBlocking = nonBlocking;
+            this.nonBlockingWriteQueueLimit = nonBlockingWriteQueueLimit;
 
             if (logger.isDebugLoggable()) {
                 this.name = "ResponseWriter {" + "id=" + UUID.randomUUID().toString() + ", grizzlyResponse=" + grizzlyResponse.hashCode() + '}';
@@ -177,8 +211,33 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
             return name;
         }
 
+        /**
+         * Suspend the Grizzly response on behalf of the container so that the request entity can be read
+         * and the response entity written using the non-blocking Grizzly streams. The response is resumed
+         * once the response writer is {@link #commit() committed} or {@link #failure(Throwable) failed}.
+         */
+        void suspendByContainer() {
+            grizzlyResponse.suspend(0, TimeUnit.MILLISECONDS, EMPTY_COMPLETION_HANDLER, grizzlyTimeoutHandler);
+            suspendedByContainer = true;
+        }
+
         @Override
         public void commit() {
+            final NonBlockingOutputStream stream = nonBlockingStream;
+            if (stream == null) {
+                resume();
+            } else {
+                // resume only once all the queued response data have been written
+                stream.whenDrained(new Runnable() {
+                    @Override
+                    public void run() {
+                        resume();
+                    }
+                });
+            }
+        }
+
+        private void resume() {
             try {
                 if (grizzlyResponse.isSuspended()) {
                     grizzlyResponse.resume();
@@ -191,21 +250,17 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
         @Override
         public boolean suspend(final long timeOut, final TimeUnit timeUnit, final TimeoutHandler timeoutHandler) {
             try {
-                grizzlyResponse.suspend(timeOut, timeUnit, EMPTY_COMPLETION_HANDLER,
-                        new org.glassfish.grizzly.http.server.TimeoutHandler() {
-
-                            @Override
-                            public boolean onTimeout(Response response) {
-                                if (timeoutHandler != null) {
-                                    timeoutHandler.onTimeout(ResponseWriter.this);
-                                }
-
-                                // TODO should we return true ins some cases instead?
-                                // Returning false relies on the fact that the timeoutHandler
-                                // will resume the response.
-                                return false;
-                            }
-                        });
+                if (!suspended.compareAndSet(false, true)) {
+                    return false;
+                }
+
+                this.timeoutHandler = timeoutHandler;
+                if (suspendedByContainer) {
+                    // Grizzly response is already suspended, just update the timeout
+                    grizzlyResponse.getSuspendContext().setTimeout(timeOut, timeUnit);
+                } else {
+                    grizzlyResponse.suspend(timeOut, timeUnit, EMPTY_COMPLETION_HANDLER, grizzlyTimeoutHandler);
+                }
                 return true;
             } catch (IllegalStateException ex) {
                 return false;
@@ -231,12 +286,18 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
                 grizzlyResponse.setStatus(context.getStatus());
                 grizzlyResponse.setContentLengthLong(contentLength);
 
-                for (final Map.Entry<String, List<String>> e : context.getStringHeaders().entrySet()) {
-                    for (final String value : e.getValue()) {
-                        grizzlyResponse.addHeader(e.getKey(), value);
+                final RuntimeDelegate delegate = RuntimeDelegate.getInstance();
+                for (final Map.Entry<String, List<Object>> e : context.getHeaders().entrySet()) {
+                    for (final Object value : e.getValue()) {
+                        grizzlyResponse.addHeader(e.getKey(), HeadersFactory.asString(value, delegate));
                     }
                 }
 
+                if (nonBlocking) {
+                    nonBlockingStream = new NonBlockingOutputStream(
+                            grizzlyResponse.getNIOOutputStream(), nonBlockingWriteQueueLimit);
+                    return nonBlockingStream;
+                }
                 return grizzlyResponse.getOutputStream();
             } finally {
                 logger.debugLog("{0} - writeResponseStatusAndHeaders() called", name);
@@ -252,14 +313,118 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
             } catch (IOException e) {
                 logger.log(Level.SEVERE, "Unable to send 500 error response.", e);
             } finally {
+                if (suspendedByContainer && grizzlyResponse.isSuspended()) {
+                    grizzlyResponse.resume();
+                }
                 logger.debugLog("{0} - failure(...) called", name);
             }
         }
     }
 
+    /**
+     * Read handler that waits until the whole (bounded) request entity is available in the Grizzly
+     * input buffer and dispatches the request to the Jersey application afterwards. This way no
+     * worker thread is blocked while a slow client is sending the request entity.
+     * <p>
+     * The readiness callbacks are invoked by a Grizzly I/O (selector) thread. The request processing,
+     * which may block in the application code, is therefore handed off to the transport worker thread pool
+     * (if there is one) so that the I/O of other connections is not stalled.
+     * </p>
+     */
+    private static final class EntityReadHandler implements ReadHandler {
+
+        private final NIOInputStream in;
+        private final int contentLength;
+        private final Executor executor;
+        private final ApplicationHandler appHandler;
+        private final ContainerRequest requestContext;
+        private final ResponseWriter responseWriter;
+        private final AtomicBoolean dispatched = new AtomicBoolean(false);
+
+        EntityReadHandler(final NIOInputStream in,
+                          final int contentLength,
+                          final Executor executor,
+                          final ApplicationHandler appHandler,
+                          final ContainerRequest requestContext,
+                          final ResponseWriter responseWriter) {
+            this.in = in;
+            this.contentLength = contentLength;
+            this.executor = executor;
+            this.appHandler = appHandler;
+            this.requestContext = requestContext;
+            this.responseWriter = responseWriter;
+        }
+
+        /**
+         * Dispatch the request right away (in the calling worker thread) if the entity has already been
+         * received, otherwise wait for the entity data.
+         */
+        void start() {
+            if (isEntityAvailable()) {
+                dispatch();
+            } else {
+                in.notifyAvailable(this, contentLength);
+            }
+        }
+
+        private boolean isEntityAvailable() {
+            return in.isFinished() || in.readyData() >= contentLength;
+        }
+
+        @Override
+        public void onDataAvailable() throws Exception {
+            if (isEntityAvailable()) {
+                dispatchToWorker();
+            } else {
+                in.notifyAvailable(this, contentLength);
+            }
+        }
+
+        @Override
+        public void onAllDataRead() throws Exception {
+            dispatchToWorker();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (dispatched.compareAndSet(false, true)) {
+                logger.log(Level.FINE, "Unable to read request entity.", t);
+                responseWriter.failure(t);
+            }
+        }
+
+        private void dispatch() {
+            if (dispatched.compareAndSet(false, true)) {
+                appHandler.handle(requestContext);
+            }
+        }
+
+        private void dispatchToWorker() {
+            if (executor == null) {
+                dispatch();
+                return;
+            }
+
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        dispatch();
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                onError(ex);
+            }
+        }
+    }
+
     private volatile ApplicationHandler appHandler;
     private final ContainerLifecycleListener containerListener;
 
+    private volatile boolean nonBlockingIo;
+    private volatile int nonBlockingReadMaxEntitySize;
+    private volatile int nonBlockingWriteQueueLimit;
+
     /**
      * Creates a new Grizzly container.
      *
@@ -272,6 +437,20 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
         this.appHandler.registerAdditionalBinders(new HashSet<Binder>() {{
             add(new GrizzlyBinder());
         }});
+
+        initNonBlockingIo(application.getConfiguration());
+    }
+
+    private void initNonBlockingIo(final ResourceConfig configuration) {
+        final Map<String, Object> properties = configuration.getProperties();
+
+        this.nonBlockingIo = PropertiesHelper.isProperty(properties, GrizzlyHttpContainerProperties.NON_BLOCKING_IO);
+        this.nonBlockingReadMaxEntitySize = PropertiesHelper.getValue(properties,
+                GrizzlyHttpContainerProperties.NON_BLOCKING_READ_MAX_ENTITY_SIZE,
+                GrizzlyHttpContainerProperties.DEFAULT_NON_BLOCKING_READ_MAX_ENTITY_SIZE);
+        this.nonBlockingWriteQueueLimit = PropertiesHelper.getValue(properties,
+                GrizzlyHttpContainerProperties.NON_BLOCKING_WRITE_QUEUE_LIMIT,
+                GrizzlyHttpContainerProperties.DEFAULT_NON_BLOCKING_WRITE_QUEUE_LIMIT);
     }
 
     @Override
@@ -282,7 +461,9 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
 
     @Override
     public void service(final Request request, final Response response) {
-        final ResponseWriter responseWriter = new ResponseWriter(response);
+        final ApplicationHandler handler = appHandler;
+        final boolean nonBlocking = nonBlockingIo;
+        final ResponseWriter responseWriter = new ResponseWriter(response, nonBlocking, nonBlockingWriteQueueLimit);
         try {
             logger.debugLog("GrizzlyHttpContaner.service(...) started");
             URI baseUri = getBaseUri(request);
@@ -303,13 +484,36 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
                     }).getType()).set(response);
                 }
             });
-            appHandler.handle(requestContext);
+
+            if (nonBlocking) {
+                responseWriter.suspendByContainer();
+
+                final long contentLength = request.getContentLengthLong();
+                if (contentLength > 0 && contentLength <= nonBlockingReadMaxEntitySize) {
+                    new EntityReadHandler(request.getNIOInputStream(), (int) contentLength,
+                            getWorkerExecutor(request), handler, requestContext, responseWriter).start();
+                    return;
+                }
+            }
+
+            handler.handle(requestContext);
         } finally {
             // TODO if writer not closed or suspended yet, suspend.
             logger.debugLog("GrizzlyHttpContaner.service(...) finished");
         }
     }
 
+    /**
+     * Get the worker thread pool of the transport the request has been received by.
+     *
+     * @param request Grizzly request.
+     * @return worker thread pool or {@code null} if the transport does not use one (in which case the request
+     *         is processed by the I/O thread anyway).
+     */
+    private static Executor getWorkerExecutor(final Request request) {
+        return request.getContext().getConnection().getTransport().getWorkerThreadPool();
+    }
+
     @Override
     public ResourceConfig getConfiguration() {
         return appHandler.getConfiguration();
@@ -323,6 +527,7 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
     @Override
     public void reload(ResourceConfig configuration) {
         appHandler = new ApplicationHandler(configuration.addBinders(new GrizzlyBinder()));
+        initNonBlockingIo(appHandler.getConfiguration());
         containerListener.onReload(this);
     }
 
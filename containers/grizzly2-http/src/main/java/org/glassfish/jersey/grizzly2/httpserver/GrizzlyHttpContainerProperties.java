@@ -0,0 +1,126 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.grizzly2.httpserver;
+
+/**
+ * Jersey Grizzly 2.x HTTP container configuration properties.
+ *
+ * @author Jakub Podlesak (jakub.podlesak at oracle.com)
+ */
+public final class GrizzlyHttpContainerProperties {
+
+    /**
+     * If set to {@code true}, the Grizzly HTTP container uses Grizzly non-blocking
+     * {@link org.glassfish.grizzly.http.io.NIOInputStream NIOInputStream} and
+     * {@link org.glassfish.grizzly.http.io.NIOOutputStream NIOOutputStream} readiness
+     * callbacks to read request and write response entities.
+     * <p>
+     * In the non-blocking mode a request entity with a known length not exceeding
+     * {@link #NON_BLOCKING_READ_MAX_ENTITY_SIZE} is read asynchronously before the request
+     * is dispatched to the Jersey application, so that no Grizzly worker thread is held
+     * while waiting for a slow client to send the entity. Response entity data that can not
+     * be written immediately are queued (up to {@link #NON_BLOCKING_WRITE_QUEUE_LIMIT} bytes)
+     * and drained once the underlying connection becomes writable again.
+     * </p>
+     * <p>
+     * The default value is {@code false}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String NON_BLOCKING_IO = "jersey.config.grizzly2.httpserver.nonBlockingIo";
+
+    /**
+     * Maximum size (in bytes) of a request entity that is read asynchronously before the request
+     * is dispatched to the Jersey application when the {@link #NON_BLOCKING_IO non-blocking mode}
+     * is enabled. Request entities that are larger or do not declare their length (e.g. chunked
+     * requests) are read using a blocking input stream.
+     * <p>
+     * The property value MUST be an instance of {@link Integer} or a {@link String} convertible to
+     * an {@code Integer}.
+     * </p>
+     * <p>
+     * The default value is {@value #DEFAULT_NON_BLOCKING_READ_MAX_ENTITY_SIZE}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String NON_BLOCKING_READ_MAX_ENTITY_SIZE =
+            "jersey.config.grizzly2.httpserver.nonBlockingReadMaxEntitySize";
+
+    /**
+     * Default value of the {@link #NON_BLOCKING_READ_MAX_ENTITY_SIZE} property.
+     */
+    public static final int DEFAULT_NON_BLOCKING_READ_MAX_ENTITY_SIZE = 1024 * 1024;
+
+    /**
+     * Maximum number of response entity bytes queued per response while waiting for the connection
+     * to become writable when the {@link #NON_BLOCKING_IO non-blocking mode} is enabled. Once the limit
+     * is exceeded, the writing thread waits until the queued bytes are written to protect the server from
+     * running out of memory. The queued bytes are coalesced into pooled buffers and the limit applies to the size
+     * of these buffers.
+     * <p>
+     * The property value MUST be an instance of {@link Integer} or a {@link String} convertible to
+     * an {@code Integer}.
+     * </p>
+     * <p>
+     * The default value is {@value #DEFAULT_NON_BLOCKING_WRITE_QUEUE_LIMIT}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String NON_BLOCKING_WRITE_QUEUE_LIMIT =
+            "jersey.config.grizzly2.httpserver.nonBlockingWriteQueueLimit";
+
+    /**
+     * Default value of the {@link #NON_BLOCKING_WRITE_QUEUE_LIMIT} property.
+     */
+    public static final int DEFAULT_NON_BLOCKING_WRITE_QUEUE_LIMIT = 4 * 1024 * 1024;
+
+    private GrizzlyHttpContainerProperties() {
+        // prevents instantiation
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.grizzly2.httpserver;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.LinkedList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.glassfish.grizzly.WriteHandler;
+import org.glassfish.grizzly.http.io.NIOOutputStream;
+
+import org.glassfish.jersey.message.internal.BufferPool;
+
+/**
+ * Response entity output stream that does not block the writing thread when the underlying
+ * Grizzly connection is not able to accept more data.
+ * <p>
+ * Data written while the connection is not writable are queued and drained from the
+ * {@link WriteHandler#onWritePossible() write-possible} callback. The queued data are passed to the
+ * Grizzly output stream only while the connection {@link NIOOutputStream#canWrite() can accept} them.
+ * Once the amount of the queued data exceeds the configured limit, the writing thread waits until
+ * the queued data are drained.
+ * </p>
+ *
+ * @author Jakub Podlesak (jakub.podlesak at oracle.com)
+ */
+final class NonBlockingOutputStream extends OutputStream {
+
+    private static final Logger LOGGER = Logger.getLogger(NonBlockingOutputStream.class.getName());
+    /**
+     * Minimal size of a queued chunk; subsequent small writes are coalesced into the last queued chunk.
+     */
+    private static final int CHUNK_SIZE = 8192;
+
+    private final NIOOutputStream out;
+    private final int queueLimit;
+
+    private final LinkedList<Chunk> queue = new LinkedList<Chunk>();
+    private int queuedBytes = 0;
+    private boolean handlerRegistered = false;
+    private boolean closed = false;
+    private boolean outClosed = false;
+    private Throwable error = null;
+    private Runnable drainedCallback = null;
+
+    private final WriteHandler drainingHandler = new WriteHandler() {
+
+        @Override
+        public void onWritePossible() throws Exception {
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            LOGGER.log(Level.FINE, "Unable to write queued response data.", t);
+            final Runnable callback;
+            synchronized (NonBlockingOutputStream.this) {
+                error = t;
+                releaseQueue();
+                handlerRegistered = false;
+                callback = releaseCallback();
+                // wake up the writers waiting for the queue to be drained
+                NonBlockingOutputStream.this.notifyAll();
+            }
+            run(callback);
+        }
+    };
+
+    /**
+     * Create new non-blocking output stream.
+     *
+     * @param out        underlying Grizzly non-blocking output stream.
+     * @param queueLimit maximum number of bytes queued before the writing thread waits for the queue to be drained.
+     */
+    NonBlockingOutputStream(final NIOOutputStream out, final int queueLimit) {
+        this.out = out;
+        this.queueLimit = queueLimit;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(final byte[] b, final int off, final int len) throws IOException {
+        if (closed) {
+            throw new IOException("Output stream has already been closed.");
+        }
+        if (len == 0) {
+            return;
+        }
+
+        // wait while the queue is full - writing the queued data directly would bypass the back-pressure
+        // of the connection, the write handler drains the queue as the connection accepts the data
+        while (!queue.isEmpty() && exceedsQueueLimit(len)) {
+            checkError();
+            if (!handlerRegistered) {
+                // the handler may drain the queue right away
+                registerHandler();
+                continue;
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+        checkError();
+
+        if (queue.isEmpty() && out.canWrite()) {
+            out.write(b, off, len);
+            return;
+        }
+
+        // coalesce the data into the spare capacity of the last queued chunk first
+        final int appended = queue.isEmpty() ? 0 : queue.getLast().append(b, off, len);
+        final int remaining = len - appended;
+        if (remaining > 0) {
+            final Chunk chunk = new Chunk(Math.max(remaining, CHUNK_SIZE));
+            chunk.append(b, off + appended, remaining);
+            queue.add(chunk);
+            queuedBytes += chunk.capacity();
+        }
+        registerHandler();
+    }
+
+    private boolean exceedsQueueLimit(final int len) {
+        // the queue is limited by the size of the pooled chunk buffers, not just by the queued data
+        final int spare = queue.getLast().spare();
+        return len > spare && queuedBytes + BufferPool.acquiredSize(Math.max(len - spare, CHUNK_SIZE)) > queueLimit;
+    }
+
+    private void checkError() throws IOException {
+        if (error != null) {
+            throw new IOException(error);
+        }
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (queue.isEmpty()) {
+            out.flush();
+        }
+        // otherwise the queued data will be flushed once drained
+    }
+
+    @Override
+    public void close() throws IOException {
+        final Runnable callback;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (!queue.isEmpty()) {
+                return;
+            }
+            closeOut();
+            callback = releaseCallback();
+        }
+        run(callback);
+    }
+
+    /**
+     * Invoke the callback once all the data written to this stream have been passed to the underlying
+     * Grizzly output stream. If there is no pending data, the callback is invoked immediately.
+     *
+     * @param callback callback to be invoked.
+     */
+    void whenDrained(final Runnable callback) {
+        synchronized (this) {
+            if (!queue.isEmpty()) {
+                drainedCallback = callback;
+                return;
+            }
+        }
+        callback.run();
+    }
+
+    private void drain() throws IOException {
+        final Runnable callback;
+        synchronized (this) {
+            handlerRegistered = false;
+            while (!queue.isEmpty()) {
+                if (!out.canWrite()) {
+                    registerHandler();
+                    return;
+                }
+                final Chunk chunk = queue.removeFirst();
+                queuedBytes -= chunk.capacity();
+                out.write(chunk.data, 0, chunk.length);
+                chunk.release();
+                // wake up the writers waiting for the queue to be drained
+                notifyAll();
+            }
+
+            if (closed) {
+                closeOut();
+            } else {
+                out.flush();
+            }
+            callback = releaseCallback();
+        }
+        run(callback);
+    }
+
+    private void registerHandler() {
+        if (!handlerRegistered) {
+            handlerRegistered = true;
+            out.notifyCanWrite(drainingHandler);
+        }
+    }
+
+    private void closeOut() throws IOException {
+        if (!outClosed) {
+            outClosed = true;
+            out.close();
+        }
+    }
+
+    private void releaseQueue() {
+        for (Chunk chunk : queue) {
+            chunk.release();
+        }
+        queue.clear();
+        queuedBytes = 0;
+    }
+
+    private Runnable releaseCallback() {
+        final Runnable callback = drainedCallback;
+        drainedCallback = null;
+        return callback;
+    }
+
+    private static void run(final Runnable callback) {
+        if (callback != null) {
+            callback.run();
+        }
+    }
+
+    /**
+     * Queued data copied into a pooled buffer.
+     */
+    private static final class Chunk {
+        private final byte[] data;
+        private int length = 0;
+
+        private Chunk(final int size) {
+            this.data = BufferPool.getInstance().acquire(size);
+        }
+
+        /**
+         * Copy as much of the data as fits into the spare capacity of the chunk.
+         *
+         * @return number of bytes copied into the chunk.
+         */
+        private int append(final byte[] b, final int off, final int len) {
+            final int copied = Math.min(len, spare());
+            System.arraycopy(b, off, data, length, copied);
+            length += copied;
+            return copied;
+        }
+
+        private int spare() {
+            return data.length - length;
+        }
+
+        private int capacity() {
+            return data.length;
+        }
+
+        private void release() {
+            BufferPool.getInstance().release(data);
+        }
+    }
+}
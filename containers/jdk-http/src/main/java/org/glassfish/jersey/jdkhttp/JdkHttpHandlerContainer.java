@@ -47,17 +47,20 @@ import java.net.URISyntaxException;
 import java.security.Principal;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.UriBuilder;
+import javax.ws.rs.ext.RuntimeDelegate;
 
 import org.glassfish.jersey.internal.MapPropertiesDelegate;
 import org.glassfish.jersey.jdkhttp.internal.LocalizationMessages;
+import org.glassfish.jersey.message.internal.HeadersFactory;
 import org.glassfish.jersey.server.ApplicationHandler;
 import org.glassfish.jersey.server.ContainerException;
 import org.glassfish.jersey.server.ContainerRequest;
@@ -68,6 +71,7 @@ import org.glassfish.jersey.server.spi.Container;
 import org.glassfish.jersey.server.spi.ContainerLifecycleListener;
 import org.glassfish.jersey.server.spi.ContainerResponseWriter;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.sun.net.httpserver.Headers;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
@@ -81,9 +85,14 @@ import com.sun.net.httpserver.HttpsExchange;
  */
 public class JdkHttpHandlerContainer implements HttpHandler, Container {
      private static final Logger LOGGER = Logger.getLogger(JdkHttpHandlerContainer.class.getName());
+    /**
+     * Time (in seconds) the idle suspend time-out scheduler thread is kept alive.
+     */
+    private static final long TIMEOUT_SCHEDULER_KEEP_ALIVE = 60;
 
     transient private ApplicationHandler appHandler;
     private final ContainerLifecycleListener containerListener;
+    private volatile ScheduledThreadPoolExecutor timeoutScheduler;
 
     /**
      * Creates a new Container connected to given {@link ApplicationHandler Jersey application}.
@@ -153,22 +162,75 @@ public class JdkHttpHandlerContainer implements HttpHandler, Container {
 
         final URI requestUri = baseUri.resolve(exchangeUri);
 
-        final ResponseWriter responseWriter = new ResponseWriter(exchange);
+        final ResponseWriter responseWriter = new ResponseWriter(exchange, this);
         ContainerRequest requestContext = new ContainerRequest(baseUri, requestUri,
                 exchange.getRequestMethod(), getSecurityContext(exchange.getPrincipal(), isSecure),
                 new MapPropertiesDelegate());
         requestContext.setEntityStream(exchange.getRequestBody());
-        requestContext.getHeaders().putAll(exchange.getRequestHeaders());
+        requestContext.headers(exchange.getRequestHeaders());
         requestContext.setWriter(responseWriter);
         try {
             appHandler.handle(requestContext);
         } finally {
-            // if the response was not committed yet by the JerseyApplication
-            // then commit it and log warning
+            // if the response was neither committed nor suspended by the JerseyApplication
+            // then commit it and log warning; suspended exchanges stay open until resumed
             responseWriter.closeAndLogWarning();
         }
     }
 
+    /**
+     * Get the scheduler used to time out suspended responses. The scheduler is created lazily
+     * when the first suspended response with a time-out is encountered.
+     * <p>
+     * {@link HttpServer} provides no notification when it is stopped, hence the scheduler thread
+     * is not kept alive for the lifetime of the container. Instead it terminates once it has been
+     * idle (i.e. no time-outs are pending) for {@value #TIMEOUT_SCHEDULER_KEEP_ALIVE} seconds and
+     * a new thread is started when the next time-out is scheduled. Once the server is stopped and
+     * all pending time-outs have either fired or been cancelled the scheduler therefore does not
+     * hold any thread.
+     * </p>
+     *
+     * @return suspend time-out scheduler.
+     */
+    private ScheduledThreadPoolExecutor getTimeoutScheduler() {
+        ScheduledThreadPoolExecutor scheduler = timeoutScheduler;
+        if (scheduler == null) {
+            synchronized (this) {
+                scheduler = timeoutScheduler;
+                if (scheduler == null) {
+                    scheduler = new ScheduledThreadPoolExecutor(1,
+                            new ThreadFactoryBuilder()
+                                    .setNameFormat("jersey-jdk-http-container-timeout-scheduler-%d")
+                                    .setDaemon(true)
+                                    .build());
+                    scheduler.setKeepAliveTime(TIMEOUT_SCHEDULER_KEEP_ALIVE, TimeUnit.SECONDS);
+                    scheduler.allowCoreThreadTimeOut(true);
+                    timeoutScheduler = scheduler;
+                }
+            }
+        }
+        return scheduler;
+    }
+
+    /**
+     * Cancel the suspend time-out task and remove it from the queue of the time-out scheduler.
+     * <p>
+     * Cancelled tasks would otherwise stay queued until their delay elapses
+     * ({@code ScheduledThreadPoolExecutor.setRemoveOnCancelPolicy(boolean)} is not available
+     * on Java SE 6) and keep the otherwise idle scheduler thread alive.
+     * </p>
+     *
+     * @param timeoutTask time-out task to be cancelled.
+     */
+    private void cancelTimeout(final ScheduledFuture<?> timeoutTask) {
+        timeoutTask.cancel(false);
+
+        final ScheduledThreadPoolExecutor scheduler = timeoutScheduler;
+        if (scheduler != null && timeoutTask instanceof Runnable) {
+            scheduler.remove((Runnable) timeoutTask);
+        }
+    }
+
     private SecurityContext getSecurityContext(final Principal principal, final boolean isSecure) {
         return new SecurityContext() {
 
@@ -213,26 +275,33 @@ public class JdkHttpHandlerContainer implements HttpHandler, Container {
     private final static class ResponseWriter implements ContainerResponseWriter {
 
         HttpExchange exchange;
+        private final JdkHttpHandlerContainer container;
         private final AtomicBoolean closed;
+        private final AtomicBoolean suspended;
+        private volatile TimeoutHandler timeoutHandler;
+        private ScheduledFuture<?> timeoutTask;
 
         /**
          * Creates a new ResponseWriter for given {@link HttpExchange HTTP Exchange}.
          *
-         * @param exchange Exchange of the {@link HttpServer JDK Http Server}
+         * @param exchange  Exchange of the {@link HttpServer JDK Http Server}
+         * @param container container that provides the suspend time-out scheduler.
          */
-        ResponseWriter(HttpExchange exchange) {
+        ResponseWriter(HttpExchange exchange, JdkHttpHandlerContainer container) {
             this.exchange = exchange;
+            this.container = container;
             this.closed = new AtomicBoolean(false);
+            this.suspended = new AtomicBoolean(false);
         }
 
         @Override
         public OutputStream writeResponseStatusAndHeaders(long contentLength, ContainerResponse context)
                 throws ContainerException {
-            final MultivaluedMap<String, String> responseHeaders = context.getStringHeaders();
+            final RuntimeDelegate delegate = RuntimeDelegate.getInstance();
             final Headers serverHeaders = exchange.getResponseHeaders();
-            for (final Map.Entry<String, List<String>> e : responseHeaders.entrySet()) {
-                for (String value : e.getValue()) {
-                    serverHeaders.add(e.getKey(), value);
+            for (final Map.Entry<String, List<Object>> e : context.getHeaders().entrySet()) {
+                for (Object value : e.getValue()) {
+                    serverHeaders.add(e.getKey(), HeadersFactory.asString(value, delegate));
                 }
             }
 
@@ -264,12 +333,53 @@ public class JdkHttpHandlerContainer implements HttpHandler, Container {
 
         @Override
         public boolean suspend(long timeOut, TimeUnit timeUnit, TimeoutHandler timeoutHandler) {
-            throw new UnsupportedOperationException("Method suspend is not support by the container.");
+            if (closed.get() || !suspended.compareAndSet(false, true)) {
+                return false;
+            }
+
+            this.timeoutHandler = timeoutHandler;
+            scheduleTimeout(timeOut, timeUnit);
+            return true;
         }
 
         @Override
         public void setSuspendTimeout(long timeOut, TimeUnit timeUnit) throws IllegalStateException {
-            throw new UnsupportedOperationException("Method suspend is not support by the container.");
+            if (!suspended.get()) {
+                throw new IllegalStateException(LocalizationMessages.ERROR_RESPONSEWRITER_NOT_SUSPENDED());
+            }
+
+            scheduleTimeout(timeOut, timeUnit);
+        }
+
+        private synchronized void scheduleTimeout(final long timeOut, final TimeUnit timeUnit) {
+            cancelTimeout();
+            if (timeOut <= 0 || closed.get()) {
+                // suspended indefinitely
+                return;
+            }
+
+            timeoutTask = container.getTimeoutScheduler().schedule(new Runnable() {
+                @Override
+                public void run() {
+                    final TimeoutHandler handler = timeoutHandler;
+                    if (closed.get()) {
+                        return;
+                    }
+
+                    if (handler != null) {
+                        handler.onTimeout(ResponseWriter.this);
+                    } else {
+                        failure(null);
+                    }
+                }
+            }, timeOut, timeUnit);
+        }
+
+        private synchronized void cancelTimeout() {
+            if (timeoutTask != null) {
+                container.cancelTimeout(timeoutTask);
+                timeoutTask = null;
+            }
         }
 
         @Override
@@ -286,17 +396,25 @@ public class JdkHttpHandlerContainer implements HttpHandler, Container {
         @Override
         public void commit() {
             if (closed.compareAndSet(false, true)) {
+                cancelTimeout();
                 exchange.close();
             }
         }
 
         /**
-         * Commits the response and logs a warning message.
+         * Commits the response and logs a warning message unless the response
+         * writer has been suspended.
          *
          * This method should be called by the container at the end of the
          * handle method to make sure that the ResponseWriter was committed.
+         * Suspended response writers keep the {@link HttpExchange exchange} open
+         * until they are either committed or failed.
          */
         private void closeAndLogWarning() {
+            if (suspended.get()) {
+                return;
+            }
+
             if (closed.compareAndSet(false, true)) {
                 exchange.close();
                 LOGGER.log(Level.WARNING, LocalizationMessages.ERROR_RESPONSEWRITER_RESPONSE_UNCOMMITED());
@@ -42,6 +42,7 @@ package org.glassfish.jersey.jdkhttp;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.URI;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 
 import org.glassfish.jersey.internal.ProcessingException;
@@ -76,8 +77,32 @@ public class JdkHttpServerFactory {
      * occurs.
      */
     public static HttpServer createHttpServer(final URI uri, final ResourceConfig configuration) throws ProcessingException {
+        return createHttpServer(uri, configuration, null);
+    }
+
+    /**
+     * Creates and starts the {@link HttpServer JDK HttpServer} with the Jersey
+     * application deployed on the given {@link URI}. The server uses the supplied
+     * {@link Executor executor} to process the HTTP exchanges.
+     *
+     * <p>The returned {@link HttpServer JDK HttpServer} is started.</p>
+     * <p>Since the suspended responses do not block the executor threads, a small
+     * fixed thread pool is sufficient to serve many long-polling or streaming
+     * connections.</p>
+     *
+     * @param uri The {@link URI uri} on which the Jersey application will be deployed.
+     * @param configuration The Jersey server-side application configuration.
+     * @param executor The executor used by the server to process HTTP exchanges. If {@code null},
+     *                 a new cached thread pool is used.
+     * @return Newly created {@link HttpServer}.
+     * @throws ProcessingException Thrown when problems during server creation
+     * occurs.
+     */
+    public static HttpServer createHttpServer(final URI uri, final ResourceConfig configuration, final Executor executor)
+            throws ProcessingException {
         final JdkHttpHandlerContainer handler = ContainerFactory.createContainer(JdkHttpHandlerContainer.class, configuration);
-        return createHttpServer(uri, handler, ConfigHelper.getContainerLifecycleListener(new ApplicationHandler(configuration)));
+        return createHttpServer(uri, handler, ConfigHelper.getContainerLifecycleListener(new ApplicationHandler(configuration)),
+                executor);
     }
 
     /**
@@ -93,10 +118,34 @@ public class JdkHttpServerFactory {
      * occurs.
      */
     public static HttpServer createHttpServer(final URI uri, final ApplicationHandler appHandler) throws ProcessingException {
-        return createHttpServer(uri, new JdkHttpHandlerContainer(appHandler), ConfigHelper.getContainerLifecycleListener(appHandler));
+        return createHttpServer(uri, appHandler, null);
+    }
+
+    /**
+     * Creates and starts the {@link HttpServer JDK HttpServer} with the
+     * Jersey application deployed on the given {@link URI}. The server uses the supplied
+     * {@link Executor executor} to process the HTTP exchanges.
+     *
+     * <p>The returned {@link HttpServer JDK HttpServer} is started.</p>
+     *
+     * @param uri The {@link URI uri} on which the Jersey application will be deployed.
+     * @param appHandler The Jersey server-side application handler.
+     * @param executor The executor used by the server to process HTTP exchanges. If {@code null},
+     *                 a new cached thread pool is used.
+     * @return Newly created {@link HttpServer}.
+     * @throws ProcessingException Thrown when problems during server creation
+     * occurs.
+     */
+    public static HttpServer createHttpServer(final URI uri, final ApplicationHandler appHandler, final Executor executor)
+            throws ProcessingException {
+        return createHttpServer(uri, new JdkHttpHandlerContainer(appHandler), ConfigHelper.getContainerLifecycleListener(appHandler),
+                executor);
     }
 
-    private static HttpServer createHttpServer(final URI uri, final JdkHttpHandlerContainer handler, final ContainerLifecycleListener containerListener) throws ProcessingException {
+    private static HttpServer createHttpServer(final URI uri,
+                                               final JdkHttpHandlerContainer handler,
+                                               final ContainerLifecycleListener containerListener,
+                                               final Executor executor) throws ProcessingException {
 
         if (uri == null) {
             throw new IllegalArgumentException(LocalizationMessages.ERROR_CONTAINER_URI_NULL());
@@ -126,7 +175,7 @@ public class JdkHttpServerFactory {
             throw new ProcessingException(LocalizationMessages.ERROR_CONTAINER_EXCEPTION_IO(), ioe);
         }
 
-        server.setExecutor(Executors.newCachedThreadPool());
+        server.setExecutor(executor != null ? executor : Executors.newCachedThreadPool());
         server.createContext(path, handler);
         server.start();
 
@@ -149,6 +149,74 @@ public final class ServletProperties {
     @SuppressWarnings("HtmlTagCanBeJavadocTag")
     public static final String PROVIDER_WEB_APP = "jersey.config.servlet.provider.webapp";
 
+    /**
+     * If set to {@code true} and the Jersey application is deployed to a Servlet 3.1+ container,
+     * the request and response entities are read and written using the Servlet non-blocking I/O
+     * ({@code ReadListener} and {@code WriteListener}).
+     * <p></p>
+     * In the non-blocking mode a request entity with a known length not exceeding
+     * {@link #NON_BLOCKING_READ_MAX_ENTITY_SIZE} is buffered incrementally, as the data arrive,
+     * before the request is dispatched to the application, so that container threads are not
+     * blocked by slow uploads. The response entity data written by threads resuming suspended requests
+     * that can not be written immediately are queued and drained whenever the connection becomes writable,
+     * so that these threads do not block on slow clients. Responses written by a container thread (e.g. by
+     * synchronous resource methods) are written in the blocking way, since the container does not notify
+     * that the connection is writable before the thread returns to the container.
+     * <p></p>
+     * The property is only applicable when {@link ServletContainer Jersey servlet container} is
+     * configured to run as a {@link javax.servlet.Servlet} that supports asynchronous processing
+     * on a Servlet 3.1+ container, otherwise this property will be ignored.
+     * <p></p>
+     * The default value is {@code false}.
+     * <p></p>
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String NON_BLOCKING_IO = "jersey.config.servlet.nonBlockingIo";
+
+    /**
+     * Maximum size (in bytes) of a request entity that is buffered using the Servlet non-blocking
+     * I/O before the request is dispatched to the application when the {@link #NON_BLOCKING_IO
+     * non-blocking mode} is enabled. Larger request entities or entities of unknown length are
+     * read using the blocking input stream.
+     * <p></p>
+     * The property value MUST be an instance of {@link Integer} or a {@link String} convertible
+     * to an {@code Integer}.
+     * <p></p>
+     * The default value is {@value #DEFAULT_NON_BLOCKING_READ_MAX_ENTITY_SIZE}.
+     * <p></p>
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String NON_BLOCKING_READ_MAX_ENTITY_SIZE = "jersey.config.servlet.nonBlockingReadMaxEntitySize";
+
+    /**
+     * Default value of the {@link #NON_BLOCKING_READ_MAX_ENTITY_SIZE} property.
+     */
+    public static final int DEFAULT_NON_BLOCKING_READ_MAX_ENTITY_SIZE = 1024 * 1024;
+
+    /**
+     * Maximum size (in bytes) of the response data queued by the non-blocking response output stream when the
+     * {@link #NON_BLOCKING_IO non-blocking mode} is enabled and the client does not accept the data fast enough.
+     * A thread writing the response entity is blocked once the limit is exceeded, until the queued data are
+     * written. The queued data are coalesced into pooled buffers and the limit applies to the size of these
+     * buffers.
+     * <p></p>
+     * The property value MUST be an instance of {@link Integer} or a {@link String} convertible
+     * to an {@code Integer}.
+     * <p></p>
+     * The default value is {@value #DEFAULT_NON_BLOCKING_WRITE_QUEUE_LIMIT}.
+     * <p></p>
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String NON_BLOCKING_WRITE_QUEUE_LIMIT = "jersey.config.servlet.nonBlockingWriteQueueLimit";
+
+    /**
+     * Default value of the {@link #NON_BLOCKING_WRITE_QUEUE_LIMIT} property.
+     */
+    public static final int DEFAULT_NON_BLOCKING_WRITE_QUEUE_LIMIT = 4 * 1024 * 1024;
+
     private ServletProperties() {
         // prevents instantiation
     }
@@ -40,6 +40,7 @@
 package org.glassfish.jersey.servlet;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.security.Principal;
 import java.util.Arrays;
@@ -69,6 +70,7 @@ import org.glassfish.jersey.internal.ServiceFinderBinder;
 import org.glassfish.jersey.internal.inject.AbstractBinder;
 import org.glassfish.jersey.internal.inject.Providers;
 import org.glassfish.jersey.internal.inject.ReferencingFactory;
+import org.glassfish.jersey.internal.util.PropertiesHelper;
 import org.glassfish.jersey.internal.util.ReflectionHelper;
 import org.glassfish.jersey.internal.util.collection.Ref;
 import org.glassfish.jersey.internal.util.collection.Value;
@@ -86,6 +88,8 @@ import org.glassfish.jersey.servlet.internal.LocalizationMessages;
 import org.glassfish.jersey.servlet.internal.ResponseWriter;
 import org.glassfish.jersey.servlet.spi.AsyncContextDelegate;
 import org.glassfish.jersey.servlet.spi.AsyncContextDelegateProvider;
+import org.glassfish.jersey.servlet.spi.NonBlockingIoDelegate;
+import org.glassfish.jersey.servlet.spi.NonBlockingIoDelegateProvider;
 
 import org.glassfish.hk2.api.Factory;
 import org.glassfish.hk2.api.PerLookup;
@@ -232,6 +236,18 @@ public class WebComponent {
      * If {@code true} and deployed as filter, the unmatched requests will be forwarded.
      */
     final boolean forwardOn404;
+    /**
+     * If {@code true} the Servlet 3.1 non-blocking I/O is used to read and write entities (if supported).
+     */
+    final boolean nonBlockingIo;
+    /**
+     * Maximum size of a request entity read in the non-blocking mode.
+     */
+    final int nonBlockingReadMaxEntitySize;
+    /**
+     * Maximum size of the response data queued in the non-blocking mode.
+     */
+    final int nonBlockingWriteQueueLimit;
     /**
      * Asynchronous context delegate provider.
      */
@@ -255,6 +271,27 @@ public class WebComponent {
         this.asyncExtensionDelegate = getAsyncExtensionDelegate();
         this.forwardOn404 = webConfig.getConfigType().equals(WebConfig.ConfigType.FilterConfig) &&
                 resourceConfig.isProperty(ServletProperties.FILTER_FORWARD_ON_404);
+        // the filter needs to know the response status when the service method returns
+        this.nonBlockingIo = webConfig.getConfigType().equals(WebConfig.ConfigType.ServletConfig) &&
+                resourceConfig.isProperty(ServletProperties.NON_BLOCKING_IO);
+        this.nonBlockingReadMaxEntitySize = PropertiesHelper.getValue(resourceConfig.getProperties(),
+                ServletProperties.NON_BLOCKING_READ_MAX_ENTITY_SIZE,
+                ServletProperties.DEFAULT_NON_BLOCKING_READ_MAX_ENTITY_SIZE);
+        this.nonBlockingWriteQueueLimit = PropertiesHelper.getValue(resourceConfig.getProperties(),
+                ServletProperties.NON_BLOCKING_WRITE_QUEUE_LIMIT,
+                ServletProperties.DEFAULT_NON_BLOCKING_WRITE_QUEUE_LIMIT);
+    }
+
+    private AsyncContextDelegate createAsyncDelegate(final HttpServletRequest servletRequest,
+                                                     final HttpServletResponse servletResponse) {
+        if (nonBlockingIo && asyncExtensionDelegate instanceof NonBlockingIoDelegateProvider) {
+            final NonBlockingIoDelegate delegate = ((NonBlockingIoDelegateProvider) asyncExtensionDelegate)
+                    .createNonBlockingDelegate(servletRequest, servletResponse, nonBlockingWriteQueueLimit);
+            if (delegate != null) {
+                return delegate;
+            }
+        }
+        return asyncExtensionDelegate.createDelegate(servletRequest, servletResponse);
     }
 
     /**
@@ -281,7 +318,7 @@ public class WebComponent {
             final HttpServletRequest servletRequest,
             final HttpServletResponse servletResponse) throws ServletException, IOException {
 
-        ContainerRequest requestContext = new ContainerRequest(baseUri, requestUri,
+        final ContainerRequest requestContext = new ContainerRequest(baseUri, requestUri,
                 servletRequest.getMethod(), getSecurityContext(servletRequest), new ServletPropertiesDelegate(servletRequest));
         requestContext.setEntityStream(servletRequest.getInputStream());
         addRequestHeaders(servletRequest, requestContext);
@@ -292,28 +329,65 @@ public class WebComponent {
         filterFormParameters(servletRequest, requestContext);
 
         try {
-            final ResponseWriter responseWriter = new ResponseWriter(forwardOn404, servletResponse,
-                    asyncExtensionDelegate.createDelegate(servletRequest, servletResponse));
+            final AsyncContextDelegate asyncDelegate = createAsyncDelegate(servletRequest, servletResponse);
+            final boolean nonBlocking = asyncDelegate instanceof NonBlockingIoDelegate;
+            try {
+                final ResponseWriter responseWriter =
+                        new ResponseWriter(forwardOn404, servletResponse, asyncDelegate, nonBlocking);
 
-            requestContext.setRequestScopedInitializer(new RequestScopedInitializer() {
-                @Override
-                public void initialize(ServiceLocator locator) {
-                    locator.<Ref<HttpServletRequest>>getService((new TypeLiteral<Ref<HttpServletRequest>>() {
-                    }).getType()).set(servletRequest);
-                    locator.<Ref<HttpServletResponse>>getService((new TypeLiteral<Ref<HttpServletResponse>>() {
-                    }).getType()).set(servletResponse);
+                requestContext.setRequestScopedInitializer(new RequestScopedInitializer() {
+                    @Override
+                    public void initialize(ServiceLocator locator) {
+                        locator.<Ref<HttpServletRequest>>getService((new TypeLiteral<Ref<HttpServletRequest>>() {
+                        }).getType()).set(servletRequest);
+                        locator.<Ref<HttpServletResponse>>getService((new TypeLiteral<Ref<HttpServletResponse>>() {
+                        }).getType()).set(servletResponse);
+                    }
+                });
+                requestContext.setWriter(responseWriter);
+
+                final int contentLength = servletRequest.getContentLength();
+                if (nonBlocking && contentLength > 0 && contentLength <= nonBlockingReadMaxEntitySize) {
+                    final boolean reading = ((NonBlockingIoDelegate) asyncDelegate).readEntity(contentLength,
+                            new NonBlockingIoDelegate.EntityReadCallback() {
+
+                                @Override
+                                public void completed(InputStream entity) {
+                                    requestContext.setEntityStream(entity);
+                                    appHandler.handle(requestContext);
+                                }
+
+                                @Override
+                                public void failed(Throwable error) {
+                                    LOGGER.log(Level.FINE, LocalizationMessages.NON_BLOCKING_READ_FAILED(), error);
+                                    responseWriter.failure(error);
+                                }
+                            });
+
+                    if (reading) {
+                        return Values.lazy(new Value<Integer>() {
+                            @Override
+                            public Integer get() {
+                                return responseWriter.getResponseStatus();
+                            }
+                        });
+                    }
                 }
-            });
-            requestContext.setWriter(responseWriter);
 
-            appHandler.handle(requestContext);
+                appHandler.handle(requestContext);
 
-            return Values.lazy(new Value<Integer>() {
-                @Override
-                public Integer get() {
-                    return responseWriter.getResponseStatus();
+                return Values.lazy(new Value<Integer>() {
+                    @Override
+                    public Integer get() {
+                        return responseWriter.getResponseStatus();
+                    }
+                });
+            } finally {
+                if (nonBlocking) {
+                    // responses written on the dispatch thread are written in the blocking way
+                    ((NonBlockingIoDelegate) asyncDelegate).dispatchReturned();
                 }
-            });
+            }
         } catch (Exception e) {
             // TODO: proper error handling.
             throw new ServletException(e);
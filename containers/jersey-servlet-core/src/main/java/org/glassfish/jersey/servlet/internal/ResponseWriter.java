@@ -49,14 +49,16 @@ import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.RuntimeDelegate;
 
 import javax.servlet.http.HttpServletResponse;
 
+import org.glassfish.jersey.message.internal.HeadersFactory;
 import org.glassfish.jersey.server.ContainerException;
 import org.glassfish.jersey.server.ContainerResponse;
 import org.glassfish.jersey.server.spi.ContainerResponseWriter;
 import org.glassfish.jersey.servlet.spi.AsyncContextDelegate;
+import org.glassfish.jersey.servlet.spi.NonBlockingIoDelegate;
 
 import com.google.common.util.concurrent.SettableFuture;
 
@@ -76,6 +78,7 @@ public class ResponseWriter implements ContainerResponseWriter {
     private final boolean useSetStatusOn404;
     private final SettableFuture<ContainerResponse> responseContext;
     private final AsyncContextDelegate asyncExt;
+    private final boolean nonBlockingOutput;
 
     /**
      * Creates a new instance to write a single Jersey response.
@@ -85,9 +88,27 @@ public class ResponseWriter implements ContainerResponseWriter {
      * @param asyncExt          delegate to use for async features implementation
      */
     public ResponseWriter(final boolean useSetStatusOn404, final HttpServletResponse response, AsyncContextDelegate asyncExt) {
+        this(useSetStatusOn404, response, asyncExt, false);
+    }
+
+    /**
+     * Creates a new instance to write a single Jersey response.
+     *
+     * @param useSetStatusOn404 true if status should be written explicitly when 404 is returned
+     * @param response          original HttpResponseRequest
+     * @param asyncExt          delegate to use for async features implementation
+     * @param nonBlockingOutput if {@code true} and the {@code asyncExt} delegate is a {@link NonBlockingIoDelegate},
+     *                          the response entity is written using the non-blocking output stream provided by
+     *                          the delegate.
+     */
+    public ResponseWriter(final boolean useSetStatusOn404,
+                          final HttpServletResponse response,
+                          final AsyncContextDelegate asyncExt,
+                          final boolean nonBlockingOutput) {
         this.useSetStatusOn404 = useSetStatusOn404;
         this.response = response;
         this.asyncExt = asyncExt;
+        this.nonBlockingOutput = nonBlockingOutput && asyncExt instanceof NonBlockingIoDelegate;
         this.responseContext = SettableFuture.create();
     }
 
@@ -118,10 +139,10 @@ public class ResponseWriter implements ContainerResponseWriter {
         // the invocation of sendError as on some Servlet implementations
         // modification of the response headers will have no effect
         // after the invocation of sendError.
-        MultivaluedMap<String, String> headers = getResponseContext().getStringHeaders();
-        for (Map.Entry<String, List<String>> e : headers.entrySet()) {
-            for (String v : e.getValue()) {
-                response.addHeader(e.getKey(), v);
+        final RuntimeDelegate delegate = RuntimeDelegate.getInstance();
+        for (Map.Entry<String, List<Object>> e : getResponseContext().getHeaders().entrySet()) {
+            for (Object v : e.getValue()) {
+                response.addHeader(e.getKey(), HeadersFactory.asString(v, delegate));
             }
         }
         response.setStatus(responseContext.getStatus());
@@ -130,6 +151,9 @@ public class ResponseWriter implements ContainerResponseWriter {
             return null;
         } else {
             try {
+                if (nonBlockingOutput) {
+                    return ((NonBlockingIoDelegate) asyncExt).getOutputStream();
+                }
                 return response.getOutputStream();
             } catch (IOException e) {
                 throw new ContainerException(e);
@@ -0,0 +1,122 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.servlet.spi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * {@link AsyncContextDelegate} extension that supports the non-blocking I/O features
+ * ({@code ReadListener}, {@code WriteListener}) added in Servlet version 3.1.
+ * <p>
+ * Instances of this interface are created by a {@link NonBlockingIoDelegateProvider} when running
+ * on a Servlet 3.1+ container and only if the non-blocking I/O has been
+ * {@link org.glassfish.jersey.servlet.ServletProperties#NON_BLOCKING_IO enabled}.
+ * </p>
+ *
+ * @author Jakub Podlesak (jakub.podlesak at oracle.com)
+ */
+public interface NonBlockingIoDelegate extends AsyncContextDelegate {
+
+    /**
+     * Callback notified once the request entity has been read.
+     */
+    public interface EntityReadCallback {
+
+        /**
+         * Invoked when the whole request entity has been read and buffered.
+         *
+         * @param entity buffered request entity stream.
+         */
+        public void completed(InputStream entity);
+
+        /**
+         * Invoked when reading of the request entity failed.
+         *
+         * @param error error that occurred while reading the request entity.
+         */
+        public void failed(Throwable error);
+    }
+
+    /**
+     * Start asynchronous processing of the request and read the request entity of the given length
+     * incrementally, as the data become available, without blocking the calling thread.
+     * <p>
+     * Once the whole entity is read, the {@link EntityReadCallback#completed(java.io.InputStream)} callback
+     * is invoked (typically on a container thread) with a stream of the buffered entity data.
+     * </p>
+     *
+     * @param contentLength length of the request entity in bytes.
+     * @param callback      entity read callback.
+     * @return {@code true} if the entity is going to be read in the non-blocking way, {@code false}
+     *         if non-blocking reading is not possible for the request (e.g. the asynchronous
+     *         processing is not supported by the servlet or filter).
+     */
+    public boolean readEntity(final int contentLength, final EntityReadCallback callback);
+
+    /**
+     * Get the response output stream that does not block the writing thread when the client is not
+     * able to accept more data. The data written to the stream are queued and written to the client
+     * once the underlying connection becomes writable.
+     * <p>
+     * When the non-blocking output stream is used, the {@link #complete()} method completes the request
+     * processing only after all the queued data have been written. If the size of the queued data
+     * exceeds the configured {@link org.glassfish.jersey.servlet.ServletProperties#NON_BLOCKING_WRITE_QUEUE_LIMIT
+     * limit}, the writing thread is blocked until the queued data are written.
+     * </p>
+     * <p>
+     * If invoked on a container thread, i.e. within the initial container dispatch of the request (before
+     * {@link #dispatchReturned()} is invoked) or within the {@link EntityReadCallback#completed(java.io.InputStream)
+     * entity read callback}, the blocking servlet output stream is returned instead, since the container does not
+     * notify the non-blocking writer before the thread returns to the container.
+     * </p>
+     *
+     * @return non-blocking response output stream.
+     * @throws IOException in case the stream can not be obtained.
+     */
+    public OutputStream getOutputStream() throws IOException;
+
+    /**
+     * Notify the delegate that the initial container dispatch of the request is returning to the container.
+     * Must be invoked on the thread executing the dispatch.
+     */
+    public void dispatchReturned();
+}
@@ -49,25 +49,46 @@ import javax.servlet.AsyncListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.glassfish.jersey.internal.util.ReflectionHelper;
 import org.glassfish.jersey.server.spi.ContainerResponseWriter;
 import org.glassfish.jersey.server.spi.ContainerResponseWriter.TimeoutHandler;
 import org.glassfish.jersey.servlet.spi.AsyncContextDelegate;
-import org.glassfish.jersey.servlet.spi.AsyncContextDelegateProvider;
+import org.glassfish.jersey.servlet.spi.NonBlockingIoDelegate;
+import org.glassfish.jersey.servlet.spi.NonBlockingIoDelegateProvider;
 
 
 /**
  * Servlet 3.x container response writer async extension and related extension factory implementation.
+ * On Servlet 3.1+ containers the factory is also able to create extensions that support the non-blocking I/O
+ * ({@link NonBlockingIoDelegate}), which are used only if the non-blocking I/O is
+ * {@link org.glassfish.jersey.servlet.ServletProperties#NON_BLOCKING_IO enabled}.
  *
  * @author Jakub Podlesak (jakub.podlesak at oracle.com)
  * @author Marek Potociar (marek.potociar at oracle.com)
  */
-public class AsyncContextDelegateProviderImpl implements AsyncContextDelegateProvider {
+public class AsyncContextDelegateProviderImpl implements NonBlockingIoDelegateProvider {
+
+    /**
+     * {@code true} if the Servlet 3.1 non-blocking I/O API is available at runtime.
+     */
+    private static final boolean NON_BLOCKING_IO_AVAILABLE = ReflectionHelper.classForName(
+            "javax.servlet.ReadListener", AsyncContextDelegateProviderImpl.class.getClassLoader()) != null;
 
     @Override
     public final AsyncContextDelegate createDelegate(final HttpServletRequest request, final HttpServletResponse response) {
         return new ExtensionImpl(request, response);
     }
 
+    @Override
+    public final NonBlockingIoDelegate createNonBlockingDelegate(final HttpServletRequest request,
+                                                                 final HttpServletResponse response,
+                                                                 final int writeQueueLimit) {
+        if (NON_BLOCKING_IO_AVAILABLE) {
+            return new NonBlockingAsyncContextDelegate(request, response, writeQueueLimit);
+        }
+        return null;
+    }
+
     private static final class ExtensionImpl implements AsyncContextDelegate {
 
         private final HttpServletRequest request;
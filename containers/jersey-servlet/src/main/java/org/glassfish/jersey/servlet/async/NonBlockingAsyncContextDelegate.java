@@ -0,0 +1,354 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.servlet.async;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.glassfish.jersey.message.internal.BufferPool;
+import org.glassfish.jersey.message.internal.PooledByteArrayOutputStream;
+import org.glassfish.jersey.server.spi.ContainerResponseWriter;
+import org.glassfish.jersey.server.spi.ContainerResponseWriter.TimeoutHandler;
+import org.glassfish.jersey.servlet.spi.NonBlockingIoDelegate;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Servlet 3.1 container response writer async extension supporting the non-blocking I/O.
+ * <p>
+ * Unless the non-blocking I/O features are used, the delegate behaves the same way as the Servlet 3.0
+ * async extension. Once the asynchronous processing has been started by the delegate itself to read
+ * or write an entity, the container time-out is disabled and the suspend time-outs are driven by
+ * a time-out scheduler instead, since the servlet time-out can not be changed once the initial
+ * dispatch has returned to the container.
+ * </p>
+ *
+ * @author Jakub Podlesak (jakub.podlesak at oracle.com)
+ */
+final class NonBlockingAsyncContextDelegate implements NonBlockingIoDelegate {
+
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private static volatile ScheduledExecutorService timeoutScheduler;
+
+    private final HttpServletRequest request;
+    private final HttpServletResponse response;
+    private final int writeQueueLimit;
+    private final AtomicReference<AsyncContext> asyncContextRef;
+    private final AtomicBoolean suspended;
+
+    private volatile boolean containerTimeout = false;
+    private volatile ContainerResponseWriter writer;
+    private volatile TimeoutHandler timeoutHandler;
+    private volatile NonBlockingServletOutputStream outputStream;
+    /**
+     * Container thread currently executing the initial dispatch or a container callback of the request.
+     * The container does not invoke the write listener before such a thread returns to the container.
+     */
+    private volatile Thread containerThread;
+    private ScheduledFuture<?> timeoutTask;
+
+    NonBlockingAsyncContextDelegate(final HttpServletRequest request, final HttpServletResponse response,
+                                    final int writeQueueLimit) {
+        this.request = request;
+        this.response = response;
+        this.writeQueueLimit = writeQueueLimit;
+        this.asyncContextRef = new AtomicReference<AsyncContext>();
+        this.suspended = new AtomicBoolean(false);
+        // created within the initial dispatch
+        this.containerThread = Thread.currentThread();
+    }
+
+    @Override
+    public void dispatchReturned() {
+        if (containerThread == Thread.currentThread()) {
+            containerThread = null;
+        }
+    }
+
+    @Override
+    public void suspend(final ContainerResponseWriter writer, final long timeOut, final TimeUnit timeUnit,
+                        final TimeoutHandler timeoutHandler) throws IllegalStateException {
+        if (!suspended.compareAndSet(false, true)) {
+            throw new IllegalStateException("Already suspended.");
+        }
+
+        this.writer = writer;
+        this.timeoutHandler = timeoutHandler;
+
+        if (asyncContextRef.get() == null) {
+            // started by the suspend invoked from the initial dispatch - use the container time-out
+            final AsyncContext asyncContext = request.startAsync(request, response);
+            asyncContext.setTimeout(timeUnit.toMillis(timeOut));
+            asyncContext.addListener(new TimeoutListener());
+            containerTimeout = true;
+            asyncContextRef.set(asyncContext);
+        } else {
+            scheduleTimeout(timeOut, timeUnit);
+        }
+    }
+
+    @Override
+    public void setSuspendTimeout(final long timeOut, final TimeUnit timeUnit) throws IllegalStateException {
+        final AsyncContext asyncContext = asyncContextRef.get();
+        if (asyncContext == null || !suspended.get()) {
+            throw new IllegalStateException("Not suspended.");
+        }
+
+        if (containerTimeout) {
+            asyncContext.setTimeout(timeUnit.toMillis(timeOut));
+        } else {
+            scheduleTimeout(timeOut, timeUnit);
+        }
+    }
+
+    @Override
+    public boolean readEntity(final int contentLength, final EntityReadCallback callback) {
+        if (!request.isAsyncSupported()) {
+            return false;
+        }
+
+        final ServletInputStream in;
+        try {
+            in = request.getInputStream();
+        } catch (IOException e) {
+            return false;
+        }
+
+        startAsync();
+        in.setReadListener(new ReadListener() {
+
+            private byte[] buffer = BufferPool.getInstance().acquire(Math.min(READ_BUFFER_SIZE, contentLength));
+            // grows as the data arrive rather than trusting the declared content length
+            private final PooledByteArrayOutputStream data = new PooledByteArrayOutputStream();
+
+            @Override
+            public void onDataAvailable() throws IOException {
+                int read;
+                while (in.isReady() && (read = in.read(buffer)) != -1) {
+                    data.write(buffer, 0, read);
+                }
+            }
+
+            @Override
+            public void onAllDataRead() throws IOException {
+                releaseBuffer();
+                // the request entity is read directly from the pooled buffer, which is returned to the pool
+                // once the entity stream is closed
+                final PooledByteArrayOutputStream.PooledInputStream entity = data.toInputStream();
+                final Thread previous = containerThread;
+                containerThread = Thread.currentThread();
+                try {
+                    callback.completed(new FilterInputStream(entity) {
+                        @Override
+                        public void close() {
+                            entity.release();
+                        }
+                    });
+                } finally {
+                    containerThread = previous;
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                releaseBuffer();
+                data.release();
+                callback.failed(t);
+            }
+
+            private void releaseBuffer() {
+                if (buffer != null) {
+                    BufferPool.getInstance().release(buffer);
+                    buffer = null;
+                }
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        if (!request.isAsyncSupported() || (outputStream == null && containerThread == Thread.currentThread())) {
+            // a container thread must not wait for the write listener, which would not be notified before
+            // the thread returns to the container - write the response in the blocking way
+            return response.getOutputStream();
+        }
+
+        NonBlockingServletOutputStream stream = outputStream;
+        if (stream == null) {
+            startAsync();
+            outputStream = stream = new NonBlockingServletOutputStream(response.getOutputStream(), writeQueueLimit);
+        }
+        return stream;
+    }
+
+    @Override
+    public void complete() {
+        cancelTimeout();
+
+        final NonBlockingServletOutputStream stream = outputStream;
+        if (stream == null) {
+            completeAsyncContext();
+        } else {
+            // complete only once all the queued response data have been written
+            stream.whenDrained(new Runnable() {
+                @Override
+                public void run() {
+                    completeAsyncContext();
+                }
+            });
+        }
+    }
+
+    private void completeAsyncContext() {
+        final AsyncContext asyncContext = asyncContextRef.getAndSet(null);
+        if (asyncContext != null) {
+            asyncContext.complete();
+        }
+    }
+
+    /**
+     * Start the asynchronous processing on behalf of the delegate, unless already started.
+     * Must be invoked from the initial container dispatch.
+     */
+    private void startAsync() {
+        if (asyncContextRef.get() == null) {
+            final AsyncContext asyncContext = request.startAsync(request, response);
+            // time-outs of the subsequently suspended processing are driven by the time-out scheduler
+            asyncContext.setTimeout(0);
+            asyncContextRef.set(asyncContext);
+        }
+    }
+
+    private synchronized void scheduleTimeout(final long timeOut, final TimeUnit timeUnit) {
+        cancelTimeout();
+        if (timeOut <= 0) {
+            // suspended indefinitely
+            return;
+        }
+
+        timeoutTask = getTimeoutScheduler().schedule(new Runnable() {
+            @Override
+            public void run() {
+                onTimeout();
+            }
+        }, timeOut, timeUnit);
+    }
+
+    private synchronized void cancelTimeout() {
+        if (timeoutTask != null) {
+            timeoutTask.cancel(false);
+            timeoutTask = null;
+        }
+    }
+
+    /**
+     * Handle a time-out driven by the time-out scheduler. Since the container time-out is disabled in that case,
+     * the processing is completed if there is no time-out handler.
+     */
+    private void onTimeout() {
+        final TimeoutHandler handler = timeoutHandler;
+        if (handler != null) {
+            handler.onTimeout(writer);
+        } else {
+            complete();
+        }
+    }
+
+    private static ScheduledExecutorService getTimeoutScheduler() {
+        ScheduledExecutorService scheduler = timeoutScheduler;
+        if (scheduler == null) {
+            synchronized (NonBlockingAsyncContextDelegate.class) {
+                scheduler = timeoutScheduler;
+                if (scheduler == null) {
+                    timeoutScheduler = scheduler = Executors.newSingleThreadScheduledExecutor(
+                            new ThreadFactoryBuilder()
+                                    .setNameFormat("jersey-servlet-async-timeout-scheduler-%d")
+                                    .setDaemon(true)
+                                    .build());
+                }
+            }
+        }
+        return scheduler;
+    }
+
+    private class TimeoutListener implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) throws IOException {
+            // no-op
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) throws IOException {
+            // same as the Servlet 3.0 async extension - without a handler the container handles the time-out
+            final TimeoutHandler handler = timeoutHandler;
+            if (handler != null) {
+                handler.onTimeout(writer);
+            }
+        }
+
+        @Override
+        public void onError(AsyncEvent event) throws IOException {
+            // no-op
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) throws IOException {
+            // no-op
+        }
+    }
+}
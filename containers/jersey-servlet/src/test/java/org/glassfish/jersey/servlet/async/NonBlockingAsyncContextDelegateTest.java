@@ -0,0 +1,370 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.servlet.async;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncListener;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.glassfish.jersey.server.spi.ContainerResponseWriter;
+import org.glassfish.jersey.servlet.spi.NonBlockingIoDelegate;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the Servlet 3.1 non-blocking I/O support of {@link NonBlockingAsyncContextDelegate}.
+ *
+ * @author Jakub Podlesak (jakub.podlesak at oracle.com)
+ */
+public class NonBlockingAsyncContextDelegateTest {
+
+    private static final byte[] DATA = "0123456789".getBytes();
+
+    private TestInputStream in;
+    private TestOutputStream out;
+    private AtomicBoolean completed;
+    private AtomicReference<AsyncListener> asyncListener;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+
+    private static class TestInputStream extends ServletInputStream {
+
+        private int position = 0;
+        private int limit = 0;
+        private ReadListener listener;
+
+        @Override
+        public boolean isFinished() {
+            return position == DATA.length;
+        }
+
+        @Override
+        public boolean isReady() {
+            return position < limit;
+        }
+
+        @Override
+        public void setReadListener(final ReadListener readListener) {
+            this.listener = readListener;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!isReady()) {
+                throw new IllegalStateException("Not ready.");
+            }
+            return DATA[position++];
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (!isReady()) {
+                throw new IllegalStateException("Not ready.");
+            }
+            final int n = Math.min(len, limit - position);
+            System.arraycopy(DATA, position, b, off, n);
+            position += n;
+            return n;
+        }
+    }
+
+    private static class TestOutputStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        private volatile boolean ready = true;
+        private WriteListener listener;
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(final WriteListener writeListener) {
+            this.listener = writeListener;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            // without a write listener, the container blocks the writing thread until the client accepts the data
+            if (!ready && listener != null) {
+                throw new IllegalStateException("Not ready.");
+            }
+            data.write(b);
+        }
+
+        String written() {
+            return new String(data.toByteArray());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    @Before
+    public void setUp() {
+        in = new TestInputStream();
+        out = new TestOutputStream();
+        completed = new AtomicBoolean(false);
+        asyncListener = new AtomicReference<AsyncListener>();
+
+        final AsyncContext asyncContext = proxy(AsyncContext.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("complete".equals(method.getName())) {
+                    completed.set(true);
+                } else if ("addListener".equals(method.getName())) {
+                    asyncListener.set((AsyncListener) args[0]);
+                }
+                return null;
+            }
+        });
+        request = proxy(HttpServletRequest.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("startAsync".equals(method.getName())) {
+                    return asyncContext;
+                } else if ("isAsyncSupported".equals(method.getName())) {
+                    return true;
+                } else if ("getInputStream".equals(method.getName())) {
+                    return in;
+                }
+                return null;
+            }
+        });
+        response = proxy(HttpServletResponse.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("getOutputStream".equals(method.getName())) {
+                    return out;
+                }
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void testNonBlockingDelegateIsOptIn() {
+        final AsyncContextDelegateProviderImpl provider = new AsyncContextDelegateProviderImpl();
+
+        assertFalse(provider.createDelegate(request, response) instanceof NonBlockingIoDelegate);
+        assertNotNull(provider.createNonBlockingDelegate(request, response, 1024));
+    }
+
+    @Test
+    public void testNonBlockingRead() throws Exception {
+        final NonBlockingAsyncContextDelegate delegate = new NonBlockingAsyncContextDelegate(request, response, 1024);
+        final AtomicReference<InputStream> entity = new AtomicReference<InputStream>();
+
+        assertTrue(delegate.readEntity(DATA.length, new NonBlockingIoDelegate.EntityReadCallback() {
+            @Override
+            public void completed(InputStream stream) {
+                entity.set(stream);
+            }
+
+            @Override
+            public void failed(Throwable error) {
+                throw new AssertionError(error);
+            }
+        }));
+        assertNotNull(in.listener);
+
+        in.limit = 4;
+        in.listener.onDataAvailable();
+        assertNull(entity.get());
+
+        in.limit = DATA.length;
+        in.listener.onDataAvailable();
+        in.listener.onAllDataRead();
+
+        final ByteArrayOutputStream read = new ByteArrayOutputStream();
+        int b;
+        while ((b = entity.get().read()) != -1) {
+            read.write(b);
+        }
+        assertEquals("0123456789", new String(read.toByteArray()));
+
+        // the pooled buffer is released once the entity stream is closed
+        entity.get().close();
+        assertEquals(-1, entity.get().read());
+    }
+
+    @Test
+    public void testNonBlockingWrite() throws Exception {
+        final NonBlockingAsyncContextDelegate delegate = new NonBlockingAsyncContextDelegate(request, response, 1024);
+        // response of a resumed asynchronous request
+        delegate.dispatchReturned();
+        final OutputStream stream = delegate.getOutputStream();
+
+        stream.write("abc".getBytes());
+        assertEquals("abc", out.written());
+
+        out.ready = false;
+        stream.write("def".getBytes());
+        assertEquals("abc", out.written());
+
+        delegate.complete();
+        assertFalse("Completed with pending data.", completed.get());
+
+        out.ready = true;
+        out.listener.onWritePossible();
+        assertEquals("abcdef", out.written());
+        assertTrue(completed.get());
+    }
+
+    @Test
+    public void testWriteQueueLimit() throws Exception {
+        final NonBlockingAsyncContextDelegate delegate = new NonBlockingAsyncContextDelegate(request, response, 4);
+        delegate.dispatchReturned();
+        final OutputStream stream = delegate.getOutputStream();
+
+        out.ready = false;
+        stream.write("abcd".getBytes());
+
+        // does not fit into the spare capacity of the queued chunk
+        final byte[] large = new byte[16 * 1024];
+        Arrays.fill(large, (byte) 'e');
+        final Thread writer = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    stream.write(large);
+                } catch (IOException e) {
+                    throw new AssertionError(e);
+                }
+            }
+        };
+        writer.start();
+        writer.join(200);
+        assertTrue("Writer not blocked by the queue limit.", writer.isAlive());
+
+        out.ready = true;
+        out.listener.onWritePossible();
+        writer.join(5000);
+        assertFalse(writer.isAlive());
+        assertEquals("abcd" + new String(large), out.written());
+    }
+
+    @Test
+    public void testSynchronousWriteExceedingQueueLimit() throws Exception {
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        final byte[] block = new byte[8 * 1024];
+        Arrays.fill(block, (byte) 'a');
+        // slow client
+        out.ready = false;
+
+        final Thread dispatch = new Thread() {
+            @Override
+            public void run() {
+                final NonBlockingAsyncContextDelegate delegate =
+                        new NonBlockingAsyncContextDelegate(request, response, 4);
+                try {
+                    // synchronous resource method writing the response within the dispatch
+                    final OutputStream stream = delegate.getOutputStream();
+                    for (int i = 0; i < 4; i++) {
+                        stream.write(block);
+                    }
+                    delegate.complete();
+                } catch (Throwable t) {
+                    error.set(t);
+                } finally {
+                    delegate.dispatchReturned();
+                }
+            }
+        };
+        dispatch.start();
+        dispatch.join(5000);
+
+        assertFalse("Dispatch thread blocked by the write queue limit.", dispatch.isAlive());
+        assertNull(error.get());
+        assertNull("Non-blocking write on the dispatch thread.", out.listener);
+        assertEquals(4 * block.length, out.written().length());
+    }
+
+    @Test
+    public void testContainerTimeoutWithoutHandler() throws Exception {
+        final NonBlockingAsyncContextDelegate delegate = new NonBlockingAsyncContextDelegate(request, response, 1024);
+        delegate.suspend(null, 100, TimeUnit.MILLISECONDS, null);
+
+        asyncListener.get().onTimeout(null);
+        // the time-out is handled by the container, the same way as by the Servlet 3.0 delegate
+        assertFalse(completed.get());
+    }
+
+    @Test
+    public void testContainerTimeoutWithHandler() throws Exception {
+        final NonBlockingAsyncContextDelegate delegate = new NonBlockingAsyncContextDelegate(request, response, 1024);
+        final AtomicBoolean timedOut = new AtomicBoolean(false);
+        delegate.suspend(null, 100, TimeUnit.MILLISECONDS, new ContainerResponseWriter.TimeoutHandler() {
+            @Override
+            public void onTimeout(ContainerResponseWriter responseWriter) {
+                timedOut.set(true);
+            }
+        });
+
+        asyncListener.get().onTimeout(null);
+        assertTrue(timedOut.get());
+    }
+}
@@ -41,7 +41,6 @@
 package org.glassfish.jersey.client;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
@@ -59,6 +58,7 @@ import javax.ws.rs.core.MultivaluedMap;
 import org.glassfish.jersey.client.internal.LocalizationMessages;
 import org.glassfish.jersey.internal.PropertiesDelegate;
 import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.message.internal.PooledByteArrayOutputStream;
 
 /**
  * Response entity type used for receiving messages in "typed" chunks.
@@ -113,32 +113,36 @@ public class ChunkedInput<T> extends GenericType<T> implements Closeable {
 
         @Override
         public byte[] readChunk(InputStream in) throws IOException {
-            final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            final PooledByteArrayOutputStream buffer = new PooledByteArrayOutputStream();
             final byte[] delimiterBuffer = new byte[delimiter.length];
 
-            int data;
-            do {
-                int dPos = 0;
-                while ((data = in.read()) != -1) {
-                    final byte b = (byte) data;
-                    if (b == delimiter[dPos]) {
-                        delimiterBuffer[dPos++] = b;
-                        if (dPos == delimiter.length) {
-                            // found chunk delimiter
-                            break;
+            try {
+                int data;
+                do {
+                    int dPos = 0;
+                    while ((data = in.read()) != -1) {
+                        final byte b = (byte) data;
+                        if (b == delimiter[dPos]) {
+                            delimiterBuffer[dPos++] = b;
+                            if (dPos == delimiter.length) {
+                                // found chunk delimiter
+                                break;
+                            }
+                        } else if (dPos > 0) {
+                            buffer.write(delimiterBuffer, 0, dPos - 1);
+                            dPos = 0;
                         }
-                    } else if (dPos > 0) {
-                        buffer.write(delimiterBuffer, 0, dPos - 1);
-                        dPos = 0;
+                        buffer.write(b);
                     }
-                    buffer.write(b);
-                }
-            } while (data != -1 && buffer.size() == 0);
+                } while (data != -1 && buffer.size() == 0);
 
-            if (buffer.size() > 0) {
-                return buffer.toByteArray();
+                if (buffer.size() > 0) {
+                    return buffer.toByteArray();
+                }
+                return null;
+            } finally {
+                buffer.release();
             }
-            return null;
         }
     }
 
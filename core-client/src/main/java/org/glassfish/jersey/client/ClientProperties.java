@@ -186,6 +186,93 @@ public final class ClientProperties {
     public static final String HTTP_URL_CONNECTION_SET_METHOD_WORKAROUND =
             "jersey.config.client.httpUrlConnection.setMethodWorkaround";
 
+    /**
+     * Maximum number of connections the connector keeps open in total, across all hosts.
+     *
+     * The value MUST be an instance convertible to {@link java.lang.Integer}.
+     * A value &lt;= 0 means that the number of connections is not limited.
+     * <p />
+     * The property is supported by the connectors that manage their own connection pool
+     * (e.g. the Grizzly connector).
+     * <p />
+     * A default value is not set (the connector default is used).
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String CONNECTION_POOL_MAX_TOTAL =
+            "jersey.config.client.connectionPool.maxTotal";
+
+    /**
+     * Maximum number of connections the connector keeps open per host.
+     *
+     * The value MUST be an instance convertible to {@link java.lang.Integer}.
+     * A value &lt;= 0 means that the number of connections is not limited.
+     * <p />
+     * The property is supported by the connectors that manage their own connection pool
+     * (e.g. the Grizzly connector).
+     * <p />
+     * A default value is not set (the connector default is used).
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String CONNECTION_POOL_MAX_PER_HOST =
+            "jersey.config.client.connectionPool.maxPerHost";
+
+    /**
+     * Time, in milliseconds, an idle persistent connection is kept in the connection pool
+     * before it is closed.
+     *
+     * The value MUST be an instance convertible to {@link java.lang.Integer}.
+     * <p />
+     * The property is supported by the connectors that manage their own connection pool
+     * (e.g. the Grizzly connector).
+     * <p />
+     * A default value is not set (the connector default is used).
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String CONNECTION_POOL_IDLE_TIMEOUT =
+            "jersey.config.client.connectionPool.idleTimeout";
+
+    /**
+     * Time, in milliseconds, of inactivity after which a pooled connection is validated
+     * before it is reused. Connections that fail the validation are closed and removed from the pool.
+     *
+     * The value MUST be an instance convertible to {@link java.lang.Integer}.
+     * A value &lt;= 0 disables the validation.
+     * <p />
+     * The property is supported by the connectors that manage their own connection pool
+     * (e.g. the Grizzly connector).
+     * <p />
+     * The default value is {@code 0} (no validation).
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String CONNECTION_POOL_VALIDATE_AFTER_INACTIVITY =
+            "jersey.config.client.connectionPool.validateAfterInactivity";
+
+    /**
+     * Maximum time, in milliseconds, a persistent connection may be reused since it has been
+     * added to the connection pool for the first time. Expired connections are closed instead of being reused.
+     *
+     * The value MUST be an instance convertible to {@link java.lang.Integer}.
+     * A value &lt;= 0 means that the connection time to live is not limited.
+     * <p />
+     * The property is supported by the connectors that manage their own connection pool
+     * (e.g. the Grizzly connector).
+     * <p />
+     * The default value is {@code 0} (unlimited).
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String CONNECTION_POOL_TTL =
+            "jersey.config.client.connectionPool.timeToLive";
+
     private ClientProperties() {
         // prevents instantiation
     }
@@ -40,14 +40,28 @@
 package org.glassfish.jersey.filter;
 
 import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.ws.rs.BindingPriority;
@@ -65,12 +79,31 @@ import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.WriterInterceptor;
 import javax.ws.rs.ext.WriterInterceptorContext;
 
+import org.glassfish.jersey.message.internal.BufferPool;
 import org.glassfish.jersey.message.internal.HeadersFactory;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 /**
  * Universal logging filter.
  *
  * Can be used on client or server side. Has the highest priority.
+ * <p>
+ * By default the log records are written synchronously by the thread processing the request or response. An asynchronous
+ * logging filter can be created using a {@link #builder(java.util.logging.Logger) builder}. Such a filter hands immutable
+ * log records over to a bounded buffer that is drained by a background thread shared by all the asynchronous logging
+ * filters (the thread terminates when there is nothing to log). If the buffer is full, the records are dropped (see
+ * {@link #getDroppedRecords()}) rather than blocking the request processing. An asynchronous filter captures
+ * the inbound entity prefix while the entity is being read by the application (i.e. the request or response record is
+ * logged once the entity prefix has been read, the entity has been fully read or closed, or the response is being sent)
+ * instead of reading the entity prefix in advance.
+ * </p>
+ * <p>
+ * The logged exchanges can be sampled: either randomly with a given probability, or with a probability specific to
+ * request paths starting with a given prefix (see {@link Builder#sampleRate(double)} and
+ * {@link Builder#sampleRate(String, double)}). Requests and responses of the exchanges that are not sampled are not
+ * logged at all.
+ * </p>
  *
  * @author Pavel Bucek (pavel.bucek at oracle.com)
  * @author Martin Matula (martin.matula at oracle.com)
@@ -86,12 +119,43 @@ public class LoggingFilter implements ContainerRequestFilter, ClientRequestFilte
     private static final String REQUEST_PREFIX = "> ";
     private static final String RESPONSE_PREFIX = "< ";
     private static final String ENTITY_LOGGER_PROPERTY = LoggingFilter.class.getName() + ".entityLogger";
+    private static final String INBOUND_ENTITY_LOGGER_PROPERTY = LoggingFilter.class.getName() + ".inboundEntityLogger";
+    private static final String NOT_SAMPLED_PROPERTY = LoggingFilter.class.getName() + ".notSampled";
+    private static final int DEFAULT_MAX_ENTITY_SIZE = 10 * 1024;
+    private static final int MAX_DRAIN_BATCH_SIZE = 256;
+    private static final long DRAINER_KEEP_ALIVE_SECONDS = 60;
+    /**
+     * Executor draining the buffers of all the asynchronous logging filters.
+     */
+    private static final ThreadPoolExecutor DRAIN_EXECUTOR;
+
+    static {
+        DRAIN_EXECUTOR = new ThreadPoolExecutor(1, 1, DRAINER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactoryBuilder().setNameFormat("jersey-logging-filter-%d").setDaemon(true).build());
+        DRAIN_EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private static final ThreadLocal<Random> RANDOM = new ThreadLocal<Random>() {
+        @Override
+        protected Random initialValue() {
+            return new Random();
+        }
+    };
     //
     @SuppressWarnings("NonConstantLogger")
     private final Logger logger;
     private final AtomicLong _id = new AtomicLong(0);
     private final boolean printEntity;
     private final int maxEntitySize;
+    // sampling
+    private final double sampleRate;
+    private final List<Map.Entry<String, Double>> pathSampleRates;
+    // asynchronous logging
+    private final BlockingQueue<Record> records;
+    private final AtomicLong droppedRecords = new AtomicLong(0);
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final Drainer drainer = new Drainer();
 
     /**
      * Create a logging filter logging the request and response to a default JDK
@@ -110,9 +174,7 @@ public class LoggingFilter implements ContainerRequestFilter, ClientRequestFilte
      * @param printEntity if true, entity will be logged as well up to the default maxEntitySize, which is 10KB
      */
     public LoggingFilter(Logger logger, boolean printEntity) {
-        this.logger = logger;
-        this.printEntity = printEntity;
-        this.maxEntitySize = 10 * 1024;
+        this(logger, printEntity, DEFAULT_MAX_ENTITY_SIZE, 1.0, Collections.<Map.Entry<String, Double>>emptyList(), 0);
     }
 
     /**
@@ -125,139 +187,341 @@ public class LoggingFilter implements ContainerRequestFilter, ClientRequestFilte
      *                      and print "...more..." string at the end.
      */
     public LoggingFilter(Logger logger, int maxEntitySize) {
+        this(logger, true, maxEntitySize, 1.0, Collections.<Map.Entry<String, Double>>emptyList(), 0);
+    }
+
+    private LoggingFilter(Logger logger, boolean printEntity, int maxEntitySize, double sampleRate,
+                          List<Map.Entry<String, Double>> pathSampleRates, int bufferCapacity) {
         this.logger = logger;
-        this.printEntity = true;
+        this.printEntity = printEntity;
         this.maxEntitySize = maxEntitySize;
+        this.sampleRate = sampleRate;
+        this.pathSampleRates = pathSampleRates;
+        this.records = (bufferCapacity > 0) ? new ArrayBlockingQueue<Record>(bufferCapacity) : null;
+    }
+
+    /**
+     * Get a new builder of a logging filter logging to the given logger.
+     *
+     * @param logger the logger to log requests and responses.
+     * @return new logging filter builder.
+     */
+    public static Builder builder(Logger logger) {
+        return new Builder(logger);
     }
 
-    private void log(StringBuilder b) {
-        if (logger != null) {
-            logger.info(b.toString());
+    /**
+     * Builder of {@link LoggingFilter logging filters} with entity logging, asynchronous logging and sampling options.
+     */
+    public static final class Builder {
+
+        private final Logger logger;
+        private boolean printEntity = false;
+        private int maxEntitySize = DEFAULT_MAX_ENTITY_SIZE;
+        private double sampleRate = 1.0;
+        private final Map<String, Double> pathSampleRates = new LinkedHashMap<String, Double>();
+        private int bufferCapacity = 0;
+
+        private Builder(Logger logger) {
+            this.logger = logger;
+        }
+
+        /**
+         * Turn the entity logging on.
+         *
+         * @param maxEntitySize maximum number of entity bytes to be logged (and captured) - if the entity is larger,
+         *                      only the specified number of bytes is logged followed by the "...more..." string.
+         * @return updated builder.
+         */
+        public Builder printEntity(int maxEntitySize) {
+            if (maxEntitySize < 0) {
+                throw new IllegalArgumentException("Maximum entity size must not be negative.");
+            }
+            this.printEntity = true;
+            this.maxEntitySize = maxEntitySize;
+            return this;
+        }
+
+        /**
+         * Log the records asynchronously. The log records are handed over to a bounded buffer of the given capacity
+         * that is drained by a background thread. The records are dropped if the buffer is full.
+         *
+         * @param bufferCapacity maximum number of log records waiting in the buffer to be logged.
+         * @return updated builder.
+         */
+        public Builder async(int bufferCapacity) {
+            if (bufferCapacity <= 0) {
+                throw new IllegalArgumentException("Buffer capacity must be positive.");
+            }
+            this.bufferCapacity = bufferCapacity;
+            return this;
+        }
+
+        /**
+         * Set the probability with which a request (and its response) is logged. The default value is {@code 1.0}
+         * (all the requests are logged).
+         *
+         * @param sampleRate sampling probability between {@code 0.0} and {@code 1.0}.
+         * @return updated builder.
+         */
+        public Builder sampleRate(double sampleRate) {
+            this.sampleRate = checkSampleRate(sampleRate);
+            return this;
+        }
+
+        /**
+         * Set the probability with which a request (and its response) with request URI path starting with the given
+         * prefix is logged. If there are more matching prefixes, the longest one is used. The requests not matching
+         * any prefix are logged with the {@link #sampleRate(double) default probability}.
+         *
+         * @param pathPrefix request URI path prefix, e.g. {@code /app/orders}.
+         * @param sampleRate sampling probability between {@code 0.0} and {@code 1.0}.
+         * @return updated builder.
+         */
+        public Builder sampleRate(String pathPrefix, double sampleRate) {
+            if (pathPrefix == null) {
+                throw new IllegalArgumentException("Path prefix must not be null.");
+            }
+            pathSampleRates.put(pathPrefix, checkSampleRate(sampleRate));
+            return this;
+        }
+
+        private static double checkSampleRate(double sampleRate) {
+            if (sampleRate < 0.0 || sampleRate > 1.0) {
+                throw new IllegalArgumentException("Sample rate must be between 0.0 and 1.0.");
+            }
+            return sampleRate;
+        }
+
+        /**
+         * Build the logging filter.
+         *
+         * @return new logging filter.
+         */
+        public LoggingFilter build() {
+            final List<Map.Entry<String, Double>> rates = new ArrayList<Map.Entry<String, Double>>(pathSampleRates.entrySet());
+            // the longest prefixes first
+            Collections.sort(rates, new Comparator<Map.Entry<String, Double>>() {
+                @Override
+                public int compare(Map.Entry<String, Double> o1, Map.Entry<String, Double> o2) {
+                    return o2.getKey().length() - o1.getKey().length();
+                }
+            });
+            return new LoggingFilter(logger, printEntity, maxEntitySize, sampleRate, rates, bufferCapacity);
         }
     }
 
-    private StringBuilder prefixId(StringBuilder b, long id) {
-        b.append(Long.toString(id)).append(" ");
-        return b;
+    /**
+     * Get the number of log records dropped because the buffer of an asynchronous logging filter was full.
+     *
+     * @return number of dropped log records, always {@code 0} for synchronous logging filters.
+     */
+    public long getDroppedRecords() {
+        return droppedRecords.get();
     }
 
-    private void printRequestLine(StringBuilder b, long id, String method, URI uri) {
-        prefixId(b, id).append(NOTIFICATION_PREFIX).append("LoggingFilter - Request received on thread ").append(Thread.currentThread().getName()).append("\n");
-        prefixId(b, id).append(REQUEST_PREFIX).append(method).append(" ").
-                append(uri.toASCIIString()).append("\n");
+    private void log(Record record) {
+        if (logger == null) {
+            return;
+        }
+
+        if (records == null) {
+            logger.info(record.format(maxEntitySize));
+        } else {
+            if (records.offer(record)) {
+                scheduleDrain();
+            } else {
+                droppedRecords.incrementAndGet();
+            }
+        }
     }
 
-    private void printResponseLine(StringBuilder b, long id, int status) {
-        prefixId(b, id).append(NOTIFICATION_PREFIX).
-                append("LoggingFilter - Response received on thread ").append(Thread.currentThread().getName()).append("\n");
-        prefixId(b, id).append(RESPONSE_PREFIX).
-                append(Integer.toString(status)).
-                append("\n");
+    /**
+     * Submit the drainer of this filter to the shared executor unless it is already submitted or there is nothing
+     * to log.
+     */
+    private void scheduleDrain() {
+        if (!records.isEmpty() && draining.compareAndSet(false, true)) {
+            try {
+                DRAIN_EXECUTOR.execute(drainer);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                LOGGER.log(Level.FINE, "Failed to schedule logging of the buffered records.", e);
+            }
+        }
     }
 
-    private void printPrefixedHeaders(StringBuilder b, long id, final String prefix, MultivaluedMap<String, String> headers) {
-        for (Map.Entry<String, List<String>> e : headers.entrySet()) {
-            List<?> val = e.getValue();
-            String header = e.getKey();
+    /**
+     * Task logging a batch of the records handed over by an asynchronous logging filter. The task is re-submitted
+     * while there are records left, so that the filters sharing the executor take turns.
+     */
+    private class Drainer implements Runnable {
 
-            if (val.size() == 1) {
-                prefixId(b, id).append(prefix).append(header).append(": ").append(val.get(0)).append("\n");
-            } else {
-                StringBuilder sb = new StringBuilder();
-                boolean add = false;
-                for (Object s : val) {
-                    if (add) {
-                        sb.append(',');
+        @Override
+        public void run() {
+            final List<Record> batch = new ArrayList<Record>(MAX_DRAIN_BATCH_SIZE);
+            try {
+                records.drainTo(batch, MAX_DRAIN_BATCH_SIZE);
+                for (Record record : batch) {
+                    try {
+                        logger.info(record.format(maxEntitySize));
+                    } catch (RuntimeException e) {
+                        LOGGER.log(Level.FINE, "Failed to log a record.", e);
+                    }
+                }
+            } finally {
+                draining.set(false);
+            }
+            // records offered while the batch was being logged
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Decide whether the exchange with the given request URI is logged.
+     */
+    private boolean isSampled(URI uri) {
+        double rate = sampleRate;
+        if (!pathSampleRates.isEmpty()) {
+            final String path = uri.getRawPath();
+            if (path != null) {
+                for (Map.Entry<String, Double> pathRate : pathSampleRates) {
+                    if (path.startsWith(pathRate.getKey())) {
+                        rate = pathRate.getValue();
+                        break;
                     }
-                    add = true;
-                    sb.append(s);
                 }
-                prefixId(b, id).append(prefix).append(header).append(": ").append(sb.toString()).append("\n");
             }
         }
+
+        if (rate >= 1.0) {
+            return true;
+        } else if (rate <= 0.0) {
+            return false;
+        }
+        return RANDOM.get().nextDouble() < rate;
+    }
+
+    private static Map<String, List<String>> snapshot(MultivaluedMap<String, String> headers) {
+        // the record may be formatted later (e.g. once the entity is written or by the background thread)
+        final Map<String, List<String>> copy = new LinkedHashMap<String, List<String>>(headers.size());
+        for (Map.Entry<String, List<String>> e : headers.entrySet()) {
+            copy.put(e.getKey(), new ArrayList<String>(e.getValue()));
+        }
+        return copy;
+    }
+
+    private Record requestRecord(String method, URI uri, MultivaluedMap<String, String> headers) {
+        return new Record(_id.incrementAndGet(), Thread.currentThread().getName(), "Request", REQUEST_PREFIX,
+                method + " " + uri.toASCIIString(), snapshot(headers), null, 0);
+    }
+
+    private Record responseRecord(int status, MultivaluedMap<String, String> headers) {
+        return new Record(_id.incrementAndGet(), Thread.currentThread().getName(), "Response", RESPONSE_PREFIX,
+                Integer.toString(status), snapshot(headers), null, 0);
     }
 
-    private InputStream logInboundEntity(StringBuilder b, InputStream stream) throws IOException {
+    private InputStream logInboundEntity(Record record, InputStream stream) throws IOException {
+        if (records != null) {
+            // the entity prefix is captured while the entity is read by the application
+            return new LoggingInputStream(record, stream);
+        }
+
         if (!stream.markSupported()) {
             stream = new BufferedInputStream(stream);
         }
         stream.mark(maxEntitySize + 1);
-        byte[] entity = new byte[maxEntitySize + 1];
-        int entitySize = stream.read(entity);
-        b.append(new String(entity, 0, Math.min(entitySize, maxEntitySize)));
-        if (entitySize > maxEntitySize) {
-            b.append("...more...");
+        final byte[] entity = BufferPool.getInstance().acquire(maxEntitySize + 1);
+        try {
+            int entitySize = Math.max(stream.read(entity, 0, maxEntitySize + 1), 0);
+            log(record.withEntity(entity, entitySize, entitySize));
+        } finally {
+            BufferPool.getInstance().release(entity);
         }
-        b.append('\n');
         stream.reset();
         return stream;
     }
 
     @Override
     public void filter(ClientRequestContext context) throws IOException {
-        long id = this._id.incrementAndGet();
-        StringBuilder b = new StringBuilder();
+        if (!isSampled(context.getUri())) {
+            context.setProperty(NOT_SAMPLED_PROPERTY, Boolean.TRUE);
+            return;
+        }
 
-        printRequestLine(b, id, context.getMethod(), context.getUri());
         // TODO: change to context.getStringHeaders() once the method is added to the API
-        printPrefixedHeaders(b, id, REQUEST_PREFIX, HeadersFactory.asStringHeaders(context.getHeaders()));
+        final Record record = requestRecord(context.getMethod(), context.getUri(),
+                HeadersFactory.asStringHeaders(context.getHeaders()));
 
         if (printEntity && context.hasEntity()) {
-            OutputStream stream = new LoggingStream(b, context.getEntityStream());
+            OutputStream stream = new LoggingStream(record, context.getEntityStream());
             context.setEntityStream(stream);
             context.setProperty(ENTITY_LOGGER_PROPERTY, stream);
-            // not calling log(b) here - it will be called by the interceptor
+            // not calling log(record) here - it will be called by the interceptor
         } else {
-            log(b);
+            log(record);
         }
     }
 
     @Override
     public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) throws IOException {
-        long id = this._id.incrementAndGet();
-        StringBuilder b = new StringBuilder();
+        if (requestContext.getProperty(NOT_SAMPLED_PROPERTY) != null) {
+            return;
+        }
 
-        printResponseLine(b, id, responseContext.getStatus());
-        printPrefixedHeaders(b, id, RESPONSE_PREFIX, responseContext.getHeaders());
+        final Record record = responseRecord(responseContext.getStatus(), responseContext.getHeaders());
 
         if (printEntity && responseContext.hasEntity()) {
-            responseContext.setEntityStream(logInboundEntity(b, responseContext.getEntityStream()));
+            responseContext.setEntityStream(logInboundEntity(record, responseContext.getEntityStream()));
+        } else {
+            log(record);
         }
-
-        log(b);
     }
 
     @Override
     public void filter(ContainerRequestContext context) throws IOException {
-        long id = this._id.incrementAndGet();
-        StringBuilder b = new StringBuilder();
+        if (!isSampled(context.getUriInfo().getRequestUri())) {
+            context.setProperty(NOT_SAMPLED_PROPERTY, Boolean.TRUE);
+            return;
+        }
 
-        printRequestLine(b, id, context.getMethod(), context.getUriInfo().getRequestUri());
-        printPrefixedHeaders(b, id, REQUEST_PREFIX, context.getHeaders());
+        final Record record = requestRecord(context.getMethod(), context.getUriInfo().getRequestUri(), context.getHeaders());
 
         if (printEntity && context.hasEntity()) {
-            context.setEntityStream(logInboundEntity(b, context.getEntityStream()));
+            final InputStream stream = logInboundEntity(record, context.getEntityStream());
+            context.setEntityStream(stream);
+            if (stream instanceof LoggingInputStream) {
+                // make sure the request is logged even if the entity is not read by the application
+                context.setProperty(INBOUND_ENTITY_LOGGER_PROPERTY, stream);
+            }
+        } else {
+            log(record);
         }
-
-        log(b);
     }
 
     @Override
     public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException {
-        long id = this._id.incrementAndGet();
-        StringBuilder b = new StringBuilder();
+        if (requestContext.getProperty(NOT_SAMPLED_PROPERTY) != null) {
+            return;
+        }
+
+        final LoggingInputStream requestEntityLogger =
+                (LoggingInputStream) requestContext.getProperty(INBOUND_ENTITY_LOGGER_PROPERTY);
+        if (requestEntityLogger != null) {
+            requestEntityLogger.complete();
+        }
 
-        printResponseLine(b, id, responseContext.getStatus());
         // TODO: change to context.getStringHeaders() once the method is added to the API
-        printPrefixedHeaders(b, id, RESPONSE_PREFIX, HeadersFactory.asStringHeaders(responseContext.getHeaders()));
+        final Record record = responseRecord(responseContext.getStatus(),
+                HeadersFactory.asStringHeaders(responseContext.getHeaders()));
 
         if (printEntity && responseContext.hasEntity()) {
-            OutputStream stream = new LoggingStream(b, responseContext.getEntityStream());
+            OutputStream stream = new LoggingStream(record, responseContext.getEntityStream());
             responseContext.setEntityStream(stream);
             requestContext.setProperty(ENTITY_LOGGER_PROPERTY, stream);
-            // not calling log(b) here - it will be called by the interceptor
+            // not calling log(record) here - it will be called by the interceptor
         } else {
-            log(b);
+            log(record);
         }
     }
 
@@ -266,39 +530,221 @@ public class LoggingFilter implements ContainerRequestFilter, ClientRequestFilte
         LoggingStream stream = (LoggingStream) writerInterceptorContext.getProperty(ENTITY_LOGGER_PROPERTY);
         writerInterceptorContext.proceed();
         if (stream != null) {
-            log(stream.getStringBuilder());
+            stream.complete();
+        }
+    }
+
+    /**
+     * Immutable log record of a request or a response.
+     */
+    private static final class Record {
+
+        private final long id;
+        private final String threadName;
+        private final String kind;
+        private final String prefix;
+        private final String line;
+        private final Map<String, List<String>> headers;
+        private final byte[] entity;
+        private final int entitySize;
+
+        Record(long id, String threadName, String kind, String prefix, String line, Map<String, List<String>> headers,
+               byte[] entity, int entitySize) {
+            this.id = id;
+            this.threadName = threadName;
+            this.kind = kind;
+            this.prefix = prefix;
+            this.line = line;
+            this.headers = headers;
+            this.entity = entity;
+            this.entitySize = entitySize;
+        }
+
+        /**
+         * Create a copy of this record with the entity prefix.
+         *
+         * @param buffer buffer holding the captured entity prefix.
+         * @param captured number of the captured entity bytes in the buffer (copied to the new record).
+         * @param entitySize size of the entity (at least), if greater than the maximum entity size, the logged entity
+         *                   is truncated.
+         * @return new log record with the entity.
+         */
+        Record withEntity(byte[] buffer, int captured, int entitySize) {
+            return new Record(id, threadName, kind, prefix, line, headers, Arrays.copyOf(buffer, captured), entitySize);
+        }
+
+        String format(int maxEntitySize) {
+            final StringBuilder b = new StringBuilder();
+
+            prefixId(b).append(NOTIFICATION_PREFIX).append("LoggingFilter - ").append(kind)
+                    .append(" received on thread ").append(threadName).append("\n");
+            prefixId(b).append(prefix).append(line).append("\n");
+
+            for (Map.Entry<String, List<String>> e : headers.entrySet()) {
+                List<?> val = e.getValue();
+                String header = e.getKey();
+
+                if (val.size() == 1) {
+                    prefixId(b).append(prefix).append(header).append(": ").append(val.get(0)).append("\n");
+                } else {
+                    StringBuilder sb = new StringBuilder();
+                    boolean add = false;
+                    for (Object s : val) {
+                        if (add) {
+                            sb.append(',');
+                        }
+                        add = true;
+                        sb.append(s);
+                    }
+                    prefixId(b).append(prefix).append(header).append(": ").append(sb.toString()).append("\n");
+                }
+            }
+
+            if (entity != null) {
+                b.append(new String(entity, 0, Math.min(entity.length, maxEntitySize)));
+                if (entitySize > maxEntitySize) {
+                    b.append("...more...");
+                }
+                b.append('\n');
+            }
+
+            return b.toString();
+        }
+
+        private StringBuilder prefixId(StringBuilder b) {
+            b.append(Long.toString(id)).append(" ");
+            return b;
         }
     }
 
+    /**
+     * Outbound entity stream copying the entity prefix while the entity is being written.
+     */
     private class LoggingStream extends OutputStream {
-        private final StringBuilder b;
+        private final Record record;
         private final OutputStream inner;
-        private final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        private final byte[] captured = BufferPool.getInstance().acquire(maxEntitySize + 1);
+        private int size = 0;
+        private boolean completed = false;
 
-        LoggingStream(StringBuilder b, OutputStream inner) {
-            this.b = b;
+        LoggingStream(Record record, OutputStream inner) {
+            this.record = record;
             this.inner = inner;
         }
 
-        StringBuilder getStringBuilder() {
-            // write entity to the builder
-            byte[] entity = baos.toByteArray();
-
-            b.append(new String(entity, 0, Math.min(entity.length, maxEntitySize)));
-            if (entity.length > maxEntitySize) {
-                b.append("...more...");
+        void complete() {
+            if (completed) {
+                return;
             }
-            b.append('\n');
+            completed = true;
 
-            return b;
+            log(record.withEntity(captured, Math.min(size, maxEntitySize + 1), size));
+            BufferPool.getInstance().release(captured);
         }
 
         @Override
         public void write(int i) throws IOException {
-            if (baos.size() <= maxEntitySize) {
-                baos.write(i);
+            if (size <= maxEntitySize && !completed) {
+                captured[size] = (byte) i;
             }
+            // only the first maxEntitySize + 1 bytes are copied, the rest is only counted
+            size = (size == Integer.MAX_VALUE) ? size : size + 1;
             inner.write(i);
         }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            final int toCopy = Math.min(len, maxEntitySize + 1 - Math.min(size, maxEntitySize + 1));
+            if (toCopy > 0 && !completed) {
+                System.arraycopy(b, off, captured, size, toCopy);
+            }
+            size = (int) Math.min((long) size + len, Integer.MAX_VALUE);
+            inner.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            inner.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            inner.close();
+        }
+    }
+
+    /**
+     * Inbound entity stream copying the entity prefix while the entity is being read. The record is logged once
+     * the prefix has been captured, the entity has been fully read or the stream is closed.
+     */
+    private class LoggingInputStream extends FilterInputStream {
+        private final Record record;
+        private final byte[] captured = new byte[maxEntitySize + 1];
+        private int size = 0;
+        private boolean completed = false;
+
+        LoggingInputStream(Record record, InputStream in) {
+            super(in);
+            this.record = record;
+        }
+
+        synchronized void complete() {
+            if (!completed) {
+                completed = true;
+                log(record.withEntity(captured, size, size));
+            }
+        }
+
+        private void capture(byte[] b, int off, int len) {
+            if (completed) {
+                return;
+            }
+            final int toCopy = Math.min(len, captured.length - size);
+            System.arraycopy(b, off, captured, size, toCopy);
+            size += toCopy;
+            if (size == captured.length) {
+                complete();
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b == -1) {
+                complete();
+            } else if (!completed) {
+                captured[size++] = (byte) b;
+                if (size == captured.length) {
+                    complete();
+                }
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int read = super.read(b, off, len);
+            if (read == -1) {
+                complete();
+            } else if (read > 0) {
+                capture(b, off, read);
+            }
+            return read;
+        }
+
+        @Override
+        public boolean markSupported() {
+            // re-read bytes would be captured twice
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                complete();
+            }
+        }
     }
 }
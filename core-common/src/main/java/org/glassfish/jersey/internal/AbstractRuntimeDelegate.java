@@ -41,9 +41,8 @@ package org.glassfish.jersey.internal;
 
 import java.net.URI;
 import java.util.Date;
-import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.ws.rs.core.CacheControl;
 import javax.ws.rs.core.Cookie;
@@ -64,6 +63,8 @@ import org.glassfish.jersey.uri.internal.JerseyUriBuilder;
 
 import org.glassfish.hk2.api.ServiceLocator;
 
+import com.google.common.collect.MapMaker;
+
 /**
  * An abstract implementation of {@link RuntimeDelegate} that
  * provides support common to the client and server.
@@ -72,8 +73,13 @@ import org.glassfish.hk2.api.ServiceLocator;
  */
 public abstract class AbstractRuntimeDelegate extends RuntimeDelegate {
 
+    /**
+     * Marker for classes no header delegate has been found for.
+     */
+    private static final Object NO_DELEGATE = new Object();
+
     final private Set<HeaderDelegateProvider> hps;
-    final private Map<Class<?>, HeaderDelegate<?>> map;
+    final private ConcurrentMap<Class<?>, Object> map;
 
     /**
      * Initialization constructor.
@@ -88,17 +94,18 @@ public abstract class AbstractRuntimeDelegate extends RuntimeDelegate {
 //        }
 
         /**
-         * Construct a map for quick look up of known header classes
+         * Construct a map for quick look up of known header classes. Results of look ups of other
+         * classes (including the classes without a header delegate) are added to the map as well.
          */
-        map = new WeakHashMap<Class<?>, HeaderDelegate<?>>();
-        map.put(EntityTag.class, _createHeaderDelegate(EntityTag.class));
-        map.put(MediaType.class, _createHeaderDelegate(MediaType.class));
-        map.put(CacheControl.class, _createHeaderDelegate(CacheControl.class));
-        map.put(NewCookie.class, _createHeaderDelegate(NewCookie.class));
-        map.put(Cookie.class, _createHeaderDelegate(Cookie.class));
-        map.put(URI.class, _createHeaderDelegate(URI.class));
-        map.put(Date.class, _createHeaderDelegate(Date.class));
-        map.put(String.class, _createHeaderDelegate(String.class));
+        map = new MapMaker().weakKeys().makeMap();
+        lookupHeaderDelegate(EntityTag.class);
+        lookupHeaderDelegate(MediaType.class);
+        lookupHeaderDelegate(CacheControl.class);
+        lookupHeaderDelegate(NewCookie.class);
+        lookupHeaderDelegate(Cookie.class);
+        lookupHeaderDelegate(URI.class);
+        lookupHeaderDelegate(Date.class);
+        lookupHeaderDelegate(String.class);
     }
 
     @Override
@@ -122,13 +129,18 @@ public abstract class AbstractRuntimeDelegate extends RuntimeDelegate {
             throw new IllegalArgumentException("type parameter cannot be null");
         }
 
-        @SuppressWarnings("unchecked")
-        HeaderDelegate<T> delegate = (HeaderDelegate<T>) map.get(type);
-        if (delegate != null) {
-            return delegate;
+        return lookupHeaderDelegate(type);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> HeaderDelegate<T> lookupHeaderDelegate(Class<T> type) {
+        Object delegate = map.get(type);
+        if (delegate == null) {
+            delegate = _createHeaderDelegate(type);
+            map.put(type, (delegate != null) ? delegate : NO_DELEGATE);
         }
 
-        return _createHeaderDelegate(type);
+        return (delegate != NO_DELEGATE) ? (HeaderDelegate<T>) delegate : null;
     }
 
     @SuppressWarnings("unchecked")
@@ -221,6 +221,10 @@ public class ContextResolverFactory implements ContextResolvers {
 
         if (m == null) {
             m = MediaTypes.GENERAL_MEDIA_TYPE;
+        } else if (!m.getParameters().isEmpty()) {
+            // Context resolvers are selected by the type and subtype only. Strip the media type parameters
+            // (charset, multipart boundary etc.) so that they do not multiply the cached entries.
+            m = new MediaType(m.getType(), m.getSubtype());
         }
 
         ContextResolver<T> cr = crMapCache.get(m);
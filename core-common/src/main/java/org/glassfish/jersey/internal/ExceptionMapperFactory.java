@@ -44,6 +44,7 @@ import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -60,6 +61,8 @@ import org.glassfish.jersey.spi.ExceptionMappers;
 
 import org.glassfish.hk2.api.ServiceLocator;
 
+import com.google.common.collect.MapMaker;
+
 /**
  * {@link ExceptionMappers Exception mappers} implementation that aggregates
  * exception mappers and server as the main entry point for exception mapper
@@ -94,7 +97,19 @@ public class ExceptionMapperFactory implements ExceptionMappers {
         }
     }
 
+    /**
+     * Marker cached for exception types that have no applicable exception mapper.
+     */
+    private static final Object NO_MAPPER = new Object();
+
     private Set<ExceptionMapperType> exceptionMapperTypes = new HashSet<ExceptionMapperType>();
+    /**
+     * Resolved exception mappers (including the negative results) cached per concrete exception type.
+     * The set of registered mappers does not change once the factory is created, so the resolution
+     * result for a given exception type never changes either. Weak keys make sure the cache does not
+     * prevent exception classes (and their class loaders) from being garbage collected.
+     */
+    private final ConcurrentMap<Class<?>, Object> mapperCache = new MapMaker().weakKeys().makeMap();
 
     /**
      * Create new exception mapper factory initialized with {@link ServiceLocator
@@ -116,6 +131,23 @@ public class ExceptionMapperFactory implements ExceptionMappers {
     @Override
     @SuppressWarnings("unchecked")
     public <T extends Throwable> ExceptionMapper<T> find(Class<T> type) {
+        Object mapper = mapperCache.get(type);
+        if (mapper == null) {
+            mapper = resolve(type);
+            if (mapper == null) {
+                mapper = NO_MAPPER;
+            }
+            final Object cached = mapperCache.putIfAbsent(type, mapper);
+            if (cached != null) {
+                // keep returning the first resolved instance
+                mapper = cached;
+            }
+        }
+
+        return (mapper != NO_MAPPER) ? (ExceptionMapper<T>) mapper : null;
+    }
+
+    private ExceptionMapper resolve(Class<?> type) {
         int distance = Integer.MAX_VALUE;
         ExceptionMapper selectedEm = null;
         for (ExceptionMapperType mapperType : exceptionMapperTypes) {
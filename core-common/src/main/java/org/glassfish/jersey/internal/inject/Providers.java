@@ -141,6 +141,40 @@ public class Providers {
         return getClasses(hk2Providers);
     }
 
+    /**
+     * Get the list of {@link ServiceHandle service handles} of all providers registered for the given
+     * service provider contract in the underlying {@link ServiceLocator HK2 service locator} container.
+     * <p>
+     * Unlike {@link #getProviders(ServiceLocator, Class)} the method does not instantiate the providers;
+     * a provider instance is created once {@link ServiceHandle#getService()} is invoked on its handle.
+     * </p>
+     *
+     * @param <T>      service provider contract Java type.
+     * @param locator  underlying HK2 service locator.
+     * @param contract service provider contract.
+     * @return list of service handles of all available service providers for the contract.
+     */
+    public static <T> List<ServiceHandle<T>> getProviderHandles(ServiceLocator locator, Class<T> contract) {
+        return getAllServiceHandles(locator, contract);
+    }
+
+    /**
+     * Get the list of {@link ServiceHandle service handles} of all custom providers registered for the given
+     * service provider contract in the underlying {@link ServiceLocator HK2 service locator} container.
+     * <p>
+     * Unlike {@link #getCustomProviders(ServiceLocator, Class)} the method does not instantiate the providers;
+     * a provider instance is created once {@link ServiceHandle#getService()} is invoked on its handle.
+     * </p>
+     *
+     * @param <T>      service provider contract Java type.
+     * @param locator  underlying HK2 service locator.
+     * @param contract service provider contract.
+     * @return list of service handles of all available custom service providers for the contract.
+     */
+    public static <T> List<ServiceHandle<T>> getCustomProviderHandles(ServiceLocator locator, Class<T> contract) {
+        return getAllServiceHandles(locator, contract, new CustomAnnotationImpl());
+    }
+
     /**
      * Get the iterable of all providers (custom and default) registered for the given service provider contract
      * in the underlying {@link ServiceLocator HK2 service locator} container.
@@ -0,0 +1,612 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.internal.util.collection;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import javax.ws.rs.core.AbstractMultivaluedMap;
+
+/**
+ * Multivalued map specialized for storing HTTP message headers.
+ * <p>
+ * Keys are compared with each other using the case insensitive method, values are kept in insertion order.
+ * Unlike {@link StringKeyIgnoreCaseMultivaluedMap} the map does not allocate a lower-cased key copy per lookup
+ * and does not wrap each header in a general purpose map entry and {@code LinkedList}: headers are stored in
+ * a small insertion-ordered array of nodes that carry a precomputed case insensitive hash of the header name
+ * and store a single header value inline. A node is itself the live {@link List} of the header values returned
+ * from {@link #get(Object)}, so no additional view is created for the common single-valued headers. Larger maps
+ * (more than {@value #LINEAR_SCAN_THRESHOLD} headers) are additionally indexed by an open-addressed hash table.
+ * </p>
+ * <p>
+ * The map is not thread-safe.
+ * </p>
+ *
+ * @param <V> header value type.
+ * @author Michal Gajdos (michal.gajdos at oracle.com)
+ */
+public class HeadersMap<V> extends AbstractMultivaluedMap<String, V> {
+
+    /**
+     * Maximum number of headers looked up by a linear scan before the open-addressed index is built.
+     */
+    static final int LINEAR_SCAN_THRESHOLD = 8;
+
+    /**
+     * Case insensitive hashes of well-known header names (in the canonical as well as lower-cased form).
+     */
+    private static final Map<String, Integer> KNOWN_HASHES;
+
+    static {
+        final String[] names = {
+                "Accept", "Accept-Charset", "Accept-Encoding", "Accept-Language", "Accept-Ranges", "Allow",
+                "Authorization", "Cache-Control", "Connection", "Content-Disposition", "Content-Encoding",
+                "Content-ID", "Content-Language", "Content-Length", "Content-Location", "Content-Type", "Cookie",
+                "Date", "ETag", "Expires", "Host", "If-Match", "If-Modified-Since", "If-None-Match",
+                "If-Unmodified-Since", "Keep-Alive", "Last-Modified", "Link", "Location", "Origin", "Pragma",
+                "Range", "Referer", "Server", "Set-Cookie", "Transfer-Encoding", "User-Agent", "Vary",
+                "WWW-Authenticate", "X-Forwarded-For"
+        };
+        final Map<String, Integer> hashes = new HashMap<String, Integer>(names.length * 4);
+        for (String name : names) {
+            final Integer hash = computeHash(name);
+            hashes.put(name, hash);
+            hashes.put(name.toLowerCase(), hash);
+        }
+        KNOWN_HASHES = hashes;
+    }
+
+    /**
+     * Create new empty headers map.
+     */
+    public HeadersMap() {
+        super(new Store<V>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Store<V> store() {
+        return (Store<V>) store;
+    }
+
+    @Override
+    public void putSingle(String key, V value) {
+        final Node<V> node = store().getOrCreate(key);
+        node.clear();
+        if (value != null) {
+            node.add(value);
+        } else {
+            addNull(node);
+        }
+    }
+
+    @Override
+    public void add(String key, V value) {
+        final Node<V> node = store().getOrCreate(key);
+        if (value != null) {
+            node.add(value);
+        } else {
+            addNull(node);
+        }
+    }
+
+    @Override
+    public void addAll(String key, V... newValues) {
+        if (newValues == null) {
+            throw new NullPointerException("Supplied array of values must not be null.");
+        }
+        if (newValues.length == 0) {
+            return;
+        }
+
+        final Node<V> node = store().getOrCreate(key);
+        for (V value : newValues) {
+            if (value != null) {
+                node.add(value);
+            } else {
+                addNull(node);
+            }
+        }
+    }
+
+    @Override
+    public void addAll(String key, List<V> valueList) {
+        if (valueList == null) {
+            throw new NullPointerException("Supplied list of values must not be null.");
+        }
+        if (valueList.isEmpty()) {
+            return;
+        }
+
+        final Node<V> node = store().getOrCreate(key);
+        for (V value : valueList) {
+            if (value != null) {
+                node.add(value);
+            } else {
+                addNull(node);
+            }
+        }
+    }
+
+    @Override
+    public V getFirst(String key) {
+        final Node<V> node = store().getNode(key);
+        return (node == null || node.isEmpty()) ? null : node.get(0);
+    }
+
+    @Override
+    public void addFirst(String key, V value) {
+        final Node<V> node = store().getOrCreate(key);
+        if (value != null) {
+            node.add(0, value);
+        } else {
+            addFirstNull(node);
+        }
+    }
+
+    /**
+     * Compute case insensitive hash of a header name. The hash is consistent with
+     * {@link String#equalsIgnoreCase(String)}.
+     *
+     * @param key header name.
+     * @return case insensitive hash of the header name.
+     */
+    static int hash(final String key) {
+        final Integer known = KNOWN_HASHES.get(key);
+        return (known != null) ? known : computeHash(key);
+    }
+
+    private static int computeHash(final String key) {
+        int hash = 0;
+        for (int i = 0, length = key.length(); i < length; i++) {
+            char c = key.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            } else if (c >= 0x80) {
+                c = Character.toLowerCase(Character.toUpperCase(c));
+            }
+            hash = 31 * hash + c;
+        }
+        return hash;
+    }
+
+    /**
+     * Header values node. A node stores the header name together with its case insensitive hash and serves
+     * as a live list of the header values. A single value is stored inline, more values are stored in an array.
+     * If the node has been created for a {@link Map#put(Object, Object) put} list, it delegates to that list.
+     */
+    private static final class Node<V> extends AbstractList<V> implements RandomAccess {
+
+        private final String key;
+        private final int hash;
+
+        private List<V> delegate;
+        private Object single;
+        private Object[] values;
+        private int size;
+
+        private Node(final String key, final int hash) {
+            this.key = key;
+            this.hash = hash;
+        }
+
+        private void reset(final List<V> list) {
+            if (list == this) {
+                return;
+            }
+            modCount++;
+            single = null;
+            values = null;
+            size = 0;
+            delegate = null;
+            if (list instanceof Node) {
+                addAll(list);
+            } else {
+                delegate = list;
+            }
+        }
+
+        private List<V> copy() {
+            return (delegate != null) ? delegate : new ArrayList<V>(this);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get(final int index) {
+            if (delegate != null) {
+                return delegate.get(index);
+            }
+            checkIndex(index, size);
+            return (V) ((values == null) ? single : values[index]);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V set(final int index, final V element) {
+            if (delegate != null) {
+                return delegate.set(index, element);
+            }
+            checkIndex(index, size);
+            final Object previous;
+            if (values == null) {
+                previous = single;
+                single = element;
+            } else {
+                previous = values[index];
+                values[index] = element;
+            }
+            return (V) previous;
+        }
+
+        @Override
+        public void add(final int index, final V element) {
+            if (delegate != null) {
+                delegate.add(index, element);
+                return;
+            }
+            checkIndex(index, size + 1);
+            modCount++;
+            if (size == 0) {
+                // single value layout; drop any (empty) array left over from the multi-value layout
+                values = null;
+                single = element;
+            } else {
+                if (values == null) {
+                    values = new Object[4];
+                    values[0] = single;
+                    single = null;
+                } else if (size == values.length) {
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                System.arraycopy(values, index, values, index + 1, size - index);
+                values[index] = element;
+            }
+            size++;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V remove(final int index) {
+            if (delegate != null) {
+                return delegate.remove(index);
+            }
+            checkIndex(index, size);
+            modCount++;
+            final Object previous;
+            if (values == null) {
+                previous = single;
+                single = null;
+            } else {
+                previous = values[index];
+                System.arraycopy(values, index + 1, values, index, size - index - 1);
+                values[size - 1] = null;
+            }
+            if (--size == 0) {
+                values = null;
+            }
+            return (V) previous;
+        }
+
+        @Override
+        public void clear() {
+            if (delegate != null) {
+                delegate.clear();
+                return;
+            }
+            modCount++;
+            single = null;
+            values = null;
+            size = 0;
+        }
+
+        @Override
+        public int size() {
+            return (delegate != null) ? delegate.size() : size;
+        }
+
+        private static void checkIndex(final int index, final int bound) {
+            if (index < 0 || index >= bound) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + bound);
+            }
+        }
+    }
+
+    /**
+     * Backing store of the headers map.
+     */
+    private static final class Store<V> extends AbstractMap<String, List<V>> {
+
+        @SuppressWarnings("unchecked")
+        private Node<V>[] nodes = new Node[LINEAR_SCAN_THRESHOLD];
+        private int size;
+        private int modCount;
+        /**
+         * Open-addressed index of node positions (incremented by one, zero denotes an empty slot) built once
+         * the number of nodes exceeds the {@link #LINEAR_SCAN_THRESHOLD}.
+         */
+        private int[] index;
+
+        private int indexOf(final Object key) {
+            if (!(key instanceof String)) {
+                return -1;
+            }
+            final String name = (String) key;
+            return indexOf(name, hash(name));
+        }
+
+        private int indexOf(final String name, final int hash) {
+            if (index == null) {
+                for (int i = 0; i < size; i++) {
+                    final Node<V> node = nodes[i];
+                    if (node.hash == hash && (node.key == name || node.key.equalsIgnoreCase(name))) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+
+            final int mask = index.length - 1;
+            for (int slot = spread(hash) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+                final Node<V> node = nodes[index[slot] - 1];
+                if (node.hash == hash && (node.key == name || node.key.equalsIgnoreCase(name))) {
+                    return index[slot] - 1;
+                }
+            }
+            return -1;
+        }
+
+        private Node<V> getNode(final Object key) {
+            final int position = indexOf(key);
+            return (position < 0) ? null : nodes[position];
+        }
+
+        private Node<V> getOrCreate(final String key) {
+            final int hash = hash(key);
+            final int position = indexOf(key, hash);
+            return (position >= 0) ? nodes[position] : append(key, hash);
+        }
+
+        private Node<V> append(final String key, final int hash) {
+            final Node<V> node = new Node<V>(key, hash);
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            nodes[size++] = node;
+            modCount++;
+
+            if (index != null && size * 2 > index.length) {
+                rebuildIndex();
+            } else if (index != null) {
+                insertIntoIndex(size - 1);
+            } else if (size > LINEAR_SCAN_THRESHOLD) {
+                rebuildIndex();
+            }
+            return node;
+        }
+
+        private void removeAt(final int position) {
+            System.arraycopy(nodes, position + 1, nodes, position, size - position - 1);
+            nodes[--size] = null;
+            modCount++;
+            if (index != null) {
+                if (size > LINEAR_SCAN_THRESHOLD) {
+                    rebuildIndex();
+                } else {
+                    index = null;
+                }
+            }
+        }
+
+        private void rebuildIndex() {
+            int capacity = Integer.highestOneBit(size) << 2;
+            index = new int[capacity];
+            for (int i = 0; i < size; i++) {
+                insertIntoIndex(i);
+            }
+        }
+
+        private void insertIntoIndex(final int position) {
+            final int mask = index.length - 1;
+            int slot = spread(nodes[position].hash) & mask;
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = position + 1;
+        }
+
+        private static int spread(final int hash) {
+            return hash ^ (hash >>> 16);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        public List<V> get(final Object key) {
+            return getNode(key);
+        }
+
+        @Override
+        public List<V> put(final String key, final List<V> value) {
+            final Node<V> existing = getNode(key);
+            if (existing == null) {
+                append(key, hash(key)).reset(value);
+                return null;
+            }
+            final List<V> previous = existing.copy();
+            existing.reset(value);
+            return previous;
+        }
+
+        @Override
+        public List<V> remove(final Object key) {
+            final int position = indexOf(key);
+            if (position < 0) {
+                return null;
+            }
+            final Node<V> node = nodes[position];
+            removeAt(position);
+            return node;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void clear() {
+            if (size > 0) {
+                nodes = new Node[LINEAR_SCAN_THRESHOLD];
+                size = 0;
+                index = null;
+                modCount++;
+            }
+        }
+
+        @Override
+        public Set<Entry<String, List<V>>> entrySet() {
+            return new AbstractSet<Entry<String, List<V>>>() {
+                @Override
+                public Iterator<Entry<String, List<V>>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public void clear() {
+                    Store.this.clear();
+                }
+            };
+        }
+
+        private final class EntryIterator implements Iterator<Entry<String, List<V>>> {
+
+            private int next;
+            private int last = -1;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Entry<String, List<V>> next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                last = next++;
+                final Node<V> node = nodes[last];
+                return new Entry<String, List<V>>() {
+                    @Override
+                    public String getKey() {
+                        return node.key;
+                    }
+
+                    @Override
+                    public List<V> getValue() {
+                        return node;
+                    }
+
+                    @Override
+                    public List<V> setValue(final List<V> value) {
+                        final List<V> previous = node.copy();
+                        node.reset(value);
+                        return previous;
+                    }
+
+                    @Override
+                    public boolean equals(final Object o) {
+                        if (!(o instanceof Entry)) {
+                            return false;
+                        }
+                        final Entry<?, ?> other = (Entry<?, ?>) o;
+                        return node.key.equals(other.getKey()) && node.equals(other.getValue());
+                    }
+
+                    @Override
+                    public int hashCode() {
+                        return node.key.hashCode() ^ node.hashCode();
+                    }
+
+                    @Override
+                    public String toString() {
+                        return node.key + "=" + node;
+                    }
+                };
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) {
+                    throw new IllegalStateException();
+                }
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                removeAt(last);
+                next = last;
+                last = -1;
+                expectedModCount = modCount;
+            }
+        }
+    }
+}
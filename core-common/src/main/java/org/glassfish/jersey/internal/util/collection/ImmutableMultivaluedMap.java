@@ -170,6 +170,7 @@ public class ImmutableMultivaluedMap<K, V> implements MultivaluedMap<K, V> {
 
     @Override
     public Set<Entry<K, List<V>>> entrySet() {
-        return Collections.unmodifiableSet(delegate.entrySet());
+        // unmodifiable map entry set does not allow to set the values of the entries
+        return Collections.unmodifiableMap(delegate).entrySet();
     }
 }
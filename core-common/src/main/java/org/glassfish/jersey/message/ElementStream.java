@@ -0,0 +1,64 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * Lazily produced stream of entity elements.
+ * <p>
+ * An element stream can be returned from a resource method (or sent as a client request entity) instead of
+ * a {@link java.util.Collection collection} of elements. Collection providers that support element streams
+ * (e.g. the JAXB collection providers or the MOXy JSON provider) write the elements one by one as they are
+ * {@link #next() produced}, so the whole collection never has to be materialized in memory. Such providers
+ * also support plain {@link Iterator} and {@link Iterable} entities.
+ * </p>
+ * <p>
+ * The stream is {@link #close() closed} by the provider once all the elements have been written or the writing
+ * has failed, which makes it possible to release the resources (e.g. a database cursor) the elements are
+ * produced from.
+ * </p>
+ *
+ * @param <T> element type.
+ * @author Marek Potociar (marek.potociar at oracle.com)
+ */
+public interface ElementStream<T> extends Iterator<T>, Closeable {
+}
@@ -99,6 +99,25 @@ public final class MessageProperties {
      */
     public static final int IO_DEFAULT_BUFFER_SIZE = 8192;
 
+    /**
+     * Value of the property indicates the maximum total size (in bytes) of the I/O buffers kept in the shared
+     * pool of reusable buffers (see {@link org.glassfish.jersey.message.internal.BufferPool}). A small number of
+     * buffers (at most {@value org.glassfish.jersey.message.internal.BufferPool#MAX_THREAD_LOCAL_BYTES} bytes)
+     * is additionally cached per thread; these are not counted against the limit. If the value is not positive,
+     * buffers are only cached per thread.
+     * The property is read from the system properties.
+     * <p />
+     * The default value is <code>{@value #IO_DEFAULT_BUFFER_POOL_MAX_SIZE}</code>.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    public static final String IO_BUFFER_POOL_MAX_SIZE = "jersey.config.io.bufferPool.maxSize";
+
+    /**
+     * The default maximum total size ({@value}) of the pooled I/O buffers.
+     */
+    public static final long IO_DEFAULT_BUFFER_POOL_MAX_SIZE = 16 * 1024 * 1024;
+
     /**
      * If set to {@code true}, {@code DeflateEncoder deflate encoding interceptor} will use non-standard version
      * of the deflate content encoding, skipping the zlib wrapper. Unfortunately, deflate encoding
@@ -124,6 +143,24 @@ public final class MessageProperties {
      */
     public static final String LEGACY_WORKERS_ORDERING = "jersey.config.workers.legacyOrdering";
 
+    /**
+     * If set to {@code true}, {@link javax.ws.rs.ext.MessageBodyReader MessageBodyReaders} and
+     * {@link javax.ws.rs.ext.MessageBodyWriter MessageBodyWriters} will not be instantiated when the message body
+     * workers are initialized. Instead, only the provider classes and the media types declared by their
+     * {@link javax.ws.rs.Consumes &#64;Consumes} and {@link javax.ws.rs.Produces &#64;Produces} annotations are
+     * inspected and a provider is instantiated the first time it is considered for reading or writing an entity
+     * of a compatible Java type and media type. Applications that use only a few of the available providers
+     * do not pay the start-up cost (and the heap) of the unused ones (e.g. JAXB or image I/O based providers).
+     * <p />
+     * The property is ignored if {@link #LEGACY_WORKERS_ORDERING legacy workers ordering} is enabled, since
+     * the legacy ordering requires provider instances.
+     * <p />
+     * The default value is {@code false}.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     */
+    public static final String LAZY_WORKERS_INITIALIZATION = "jersey.config.workers.lazyInitialization";
+
     private MessageProperties() {
         // prevents instantiation
     }
@@ -0,0 +1,66 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message;
+
+/**
+ * Optional contract of {@link javax.ws.rs.ext.MessageBodyReader message body readers} and
+ * {@link javax.ws.rs.ext.MessageBodyWriter writers} whose {@code isReadable(...)} / {@code isWriteable(...)}
+ * decision is stable.
+ * <p>
+ * A decision is stable for a Java type if, for that type, the {@code isReadable(...)} / {@code isWriteable(...)}
+ * method always returns the same result for the same generic type, annotations and media type, i.e. the result
+ * does not depend on any other (e.g. request-specific or mutable) state. {@link MessageBodyWorkers} cache
+ * the selected reader or writer for a combination of these arguments as long as all the readers or writers
+ * consulted during the selection are stable for the entity type.
+ * </p>
+ *
+ * @author Marek Potociar (marek.potociar at oracle.com)
+ */
+public interface StableMessageBodyWorker {
+
+    /**
+     * Check whether the readability / writeability decision of the worker is stable for the given Java type.
+     *
+     * @param type Java type of the entity.
+     * @return {@code true} if the decision for the given type depends only on the arguments of
+     *         the {@code isReadable(...)} / {@code isWriteable(...)} method, {@code false} otherwise.
+     */
+    public boolean isDecisionStable(Class<?> type);
+}
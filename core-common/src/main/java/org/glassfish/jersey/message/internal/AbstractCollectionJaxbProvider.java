@@ -53,6 +53,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Stack;
 import java.util.TreeSet;
@@ -75,6 +76,8 @@ import javax.xml.bind.annotation.XmlType;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
+import org.glassfish.jersey.message.ElementStream;
+
 /**
  * Base class for implementing JAXB collection readers and writers.
  *
@@ -95,6 +98,14 @@ import javax.xml.stream.XMLStreamReader;
  * <code>T</code> must be a JAXB type annotated with
  * {@link XmlRootElement}.
  * <p>
+ * In addition, <code>Iterator&lt;T&gt;</code>, <code>{@link ElementStream}&lt;T&gt;</code>
+ * and <code>Iterable&lt;T&gt;</code> entities can be written (an <code>Iterable</code>
+ * entity only if it is declared as <code>Iterable&lt;T&gt;</code>, so that e.g. JAXB beans
+ * implementing <code>Iterable</code> are not written as collections). The elements
+ * are marshalled one by one as they are obtained from the iterator, using the same
+ * marshaller, so that the elements do not have to be materialized in memory at once.
+ * An element stream is closed once the elements have been written.
+ * <p>
  * Implementing classes may extend this class to provide specific marshalling
  * and unmarshalling behaviour.
  * <p>
@@ -160,7 +171,7 @@ public abstract class AbstractCollectionJaxbProvider extends AbstractJaxbProvide
 
     @Override
     public boolean isWriteable(Class<?> type, Type genericType, Annotation annotations[], MediaType mediaType) {
-        if (Collection.class.isAssignableFrom(type)) {
+        if (Collection.class.isAssignableFrom(type) || isElementSequence(type, genericType)) {
             return verifyGenericType(genericType) && isSupported(mediaType);
         } else if (type.isArray()) {
             return verifyArrayType(type) && isSupported(mediaType);
@@ -169,6 +180,19 @@ public abstract class AbstractCollectionJaxbProvider extends AbstractJaxbProvide
         }
     }
 
+    /**
+     * Check whether the entity is a lazily produced sequence of elements, i.e. an {@link Iterator}
+     * (including an {@link ElementStream}) or an {@link Iterable} declared as {@code Iterable<T>}.
+     */
+    private static boolean isElementSequence(Class<?> type, Type genericType) {
+        if (Iterator.class.isAssignableFrom(type)) {
+            return true;
+        }
+        return Iterable.class.isAssignableFrom(type)
+                && genericType instanceof ParameterizedType
+                && ((ParameterizedType) genericType).getRawType() == Iterable.class;
+    }
+
     public static boolean verifyCollectionSubclass(Class<?> type) {
         try {
             if (Collection.class.isAssignableFrom(type)) {
@@ -256,9 +280,7 @@ public abstract class AbstractCollectionJaxbProvider extends AbstractJaxbProvide
             MultivaluedMap<String, Object> httpHeaders,
             OutputStream entityStream) throws IOException {
         try {
-            final Collection c = (type.isArray())
-                    ? Arrays.asList((Object[]) t)
-                    : (Collection) t;
+            final Iterable<?> elements = getElements(t, type);
             final Class elementType = getElementClass(type, genericType);
             final Charset charset = getCharset(mediaType);
             final String charsetName = charset.name();
@@ -269,17 +291,50 @@ public abstract class AbstractCollectionJaxbProvider extends AbstractJaxbProvide
                 m.setProperty(Marshaller.JAXB_ENCODING, charsetName);
             }
             setHeader(m, annotations);
-            writeList(elementType, c, mediaType, charset, m, entityStream);
+            writeList(elementType, elements, mediaType, charset, m, entityStream);
         } catch (JAXBException ex) {
             throw new WebApplicationException(ex, Status.INTERNAL_SERVER_ERROR);
+        } finally {
+            if (t instanceof ElementStream) {
+                ((ElementStream<?>) t).close();
+            }
+        }
+    }
+
+    /**
+     * Get the elements of an array, {@link Iterable}, {@link Iterator} or {@link ElementStream} entity.
+     * The returned iterable is a single-use view in the case of an iterator entity, i.e. the elements are not
+     * copied.
+     *
+     * @param entity the entity to be written.
+     * @param type the entity type.
+     * @return elements of the entity.
+     */
+    protected static Iterable<?> getElements(final Object entity, final Class<?> type) {
+        if (type.isArray()) {
+            return Arrays.asList((Object[]) entity);
+        } else if (entity instanceof Iterator) {
+            final Iterator<?> iterator = (Iterator<?>) entity;
+            return new Iterable<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Iterator<Object> iterator() {
+                    return (Iterator<Object>) iterator;
+                }
+            };
+        } else {
+            return (Iterable<?>) entity;
         }
     }
 
     /**
      * Write a collection of JAXB objects as child elements of the root element.
+     * <p>
+     * Implementations are expected to iterate over the elements only once and to marshal each element
+     * as soon as it is obtained, since the elements may be produced lazily.
      *
      * @param elementType the element type in the collection.
-     * @param t the collecton to marshall
+     * @param t the elements to marshall
      * @param mediaType the media type
      * @param c the charset
      * @param m the marshaller
@@ -287,7 +342,7 @@ public abstract class AbstractCollectionJaxbProvider extends AbstractJaxbProvide
      * @throws javax.xml.bind.JAXBException
      * @throws IOException
      */
-    public abstract void writeList(Class<?> elementType, Collection<?> t,
+    public abstract void writeList(Class<?> elementType, Iterable<?> t,
                                    MediaType mediaType, Charset c,
                                    Marshaller m, OutputStream entityStream)
             throws JAXBException, IOException;
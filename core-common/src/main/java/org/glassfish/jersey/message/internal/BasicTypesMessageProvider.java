@@ -58,6 +58,7 @@ import javax.inject.Singleton;
 
 import org.glassfish.jersey.internal.LocalizationMessages;
 import org.glassfish.jersey.internal.util.ReflectionHelper;
+import org.glassfish.jersey.message.StableMessageBodyWorker;
 
 /**
  * The basic types message body provider for {@link MediaType#TEXT_PLAIN} media type.
@@ -72,7 +73,7 @@ import org.glassfish.jersey.internal.util.ReflectionHelper;
 @Produces({"text/plain"})
 @Consumes({"text/plain"})
 @Singleton
-final class BasicTypesMessageProvider extends AbstractMessageReaderWriterProvider<Object> {
+final class BasicTypesMessageProvider extends AbstractMessageReaderWriterProvider<Object> implements StableMessageBodyWorker {
 
     private static enum PrimitiveTypes {
         BYTE(Byte.class, byte.class) {
@@ -233,4 +234,9 @@ final class BasicTypesMessageProvider extends AbstractMessageReaderWriterProvide
             OutputStream entityStream) throws IOException, WebApplicationException {
         writeToAsString(o.toString(), entityStream, mediaType);
     }
+
+    @Override
+    public boolean isDecisionStable(Class<?> type) {
+        return true;
+    }
 }
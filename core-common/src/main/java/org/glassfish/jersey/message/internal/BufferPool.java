@@ -0,0 +1,261 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.glassfish.jersey.message.MessageProperties;
+
+/**
+ * Pool of reusable I/O buffers.
+ * <p>
+ * Buffers are pooled in power-of-two size classes ranging from {@value #MIN_POOLED_SIZE} bytes to
+ * {@value #MAX_POOLED_SIZE} bytes. A buffer obtained via {@link #acquire(int)} is at least as large as requested
+ * (see {@link #acquiredSize(int)}) and should be returned to the pool via {@link #release(byte[])} once it is not
+ * used anymore. Buffers that are not returned are simply garbage collected. Requests for buffers larger than
+ * the largest size class are not pooled.
+ * </p>
+ * <p>
+ * The pool has two tiers. Each thread caches a single released buffer per size class up to
+ * {@value #MAX_THREAD_LOCAL_SIZE} bytes, so that a thread that repeatedly acquires and releases
+ * a buffer does not contend with other threads. Other buffers are kept in a global tier shared by all threads.
+ * The total size of the buffers kept in the global tier is limited by the
+ * {@value org.glassfish.jersey.message.MessageProperties#IO_BUFFER_POOL_MAX_SIZE} system property. The thread-local
+ * tier is not counted against this limit (a cached buffer cannot be accounted for once its thread terminates);
+ * it is bounded by {@value #MAX_THREAD_LOCAL_BYTES} bytes (one buffer of each thread-local size class) per thread.
+ * </p>
+ *
+ * @author Marek Potociar (marek.potociar at oracle.com)
+ */
+public final class BufferPool {
+
+    private static final Logger LOGGER = Logger.getLogger(BufferPool.class.getName());
+
+    /**
+     * Size of the smallest size class.
+     */
+    public static final int MIN_POOLED_SIZE = 512;
+    /**
+     * Size of the largest size class.
+     */
+    public static final int MAX_POOLED_SIZE = 1024 * 1024;
+    /**
+     * Size of the largest size class cached in the thread-local tier.
+     */
+    public static final int MAX_THREAD_LOCAL_SIZE = 16 * 1024;
+    /**
+     * Maximum total size of the buffers cached in the thread-local tier of a single thread.
+     */
+    public static final int MAX_THREAD_LOCAL_BYTES = 2 * MAX_THREAD_LOCAL_SIZE - MIN_POOLED_SIZE;
+
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_POOLED_SIZE);
+    private static final int SIZE_CLASSES = Integer.numberOfTrailingZeros(MAX_POOLED_SIZE) - MIN_SHIFT + 1;
+    private static final int THREAD_LOCAL_SIZE_CLASSES = Integer.numberOfTrailingZeros(MAX_THREAD_LOCAL_SIZE) - MIN_SHIFT + 1;
+
+    private static final BufferPool INSTANCE = new BufferPool(
+            getLongProperty(MessageProperties.IO_BUFFER_POOL_MAX_SIZE, MessageProperties.IO_DEFAULT_BUFFER_POOL_MAX_SIZE));
+
+    private final long maxPooledBytes;
+    private final AtomicLong pooledBytes = new AtomicLong();
+
+    private final Queue<byte[]>[] arrays;
+    private final ThreadLocal<byte[][]> threadLocalArrays = new ThreadLocal<byte[][]>() {
+        @Override
+        protected byte[][] initialValue() {
+            return new byte[THREAD_LOCAL_SIZE_CLASSES][];
+        }
+    };
+
+    private static long getLongProperty(String name, long defaultValue) {
+        final String value = System.getProperty(name);
+        if (value != null) {
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                LOGGER.log(Level.CONFIG,
+                        "Value of " + name + " property is not a valid integer [" + value + "]."
+                        + " Reverting to default [" + defaultValue + "].",
+                        e);
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Get the shared buffer pool instance.
+     *
+     * @return shared buffer pool.
+     */
+    public static BufferPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Create new buffer pool.
+     *
+     * @param maxPooledBytes maximum total size (in bytes) of the buffers kept in the global tier of the pool.
+     *                       If not positive, buffers are pooled only in the thread-local tier.
+     */
+    @SuppressWarnings("unchecked")
+    BufferPool(long maxPooledBytes) {
+        this.maxPooledBytes = maxPooledBytes;
+        this.arrays = new Queue[SIZE_CLASSES];
+        for (int i = 0; i < SIZE_CLASSES; i++) {
+            arrays[i] = new ConcurrentLinkedQueue<byte[]>();
+        }
+    }
+
+    /**
+     * Get the size of the buffer {@link #acquire(int) acquired} for the given requested size.
+     *
+     * @param size requested buffer size.
+     * @return size of the buffer that would be acquired.
+     */
+    public static int acquiredSize(int size) {
+        final int sizeClass = sizeClass(size);
+        return (sizeClass < 0) ? size : MIN_POOLED_SIZE << sizeClass;
+    }
+
+    /**
+     * Get the size class index for a buffer of (at least) the given size.
+     *
+     * @param size requested buffer size.
+     * @return size class index or {@code -1} if the size is too big to be pooled.
+     */
+    private static int sizeClass(int size) {
+        if (size <= MIN_POOLED_SIZE) {
+            return 0;
+        }
+        if (size > MAX_POOLED_SIZE) {
+            return -1;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+    }
+
+    /**
+     * Get the size class index of a released buffer.
+     *
+     * @param capacity capacity of the buffer.
+     * @return size class index or {@code -1} if the buffer does not match any size class.
+     */
+    private static int exactSizeClass(int capacity) {
+        final int sizeClass = sizeClass(capacity);
+        return (sizeClass >= 0 && (MIN_POOLED_SIZE << sizeClass) == capacity) ? sizeClass : -1;
+    }
+
+    /**
+     * Get an array buffer from the pool or allocate a new one if no suitable buffer is pooled.
+     *
+     * @param size minimum size of the buffer.
+     * @return buffer at least as large as requested. Content of the buffer is undefined.
+     */
+    public byte[] acquire(int size) {
+        final int sizeClass = sizeClass(size);
+        if (sizeClass < 0) {
+            return new byte[size];
+        }
+
+        if (sizeClass < THREAD_LOCAL_SIZE_CLASSES) {
+            final byte[][] local = threadLocalArrays.get();
+            final byte[] buffer = local[sizeClass];
+            if (buffer != null) {
+                local[sizeClass] = null;
+                return buffer;
+            }
+        }
+
+        final byte[] buffer = arrays[sizeClass].poll();
+        if (buffer != null) {
+            pooledBytes.addAndGet(-buffer.length);
+            return buffer;
+        }
+        return new byte[MIN_POOLED_SIZE << sizeClass];
+    }
+
+    /**
+     * Return an array buffer to the pool. The buffer must not be used by the caller after it has been released.
+     * <p>
+     * Pooled buffers are not tagged, so any buffer whose length matches one of the size classes (i.e. a power
+     * of two between {@value #MIN_POOLED_SIZE} and {@value #MAX_POOLED_SIZE} bytes) is pooled, even if it has not
+     * been acquired from a buffer pool. Buffers of other lengths are ignored.
+     * </p>
+     *
+     * @param buffer buffer to be returned to the pool.
+     */
+    public void release(byte[] buffer) {
+        final int sizeClass = exactSizeClass(buffer.length);
+        if (sizeClass < 0) {
+            return;
+        }
+
+        if (sizeClass < THREAD_LOCAL_SIZE_CLASSES) {
+            final byte[][] local = threadLocalArrays.get();
+            if (local[sizeClass] == null) {
+                local[sizeClass] = buffer;
+                return;
+            }
+        }
+
+        if (reserve(buffer.length)) {
+            arrays[sizeClass].offer(buffer);
+        }
+    }
+
+    /**
+     * Get the total size of the buffers currently kept in the global tier of the pool.
+     *
+     * @return total size of the pooled buffers in bytes.
+     */
+    public long getPooledBytes() {
+        return pooledBytes.get();
+    }
+
+    private boolean reserve(int size) {
+        if (pooledBytes.addAndGet(size) <= maxPooledBytes) {
+            return true;
+        }
+        pooledBytes.addAndGet(-size);
+        return false;
+    }
+}
@@ -51,6 +51,8 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 
+import org.glassfish.jersey.message.StableMessageBodyWorker;
+
 /**
  * Default Jersey byte array entity provider (reader and writer).
  *
@@ -59,7 +61,7 @@ import javax.ws.rs.core.MultivaluedMap;
  */
 @Produces({"application/octet-stream", "*/*"})
 @Consumes({"application/octet-stream", "*/*"})
-public final class ByteArrayProvider extends AbstractMessageReaderWriterProvider<byte[]> {
+public final class ByteArrayProvider extends AbstractMessageReaderWriterProvider<byte[]> implements StableMessageBodyWorker {
 
     @Override
     public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
@@ -100,4 +102,9 @@ public final class ByteArrayProvider extends AbstractMessageReaderWriterProvider
     public long getSize(byte[] t, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
         return t.length;
     }
+
+    @Override
+    public boolean isDecisionStable(Class<?> type) {
+        return true;
+    }
 }
@@ -51,6 +51,11 @@ import java.io.OutputStream;
  *
  * Concrete implementations of the class typically override the commit operation
  * to perform any initialization on the adapted output stream.
+ * <p/>
+ * If {@link #enableBuffering(int) buffering} is enabled, the commit is deferred until either the written
+ * content exceeds the buffer size or the stream is {@link #commit() committed} (or closed) explicitly.
+ * In the latter case the whole content has been buffered and its exact length is available via
+ * {@link #getContentLength()} during the commit.
  *
  * @author Paul Sandoz
  * @author Marek Potociar (marek.potociar at oracle.com)
@@ -69,6 +74,26 @@ final class CommittingOutputStream extends OutputStream {
      * Stream provider.
      */
     private OutboundMessageContext.StreamProvider streamProvider;
+    /**
+     * Size of the buffer; not positive if the buffering is disabled.
+     */
+    private int bufferSize = 0;
+    /**
+     * Buffered content, acquired from the {@link BufferPool} on the first write.
+     */
+    private byte[] buffer;
+    /**
+     * Number of buffered bytes.
+     */
+    private int count = 0;
+    /**
+     * Determines whether the content is written directly to the adapted output stream.
+     */
+    private boolean directWrite = true;
+    /**
+     * Length of the fully buffered content or {@code -1} if not known.
+     */
+    private long contentLength = -1;
 
     /**
      * Construct a new committing output stream using a deferred initialization
@@ -87,6 +112,32 @@ final class CommittingOutputStream extends OutputStream {
         this.streamProvider = streamProvider;
     }
 
+    /**
+     * Enable buffering of the written content. Content that does not exceed the buffer size is
+     * committed with a known {@link #getContentLength() content length}, larger content is streamed.
+     * <p/>
+     * The method must be called before any content is written to the stream.
+     *
+     * @param bufferSize size of the buffer. If not positive, the buffering is disabled.
+     * @throws IllegalStateException in case the stream has already been written to.
+     */
+    public void enableBuffering(int bufferSize) {
+        if (isCommitted || count > 0) {
+            throw new IllegalStateException("Buffering must be enabled before any content is written.");
+        }
+        this.bufferSize = bufferSize;
+        this.directWrite = bufferSize <= 0;
+    }
+
+    /**
+     * Get the length of the content in case the whole content has been buffered before the stream was committed.
+     *
+     * @return length of the fully buffered content or {@code -1} if the content length is not known.
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+
     /**
      * Determines whether the stream was already committed or not.
      *
@@ -98,38 +149,92 @@ final class CommittingOutputStream extends OutputStream {
 
     @Override
     public void write(byte b[]) throws IOException {
-        if (b.length > 0) {
-            commitWrite();
-            adaptedOutput.write(b);
-        }
+        write(b, 0, b.length);
     }
 
     @Override
     public void write(byte b[], int off, int len) throws IOException {
         if (len > 0) {
-            commitWrite();
-            adaptedOutput.write(b, off, len);
+            if (!directWrite && count + len <= bufferSize) {
+                if (buffer == null) {
+                    buffer = BufferPool.getInstance().acquire(bufferSize);
+                }
+                System.arraycopy(b, off, buffer, count, len);
+                count += len;
+            } else {
+                flushBuffer(false);
+                adaptedOutput.write(b, off, len);
+            }
         }
     }
 
     @Override
     public void write(int b) throws IOException {
-        commitWrite();
-        adaptedOutput.write(b);
+        if (!directWrite && count < bufferSize) {
+            if (buffer == null) {
+                buffer = BufferPool.getInstance().acquire(bufferSize);
+            }
+            buffer[count++] = (byte) b;
+        } else {
+            flushBuffer(false);
+            adaptedOutput.write(b);
+        }
     }
 
+    /**
+     * Flush the stream. If the buffering is enabled and the buffered content has not exceeded
+     * the buffer size yet, the method does not commit the stream and the content stays buffered.
+     *
+     * @throws IOException in case of an IO error.
+     */
     @Override
     public void flush() throws IOException {
-        commitWrite();
+        if (directWrite) {
+            commitWrite();
+            adaptedOutput.flush();
+        }
+    }
+
+    /**
+     * Commit the stream, writing the buffered content (if any) to the adapted output stream,
+     * and flush the adapted output stream.
+     *
+     * @throws IOException in case of an IO error.
+     */
+    public void commit() throws IOException {
+        flushBuffer(true);
         adaptedOutput.flush();
     }
 
     @Override
     public void close() throws IOException {
-        commitWrite();
+        flushBuffer(true);
         adaptedOutput.close();
     }
 
+    private void flushBuffer(boolean endOfStream) throws IOException {
+        if (!directWrite) {
+            directWrite = true;
+            if (endOfStream) {
+                contentLength = count;
+            }
+            try {
+                commitWrite();
+                if (count > 0) {
+                    adaptedOutput.write(buffer, 0, count);
+                }
+            } finally {
+                if (buffer != null) {
+                    BufferPool.getInstance().release(buffer);
+                    buffer = null;
+                }
+                count = 0;
+            }
+        } else {
+            commitWrite();
+        }
+    }
+
     private void commitWrite() throws IOException {
         if (!isCommitted) {
             isCommitted = true;
@@ -56,6 +56,8 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 
+import org.glassfish.jersey.message.StableMessageBodyWorker;
+
 
 /**
  * Provider for marshalling/un-marshalling of {@code application/octet-stream}
@@ -67,7 +69,7 @@ import javax.ws.rs.core.MultivaluedMap;
 @Produces({"application/octet-stream", "*/*"})
 @Consumes({"application/octet-stream", "*/*"})
 @Singleton
-public final class FileProvider extends AbstractMessageReaderWriterProvider<File> {
+public final class FileProvider extends AbstractMessageReaderWriterProvider<File> implements StableMessageBodyWorker {
 
     @Override
     public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
@@ -118,4 +120,9 @@ public final class FileProvider extends AbstractMessageReaderWriterProvider<File
     public long getSize(File t, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
         return t.length();
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean isDecisionStable(Class<?> type) {
+        return true;
+    }
+}
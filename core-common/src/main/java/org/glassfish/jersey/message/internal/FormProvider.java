@@ -55,6 +55,8 @@ import javax.ws.rs.core.MultivaluedMap;
 
 import javax.inject.Singleton;
 
+import org.glassfish.jersey.message.StableMessageBodyWorker;
+
 /**
  * Provider for marshalling/un-marshalling of {@code application/x-www-form-urlencoded}
  * entity type to/from {@link Form JAX-RS Form} instance.
@@ -65,7 +67,7 @@ import javax.inject.Singleton;
 @Produces({"application/x-www-form-urlencoded", "*/*"})
 @Consumes({"application/x-www-form-urlencoded", "*/*"})
 @Singleton
-public final class FormProvider extends AbstractFormProvider<Form> {
+public final class FormProvider extends AbstractFormProvider<Form> implements StableMessageBodyWorker {
 
     @Override
     public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
@@ -110,4 +112,9 @@ public final class FormProvider extends AbstractFormProvider<Form> {
             OutputStream entityStream) throws IOException {
         writeTo(t.asMap(), mediaType, entityStream);
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean isDecisionStable(Class<?> type) {
+        return true;
+    }
+}
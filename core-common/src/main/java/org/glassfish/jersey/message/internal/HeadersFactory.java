@@ -42,17 +42,20 @@ package org.glassfish.jersey.message.internal;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.ws.rs.core.AbstractMultivaluedMap;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.RuntimeDelegate;
 import javax.ws.rs.ext.RuntimeDelegate.HeaderDelegate;
 
 import org.glassfish.jersey.internal.util.collection.ImmutableMultivaluedMap;
-import org.glassfish.jersey.internal.util.collection.StringKeyIgnoreCaseMultivaluedMap;
+import org.glassfish.jersey.internal.util.collection.HeadersMap;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
 import com.google.common.collect.Maps;
 
 /**
@@ -63,13 +66,48 @@ import com.google.common.collect.Maps;
  */
 public final class HeadersFactory {
 
+    /**
+     * String representations of the {@link #preRender(Object) pre-rendered} header value instances.
+     * The keys are weak and compared by identity.
+     */
+    private static final ConcurrentMap<Object, RenderedValue> PRE_RENDERED = new MapMaker().weakKeys().makeMap();
+
+    static {
+        for (MediaType mediaType : new MediaType[] {
+                MediaType.WILDCARD_TYPE,
+                MediaType.APPLICATION_XML_TYPE,
+                MediaType.APPLICATION_ATOM_XML_TYPE,
+                MediaType.APPLICATION_XHTML_XML_TYPE,
+                MediaType.APPLICATION_SVG_XML_TYPE,
+                MediaType.APPLICATION_JSON_TYPE,
+                MediaType.APPLICATION_FORM_URLENCODED_TYPE,
+                MediaType.MULTIPART_FORM_DATA_TYPE,
+                MediaType.APPLICATION_OCTET_STREAM_TYPE,
+                MediaType.TEXT_PLAIN_TYPE,
+                MediaType.TEXT_XML_TYPE,
+                MediaType.TEXT_HTML_TYPE}) {
+            preRender(mediaType);
+        }
+    }
+
+    /**
+     * Lazily rendered string representation of a header value.
+     */
+    private static final class RenderedValue {
+
+        private volatile String value;
+    }
+
     /**
      * Create an empty inbound message headers container. Created container is mutable.
+     * <p>
+     * The container is a compact {@link HeadersMap} with case insensitive header names.
+     * </p>
      *
      * @return a new empty mutable container for storing inbound message headers.
      */
     public static AbstractMultivaluedMap<String, String> createInbound() {
-        return new StringKeyIgnoreCaseMultivaluedMap<String>();
+        return new HeadersMap<String>();
     }
 
     /**
@@ -87,11 +125,14 @@ public final class HeadersFactory {
 
     /**
      * Create an empty outbound message headers container. Created container is mutable.
+     * <p>
+     * The container is a compact {@link HeadersMap} with case insensitive header names.
+     * </p>
      *
      * @return a new empty mutable container for storing outbound message headers.
      */
     public static AbstractMultivaluedMap<String, Object> createOutbound() {
-        return new StringKeyIgnoreCaseMultivaluedMap<Object>();
+        return new HeadersMap<Object>();
     }
 
     /**
@@ -110,11 +151,26 @@ public final class HeadersFactory {
      *     used.
      * @return the string representation of the supplied header value.
      */
-    @SuppressWarnings("unchecked")
     public static String asString(final Object headerValue, RuntimeDelegate rd) {
         if (headerValue instanceof String) {
             return (String) headerValue;
         }
+
+        final RenderedValue rendered = PRE_RENDERED.get(headerValue);
+        if (rendered == null) {
+            return render(headerValue, rd);
+        }
+
+        String value = rendered.value;
+        if (value == null) {
+            value = render(headerValue, rd);
+            rendered.value = value;
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String render(final Object headerValue, RuntimeDelegate rd) {
         if (rd == null) {
             rd = RuntimeDelegate.getInstance();
         }
@@ -123,6 +179,28 @@ public final class HeadersFactory {
         return (hp != null) ? hp.toString(headerValue) : headerValue.toString();
     }
 
+    /**
+     * Register a header value instance whose string representation should be computed only once.
+     * <p>
+     * Once registered, the value instance is converted to a string the first time it is
+     * {@link #asString(Object, RuntimeDelegate) rendered} and the cached string is returned for
+     * all the subsequent renderings of the same instance (e.g. when the container writes the
+     * response headers). Instances are compared by identity and are held weakly.
+     * </p>
+     * <p>
+     * Only immutable header values (such as {@link MediaType} instances) should be registered.
+     * Any changes made to a registered instance after its first rendering are not reflected.
+     * The {@code MediaType} constants defined in {@link MediaType} are registered by default.
+     * </p>
+     *
+     * @param headerValue immutable header value instance.
+     */
+    public static void preRender(final Object headerValue) {
+        if (headerValue != null && !(headerValue instanceof String)) {
+            PRE_RENDERED.putIfAbsent(headerValue, new RenderedValue());
+        }
+    }
+
     /**
      * Returns string view of list of header values. Any modifications to the underlying list are visible to the view,
      * the view also supports removal of elements. Does not support other modifications.
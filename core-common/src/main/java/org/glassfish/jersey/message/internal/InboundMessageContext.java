@@ -39,8 +39,6 @@
  */
 package org.glassfish.jersey.message.internal;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
@@ -54,7 +52,6 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -105,13 +102,15 @@ public class InboundMessageContext {
     private static class EntityContent extends EntityInputStream {
         private boolean interceptable;
         private boolean buffered;
+        private PooledByteArrayOutputStream.PooledInputStream bufferedContent;
 
         EntityContent(InputStream input) {
             super(input);
         }
 
-        void setBufferedContentStream(InputStream bufferedInput) {
+        void setBufferedContentStream(PooledByteArrayOutputStream.PooledInputStream bufferedInput) {
             setWrappedStream(bufferedInput);
+            bufferedContent = bufferedInput;
             buffered = true;
         }
 
@@ -132,6 +131,12 @@ public class InboundMessageContext {
             try {
                 super.close();
             } finally {
+                // the buffered content may have been read (and closed) by readers before, the buffer is returned
+                // to the pool only once the entity content itself is closed
+                if (bufferedContent != null) {
+                    bufferedContent.release();
+                    bufferedContent = null;
+                }
                 buffered = false;
                 setWrappedStream(null);
             }
@@ -180,7 +185,10 @@ public class InboundMessageContext {
      * @return updated context.
      */
     public InboundMessageContext headers(String name, Iterable<?> values) {
-        this.getHeaders().addAll(name, iterableToList(values));
+        final RuntimeDelegate rd = RuntimeDelegate.getInstance();
+        for (Object value : values) {
+            headers.add(name, HeadersFactory.asString(value, rd));
+        }
         return this;
     }
 
@@ -221,17 +229,6 @@ public class InboundMessageContext {
         return this;
     }
 
-    private static List<String> iterableToList(final Iterable<?> values) {
-        final LinkedList<String> linkedList = new LinkedList<String>();
-
-        final RuntimeDelegate rd = RuntimeDelegate.getInstance();
-        for (Object element : values) {
-            linkedList.add(HeadersFactory.asString(element, rd));
-        }
-
-        return linkedList;
-    }
-
     /**
      * Get a message header as a single string value.
      *
@@ -842,15 +839,21 @@ public class InboundMessageContext {
             }
 
             final InputStream entityStream = entityContent.getWrappedStream();
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            final PooledByteArrayOutputStream baos = new PooledByteArrayOutputStream();
             try {
-                ReaderWriter.writeTo(entityStream, baos);
+                try {
+                    ReaderWriter.writeTo(entityStream, baos);
+                } finally {
+                    entityStream.close();
+                }
+
+                // the pooled buffer is returned to the pool once the entity content is closed, closing the buffered
+                // stream by an entity reader has no effect
+                entityContent.setBufferedContentStream(baos.toInputStream());
             } finally {
-                entityStream.close();
+                baos.release();
             }
 
-            entityContent.setBufferedContentStream(new ByteArrayInputStream(baos.toByteArray()));
-
             return true;
         } catch (IOException ex) {
             throw new MessageProcessingException(LocalizationMessages.MESSAGE_CONTENT_BUFFERING_FAILED(), ex);
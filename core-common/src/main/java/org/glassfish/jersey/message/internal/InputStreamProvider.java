@@ -51,6 +51,8 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 
+import org.glassfish.jersey.message.StableMessageBodyWorker;
+
 /**
  *
  * @author Paul Sandoz
@@ -58,7 +60,7 @@ import javax.ws.rs.core.MultivaluedMap;
 @Produces({"application/octet-stream", "*/*"})
 @Consumes({"application/octet-stream", "*/*"})
 @Singleton
-public final class InputStreamProvider extends AbstractMessageReaderWriterProvider<InputStream> {
+public final class InputStreamProvider extends AbstractMessageReaderWriterProvider<InputStream> implements StableMessageBodyWorker {
 
     @Override
     public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
@@ -105,4 +107,9 @@ public final class InputStreamProvider extends AbstractMessageReaderWriterProvid
             t.close();
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean isDecisionStable(Class<?> type) {
+        return true;
+    }
+}
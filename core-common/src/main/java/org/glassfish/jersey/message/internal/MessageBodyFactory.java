@@ -51,12 +51,12 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Produces;
@@ -83,12 +83,18 @@ import org.glassfish.jersey.internal.util.ReflectionHelper;
 import org.glassfish.jersey.internal.util.ReflectionHelper.DeclaringClassInterfacePair;
 import org.glassfish.jersey.message.MessageBodyWorkers;
 import org.glassfish.jersey.message.MessageProperties;
+import org.glassfish.jersey.message.StableMessageBodyWorker;
 import org.glassfish.jersey.model.internal.RankedComparator;
 
+import org.glassfish.hk2.api.ActiveDescriptor;
+import org.glassfish.hk2.api.ServiceHandle;
 import org.glassfish.hk2.api.ServiceLocator;
 
 import org.jvnet.hk2.annotations.Optional;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.Lists;
 
 /**
@@ -147,6 +153,7 @@ public class MessageBodyFactory implements MessageBodyWorkers {
 
     private final ServiceLocator locator;
     private final Boolean legacyProviderOrdering;
+    private final boolean lazyInitialization;
 
     private List<ReaderInterceptor> readerInterceptors;
     private List<WriterInterceptor> writerInterceptors;
@@ -159,10 +166,29 @@ public class MessageBodyFactory implements MessageBodyWorkers {
     private final Map<MediaType, List<MessageBodyWriter>> writersCache =
             new KeyComparatorHashMap<MediaType, List<MessageBodyWriter>>(MEDIA_TYPE_COMPARATOR);
 
-    private final Map<TypeMediaTypePair, List<MessageBodyWorkerPair<MessageBodyReader>>> mbrLookupCache =
-            new ConcurrentHashMap<TypeMediaTypePair, List<MessageBodyWorkerPair<MessageBodyReader>>>();
-    private final Map<TypeMediaTypePair, List<MessageBodyWorkerPair<MessageBodyWriter>>> mbwLookupCache =
-            new ConcurrentHashMap<TypeMediaTypePair, List<MessageBodyWorkerPair<MessageBodyWriter>>>();
+    /**
+     * Maximum number of cached lists of reader (writer) candidates, i.e. the compatible and sorted workers
+     * for a Java type and a media type.
+     */
+    private static final int MAX_CANDIDATES_CACHE_SIZE = 1000;
+    /**
+     * Maximum number of cached reader (writer) selections for the full set of lookup arguments.
+     */
+    private static final int MAX_SELECTION_CACHE_SIZE = 4000;
+    /**
+     * Selection cache value representing a lookup for which no worker has been found.
+     */
+    private static final Object NO_WORKER = new Object();
+
+    private final Cache<TypeMediaTypePair, List<MessageBodyWorkerPair<MessageBodyReader>>> mbrLookupCache =
+            CacheBuilder.newBuilder().maximumSize(MAX_CANDIDATES_CACHE_SIZE).recordStats().build();
+    private final Cache<TypeMediaTypePair, List<MessageBodyWorkerPair<MessageBodyWriter>>> mbwLookupCache =
+            CacheBuilder.newBuilder().maximumSize(MAX_CANDIDATES_CACHE_SIZE).recordStats().build();
+
+    private final Cache<WorkerSelectionKey, Object> mbrSelectionCache =
+            CacheBuilder.newBuilder().maximumSize(MAX_SELECTION_CACHE_SIZE).recordStats().build();
+    private final Cache<WorkerSelectionKey, Object> mbwSelectionCache =
+            CacheBuilder.newBuilder().maximumSize(MAX_SELECTION_CACHE_SIZE).recordStats().build();
 
 
     @Override
@@ -176,16 +202,46 @@ public class MessageBodyFactory implements MessageBodyWorkers {
     }
 
     private static class MessageBodyWorkerPair<T> {
-        final T provider;
+        private final ServiceHandle<T> handle;
+        private volatile T provider;
+        final Class<?> providerClass;
         final List<MediaType> types;
         final Boolean custom;
         Class<?> providerClassParam = null;
 
         private MessageBodyWorkerPair(T provider, List<MediaType> types, Boolean custom) {
+            this.handle = null;
             this.provider = provider;
+            this.providerClass = provider.getClass();
             this.types = types;
             this.custom = custom;
         }
+
+        private MessageBodyWorkerPair(ServiceHandle<T> handle, Class<?> providerClass, List<MediaType> types,
+                                      Boolean custom) {
+            this.handle = handle;
+            this.providerClass = providerClass;
+            this.types = types;
+            this.custom = custom;
+        }
+
+        /**
+         * Get the provider instance, instantiating the provider if it has not been instantiated yet.
+         *
+         * @return provider instance.
+         */
+        T getProvider() {
+            T result = provider;
+            if (result == null) {
+                synchronized (this) {
+                    result = provider;
+                    if (result == null) {
+                        provider = result = handle.getService();
+                    }
+                }
+            }
+            return result;
+        }
     }
 
     /**
@@ -199,6 +255,8 @@ public class MessageBodyFactory implements MessageBodyWorkers {
         this.locator = locator;
         this.legacyProviderOrdering = configurable != null
                         && PropertiesHelper.isProperty(configurable.getProperty(MessageProperties.LEGACY_WORKERS_ORDERING));
+        this.lazyInitialization = !legacyProviderOrdering && configurable != null
+                        && PropertiesHelper.isProperty(configurable.getProperty(MessageProperties.LAZY_WORKERS_INITIALIZATION));
 
         initReaders();
         initWriters();
@@ -398,17 +456,25 @@ public class MessageBodyFactory implements MessageBodyWorkers {
             if (mediaTypeComparison != 0) {
                 return mediaTypeComparison;
             }
-            return distanceComparator.compare(mbwp1.provider, mbwp2.provider);
+            return distanceComparator.compare(mbwp1.getProvider(), mbwp2.getProvider());
         }
     }
 
+    /**
+     * Key of the worker candidates cache.
+     * <p/>
+     * Media type parameters are not part of the key, since the candidates are filtered and sorted
+     * by the media type and subtype only (e.g. {@code text/plain;charset=UTF-8} and {@code text/plain}
+     * share the same candidates).
+     */
     private static class TypeMediaTypePair {
         final Class<?> clazz;
         final MediaType mediaType;
 
         private TypeMediaTypePair(Class<?> clazz, MediaType mediaType) {
             this.clazz = clazz;
-            this.mediaType = mediaType;
+            this.mediaType = (mediaType == null || mediaType.getParameters().isEmpty())
+                    ? mediaType : new MediaType(mediaType.getType(), mediaType.getSubtype());
         }
 
         @Override
@@ -430,6 +496,139 @@ public class MessageBodyFactory implements MessageBodyWorkers {
         }
     }
 
+    /**
+     * Key of the worker selection cache.
+     * <p/>
+     * Annotations are compared element-wise by identity: the annotation arrays passed to the lookup
+     * methods are usually fresh copies of the reflectively obtained arrays, while the annotation
+     * instances themselves are shared.
+     */
+    private static class WorkerSelectionKey {
+        private final Class<?> clazz;
+        private final Type type;
+        private final Annotation[] annotations;
+        private final MediaType mediaType;
+        private final int hashCode;
+
+        private WorkerSelectionKey(Class<?> clazz, Type type, Annotation[] annotations, MediaType mediaType) {
+            this.clazz = clazz;
+            this.type = type;
+            this.annotations = annotations == null ? new Annotation[0] : annotations;
+            this.mediaType = mediaType;
+
+            int result = clazz != null ? clazz.hashCode() : 0;
+            result = 31 * result + (type != null ? type.hashCode() : 0);
+            result = 31 * result + (mediaType != null ? mediaType.hashCode() : 0);
+            for (Annotation annotation : this.annotations) {
+                result = 31 * result + System.identityHashCode(annotation);
+            }
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            WorkerSelectionKey that = (WorkerSelectionKey) o;
+
+            if (hashCode != that.hashCode || annotations.length != that.annotations.length) return false;
+            for (int i = 0; i < annotations.length; i++) {
+                if (annotations[i] != that.annotations[i]) return false;
+            }
+
+            return !(clazz != null ? !clazz.equals(that.clazz) : that.clazz != null) &&
+                    !(type != null ? !type.equals(that.type) : that.type != null) &&
+                    !(mediaType != null ? !mediaType.equals(that.mediaType) : that.mediaType != null);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Statistics of the message body worker lookup caches.
+     * <p/>
+     * Lookups are cached at two levels: the candidates level caches the compatible workers sorted by
+     * their priority for a Java type and a media type (without parameters), the selection level caches
+     * the selected worker for the full set of lookup arguments. Selections are cached only if all
+     * the consulted workers are {@link StableMessageBodyWorker stable} for the Java type.
+     */
+    public static final class LookupStatistics {
+        private final CacheStats readerCandidates;
+        private final CacheStats writerCandidates;
+        private final CacheStats readerSelections;
+        private final CacheStats writerSelections;
+
+        private LookupStatistics(CacheStats readerCandidates, CacheStats writerCandidates,
+                                 CacheStats readerSelections, CacheStats writerSelections) {
+            this.readerCandidates = readerCandidates;
+            this.writerCandidates = writerCandidates;
+            this.readerSelections = readerSelections;
+            this.writerSelections = writerSelections;
+        }
+
+        /**
+         * Get statistics of the message body reader candidates cache.
+         *
+         * @return reader candidates cache statistics.
+         */
+        public CacheStats getReaderCandidates() {
+            return readerCandidates;
+        }
+
+        /**
+         * Get statistics of the message body writer candidates cache.
+         *
+         * @return writer candidates cache statistics.
+         */
+        public CacheStats getWriterCandidates() {
+            return writerCandidates;
+        }
+
+        /**
+         * Get statistics of the message body reader selection cache.
+         *
+         * @return reader selection cache statistics.
+         */
+        public CacheStats getReaderSelections() {
+            return readerSelections;
+        }
+
+        /**
+         * Get statistics of the message body writer selection cache.
+         *
+         * @return writer selection cache statistics.
+         */
+        public CacheStats getWriterSelections() {
+            return writerSelections;
+        }
+
+        @Override
+        public String toString() {
+            return "LookupStatistics{readerCandidates=" + readerCandidates
+                    + ", writerCandidates=" + writerCandidates
+                    + ", readerSelections=" + readerSelections
+                    + ", writerSelections=" + writerSelections + '}';
+        }
+    }
+
+    /**
+     * Get statistics of the message body reader and writer lookup caches.
+     *
+     * @return current lookup cache statistics.
+     */
+    public LookupStatistics getLookupStatistics() {
+        return new LookupStatistics(mbrLookupCache.stats(), mbwLookupCache.stats(),
+                mbrSelectionCache.stats(), mbwSelectionCache.stats());
+    }
+
+    private static boolean isDecisionStable(Object worker, Class<?> type) {
+        return worker instanceof StableMessageBodyWorker && ((StableMessageBodyWorker) worker).isDecisionStable(type);
+    }
+
     private void initInterceptors() {
         // TODO: only "global" interceptors should be taken into account here ?
 
@@ -449,6 +648,11 @@ public class MessageBodyFactory implements MessageBodyWorkers {
     private void initReaders() {
         this.readers = new ArrayList<MessageBodyWorkerPair<MessageBodyReader>>();
 
+        if (lazyInitialization) {
+            initLazyWorkers(readers, MessageBodyReader.class);
+            return;
+        }
+
         final Set<MessageBodyReader> customProviders = Providers.getCustomProviders(locator, MessageBodyReader.class);
         final Set<MessageBodyReader> providers = Providers.getProviders(locator, MessageBodyReader.class);
 
@@ -467,7 +671,7 @@ public class MessageBodyFactory implements MessageBodyWorkers {
                         readerList = new ArrayList<MessageBodyReader>();
                         readersCache.put(mt, readerList);
                     }
-                    readerList.add(messageBodyWorkerPair.provider);
+                    readerList.add(messageBodyWorkerPair.getProvider());
                 }
             }
         }
@@ -486,6 +690,11 @@ public class MessageBodyFactory implements MessageBodyWorkers {
     private void initWriters() {
         this.writers = new ArrayList<MessageBodyWorkerPair<MessageBodyWriter>>();
 
+        if (lazyInitialization) {
+            initLazyWorkers(writers, MessageBodyWriter.class);
+            return;
+        }
+
         final Set<MessageBodyWriter> customProviders = Providers.getCustomProviders(locator, MessageBodyWriter.class);
         final Set<MessageBodyWriter> providers = Providers.getProviders(locator, MessageBodyWriter.class);
 
@@ -504,7 +713,7 @@ public class MessageBodyFactory implements MessageBodyWorkers {
                         writerList = new ArrayList<MessageBodyWriter>();
                         writersCache.put(mt, writerList);
                     }
-                    writerList.add(messageBodyWorkerPair.provider);
+                    writerList.add(messageBodyWorkerPair.getProvider());
                 }
             }
         }
@@ -522,6 +731,43 @@ public class MessageBodyFactory implements MessageBodyWorkers {
         }
     }
 
+    private <T> void initLazyWorkers(List<MessageBodyWorkerPair<T>> workers, Class<T> contract) {
+        final Set<ActiveDescriptor<?>> registered = new HashSet<ActiveDescriptor<?>>();
+
+        initLazyWorkers(workers, Providers.getCustomProviderHandles(locator, contract), contract, true, registered);
+        initLazyWorkers(workers, Providers.getProviderHandles(locator, contract), contract, false, registered);
+    }
+
+    private <T> void initLazyWorkers(List<MessageBodyWorkerPair<T>> workers, List<ServiceHandle<T>> handles,
+                                     Class<T> contract, boolean custom, Set<ActiveDescriptor<?>> registered) {
+        for (ServiceHandle<T> handle : handles) {
+            ActiveDescriptor<?> descriptor = handle.getActiveDescriptor();
+            if (!registered.add(descriptor)) {
+                continue;
+            }
+            if (!descriptor.isReified()) {
+                descriptor = locator.reifyDescriptor(descriptor);
+            }
+
+            final Class<?> providerClass = descriptor.getImplementationClass();
+            if (providerClass == null || !contract.isAssignableFrom(providerClass)) {
+                // provider created by a factory - the provider class is only known from the instance
+                final T provider = handle.getService();
+                workers.add(new MessageBodyWorkerPair<T>(provider, getDeclaredMediaTypes(provider.getClass(), contract),
+                        custom));
+            } else {
+                workers.add(new MessageBodyWorkerPair<T>(handle, providerClass,
+                        getDeclaredMediaTypes(providerClass, contract), custom));
+            }
+        }
+    }
+
+    private static List<MediaType> getDeclaredMediaTypes(Class<?> providerClass, Class<?> contract) {
+        return contract == MessageBodyReader.class
+                ? MediaTypes.createFrom(providerClass.getAnnotation(Consumes.class))
+                : MediaTypes.createFrom(providerClass.getAnnotation(Produces.class));
+    }
+
     // MessageBodyWorkers
     @Override
     public Map<MediaType, List<MessageBodyReader>> getReaders(MediaType mediaType) {
@@ -596,7 +842,8 @@ public class MessageBodyFactory implements MessageBodyWorkers {
 
         for (MessageBodyWorkerPair<MessageBodyReader> mbrp : readers) {
             for (MediaType mt : mbrp.types) {
-                if (mbrp.provider.isReadable(type, genericType, annotations, mt)) {
+                if (isCompatible(MessageBodyReader.class, mbrp, type, null)
+                        && mbrp.getProvider().isReadable(type, genericType, annotations, mt)) {
                     mtl.addAll(mbrp.types);
                 }
             }
@@ -611,7 +858,7 @@ public class MessageBodyFactory implements MessageBodyWorkers {
 
         if(messageBodyWorkerPair.providerClassParam == null) {
             DeclaringClassInterfacePair p = ReflectionHelper.getClass(
-                    messageBodyWorkerPair.provider.getClass(), workerClass);
+                    messageBodyWorkerPair.providerClass, workerClass);
 
             Class[] classArgs = ReflectionHelper.getParameterizedClassArguments(p);
             messageBodyWorkerPair.providerClassParam = (classArgs != null) ? classArgs[0] : null;
@@ -648,7 +895,14 @@ public class MessageBodyFactory implements MessageBodyWorkers {
                                                            MediaType mediaType,
                                                            List<MessageBodyWorkerPair<MessageBodyReader>> workers) {
 
-        List<MessageBodyWorkerPair<MessageBodyReader>> readers = mbrLookupCache.get(new TypeMediaTypePair(c, mediaType));
+        final WorkerSelectionKey selectionKey = new WorkerSelectionKey(c, t, as, mediaType);
+        final Object selected = mbrSelectionCache.getIfPresent(selectionKey);
+        if (selected != null) {
+            return selected == NO_WORKER ? null : (MessageBodyReader<T>) selected;
+        }
+
+        final TypeMediaTypePair candidatesKey = new TypeMediaTypePair(c, mediaType);
+        List<MessageBodyWorkerPair<MessageBodyReader>> readers = mbrLookupCache.getIfPresent(candidatesKey);
         if(readers == null) {
             readers = new ArrayList<MessageBodyWorkerPair<MessageBodyReader>>();
 
@@ -658,19 +912,24 @@ public class MessageBodyFactory implements MessageBodyWorkers {
                 }
             }
             Collections.sort(readers, new WorkerComparator<MessageBodyReader>(c, mediaType));
-            mbrLookupCache.put(new TypeMediaTypePair(c, mediaType), readers);
-        }
-
-        if(readers.isEmpty()) {
-            return null;
+            mbrLookupCache.put(candidatesKey, readers);
         }
 
+        boolean stable = true;
         for(MessageBodyWorkerPair<MessageBodyReader> mbwp : readers) {
-            if(mbwp.provider.isReadable(c, t, as, mediaType)) {
-                return mbwp.provider;
+            final MessageBodyReader reader = mbwp.getProvider();
+            stable = stable && isDecisionStable(reader, c);
+            if(reader.isReadable(c, t, as, mediaType)) {
+                if (stable) {
+                    mbrSelectionCache.put(selectionKey, reader);
+                }
+                return reader;
             }
         }
 
+        if (stable) {
+            mbrSelectionCache.put(selectionKey, NO_WORKER);
+        }
         return null;
     }
 
@@ -725,7 +984,14 @@ public class MessageBodyFactory implements MessageBodyWorkers {
                                                            MediaType mediaType,
                                                            List<MessageBodyWorkerPair<MessageBodyWriter>> workers) {
 
-        List<MessageBodyWorkerPair<MessageBodyWriter>> writers = mbwLookupCache.get(new TypeMediaTypePair(c, mediaType));
+        final WorkerSelectionKey selectionKey = new WorkerSelectionKey(c, t, as, mediaType);
+        final Object selected = mbwSelectionCache.getIfPresent(selectionKey);
+        if (selected != null) {
+            return selected == NO_WORKER ? null : (MessageBodyWriter<T>) selected;
+        }
+
+        final TypeMediaTypePair candidatesKey = new TypeMediaTypePair(c, mediaType);
+        List<MessageBodyWorkerPair<MessageBodyWriter>> writers = mbwLookupCache.getIfPresent(candidatesKey);
         if(writers == null) {
 
             writers = new ArrayList<MessageBodyWorkerPair<MessageBodyWriter>>();
@@ -736,20 +1002,24 @@ public class MessageBodyFactory implements MessageBodyWorkers {
                 }
             }
             Collections.sort(writers, new WorkerComparator<MessageBodyWriter>(c, mediaType));
-            mbwLookupCache.put(new TypeMediaTypePair(c, mediaType), writers);
+            mbwLookupCache.put(candidatesKey, writers);
         }
 
-        if(writers.isEmpty()) {
-            return null;
-        }
-
-
+        boolean stable = true;
         for(MessageBodyWorkerPair<MessageBodyWriter> mbwp : writers) {
-            if(mbwp.provider.isWriteable(c, t, as, mediaType)) {
-                return mbwp.provider;
+            final MessageBodyWriter writer = mbwp.getProvider();
+            stable = stable && isDecisionStable(writer, c);
+            if(writer.isWriteable(c, t, as, mediaType)) {
+                if (stable) {
+                    mbwSelectionCache.put(selectionKey, writer);
+                }
+                return writer;
             }
         }
 
+        if (stable) {
+            mbwSelectionCache.put(selectionKey, NO_WORKER);
+        }
         return null;
     }
 
@@ -798,7 +1068,7 @@ public class MessageBodyFactory implements MessageBodyWorkers {
 
         for(MessageBodyWorkerPair<T> mbpp : set) {
             if(mbpp.types.contains(mediaType)) {
-                providers.add(mbpp.provider);
+                providers.add(mbpp.getProvider());
             }
         }
 
@@ -814,7 +1084,8 @@ public class MessageBodyFactory implements MessageBodyWorkers {
 
         for (MessageBodyWorkerPair<MessageBodyWriter> mbwp : writers) {
             for (MediaType mt : mbwp.types) {
-                if (mbwp.provider.isWriteable(c, t, as, mt)) {
+                if (isCompatible(MessageBodyWriter.class, mbwp, c, null)
+                        && mbwp.getProvider().isWriteable(c, t, as, mt)) {
                     mtl.addAll(mbwp.types);
                 }
             }
@@ -832,7 +1103,8 @@ public class MessageBodyFactory implements MessageBodyWorkers {
             for (MessageBodyWorkerPair<MessageBodyWriter> mbwp : writers) {
                 for (MediaType mt : mbwp.types) {
                     if (mt.isCompatible(acceptable)
-                            && mbwp.provider.isWriteable(c, t, as, acceptable)) {
+                            && isCompatible(MessageBodyWriter.class, mbwp, c, null)
+                            && mbwp.getProvider().isWriteable(c, t, as, acceptable)) {
                         return MediaTypes.mostSpecific(mt, acceptable);
                     }
                 }
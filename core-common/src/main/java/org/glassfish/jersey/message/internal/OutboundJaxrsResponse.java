@@ -544,7 +544,7 @@ public class OutboundJaxrsResponse extends javax.ws.rs.core.Response {
             for (String m : methods) {
                 append(allow, true, m);
             }
-            return header(HttpHeaders.ALLOW, allow, true);
+            return header(HttpHeaders.ALLOW, allow.toString(), true);
         }
 
         @Override
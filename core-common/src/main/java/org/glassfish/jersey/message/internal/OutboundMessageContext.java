@@ -787,6 +787,32 @@ public class OutboundMessageContext {
         this.rootStream.setStreamProvider(streamProvider);
     }
 
+    /**
+     * Enable buffering of the serialized entity. An entity that does not exceed the buffer size is fully
+     * buffered before the entity stream is committed, so that its exact length is known at the time of the
+     * commit (see {@link #getBufferedContentLength()}). Larger entities are streamed.
+     * <p/>
+     * The method must be called before the entity is written to the {@link #getEntityStream() entity stream}.
+     *
+     * @param bufferSize size of the buffer in bytes. If not positive, the buffering is disabled.
+     */
+    public void enableBuffering(int bufferSize) {
+        this.rootStream.enableBuffering(bufferSize);
+    }
+
+    /**
+     * Get the length of the serialized entity in case the entity has been fully buffered before
+     * the entity stream was committed.
+     * <p/>
+     * The method is intended to be called from the {@link StreamProvider#commit()} method.
+     *
+     * @return length of the fully buffered entity in bytes or {@code -1} if the length is not known.
+     * @see #enableBuffering(int)
+     */
+    public long getBufferedContentLength() {
+        return rootStream.getContentLength();
+    }
+
     /**
      * Commits the {@link #getEntityStream() entity stream} if it wasn't already committed.
      */
@@ -796,8 +822,8 @@ public class OutboundMessageContext {
                 // flush the entity stream
                 entityStream.flush();
                 if (!rootStream.isCommitted()) {
-                    // flush the committing stream
-                    rootStream.flush();
+                    // commit the committing stream, including any buffered content
+                    rootStream.commit();
                 }
             } catch (Exception ioe) {
                 // Do nothing - we are already handling an exception.
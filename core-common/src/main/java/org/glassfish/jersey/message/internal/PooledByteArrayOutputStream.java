@@ -0,0 +1,175 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+/**
+ * {@link ByteArrayOutputStream} backed by buffers from the {@link BufferPool}.
+ * <p>
+ * When the stream needs to grow, a larger buffer is acquired from the pool and the previous buffer is returned
+ * to the pool. The current buffer should be returned to the pool by invoking {@link #release()} once the content
+ * of the stream is not needed anymore; the stream may be used again afterwards.
+ * </p>
+ *
+ * @author Marek Potociar (marek.potociar at oracle.com)
+ */
+public class PooledByteArrayOutputStream extends ByteArrayOutputStream {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final BufferPool pool;
+
+    /**
+     * Create new output stream backed by the {@link BufferPool#getInstance() shared buffer pool}.
+     */
+    public PooledByteArrayOutputStream() {
+        this(BufferPool.getInstance());
+    }
+
+    /**
+     * Create new output stream backed by the given buffer pool.
+     *
+     * @param pool buffer pool.
+     */
+    PooledByteArrayOutputStream(BufferPool pool) {
+        super(0);
+        this.pool = pool;
+        this.buf = EMPTY;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buf.length) {
+            final byte[] newBuf = pool.acquire(Math.max(capacity, buf.length << 1));
+            System.arraycopy(buf, 0, newBuf, 0, count);
+            if (buf != EMPTY) {
+                pool.release(buf);
+            }
+            buf = newBuf;
+        }
+    }
+
+    @Override
+    public synchronized void write(int b) {
+        ensureCapacity(count + 1);
+        buf[count++] = (byte) b;
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || off > b.length - len) {
+            throw new IndexOutOfBoundsException();
+        }
+        ensureCapacity(count + len);
+        System.arraycopy(b, off, buf, count, len);
+        count += len;
+    }
+
+    /**
+     * Hand the current buffer over to the caller without copying the content. The first {@link #size()} bytes
+     * of the returned buffer are the content of the stream. The buffer is not returned to the pool by this stream
+     * anymore (the caller may {@link BufferPool#release(byte[]) release} it once it is not used); the stream is
+     * reset and may be used again.
+     *
+     * @return current buffer of the stream.
+     */
+    public synchronized byte[] detachBuffer() {
+        final byte[] detached = buf;
+        buf = EMPTY;
+        count = 0;
+        return detached;
+    }
+
+    /**
+     * Get an input stream reading the content of this stream directly from the current buffer, without copying it.
+     * The buffer is handed over to the returned input stream; closing the input stream has no effect (the content
+     * may be {@link InputStream#reset() read again}), the buffer is returned to the pool once the input stream is
+     * {@link PooledInputStream#release() released}. This output stream is reset and may be used again.
+     *
+     * @return input stream reading the content of this stream.
+     */
+    public synchronized PooledInputStream toInputStream() {
+        final int length = count;
+        return new PooledInputStream(pool, detachBuffer(), length);
+    }
+
+    /**
+     * Discard the content of the stream and return the current buffer to the pool.
+     */
+    public synchronized void release() {
+        if (buf != EMPTY) {
+            pool.release(buf);
+            buf = EMPTY;
+        }
+        count = 0;
+    }
+
+    /**
+     * {@link ByteArrayInputStream} reading a buffer acquired from a {@link BufferPool}.
+     * <p>
+     * Closing the stream has no effect, the buffer is returned to the pool by invoking {@link #release()}.
+     * </p>
+     */
+    public static final class PooledInputStream extends ByteArrayInputStream {
+
+        private final BufferPool pool;
+
+        private PooledInputStream(BufferPool pool, byte[] buf, int length) {
+            super(buf, 0, length);
+            this.pool = pool;
+        }
+
+        /**
+         * Return the buffer to the pool. The stream does not provide any content afterwards.
+         */
+        public synchronized void release() {
+            if (buf != EMPTY) {
+                final byte[] released = buf;
+                buf = EMPTY;
+                pos = 0;
+                count = 0;
+                mark = 0;
+                pool.release(released);
+            }
+        }
+    }
+}
@@ -106,9 +106,13 @@ public final class ReaderWriter {
      */
     public static void writeTo(InputStream in, OutputStream out) throws IOException {
         int read;
-        final byte[] data = new byte[BUFFER_SIZE];
-        while ((read = in.read(data)) != -1) {
-            out.write(data, 0, read);
+        final byte[] data = BufferPool.getInstance().acquire(BUFFER_SIZE);
+        try {
+            while ((read = in.read(data)) != -1) {
+                out.write(data, 0, read);
+            }
+        } finally {
+            BufferPool.getInstance().release(data);
         }
     }
 
@@ -84,8 +84,25 @@ public final class Statuses {
         }
     }
 
+    /**
+     * Known {@link Status statuses} indexed by the status code. {@link Status#fromStatusCode(int)} iterates
+     * (a copy of) all the enum values on each call.
+     */
+    private static final Status[] KNOWN_STATUSES;
+
+    static {
+        int maxCode = 0;
+        for (Status status : Status.values()) {
+            maxCode = Math.max(maxCode, status.getStatusCode());
+        }
+        KNOWN_STATUSES = new Status[maxCode + 1];
+        for (Status status : Status.values()) {
+            KNOWN_STATUSES[status.getStatusCode()] = status;
+        }
+    }
+
     public static StatusType from(int code) {
-        StatusType result = Status.fromStatusCode(code);
+        final StatusType result = (code >= 0 && code < KNOWN_STATUSES.length) ? KNOWN_STATUSES[code] : null;
         return (result != null) ? result : new StatusImpl(code, "");
     }
 
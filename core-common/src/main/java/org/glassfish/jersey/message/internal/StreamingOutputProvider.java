@@ -50,6 +50,8 @@ import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.ext.MessageBodyWriter;
 
+import org.glassfish.jersey.message.StableMessageBodyWorker;
+
 /**
  * Message body writer that supports {@link StreamingOutput streaming output} marshalling.
  *
@@ -57,7 +59,7 @@ import javax.ws.rs.ext.MessageBodyWriter;
  */
 @Produces({"application/octet-stream", "*/*"})
 @Singleton
-public final class StreamingOutputProvider implements MessageBodyWriter<StreamingOutput> {
+public final class StreamingOutputProvider implements MessageBodyWriter<StreamingOutput>, StableMessageBodyWorker {
 
     @Override
     public boolean isWriteable(Class<?> t, Type gt, Annotation[] as, MediaType mediaType) {
@@ -75,4 +77,9 @@ public final class StreamingOutputProvider implements MessageBodyWriter<Streamin
             OutputStream entity) throws IOException {
         o.write(entity);
     }
+
+    @Override
+    public boolean isDecisionStable(Class<?> type) {
+        return true;
+    }
 }
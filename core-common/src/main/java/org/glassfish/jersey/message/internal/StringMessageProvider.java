@@ -52,6 +52,8 @@ import javax.ws.rs.core.MultivaluedMap;
 
 import javax.inject.Singleton;
 
+import org.glassfish.jersey.message.StableMessageBodyWorker;
+
 /**
  *
  * @author Paul Sandoz
@@ -59,7 +61,7 @@ import javax.inject.Singleton;
 @Produces({"text/plain", "*/*"})
 @Consumes({"text/plain", "*/*"})
 @Singleton
-final class StringMessageProvider extends AbstractMessageReaderWriterProvider<String> {
+final class StringMessageProvider extends AbstractMessageReaderWriterProvider<String> implements StableMessageBodyWorker {
 
     @Override
     public boolean isReadable(Class<?> type, Type genericType, Annotation annotations[], MediaType mediaType) {
@@ -98,4 +100,9 @@ final class StringMessageProvider extends AbstractMessageReaderWriterProvider<St
             OutputStream entityStream) throws IOException {
         writeToAsString(t, entityStream, mediaType);
     }
+
+    @Override
+    public boolean isDecisionStable(Class<?> type) {
+        return true;
+    }
 }
@@ -45,7 +45,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
-import java.util.Collection;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -143,7 +142,7 @@ public abstract class XmlCollectionJaxbProvider extends AbstractCollectionJaxbPr
     }
 
     @Override
-    public final void writeList(Class<?> elementType, Collection<?> t,
+    public final void writeList(Class<?> elementType, Iterable<?> t,
             MediaType mediaType, Charset c,
             Marshaller m, OutputStream entityStream)
             throws JAXBException, IOException {
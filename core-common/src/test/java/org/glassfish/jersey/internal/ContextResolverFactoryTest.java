@@ -55,6 +55,7 @@ import org.junit.Before;
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import com.google.common.collect.Sets;
 
@@ -151,4 +152,13 @@ public class ContextResolverFactoryTest {
         // Test that there is no matching provider
         assertNull(crf.resolve(Integer.class, MediaType.TEXT_PLAIN_TYPE));
     }
+
+    @Test
+    public void testResolveIgnoresMediaTypeParameters() {
+        final ContextResolver<Integer> resolver = crf.resolve(Integer.class, MediaType.APPLICATION_JSON_TYPE);
+
+        assertSame(resolver, crf.resolve(Integer.class, MediaType.valueOf("application/json;charset=UTF-8")));
+        assertSame(resolver, crf.resolve(Integer.class, MediaType.valueOf("application/json;charset=ISO-8859-2")));
+        assertNull(crf.resolve(Integer.class, MediaType.valueOf("text/plain;charset=UTF-8")));
+    }
 }
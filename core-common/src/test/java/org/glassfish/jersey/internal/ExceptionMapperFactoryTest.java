@@ -0,0 +1,130 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.internal;
+
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.RuntimeDelegate;
+
+import org.glassfish.jersey.internal.inject.AbstractBinder;
+import org.glassfish.jersey.internal.inject.Injections;
+
+import org.glassfish.hk2.api.ServiceLocator;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Exception mapper factory unit test.
+ *
+ * @author Marek Potociar (marek.potociar at oracle.com)
+ */
+public class ExceptionMapperFactoryTest {
+
+    private static class BaseException extends RuntimeException {
+    }
+
+    private static class SubException extends BaseException {
+    }
+
+    private static class SubSubException extends SubException {
+    }
+
+    private static class BaseExceptionMapper implements ExceptionMapper<BaseException> {
+
+        @Override
+        public Response toResponse(BaseException exception) {
+            return Response.serverError().build();
+        }
+    }
+
+    private static class SubExceptionMapper implements ExceptionMapper<SubException> {
+
+        @Override
+        public Response toResponse(SubException exception) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+    }
+
+    private static class Binder extends AbstractBinder {
+
+        @Override
+        protected void configure() {
+            bind(BaseExceptionMapper.class).to(ExceptionMapper.class);
+            bind(SubExceptionMapper.class).to(ExceptionMapper.class);
+        }
+    }
+
+    private ExceptionMapperFactory emf;
+
+    public ExceptionMapperFactoryTest() {
+        RuntimeDelegate.setInstance(new TestRuntimeDelegate());
+    }
+
+    @Before
+    public void setUp() {
+        final ServiceLocator locator = Injections.createLocator(new ExceptionMapperFactory.Binder(), new Binder());
+        emf = locator.getService(ExceptionMapperFactory.class);
+    }
+
+    @Test
+    public void testFindClosestMapper() {
+        assertTrue(emf.find(BaseException.class) instanceof BaseExceptionMapper);
+        assertTrue(emf.find(SubException.class) instanceof SubExceptionMapper);
+        assertTrue(emf.find(SubSubException.class) instanceof SubExceptionMapper);
+    }
+
+    @Test
+    public void testRepeatedLookupReturnsSameMapper() {
+        final ExceptionMapper<SubSubException> mapper = emf.find(SubSubException.class);
+        assertSame(mapper, emf.find(SubSubException.class));
+        assertSame(emf.find(SubException.class), mapper);
+    }
+
+    @Test
+    public void testNoMapper() {
+        assertNull(emf.find(IllegalStateException.class));
+        // negative result is served from the cache
+        assertNull(emf.find(IllegalStateException.class));
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.internal.util.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link HeadersMap} unit test.
+ *
+ * @author Michal Gajdos (michal.gajdos at oracle.com)
+ */
+public class HeadersMapTest {
+
+    private HeadersMap<String> map;
+
+    @Before
+    public void setUp() {
+        map = new HeadersMap<String>();
+    }
+
+    @Test
+    public void testCaseInsensitiveKeys() {
+        map.add("Content-Type", "text/plain");
+
+        assertEquals("text/plain", map.getFirst("content-type"));
+        assertEquals("text/plain", map.getFirst("CONTENT-TYPE"));
+        assertTrue(map.containsKey("Content-type"));
+        assertEquals(1, map.size());
+        assertEquals("Content-Type", map.keySet().iterator().next());
+    }
+
+    @Test
+    public void testMultipleValues() {
+        map.add("ACCEPT", "a");
+        map.add("accept", "b");
+        map.addFirst("Accept", "z");
+        map.addAll("Accept", "c", "d");
+
+        assertEquals(Arrays.asList("z", "a", "b", "c", "d"), map.get("Accept"));
+
+        map.putSingle("accept", "x");
+        assertEquals(Collections.singletonList("x"), map.get("Accept"));
+    }
+
+    @Test
+    public void testValueListIsLive() {
+        map.add("Vary", "Accept");
+        final List<String> values = map.get("vary");
+
+        values.add("Accept-Encoding");
+        assertEquals(Arrays.asList("Accept", "Accept-Encoding"), map.get("Vary"));
+
+        values.remove(0);
+        assertEquals("Accept-Encoding", map.getFirst("Vary"));
+    }
+
+    @Test
+    public void testAddAfterRemovingAllValues() {
+        map.add("Accept", "a");
+        map.add("Accept", "b");
+        final List<String> values = map.get("accept");
+
+        values.remove(1);
+        values.remove(0);
+        assertTrue(values.isEmpty());
+
+        values.add("c");
+        assertEquals("c", map.getFirst("Accept"));
+        assertEquals(Collections.singletonList("c"), map.get("Accept"));
+
+        values.add("d");
+        assertEquals(Arrays.asList("c", "d"), map.get("Accept"));
+    }
+
+    @Test
+    public void testPutKeepsSuppliedList() {
+        final List<String> values = new ArrayList<String>();
+        map.put("Foo", values);
+        values.add("bar");
+
+        assertEquals("bar", map.getFirst("foo"));
+        assertSame(values, map.put("FOO", Collections.singletonList("baz")));
+        assertEquals("baz", map.getFirst("foo"));
+    }
+
+    @Test
+    public void testManyHeaders() {
+        for (int i = 0; i < 100; i++) {
+            map.add("X-Header-" + i, "value" + i);
+        }
+        assertEquals(100, map.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("value" + i, map.getFirst("x-header-" + i));
+        }
+
+        final Iterator<Map.Entry<String, List<String>>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getKey().startsWith("X-Header-1")) {
+                iterator.remove();
+            }
+        }
+        assertEquals(89, map.size());
+        assertNull(map.get("x-header-15"));
+        assertEquals("value20", map.getFirst("X-HEADER-20"));
+
+        for (int i = 20; i < 100; i++) {
+            map.remove("x-header-" + i);
+        }
+        assertEquals(Arrays.asList("X-Header-0", "X-Header-2", "X-Header-3", "X-Header-4", "X-Header-5",
+                "X-Header-6", "X-Header-7", "X-Header-8", "X-Header-9"), new ArrayList<String>(map.keySet()));
+        assertEquals("value9", map.getFirst("x-header-9"));
+    }
+
+    @Test
+    public void testRemoveAndClear() {
+        map.add("Host", "localhost");
+        map.add("Date", "now");
+
+        assertEquals(Collections.singletonList("localhost"), map.remove("HOST"));
+        assertFalse(map.containsKey("host"));
+        assertEquals(1, map.size());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.getFirst("Date"));
+    }
+
+    @Test
+    public void testEquals() {
+        map.add("Accept", "a");
+        map.add("Accept", "b");
+        map.add("Host", "localhost");
+
+        final Map<String, List<String>> expected = new HashMap<String, List<String>>();
+        expected.put("Accept", Arrays.asList("a", "b"));
+        expected.put("Host", Collections.singletonList("localhost"));
+
+        assertEquals(expected, map);
+        assertEquals(expected.hashCode(), map.hashCode());
+    }
+}
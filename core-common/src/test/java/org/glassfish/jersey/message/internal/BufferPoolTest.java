@@ -0,0 +1,166 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * {@link BufferPool} and {@link PooledByteArrayOutputStream} tests.
+ *
+ * @author Marek Potociar (marek.potociar at oracle.com)
+ */
+public class BufferPoolTest {
+
+    @Test
+    public void testSizeClasses() {
+        final BufferPool pool = new BufferPool(1024 * 1024);
+
+        assertEquals(BufferPool.MIN_POOLED_SIZE, pool.acquire(1).length);
+        assertEquals(BufferPool.MIN_POOLED_SIZE, pool.acquire(BufferPool.MIN_POOLED_SIZE).length);
+        assertEquals(1024, pool.acquire(BufferPool.MIN_POOLED_SIZE + 1).length);
+        assertEquals(8192, pool.acquire(8192).length);
+        assertEquals(BufferPool.MAX_POOLED_SIZE + 1, pool.acquire(BufferPool.MAX_POOLED_SIZE + 1).length);
+
+        assertEquals(BufferPool.MIN_POOLED_SIZE, BufferPool.acquiredSize(1));
+        assertEquals(1024, BufferPool.acquiredSize(BufferPool.MIN_POOLED_SIZE + 1));
+        assertEquals(BufferPool.MAX_POOLED_SIZE + 1, BufferPool.acquiredSize(BufferPool.MAX_POOLED_SIZE + 1));
+    }
+
+    @Test
+    public void testThreadLocalReuse() {
+        final BufferPool pool = new BufferPool(0);
+
+        final byte[] buffer = pool.acquire(4000);
+        pool.release(buffer);
+
+        assertSame(buffer, pool.acquire(3000));
+        assertNotSame(buffer, pool.acquire(3000));
+    }
+
+    @Test
+    public void testGlobalReuse() throws Exception {
+        final BufferPool pool = new BufferPool(1024 * 1024);
+
+        final byte[] buffer = pool.acquire(BufferPool.MAX_THREAD_LOCAL_SIZE * 2);
+        final Thread thread = new Thread() {
+            @Override
+            public void run() {
+                pool.release(buffer);
+            }
+        };
+        thread.start();
+        thread.join();
+
+        assertEquals(buffer.length, pool.getPooledBytes());
+        assertSame(buffer, pool.acquire(buffer.length));
+        assertEquals(0, pool.getPooledBytes());
+    }
+
+    @Test
+    public void testPoolLimit() {
+        final BufferPool pool = new BufferPool(BufferPool.MAX_POOLED_SIZE);
+
+        pool.release(new byte[BufferPool.MAX_POOLED_SIZE]);
+        pool.release(new byte[BufferPool.MAX_POOLED_SIZE]);
+        assertEquals(BufferPool.MAX_POOLED_SIZE, pool.getPooledBytes());
+
+        // not matching any size class
+        pool.release(new byte[1000]);
+        assertEquals(BufferPool.MAX_POOLED_SIZE, pool.getPooledBytes());
+    }
+
+    @Test
+    public void testPooledOutputStream() {
+        final BufferPool pool = new BufferPool(1024 * 1024);
+        final PooledByteArrayOutputStream stream = new PooledByteArrayOutputStream(pool);
+
+        final byte[] data = new byte[3000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        stream.write(data[0]);
+        stream.write(data, 1, data.length - 1);
+
+        assertEquals(data.length, stream.size());
+        assertArrayEquals(data, stream.toByteArray());
+
+        stream.release();
+        assertEquals(0, stream.size());
+        stream.write(data, 0, 10);
+        assertEquals(10, stream.toByteArray().length);
+    }
+
+    @Test
+    public void testPooledOutputStreamToInputStream() throws Exception {
+        final BufferPool pool = new BufferPool(1024 * 1024);
+        final PooledByteArrayOutputStream stream = new PooledByteArrayOutputStream(pool);
+
+        final byte[] data = new byte[3000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        stream.write(data, 0, data.length);
+
+        final PooledByteArrayOutputStream.PooledInputStream in = stream.toInputStream();
+        assertEquals(0, stream.size());
+        assertEquals(0, pool.getPooledBytes());
+
+        final byte[] read = new byte[data.length];
+        assertEquals(data.length, in.read(read));
+        assertArrayEquals(data, read);
+        assertEquals(-1, in.read());
+
+        // closing the input stream does not release the buffer, the content can be read again
+        in.close();
+        in.reset();
+        assertEquals(data[0], (byte) in.read());
+
+        // buffer is returned to the pool once the input stream is released
+        in.release();
+        in.release();
+        assertEquals(-1, in.read());
+        // the released (thread-local) buffer still contains the original data, newly allocated buffers are zeroed
+        assertEquals(data[1], pool.acquire(data.length)[1]);
+    }
+}
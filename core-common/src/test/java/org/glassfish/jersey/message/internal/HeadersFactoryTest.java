@@ -0,0 +1,99 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.util.Collections;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.RuntimeDelegate;
+
+import org.glassfish.jersey.internal.TestRuntimeDelegate;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * {@link HeadersFactory} and {@link Statuses} unit test.
+ *
+ * @author Marek Potociar (marek.potociar at oracle.com)
+ */
+public class HeadersFactoryTest {
+
+    public HeadersFactoryTest() {
+        RuntimeDelegate.setInstance(new TestRuntimeDelegate());
+    }
+
+    @Test
+    public void testMediaTypeConstantsArePreRendered() {
+        final RuntimeDelegate rd = RuntimeDelegate.getInstance();
+        final String rendered = HeadersFactory.asString(MediaType.APPLICATION_JSON_TYPE, rd);
+
+        assertEquals("application/json", rendered);
+        assertSame(rendered, HeadersFactory.asString(MediaType.APPLICATION_JSON_TYPE, rd));
+    }
+
+    @Test
+    public void testPreRender() {
+        final RuntimeDelegate rd = RuntimeDelegate.getInstance();
+        final MediaType mediaType = new MediaType("text", "plain", Collections.singletonMap("charset", "utf-8"));
+
+        assertNotSame(HeadersFactory.asString(mediaType, rd), HeadersFactory.asString(mediaType, rd));
+
+        HeadersFactory.preRender(mediaType);
+        final String rendered = HeadersFactory.asString(mediaType, rd);
+        assertEquals("text/plain; charset=utf-8", rendered);
+        assertSame(rendered, HeadersFactory.asString(mediaType, rd));
+
+        // pre-rendering is bound to the instance
+        assertEquals(rendered, HeadersFactory.asString(new MediaType("text", "plain", Collections.singletonMap("charset", "utf-8")), rd));
+    }
+
+    @Test
+    public void testStatuses() {
+        assertSame(Response.Status.OK, Statuses.from(200));
+        assertSame(Response.Status.NOT_FOUND, Statuses.from(404));
+        assertEquals(299, Statuses.from(299).getStatusCode());
+        assertEquals("", Statuses.from(299).getReasonPhrase());
+        assertEquals(1000, Statuses.from(1000).getStatusCode());
+    }
+}
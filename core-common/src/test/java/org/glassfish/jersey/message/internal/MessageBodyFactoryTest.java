@@ -0,0 +1,253 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.RuntimeDelegate;
+
+import org.glassfish.jersey.internal.TestBinder;
+import org.glassfish.jersey.internal.TestRuntimeDelegate;
+import org.glassfish.jersey.internal.inject.Injections;
+import org.glassfish.jersey.message.MessageBodyWorkers;
+
+import org.glassfish.hk2.api.ServiceLocator;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link MessageBodyFactory} lookup caching and media type query tests.
+ *
+ * @author Marek Potociar (marek.potociar at oracle.com)
+ */
+public class MessageBodyFactoryTest {
+
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    @Produces("text/plain")
+    public static class UnstableStringWriter implements MessageBodyWriter<String> {
+
+        @Override
+        public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return true;
+        }
+
+        @Override
+        public long getSize(String s, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(String s, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+                throws IOException, WebApplicationException {
+            entityStream.write(s.getBytes());
+        }
+    }
+
+    public static class Bean {
+    }
+
+    public static class Other {
+    }
+
+    /**
+     * Lenient bean worker that claims to support any Java type.
+     */
+    @Produces("application/bean")
+    @Consumes("application/bean")
+    public static class LenientBeanWorker implements MessageBodyWriter<Bean>, MessageBodyReader<Bean> {
+
+        @Override
+        public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return true;
+        }
+
+        @Override
+        public long getSize(Bean bean, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(Bean bean, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+                throws IOException, WebApplicationException {
+            entityStream.write("bean".getBytes());
+        }
+
+        @Override
+        public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return true;
+        }
+
+        @Override
+        public Bean readFrom(Class<Bean> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                             MultivaluedMap<String, String> httpHeaders, InputStream entityStream)
+                throws IOException, WebApplicationException {
+            return new Bean();
+        }
+    }
+
+    /**
+     * Generic writer declared for {@link Object}.
+     */
+    @Produces("application/any")
+    public static class AnyWriter implements MessageBodyWriter<Object> {
+
+        @Override
+        public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return true;
+        }
+
+        @Override
+        public long getSize(Object o, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(Object o, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+                throws IOException, WebApplicationException {
+            entityStream.write(o.toString().getBytes());
+        }
+    }
+
+    @Before
+    public void setUp() {
+        RuntimeDelegate.setInstance(new TestRuntimeDelegate());
+    }
+
+    private MessageBodyFactory createFactory(Class<?>... providers) {
+        final ServiceLocator locator = Injections.createLocator(new TestBinder());
+        TestBinder.initProviders(locator, new HashSet<Class<?>>(Arrays.asList(providers)),
+                Collections.<Object>emptySet());
+        return (MessageBodyFactory) locator.getService(MessageBodyWorkers.class);
+    }
+
+    @Test
+    public void testCandidatesShareKeyRegardlessOfMediaTypeParameters() {
+        final MessageBodyFactory factory = createFactory();
+
+        final MessageBodyWriter<String> utf8 = factory.getMessageBodyWriter(String.class, String.class, NO_ANNOTATIONS,
+                MediaType.valueOf("text/plain;charset=UTF-8"));
+        final MessageBodyWriter<String> plain = factory.getMessageBodyWriter(String.class, String.class, NO_ANNOTATIONS,
+                MediaType.TEXT_PLAIN_TYPE);
+
+        assertSame(utf8, plain);
+        assertEquals(1, factory.getLookupStatistics().getWriterCandidates().missCount());
+        assertEquals(1, factory.getLookupStatistics().getWriterCandidates().hitCount());
+        assertEquals(2, factory.getLookupStatistics().getWriterSelections().missCount());
+    }
+
+    @Test
+    public void testStableSelectionIsCached() {
+        final MessageBodyFactory factory = createFactory();
+
+        final MessageBodyWriter<String> first = factory.getMessageBodyWriter(String.class, String.class, NO_ANNOTATIONS,
+                MediaType.TEXT_PLAIN_TYPE);
+        final MessageBodyWriter<String> second = factory.getMessageBodyWriter(String.class, String.class, NO_ANNOTATIONS,
+                MediaType.TEXT_PLAIN_TYPE);
+
+        assertSame(StringMessageProvider.class, first.getClass());
+        assertSame(first, second);
+        assertEquals(1, factory.getLookupStatistics().getWriterSelections().hitCount());
+        assertEquals(1, factory.getLookupStatistics().getWriterCandidates().requestCount());
+    }
+
+    @Test
+    public void testUnstableSelectionIsNotCached() {
+        final MessageBodyFactory factory = createFactory(UnstableStringWriter.class);
+
+        for (int i = 0; i < 3; i++) {
+            assertSame(UnstableStringWriter.class, factory.getMessageBodyWriter(String.class, String.class,
+                    NO_ANNOTATIONS, MediaType.TEXT_PLAIN_TYPE).getClass());
+        }
+
+        assertEquals(0, factory.getLookupStatistics().getWriterSelections().hitCount());
+        assertEquals(2, factory.getLookupStatistics().getWriterCandidates().hitCount());
+    }
+
+    @Test
+    public void testMediaTypesOfIncompatibleWorkersAreSkipped() {
+        // eager (default) worker initialization
+        final MessageBodyFactory factory = createFactory(LenientBeanWorker.class, AnyWriter.class);
+        final MediaType bean = MediaType.valueOf("application/bean");
+        final MediaType any = MediaType.valueOf("application/any");
+
+        final List<MediaType> stringWriterTypes =
+                factory.getMessageBodyWriterMediaTypes(String.class, String.class, NO_ANNOTATIONS);
+        assertFalse(stringWriterTypes.contains(bean));
+        assertTrue(stringWriterTypes.contains(any));
+        assertTrue(stringWriterTypes.contains(MediaType.TEXT_PLAIN_TYPE));
+        assertTrue(factory.getMessageBodyWriterMediaTypes(Bean.class, Bean.class, NO_ANNOTATIONS).contains(bean));
+
+        assertFalse(factory.getMessageBodyReaderMediaTypes(String.class, String.class, NO_ANNOTATIONS).contains(bean));
+        assertTrue(factory.getMessageBodyReaderMediaTypes(Bean.class, Bean.class, NO_ANNOTATIONS).contains(bean));
+
+        // no built-in worker supports the type
+        assertNull(factory.getMessageBodyWriterMediaType(Other.class, Other.class, NO_ANNOTATIONS,
+                Collections.singletonList(bean)));
+        assertEquals(bean, factory.getMessageBodyWriterMediaType(Bean.class, Bean.class, NO_ANNOTATIONS,
+                Collections.singletonList(bean)));
+        assertEquals(any, factory.getMessageBodyWriterMediaType(Other.class, Other.class, NO_ANNOTATIONS,
+                Collections.singletonList(any)));
+    }
+}
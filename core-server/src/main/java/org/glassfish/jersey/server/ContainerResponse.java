@@ -354,6 +354,27 @@ public class ContainerResponse implements ContainerResponseContext {
         messageContext.setStreamProvider(streamProvider);
     }
 
+    /**
+     * Enable buffering of the serialized response entity.
+     *
+     * @param bufferSize size of the buffer in bytes. If not positive, the buffering is disabled.
+     * @see OutboundMessageContext#enableBuffering(int)
+     */
+    public void enableBuffering(int bufferSize) {
+        messageContext.enableBuffering(bufferSize);
+    }
+
+    /**
+     * Get the length of the serialized response entity in case the entity has been fully buffered
+     * before the entity stream was committed.
+     *
+     * @return length of the fully buffered entity in bytes or {@code -1} if the length is not known.
+     * @see OutboundMessageContext#getBufferedContentLength()
+     */
+    public long getBufferedContentLength() {
+        return messageContext.getBufferedContentLength();
+    }
+
     /**
      * Commits the {@link #getEntityStream() entity stream} if it wasn't already committed.
      */
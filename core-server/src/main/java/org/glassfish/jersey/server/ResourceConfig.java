@@ -39,7 +39,6 @@
  */
 package org.glassfish.jersey.server;
 
-import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -59,7 +58,7 @@ import org.glassfish.jersey.model.internal.FeatureBag;
 import org.glassfish.jersey.model.internal.ProviderBag;
 import org.glassfish.jersey.model.internal.DefaultConfig;
 import org.glassfish.jersey.server.internal.LocalizationMessages;
-import org.glassfish.jersey.server.internal.scanning.AnnotationAcceptingListener;
+import org.glassfish.jersey.server.internal.scanning.AnnotatedClassScanner;
 import org.glassfish.jersey.server.internal.scanning.FilesScanner;
 import org.glassfish.jersey.server.internal.scanning.PackageNamesScanner;
 import org.glassfish.jersey.server.model.Resource;
@@ -515,22 +514,9 @@ public class ResourceConfig extends Application {
             rfs.add(new FilesScanner(classPathElements));
         }
 
-        AnnotationAcceptingListener afl = AnnotationAcceptingListener.newJaxrsResourceAndProviderListener(classLoader);
-        for (ResourceFinder resourceFinder : rfs) {
-            while (resourceFinder.hasNext()) {
-                final String next = resourceFinder.next();
-                if (afl.accept(next)) {
-                    try {
-                        afl.process(next, resourceFinder.open());
-                    } catch (IOException e) {
-                        // TODO L10N
-                        LOGGER.log(Level.WARNING, "Unable to process {0}", next);
-                    }
-                }
-            }
-        }
-
-        result.addAll(afl.getAnnotatedClasses());
+        final int parallelism = PropertiesHelper.getValue(internalState.getProperties(),
+                ServerProperties.PROVIDER_SCANNING_PARALLELISM, Runtime.getRuntime().availableProcessors(), Integer.class);
+        result.addAll(AnnotatedClassScanner.scan(rfs, classLoader, parallelism));
         result.addAll(internalState.getProviderClasses());
         result.addAll(classes);
         return result;
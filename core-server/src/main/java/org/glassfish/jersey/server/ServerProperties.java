@@ -119,6 +119,34 @@ public final class ServerProperties {
     @SuppressWarnings("HtmlTagCanBeJavadocTag")
     public static final String PROVIDER_CLASSNAMES = "jersey.config.server.provider.classnames";
 
+    /**
+     * Defines the maximum number of threads used to scan the packages and class-path
+     * configured via {@link #PROVIDER_PACKAGES} and {@link #PROVIDER_CLASSPATH}
+     * for JAX-RS root resources and providers.
+     * <p>
+     * Every class-path root (directory or jar file) of a scanned package is scanned
+     * independently. If the value is greater than {@code 1} and there is more than one
+     * root to be scanned, the roots are scanned in parallel. Setting the value to
+     * {@code 1} (or less) makes the scanning sequential.
+     * </p>
+     * <p>
+     * Independently of this property, class-path roots that contain a resource index
+     * generated at build time in {@code META-INF/jersey/resource-index} are not scanned;
+     * only the indexed classes are inspected.
+     * </p>
+     * <p>
+     * The value MUST be an instance of {@link Integer} or a {@link String} representing an integer.
+     * </p>
+     * <p>
+     * The default value is the number of processors available to the JVM.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String PROVIDER_SCANNING_PARALLELISM = "jersey.config.server.provider.scanning.parallelism";
+
     /**
      * Defines mapping of URI extensions to media types.
      * The property is used by {@link org.glassfish.jersey.server.filter.UriConnegFilter}. See it's javadoc for more
@@ -236,6 +264,56 @@ public final class ServerProperties {
     @SuppressWarnings("HtmlTagCanBeJavadocTag")
     public static final String FEATURE_DISABLE_WADL = "jersey.config.server.wadl.disableWadl";
 
+    /**
+     * Defines the maximum number of sub-resource runtime routers cached by the application.
+     * <p>
+     * Every time a sub-resource locator returns a sub-resource, a runtime router for the class of the returned
+     * sub-resource has to be built. Built routers are cached per sub-resource class so that subsequent requests
+     * routed to a sub-resource of the same class reuse the existing router. Once the cache reaches the
+     * configured size, least recently used routers are evicted. Setting the size to {@code 0} disables the cache.
+     * </p>
+     * <p>
+     * The value MUST be an instance of {@link Integer} or a {@link String} representing an integer.
+     * </p>
+     * <p>
+     * The default value is {@value org.glassfish.jersey.server.internal.routing.SubResourceRouterCache#DEFAULT_MAX_SIZE}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String SUBRESOURCE_LOCATOR_CACHE_SIZE = "jersey.config.server.subresource.cache.size";
+
+    /**
+     * Defines the size of the buffer used to compute the {@code Content-Length} of outbound response entities.
+     * <p>
+     * Most {@link javax.ws.rs.ext.MessageBodyWriter message body writers} do not know the size of the serialized
+     * entity in advance. Such responses would be sent with the chunked transfer encoding. Instead, an entity is buffered
+     * until either it is completely written or its size exceeds the buffer size. A completely buffered entity is sent
+     * with an exact {@code Content-Length} header, larger entities are transparently streamed. The buffers are pooled
+     * and reused. Setting the size to {@code 0} disables the buffering. Chunked output,
+     * {@link javax.ws.rs.core.StreamingOutput streaming output} and responses to {@code HEAD} requests are never
+     * buffered.
+     * </p>
+     * <p>
+     * Note that flushing the entity output stream does not send the buffered content to the client until the buffer
+     * size is exceeded. Applications that rely on flushing partial entities written by other message body writers
+     * should not enable the buffering.
+     * </p>
+     * <p>
+     * The value MUST be an instance of {@link Integer} or a {@link String} representing an integer.
+     * </p>
+     * <p>
+     * The default value is {@code 0}, i.e. the buffering is disabled.
+     * </p>
+     * <p>
+     * The name of the configuration property is <code>{@value}</code>.
+     * </p>
+     */
+    @SuppressWarnings("HtmlTagCanBeJavadocTag")
+    public static final String OUTBOUND_CONTENT_LENGTH_BUFFER = "jersey.config.server.contentLength.buffer";
+
     private ServerProperties() {
         // prevents instantiation
     }
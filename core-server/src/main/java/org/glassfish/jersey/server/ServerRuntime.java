@@ -53,7 +53,6 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.ws.rs.HttpMethod;
-import javax.ws.rs.NotFoundException;
 import javax.ws.rs.ServiceUnavailableException;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.container.AsyncResponse;
@@ -61,8 +60,10 @@ import javax.ws.rs.container.CompletionCallback;
 import javax.ws.rs.container.ConnectionCallback;
 import javax.ws.rs.container.ResumeCallback;
 import javax.ws.rs.container.TimeoutHandler;
+import javax.ws.rs.core.Configurable;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.ext.ExceptionMapper;
 
 import javax.inject.Inject;
@@ -72,6 +73,7 @@ import org.glassfish.jersey.internal.ProcessingException;
 import org.glassfish.jersey.internal.inject.Injections;
 import org.glassfish.jersey.internal.util.Closure;
 import org.glassfish.jersey.internal.util.Producer;
+import org.glassfish.jersey.internal.util.PropertiesHelper;
 import org.glassfish.jersey.internal.util.collection.Ref;
 import org.glassfish.jersey.internal.util.collection.Refs;
 import org.glassfish.jersey.internal.util.collection.Value;
@@ -88,6 +90,7 @@ import org.glassfish.jersey.server.internal.process.AsyncContext;
 import org.glassfish.jersey.server.internal.process.Endpoint;
 import org.glassfish.jersey.server.internal.process.MappableException;
 import org.glassfish.jersey.server.internal.process.RespondingContext;
+import org.glassfish.jersey.server.internal.process.RoutingExceptions;
 import org.glassfish.jersey.server.spi.ContainerResponseWriter;
 import org.glassfish.jersey.spi.ExceptionMappers;
 import static org.glassfish.jersey.server.internal.process.AsyncContext.State.COMPLETED;
@@ -103,6 +106,11 @@ import org.glassfish.hk2.api.ServiceLocator;
  * @author Marek Potociar (marek.potociar at oracle.com)
  */
 class ServerRuntime {
+    /**
+     * Default size of the buffer used to compute the outbound entity {@code Content-Length} (buffering disabled).
+     */
+    private static final int DEFAULT_CONTENT_LENGTH_BUFFER_SIZE = 0;
+
     private final Stage<ContainerRequest> requestProcessingRoot;
 
     private final ServiceLocator locator;
@@ -113,6 +121,7 @@ class ServerRuntime {
     private final Provider<Ref<Value<AsyncContext>>> asyncContextFactoryProvider;
     private final Provider<AsyncContext> asyncContextProvider;
     private final ExecutorsFactory<ContainerRequest> asyncExecutorsFactory;
+    private final int contentLengthBufferSize;
 
     /**
      * Server-side request processing runtime builder.
@@ -132,6 +141,8 @@ class ServerRuntime {
         private Provider<AsyncContext> asyncContextProvider;
         @Inject
         private ExecutorsFactory<ContainerRequest> asyncExecutorsFactory;
+        @Inject
+        private Configurable configuration;
 
         /**
          * Create new server-side request processing runtime.
@@ -148,7 +159,9 @@ class ServerRuntime {
                     closeableServiceProvider,
                     asyncContextRefProvider,
                     asyncContextProvider,
-                    asyncExecutorsFactory);
+                    asyncExecutorsFactory,
+                    PropertiesHelper.getValue(configuration.getProperties(), ServerProperties.OUTBOUND_CONTENT_LENGTH_BUFFER,
+                            DEFAULT_CONTENT_LENGTH_BUFFER_SIZE));
         }
     }
 
@@ -159,7 +172,8 @@ class ServerRuntime {
                           Provider<CloseableService> closeableServiceProvider,
                           Provider<Ref<Value<AsyncContext>>> asyncContextFactoryProvider,
                           Provider<AsyncContext> asyncContextProvider,
-                          ExecutorsFactory<ContainerRequest> asyncExecutorsFactory) {
+                          ExecutorsFactory<ContainerRequest> asyncExecutorsFactory,
+                          int contentLengthBufferSize) {
         this.requestProcessingRoot = requestProcessingRoot;
         this.locator = locator;
         this.requestScope = requestScope;
@@ -168,6 +182,7 @@ class ServerRuntime {
         this.asyncContextFactoryProvider = asyncContextFactoryProvider;
         this.asyncContextProvider = asyncContextProvider;
         this.asyncExecutorsFactory = asyncExecutorsFactory;
+        this.contentLengthBufferSize = contentLengthBufferSize;
     }
 
     /**
@@ -185,7 +200,8 @@ class ServerRuntime {
                         locator.<RespondingContext>getService(RespondingContext.class),
                         exceptionMappers,
                         closeableServiceProvider,
-                        asyncContextProvider);
+                        asyncContextProvider,
+                        contentLengthBufferSize);
 
                 final AsyncResponderHolder asyncResponderHolder = new AsyncResponderHolder(
                         responder, locator, requestScope, requestScope.referenceCurrent(), asyncExecutorsFactory);
@@ -197,7 +213,7 @@ class ServerRuntime {
                     final Endpoint endpoint = endpointRef.get();
                     if (endpoint == null) {
                         // not found
-                        throw new NotFoundException();
+                        throw RoutingExceptions.notFound();
                     }
 
                     asyncContextFactoryProvider.get().set(asyncResponderHolder);
@@ -264,6 +280,7 @@ class ServerRuntime {
         private final ExceptionMappers exceptionMappers;
         private final Provider<CloseableService> closeableService;
         private final Provider<AsyncContext> asyncContext;
+        private final int contentLengthBufferSize;
 
 
         private final CompletionCallbackRunner completionCallbackRunner = new CompletionCallbackRunner();
@@ -274,13 +291,15 @@ class ServerRuntime {
                          final RespondingContext respondingCtx,
                          final ExceptionMappers exceptionMappers,
                          final Provider<CloseableService> closeableService,
-                         final Provider<AsyncContext> asyncContext) {
+                         final Provider<AsyncContext> asyncContext,
+                         final int contentLengthBufferSize) {
 
             this.request = request;
             this.respondingCtx = respondingCtx;
             this.exceptionMappers = exceptionMappers;
             this.closeableService = closeableService;
             this.asyncContext = asyncContext;
+            this.contentLengthBufferSize = contentLengthBufferSize;
         }
 
         public void process(ContainerResponse response) {
@@ -322,6 +341,15 @@ class ServerRuntime {
 
         @SuppressWarnings("unchecked")
         private Response mapException(Throwable throwable) throws Throwable {
+            if (throwable instanceof RoutingExceptions.RoutingException) {
+                // fast path for request routing failures - unless intercepted by a custom exception mapper,
+                // the prepared response is returned directly
+                final ExceptionMapper mapper = exceptionMappers.find(throwable.getClass());
+                if (mapper == null) {
+                    return ((RoutingExceptions.RoutingException) throwable).getResponse();
+                }
+            }
+
             if (throwable instanceof MappableException) {
                 // extract cause and continue with exception mapping
                 throwable = throwable.getCause();
@@ -398,15 +426,23 @@ class ServerRuntime {
             }
 
             final Object entity = response.getEntity();
+            final boolean isHead = request.getMethod().equals(HttpMethod.HEAD);
             boolean skipFinally = false;
             try {
+                // streaming entities are expected to reach the client as they are flushed
+                if (!isHead && !response.isChunked() && !(entity instanceof StreamingOutput)) {
+                    response.enableBuffering(contentLengthBufferSize);
+                }
                 response.setStreamProvider(new OutboundMessageContext.StreamProvider() {
                     private OutputStream output;
 
                     @Override
                     public void commit() throws IOException {
                         final long size;
-                        if (response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING) != null) {
+                        if (response.getBufferedContentLength() >= 0) {
+                            // the whole (possibly encoded) entity has been buffered
+                            size = response.getBufferedContentLength();
+                        } else if (response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING) != null) {
                             size = -1;
                         } else {
                             size = messageBodySizeCallback.getSize();
@@ -431,7 +467,7 @@ class ServerRuntime {
                             response.getEntityStream(),
                             messageBodySizeCallback,
                             true,
-                            !request.getMethod().equals(HttpMethod.HEAD)));
+                            !isHead));
                 } catch (IOException ioe) {
                     connectionCallbackRunner.onDisconnect(asyncContext.get());
                     throw ioe;
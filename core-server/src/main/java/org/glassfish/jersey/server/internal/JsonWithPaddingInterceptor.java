@@ -40,19 +40,20 @@
 package org.glassfish.jersey.server.internal;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.annotation.Annotation;
+import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 import javax.ws.rs.BindingPriority;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.MultivaluedMap;
-import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.ext.InterceptorContext;
 import javax.ws.rs.ext.WriterInterceptor;
 import javax.ws.rs.ext.WriterInterceptorContext;
@@ -60,12 +61,19 @@ import javax.ws.rs.ext.WriterInterceptorContext;
 import javax.inject.Inject;
 import javax.inject.Provider;
 
+import org.glassfish.jersey.message.internal.ReaderWriter;
 import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.JSONP;
 
 /**
  * A {@link WriterInterceptor} implementation for JSONP format. This interceptor wraps a JSON stream obtained by a underlying
  * JSON provider into a callback function that can be defined by the {@link JSONP} annotation.
+ * <p/>
+ * The wrapping is streamed: the callback prefix is written to the entity stream before the JSON entity is written by the
+ * underlying provider and the suffix is written after it, the JSON entity itself is never copied or buffered by this
+ * interceptor. Callback function names obtained from a query parameter must be valid JavaScript identifiers (optionally
+ * qualified by dots or followed by numeric index brackets), otherwise the request is rejected with the
+ * {@code 400 Bad Request} status.
  *
  * @author Michal Gajdos (michal.gajdos at oracle.com)
  * @see JSONP
@@ -73,6 +81,13 @@ import org.glassfish.jersey.server.JSONP;
 @BindingPriority(BindingPriority.HEADER_DECORATOR)
 public class JsonWithPaddingInterceptor implements WriterInterceptor {
 
+    /**
+     * Allowed JavaScript callback function names, e.g. {@code callback}, {@code jQuery1720_1354.cb} or
+     * {@code handlers[2]}.
+     */
+    private static final Pattern CALLBACK_PATTERN =
+            Pattern.compile("[a-zA-Z_$][0-9a-zA-Z_$]*(?:\\.[a-zA-Z_$][0-9a-zA-Z_$]*|\\[[0-9]+\\])*");
+
     private final Map<String, Set<String>> javascriptTypes;
     private Provider<ContainerRequest> containerRequestProvider;
 
@@ -91,18 +106,24 @@ public class JsonWithPaddingInterceptor implements WriterInterceptor {
     public void aroundWriteTo(final WriterInterceptorContext context) throws IOException, WebApplicationException {
         final boolean isJavascript = isJavascript(context.getMediaType());
 
-        if (isJavascript) {
-            context.setMediaType(MediaType.APPLICATION_JSON_TYPE);
-
-            context.getOutputStream().write(getCallbackName(context).getBytes());
-            context.getOutputStream().write('(');
+        if (!isJavascript) {
+            context.proceed();
+            return;
         }
 
+        final Charset charset = ReaderWriter.getCharset(context.getMediaType());
+        final String callback = getCallbackName(context);
+
+        context.setMediaType(MediaType.APPLICATION_JSON_TYPE);
+
+        // the callback is written directly before and after the JSON entity, no copy of the entity is made
+        final OutputStream entityStream = context.getOutputStream();
+        entityStream.write((callback + '(').getBytes(charset));
+
         context.proceed();
 
-        if (isJavascript) {
-            context.getOutputStream().write(')');
-        }
+        // the output stream may have been replaced by other interceptors
+        context.getOutputStream().write(")".getBytes(charset));
     }
 
     /**
@@ -124,10 +145,13 @@ public class JsonWithPaddingInterceptor implements WriterInterceptor {
     /**
      * Returns a JavaScript callback name to wrap the JSON result into. The callback name is determined either from the {@link
      * JSONP} annotation or is set to the {@value JSONP#DEFAULT_CALLBACK} if the name cannot be obtained from the {@link
-     * JSONP} annotation.
+     * JSONP} annotation. The query parameters are obtained from the request scoped {@link javax.ws.rs.core.UriInfo UriInfo} which parses the request
+     * query only once per request.
      *
      * @param context context to determine the callback name from.
      * @return a JavaScript callback name.
+     * @throws WebApplicationException with the {@code 400 Bad Request} status if the callback name obtained from the query
+     *         parameter is not a valid callback name.
      */
     private String getCallbackName(final InterceptorContext context) {
         String callback = JSONP.DEFAULT_CALLBACK;
@@ -138,11 +162,14 @@ public class JsonWithPaddingInterceptor implements WriterInterceptor {
 
             if (!"".equals(jsonp.queryParam())) {
                 final ContainerRequest containerRequest = containerRequestProvider.get();
-                final UriInfo uriInfo = containerRequest.getUriInfo();
-                final MultivaluedMap<String, String> queryParameters = uriInfo.getQueryParameters();
-                final List<String> queryParameter = queryParameters.get(jsonp.queryParam());
+                final String queryCallback = containerRequest.getUriInfo().getQueryParameters(true).getFirst(jsonp.queryParam());
 
-                callback = (queryParameter != null && !queryParameter.isEmpty()) ? queryParameter.get(0) : callback;
+                if (queryCallback != null && queryCallback.length() > 0) {
+                    if (!CALLBACK_PATTERN.matcher(queryCallback).matches()) {
+                        throw new WebApplicationException(Response.Status.BAD_REQUEST);
+                    }
+                    callback = queryCallback;
+                }
             }
         }
 
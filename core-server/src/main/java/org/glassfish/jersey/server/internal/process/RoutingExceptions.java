@@ -0,0 +1,175 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.process;
+
+import java.util.Set;
+
+import javax.ws.rs.NotAcceptableException;
+import javax.ws.rs.NotAllowedException;
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.NotSupportedException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+/**
+ * Factory of the exceptions used by the request routing to signal that no resource method
+ * can handle the request (404, 405, 406 and 415 responses).
+ * <p>
+ * Unlike ordinary exceptions, the exceptions created by this factory do not capture the stack trace.
+ * These outcomes are regular, often very frequent (e.g. in case of scanner traffic), results of the
+ * request matching and the stack trace of such an exception does not carry any useful information.
+ * The exceptions still extend the standard JAX-RS exception types so that the registered
+ * {@link javax.ws.rs.ext.ExceptionMapper exception mappers} can intercept them as usual.
+ * </p>
+ * <p>
+ * Note that the exception instances cannot be shared among requests, because the wrapped {@link Response}
+ * is used to initialize the (mutable) container response.
+ * </p>
+ *
+ * @author Marek Potociar (marek.potociar at oracle.com)
+ */
+public final class RoutingExceptions {
+
+    /**
+     * Marker interface implemented by all stack-less routing exceptions.
+     */
+    public static interface RoutingException {
+
+        /**
+         * Get the response that should be sent to the client unless the exception is mapped
+         * by a registered exception mapper.
+         *
+         * @return routing failure response.
+         */
+        public Response getResponse();
+    }
+
+    /**
+     * Create new exception signalling that no resource matches the request (404).
+     *
+     * @return not found exception without a stack trace.
+     */
+    public static WebApplicationException notFound() {
+        return new StacklessNotFoundException();
+    }
+
+    /**
+     * Create new exception signalling that the request method is not supported
+     * by the matched resource (405).
+     *
+     * @param allowedMethods methods supported by the matched resource.
+     * @return not allowed exception without a stack trace.
+     */
+    public static WebApplicationException notAllowed(final Set<String> allowedMethods) {
+        return new StacklessNotAllowedException(Response.status(Response.Status.METHOD_NOT_ALLOWED)
+                .allow(allowedMethods).build());
+    }
+
+    /**
+     * Create new exception signalling that the request entity media type is not supported
+     * by the matched resource (415).
+     *
+     * @return not supported exception without a stack trace.
+     */
+    public static WebApplicationException notSupported() {
+        return new StacklessNotSupportedException();
+    }
+
+    /**
+     * Create new exception signalling that the matched resource cannot produce any of the media types
+     * acceptable by the client (406).
+     *
+     * @return not acceptable exception without a stack trace.
+     */
+    public static WebApplicationException notAcceptable() {
+        return new StacklessNotAcceptableException();
+    }
+
+    private static class StacklessNotFoundException extends NotFoundException implements RoutingException {
+
+        private static final long serialVersionUID = -3624537385046290394L;
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    private static class StacklessNotAllowedException extends NotAllowedException implements RoutingException {
+
+        private static final long serialVersionUID = 4381806370285413651L;
+
+        StacklessNotAllowedException(final Response response) {
+            super(response);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    private static class StacklessNotSupportedException extends NotSupportedException implements RoutingException {
+
+        private static final long serialVersionUID = 8053467127904765531L;
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    private static class StacklessNotAcceptableException extends NotAcceptableException implements RoutingException {
+
+        private static final long serialVersionUID = -1427061953471227102L;
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    /**
+     * Prevents instantiation.
+     */
+    private RoutingExceptions() {
+        throw new AssertionError("No instances allowed.");
+    }
+}
@@ -51,18 +51,17 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.ws.rs.HttpMethod;
-import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Configurable;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
-import javax.ws.rs.core.Response.Status;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
 
 import org.glassfish.jersey.internal.util.PropertiesHelper;
 import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.message.internal.HeadersFactory;
 import org.glassfish.jersey.message.internal.MediaTypes;
 import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.ContainerResponse;
@@ -70,17 +69,24 @@ import org.glassfish.jersey.server.ServerProperties;
 import org.glassfish.jersey.server.internal.LocalizationMessages;
 import org.glassfish.jersey.server.internal.process.Endpoint;
 import org.glassfish.jersey.server.internal.process.RespondingContext;
+import org.glassfish.jersey.server.internal.process.RoutingExceptions;
 import org.glassfish.jersey.server.model.Invocable;
 import org.glassfish.jersey.server.model.Parameter;
 import org.glassfish.jersey.server.model.Resource;
 import org.glassfish.jersey.server.model.ResourceMethod;
 import org.glassfish.jersey.server.wadl.WadlApplicationContext;
+import org.glassfish.jersey.server.wadl.internal.ResourceWadlTemplate;
+import org.glassfish.jersey.server.wadl.internal.WadlDocument;
 import org.glassfish.jersey.server.wadl.internal.WadlResource;
+import org.glassfish.jersey.uri.UriTemplate;
 
 import org.jvnet.hk2.annotations.Optional;
 
 import com.google.common.base.Function;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Sets;
+import com.sun.research.ws.wadl.Application;
 
 /**
  * A single router responsible for selecting a single method from all the methods
@@ -96,6 +102,11 @@ import com.google.common.collect.Sets;
 final class MethodSelectingRouter implements Router {
 
     private static final Logger LOGGER = Logger.getLogger(MethodSelectingRouter.class.getName());
+    /**
+     * Maximum number of matched resource templates (per base URI) a resource caches the WADL
+     * returned by {@code OPTIONS} requests for.
+     */
+    private static final int MAX_CACHED_OPTIONS_WADLS = 64;
 
     private final Provider<RespondingContext> respondingContextFactory;
     private final MessageBodyWorkers workers;
@@ -366,6 +377,10 @@ final class MethodSelectingRouter implements Router {
         final List<MediaType> effectiveOutputTypes = new LinkedList<MediaType>();
         boolean producesFromWorkers = fillMediaTypes(effectiveOutputTypes, resourceMethod, resourceMethod.getProducedTypes(),
                 false);
+        for (MediaType produces : effectiveOutputTypes) {
+            // produced media type instances are reused as response Content-Type values
+            HeadersFactory.preRender(produces);
+        }
 
         for (MediaType consumes : effectiveInputTypes) {
             for (MediaType produces : effectiveOutputTypes) {
@@ -418,8 +433,7 @@ final class MethodSelectingRouter implements Router {
     private Router getMethodRouter(final ContainerRequest requestContext) {
         List<ConsumesProducesAcceptor> acceptors = consumesProducesAcceptors.get(requestContext.getMethod());
         if (acceptors == null) {
-            throw new WebApplicationException(
-                    Response.status(Status.METHOD_NOT_ALLOWED).allow(consumesProducesAcceptors.keySet()).build());
+            throw RoutingExceptions.notAllowed(consumesProducesAcceptors.keySet());
         }
         List<ConsumesProducesAcceptor> satisfyingAcceptors = new LinkedList<ConsumesProducesAcceptor>();
         for (ConsumesProducesAcceptor cpi : acceptors) {
@@ -428,7 +442,7 @@ final class MethodSelectingRouter implements Router {
             }
         }
         if (satisfyingAcceptors.isEmpty()) {
-            throw new WebApplicationException(Status.UNSUPPORTED_MEDIA_TYPE);
+            throw RoutingExceptions.notSupported();
         }
 
         final List<MediaType> acceptableMediaTypes = requestContext.getAcceptableMediaTypes();
@@ -473,7 +487,7 @@ final class MethodSelectingRouter implements Router {
                                             .equalsIgnoreCase("application")) {
                                         effectiveResponseType = MediaType.APPLICATION_OCTET_STREAM_TYPE;
                                     } else {
-                                        throw new WebApplicationException(Response.status(Status.NOT_ACCEPTABLE).build());
+                                        throw RoutingExceptions.notAcceptable();
                                     }
                                 }
                                 responseContext.setMediaType(effectiveResponseType);
@@ -484,7 +498,7 @@ final class MethodSelectingRouter implements Router {
             return selected.methodAcceptorPair.router;
         }
 
-        throw new WebApplicationException(Response.status(Status.NOT_ACCEPTABLE).build());
+        throw RoutingExceptions.notAcceptable();
     }
 
     private boolean isWildcard(final MediaType effectiveResponseType) {
@@ -602,6 +616,13 @@ final class MethodSelectingRouter implements Router {
                             private final String lastModified =
                                     new SimpleDateFormat(WadlResource.HTTPDATEFORMAT).format(new Date());
 
+                            /**
+                             * Marshalled WADL documents keyed by the base URI and the matched resource templates,
+                             * i.e. shared by all requests to the resource regardless of the path parameter values.
+                             */
+                            private final Cache<String, ResourceWadlTemplate> templates =
+                                    CacheBuilder.newBuilder().maximumSize(MAX_CACHED_OPTIONS_WADLS).build();
+
                             @Override
                             public ContainerResponse apply(ContainerRequest requestContext) {
                                 Response response;
@@ -614,36 +635,76 @@ final class MethodSelectingRouter implements Router {
                                             .type(requestContext.getAcceptableMediaTypes().get(0))
                                             .build();
                                 } else {
-                                    final String lastMatchedPathSegment = ((UriRoutingContext) requestContext.getUriInfo())
-                                            .getMatchedTemplates()
-                                            .get(0).getTemplate().substring(1);
-
-                                    Resource resourceForWadlModel = null;
-                                    if (lastMatchedPathSegment
-                                            .equals("") || lastMatchedPathSegment.equals(resource.getPath())) {
-                                        resourceForWadlModel = resource;
-                                    } else {
-                                        for (Resource childResource : resource.getChildResources()) {
+                                    final UriRoutingContext uriInfo = (UriRoutingContext) requestContext.getUriInfo();
+                                    final String key = getTemplateKey(uriInfo);
+                                    final WadlDocument document;
 
-                                            if (childResource.getPath().equals(lastMatchedPathSegment) ||
-                                                    childResource.getPath().equals("/" + lastMatchedPathSegment)) {
-                                                resourceForWadlModel = childResource;
-                                                break;
+                                    final ResourceWadlTemplate template = templates.getIfPresent(key);
+                                    if (template != null) {
+                                        document = template.resolve(getRelativePath(uriInfo));
+                                    } else {
+                                        final Application application = wadlApplicationContext.getApplication(
+                                                uriInfo,
+                                                getResourceForWadlModel(requestContext));
+                                        try {
+                                            final ResourceWadlTemplate marshalled = ResourceWadlTemplate.marshal(
+                                                    application, wadlApplicationContext.getJAXBContext());
+                                            if (marshalled != null) {
+                                                templates.put(key, marshalled);
+                                                document = marshalled.resolve(getRelativePath(uriInfo));
+                                            } else {
+                                                // not a single resource description - cannot be shared
+                                                document = WadlDocument.marshal(application,
+                                                        wadlApplicationContext.getJAXBContext());
                                             }
+                                        } catch (Exception e) {
+                                            LOGGER.log(Level.WARNING, "Could not marshal wadl Application.", e);
+                                            return new ContainerResponse(requestContext, Response.ok()
+                                                    .allow(allowedMethods)
+                                                    .type(MediaTypes.WADL)
+                                                    .header("Last-modified", lastModified)
+                                                    .entity(application)
+                                                    .build());
                                         }
                                     }
 
-                                    response = Response.ok()
+                                    response = document.ok()
                                             .allow(allowedMethods)
                                             .type(MediaTypes.WADL)
-                                            .header("Last-modified", lastModified)
-                                            .entity(wadlApplicationContext.getApplication(
-                                                    requestContext.getUriInfo(),
-                                                    resourceForWadlModel))
                                             .build();
                                 }
                                 return new ContainerResponse(requestContext, response);
                             }
+
+                            private String getTemplateKey(final UriRoutingContext uriInfo) {
+                                final StringBuilder key = new StringBuilder(uriInfo.getBaseUri().toString());
+                                for (UriTemplate template : uriInfo.getMatchedTemplates()) {
+                                    key.append(' ').append(template.getTemplate());
+                                }
+                                return key.toString();
+                            }
+
+                            private String getRelativePath(final UriRoutingContext uriInfo) {
+                                // same path as set to the described resource by the WADL application context
+                                return uriInfo.getBaseUri().relativize(uriInfo.getAbsolutePath()).toString();
+                            }
+
+                            private Resource getResourceForWadlModel(ContainerRequest requestContext) {
+                                final String lastMatchedPathSegment = ((UriRoutingContext) requestContext.getUriInfo())
+                                        .getMatchedTemplates()
+                                        .get(0).getTemplate().substring(1);
+
+                                if (lastMatchedPathSegment.equals("") || lastMatchedPathSegment.equals(resource.getPath())) {
+                                    return resource;
+                                }
+                                for (Resource childResource : resource.getChildResources()) {
+                                    if (childResource.getPath().equals(lastMatchedPathSegment) ||
+                                            childResource.getPath().equals("/" + lastMatchedPathSegment)) {
+                                        return childResource;
+                                    }
+                                }
+                                return null;
+                            }
                         })));
     }
 
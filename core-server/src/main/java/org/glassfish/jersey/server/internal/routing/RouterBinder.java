@@ -44,6 +44,7 @@ import java.util.regex.Pattern;
 import javax.ws.rs.core.UriInfo;
 
 import javax.inject.Inject;
+import javax.inject.Singleton;
 
 import org.glassfish.jersey.internal.inject.AbstractBinder;
 import org.glassfish.jersey.process.internal.RequestScoped;
@@ -112,6 +113,8 @@ public class RouterBinder extends AbstractBinder {
         bindAsContract(MethodSelectingRouter.Builder.class);
         bindAsContract(RoutingStage.Builder.class);
         bindAsContract(RoutedInflectorExtractorStage.class);
+
+        bindAsContract(SubResourceRouterCache.class).in(Singleton.class);
     }
 
     private static class UriRoutingContextFactory implements Factory<UriRoutingContext> {
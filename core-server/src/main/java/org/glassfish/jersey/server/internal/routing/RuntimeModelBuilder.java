@@ -86,6 +86,7 @@ public final class RuntimeModelBuilder {
     private final PushMethodHandlerRouter.Builder pushHandlerAcceptorBuilder;
     private final MethodSelectingRouter.Builder methodSelectingAcceptorBuilder;
     private final MessageBodyWorkers workers;
+    private final SubResourceRouterCache subResourceRouterCache;
 
     private MultivaluedMap<Class<? extends Annotation>, RankedProvider<ContainerRequestFilter>> nameBoundRequestFilters;
     private MultivaluedMap<Class<? extends Annotation>, RankedProvider<ContainerResponseFilter>> nameBoundResponseFilters;
@@ -127,6 +128,7 @@ public final class RuntimeModelBuilder {
      * @param pushHandlerAcceptorBuilder push handler acceptor builder.
      * @param methodSelectingAcceptorBuilder method selecting acceptor builder.
      * @param workers message body workers.
+     * @param subResourceRouterCache sub-resource router cache.
      */
     @Inject
     public RuntimeModelBuilder(
@@ -135,13 +137,15 @@ public final class RuntimeModelBuilder {
             final ServiceLocator locator,
             final PushMethodHandlerRouter.Builder pushHandlerAcceptorBuilder,
             final MethodSelectingRouter.Builder methodSelectingAcceptorBuilder,
-            final MessageBodyWorkers workers) {
+            final MessageBodyWorkers workers,
+            final SubResourceRouterCache subResourceRouterCache) {
         this.rootBuilder = rootBuilder;
         this.resourceMethodInvokerBuilder = resourceMethodInvokerBuilder;
         this.locator = locator;
         this.pushHandlerAcceptorBuilder = pushHandlerAcceptorBuilder;
         this.methodSelectingAcceptorBuilder = methodSelectingAcceptorBuilder;
         this.workers = workers;
+        this.subResourceRouterCache = subResourceRouterCache;
     }
 
     private RuntimeModelBuilder(RuntimeModelBuilder original) {
@@ -151,6 +155,7 @@ public final class RuntimeModelBuilder {
         this.pushHandlerAcceptorBuilder = original.pushHandlerAcceptorBuilder;
         this.methodSelectingAcceptorBuilder = original.methodSelectingAcceptorBuilder;
         this.workers = original.workers;
+        this.subResourceRouterCache = original.subResourceRouterCache;
 
         this.nameBoundRequestFilters = original.nameBoundRequestFilters;
         this.nameBoundResponseFilters = original.nameBoundResponseFilters;
@@ -170,6 +175,15 @@ public final class RuntimeModelBuilder {
         return new RuntimeModelBuilder(this);
     }
 
+    /**
+     * Get the cache of the runtime routers built for sub-resources.
+     *
+     * @return sub-resource router cache.
+     */
+    SubResourceRouterCache getSubResourceRouterCache() {
+        return subResourceRouterCache;
+    }
+
     /**
      * Process a single resource model and add it to the currently build runtime
      * routing and accepting model.
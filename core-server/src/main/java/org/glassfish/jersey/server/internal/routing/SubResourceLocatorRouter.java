@@ -44,15 +44,12 @@ import java.lang.reflect.Method;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.util.List;
 
-import javax.ws.rs.NotFoundException;
-import javax.ws.rs.WebApplicationException;
-import javax.ws.rs.core.Response;
-
 import org.glassfish.jersey.internal.ProcessingException;
 import org.glassfish.jersey.internal.inject.Injections;
 import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.internal.JerseyResourceContext;
 import org.glassfish.jersey.server.internal.process.MappableException;
+import org.glassfish.jersey.server.internal.process.RoutingExceptions;
 import org.glassfish.jersey.server.model.Resource;
 import org.glassfish.jersey.server.model.ResourceMethod;
 import org.glassfish.jersey.server.spi.internal.ParameterValueHelper;
@@ -65,6 +62,7 @@ import org.glassfish.hk2.api.ServiceLocator;
  * It first retrieves the sub-resource instance by invoking the given model method.
  * Then the {@link RuntimeModelBuilder} is used to generate corresponding methodAcceptorPair.
  * Finally the generated methodAcceptorPair is invoked to return the request methodAcceptorPair chain.
+ * The generated methodAcceptorPairs are cached per sub-resource class in the {@link SubResourceRouterCache}.
  * <p/>
  *
  * @author Jakub Podlesak (jakub.podlesak at oracle.com)
@@ -101,7 +99,7 @@ class SubResourceLocatorRouter implements Router {
 
         Object subResource = getResource(routingCtx);
         if (subResource == null) {
-            throw new WebApplicationException(Response.Status.NOT_FOUND);
+            throw RoutingExceptions.notFound();
         }
 
         if (subResource.getClass().isAssignableFrom(Class.class)) {
@@ -111,24 +109,38 @@ class SubResourceLocatorRouter implements Router {
         }
         resourceContext.bindResourceIfSingleton(subResource);
 
-        final Resource subResourceModel;
-
-        // TODO: what to do with the issues?
-        final Resource.Builder builder = Resource.builder(subResource);
-        if (builder == null) {
-            // resource is empty
-            throw new NotFoundException();
-        }
-        subResourceModel = builder.build();
+        final Router subResourceAcceptor = getSubResourceRouter(subResource);
+        routingCtx.pushMatchedResource(subResource);
+        return Continuation.of(request, subResourceAcceptor);
+    }
 
+    /**
+     * Get the runtime router for the sub-resource. The router is built in the sub-resource mode,
+     * so it does not depend on the sub-resource instance and can be cached per sub-resource class.
+     *
+     * @param subResource sub-resource instance returned from the locator.
+     * @return sub-resource router.
+     */
+    private Router getSubResourceRouter(final Object subResource) {
+        final Class<?> subResourceClass = subResource.getClass();
+        final SubResourceRouterCache cache = runtimeModelBuilderOriginal.getSubResourceRouterCache();
+
+        Router router = cache.get(subResourceClass);
+        if (router == null) {
+            // TODO: what to do with the issues?
+            final Resource.Builder builder = Resource.builder(subResource);
+            if (builder == null) {
+                // resource is empty
+                throw RoutingExceptions.notFound();
+            }
 
-        final RuntimeModelBuilder runtimeModelBuilder = runtimeModelBuilderOriginal.copy();
-        runtimeModelBuilder.process(subResourceModel, true);
+            final RuntimeModelBuilder runtimeModelBuilder = runtimeModelBuilderOriginal.copy();
+            runtimeModelBuilder.process(builder.build(), true);
+            router = runtimeModelBuilder.buildModel(true);
 
-        // TODO: implement generated sub-resource methodAcceptorPair caching
-        routingCtx.pushMatchedResource(subResource);
-        Router subResourceAcceptor = runtimeModelBuilder.buildModel(true);
-        return Continuation.of(request, subResourceAcceptor);
+            cache.put(subResourceClass, router);
+        }
+        return router;
     }
 
     private Object getResource(RoutingContext routingCtx) {
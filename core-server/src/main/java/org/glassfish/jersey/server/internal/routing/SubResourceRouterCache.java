@@ -0,0 +1,167 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.routing;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.core.Configurable;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.glassfish.jersey.internal.util.PropertiesHelper;
+import org.glassfish.jersey.server.ServerProperties;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Application-wide cache of the runtime routers built for sub-resources returned
+ * from sub-resource locators.
+ * <p>
+ * Sub-resource routers are built in the sub-resource mode, i.e. independently of the path
+ * of the locator that returned the sub-resource, and the resource instance is resolved from
+ * the routing context at request time. The router built for a sub-resource class can therefore
+ * be shared by all locators returning the same sub-resource class.
+ * </p>
+ * <p>
+ * The size of the cache is bounded by the {@link ServerProperties#SUBRESOURCE_LOCATOR_CACHE_SIZE}
+ * property; least recently used routers are evicted first, which keeps the cache bounded even for
+ * applications returning dynamically generated sub-resource classes.
+ * </p>
+ *
+ * @author Marek Potociar (marek.potociar at oracle.com)
+ */
+@Singleton
+public final class SubResourceRouterCache {
+
+    private static final Logger LOGGER = Logger.getLogger(SubResourceRouterCache.class.getName());
+
+    /**
+     * Default maximum number of cached sub-resource routers.
+     */
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final Cache<Class<?>, Router> cache;
+
+    /**
+     * Injection constructor.
+     *
+     * @param config application configuration.
+     */
+    @Inject
+    public SubResourceRouterCache(final Configurable config) {
+        this(PropertiesHelper.getValue(config.getProperties(), ServerProperties.SUBRESOURCE_LOCATOR_CACHE_SIZE,
+                DEFAULT_MAX_SIZE));
+    }
+
+    /**
+     * Create new sub-resource router cache.
+     *
+     * @param maxSize maximum number of cached routers. If not positive, the cache is disabled.
+     */
+    public SubResourceRouterCache(final int maxSize) {
+        if (maxSize > 0) {
+            this.cache = CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * Get the cached runtime router for the sub-resource class.
+     *
+     * @param subResourceClass sub-resource class.
+     * @return cached router or {@code null} if no router has been cached for the class yet
+     *         or if the cache is disabled.
+     */
+    public Router get(final Class<?> subResourceClass) {
+        return (cache == null) ? null : cache.getIfPresent(subResourceClass);
+    }
+
+    /**
+     * Cache the runtime router built for the sub-resource class.
+     *
+     * @param subResourceClass sub-resource class.
+     * @param router           runtime router built for the sub-resource class.
+     */
+    public void put(final Class<?> subResourceClass, final Router router) {
+        if (cache == null) {
+            return;
+        }
+        cache.put(subResourceClass, router);
+
+        if (LOGGER.isLoggable(Level.FINE)) {
+            final CacheStats stats = cache.stats();
+            LOGGER.log(Level.FINE, "Sub-resource router for {0} cached; cache size: {1}, hit rate: {2}, evictions: {3}.",
+                    new Object[]{subResourceClass.getName(), cache.size(), stats.hitRate(), stats.evictionCount()});
+        }
+    }
+
+    /**
+     * Check whether the cache is enabled.
+     *
+     * @return {@code true} if the sub-resource routers are cached, {@code false} otherwise.
+     */
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Get the number of currently cached sub-resource routers.
+     *
+     * @return number of cached routers.
+     */
+    public long size() {
+        return (cache == null) ? 0 : cache.size();
+    }
+
+    /**
+     * Get the cache statistics snapshot, including the hit and miss counts, the hit rate
+     * and the number of evicted routers.
+     *
+     * @return cache statistics snapshot. If the cache is disabled, all values are zero.
+     */
+    public CacheStats getStatistics() {
+        return (cache == null) ? new CacheStats(0, 0, 0, 0, 0, 0) : cache.stats();
+    }
+}
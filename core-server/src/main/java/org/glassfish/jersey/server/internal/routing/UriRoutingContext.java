@@ -59,6 +59,7 @@ import javax.ws.rs.ext.WriterInterceptor;
 
 import javax.inject.Inject;
 
+import org.glassfish.jersey.internal.util.collection.ImmutableMultivaluedMap;
 import org.glassfish.jersey.internal.util.collection.Ref;
 import org.glassfish.jersey.model.internal.RankedProvider;
 import org.glassfish.jersey.process.Inflector;
@@ -88,6 +89,9 @@ class UriRoutingContext implements RoutingContext, ExtendedUriInfo {
     private MultivaluedHashMap<String, String> encodedTemplateValues;
     private MultivaluedHashMap<String, String> decodedTemplateValues;
     private final LinkedList<String> paths = Lists.newLinkedList();
+    private URI queryParametersUri;
+    private MultivaluedMap<String, String> encodedQueryParameters;
+    private MultivaluedMap<String, String> decodedQueryParameters;
     private Inflector<ContainerRequest, ContainerResponse> inflector;
 
     /**
@@ -335,7 +339,33 @@ class UriRoutingContext implements RoutingContext, ExtendedUriInfo {
 
     @Override
     public MultivaluedMap<String, String> getQueryParameters(boolean decode) {
-        return UriComponent.decodeQuery(getRequestUri(), decode);
+        final URI requestUri = getRequestUri();
+        if (requestUri != queryParametersUri) {
+            // first access or the request URI has been changed (e.g. by a pre-matching filter)
+            queryParametersUri = requestUri;
+            encodedQueryParameters = null;
+            decodedQueryParameters = null;
+        }
+
+        // the parsed parameters are shared by all the callers, hence they must not be modified
+        if (decode) {
+            if (decodedQueryParameters == null) {
+                decodedQueryParameters = immutable(UriComponent.decodeQuery(requestUri, true));
+            }
+            return decodedQueryParameters;
+        } else {
+            if (encodedQueryParameters == null) {
+                encodedQueryParameters = immutable(UriComponent.decodeQuery(requestUri, false));
+            }
+            return encodedQueryParameters;
+        }
+    }
+
+    private static MultivaluedMap<String, String> immutable(final MultivaluedMap<String, String> parameters) {
+        for (Map.Entry<String, List<String>> e : parameters.entrySet()) {
+            e.setValue(Collections.unmodifiableList(e.getValue()));
+        }
+        return new ImmutableMultivaluedMap<String, String>(parameters);
     }
 
     @Override
@@ -0,0 +1,162 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.scanning;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.glassfish.jersey.server.ResourceFinder;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Scans {@link ResourceFinder resource finders} for classes annotated with
+ * {@link javax.ws.rs.Path &#64;Path} or {@link javax.ws.rs.ext.Provider &#64;Provider}.
+ * <p>
+ * {@link PackageNamesScanner Package scanners} are split into independent finders, one for every
+ * scanned class-path root. If the requested parallelism allows it, the independent finders are
+ * scanned concurrently, each one with its own {@link AnnotationAcceptingListener}. The resulting
+ * classes are merged in the order of the finders so that the result does not depend on the
+ * scheduling of the scanning threads.
+ * </p>
+ *
+ * @author Pavel Bucek (pavel.bucek at oracle.com)
+ */
+public final class AnnotatedClassScanner {
+
+    private static final Logger LOGGER = Logger.getLogger(AnnotatedClassScanner.class.getName());
+
+    private AnnotatedClassScanner() {
+        // prevents instantiation
+    }
+
+    /**
+     * Scan the resource finders for JAX-RS root resource and provider classes.
+     *
+     * @param finders resource finders to be scanned.
+     * @param classLoader class loader used to load the found classes.
+     * @param parallelism maximum number of threads used for scanning; values lower than {@code 2}
+     *                    make the scanning sequential.
+     * @return found annotated classes.
+     */
+    public static Set<Class<?>> scan(final Collection<ResourceFinder> finders,
+                                     final ClassLoader classLoader,
+                                     final int parallelism) {
+        final List<ResourceFinder> leaves = new ArrayList<ResourceFinder>();
+        for (ResourceFinder finder : finders) {
+            if (finder instanceof PackageNamesScanner) {
+                leaves.addAll(((PackageNamesScanner) finder).split());
+            } else {
+                leaves.add(finder);
+            }
+        }
+
+        if (parallelism < 2 || leaves.size() < 2) {
+            final AnnotationAcceptingListener listener =
+                    AnnotationAcceptingListener.newJaxrsResourceAndProviderListener(classLoader);
+            for (ResourceFinder finder : leaves) {
+                scan(finder, listener);
+            }
+            return listener.getAnnotatedClasses();
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, leaves.size()),
+                new ThreadFactoryBuilder().setNameFormat("jersey-scanner-%d").setDaemon(true).build());
+        try {
+            final List<Future<Set<Class<?>>>> results = new ArrayList<Future<Set<Class<?>>>>(leaves.size());
+            for (final ResourceFinder finder : leaves) {
+                results.add(executor.submit(new Callable<Set<Class<?>>>() {
+
+                    @Override
+                    public Set<Class<?>> call() {
+                        final AnnotationAcceptingListener listener =
+                                AnnotationAcceptingListener.newJaxrsResourceAndProviderListener(classLoader);
+                        scan(finder, listener);
+                        return listener.getAnnotatedClasses();
+                    }
+                }));
+            }
+
+            final Set<Class<?>> classes = new LinkedHashSet<Class<?>>();
+            for (Future<Set<Class<?>>> result : results) {
+                classes.addAll(result.get());
+            }
+            return classes;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceFinderException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ResourceFinderException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void scan(final ResourceFinder finder, final AnnotationAcceptingListener listener) {
+        while (finder.hasNext()) {
+            final String next = finder.next();
+            if (listener.accept(next)) {
+                try {
+                    listener.process(next, finder.open());
+                } catch (IOException e) {
+                    // TODO L10N
+                    LOGGER.log(Level.WARNING, "Unable to process {0}", next);
+                }
+            }
+        }
+    }
+}
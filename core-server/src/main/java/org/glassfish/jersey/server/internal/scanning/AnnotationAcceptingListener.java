@@ -164,7 +164,7 @@ public final class AnnotationAcceptingListener implements ResourceProcessor {
     }
 
     public void process(String name, InputStream in) throws IOException {
-        new ClassReader(in).accept(classVisitor, 0);
+        new ClassReader(in).accept(classVisitor, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
     }
 
     //
@@ -47,6 +47,7 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.glassfish.jersey.internal.OsgiRegistry;
@@ -79,6 +80,10 @@ import org.glassfish.jersey.uri.UriComponent;
  * <p>
  * If a URI scheme is not supported a {@link ResourceFinderException} will be thrown
  * and package scanning deployment will fail.
+ * <p>
+ * If the class-path root (a directory or a jar file) containing a package contains
+ * a resource index generated at build time (see {@link ResourceIndex}), only the classes
+ * listed in the index are returned for the package and the root is not scanned.
  *
  * @author Paul Sandoz
  * @author Jakub Podlesak (jakub.podlesak at oracle.com)
@@ -167,16 +172,33 @@ public class PackageNamesScanner implements ResourceFinder {
         init();
     }
 
+    /**
+     * Split the scanner into independent resource finders, one for every scanned
+     * package URI. The returned finders can be iterated concurrently.
+     *
+     * @return resource finders returning together the same resources as this scanner.
+     */
+    List<ResourceFinder> split() {
+        List<ResourceFinder> finders = resourceFinderStack.getFinders();
+        if (finders == null) {
+            init();
+            finders = resourceFinderStack.getFinders();
+        }
+        return finders;
+    }
+
     private void init() {
         resourceFinderStack = new ResourceFinderStack();
+        final Map<URI, ResourceIndex> indexes = new HashMap<URI, ResourceIndex>();
 
         for (final String p : packages) {
+            final String packagePath = p.replace('.', '/');
             try {
                 final Enumeration<URL> urls = ResourcesProvider.getInstance().
-                        getResources(p.replace('.', '/'), classloader);
+                        getResources(packagePath, classloader);
                 while (urls.hasMoreElements()) {
                     try {
-                        addResourceFinder(toURI(urls.nextElement()));
+                        addResourceFinder(toURI(urls.nextElement()), packagePath, indexes);
                     } catch (URISyntaxException e) {
                         throw new ResourceFinderException("Error when converting a URL to a URI", e);
                     }
@@ -257,7 +279,22 @@ public class PackageNamesScanner implements ResourceFinder {
         ResourcesProvider.setInstance(provider);
     }
 
-    private void addResourceFinder(final URI u) {
+    private void addResourceFinder(final URI u, final String packagePath, final Map<URI, ResourceIndex> indexes) {
+        final URI root = getRoot(u, packagePath);
+        if (root != null) {
+            final ResourceIndex index;
+            if (indexes.containsKey(root)) {
+                index = indexes.get(root);
+            } else {
+                index = ResourceIndex.load(root);
+                indexes.put(root, index);
+            }
+            if (index != null) {
+                resourceFinderStack.push(index.finder(packagePath));
+                return;
+            }
+        }
+
         final UriSchemeResourceFinderFactory finderFactory = finderFactories.get(u.getScheme().toLowerCase());
         if (finderFactory != null) {
             resourceFinderStack.push(finderFactory.create(u));
@@ -272,6 +309,27 @@ public class PackageNamesScanner implements ResourceFinder {
         }
     }
 
+    /**
+     * Get the class-path root URI of a package URI.
+     *
+     * @param u package URI.
+     * @param packagePath package path.
+     * @return class-path root URI or {@code null} if the root cannot be determined.
+     */
+    private static URI getRoot(final URI u, final String packagePath) {
+        String uri = u.toString();
+        if (uri.endsWith("/")) {
+            uri = uri.substring(0, uri.length() - 1);
+        }
+        if (packagePath.isEmpty()) {
+            return URI.create(uri + '/');
+        }
+        if (!uri.endsWith('/' + packagePath)) {
+            return null;
+        }
+        return URI.create(uri.substring(0, uri.length() - packagePath.length()));
+    }
+
     private URI toURI(URL url) throws URISyntaxException {
         try {
             return url.toURI();
@@ -40,8 +40,10 @@
 package org.glassfish.jersey.server.internal.scanning;
 
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Stack;
 
@@ -104,6 +106,15 @@ public class ResourceFinderStack implements ResourceFinder {
         stack.push(iterator);
     }
 
+    /**
+     * Get the stacked finders in the order in which they would be iterated.
+     *
+     * @return stacked finders or {@code null} if the iteration has already started.
+     */
+    List<ResourceFinder> getFinders() {
+        return current == null ? new ArrayList<ResourceFinder>(stack) : null;
+    }
+
     @Override
     public void reset() {
         throw new UnsupportedOperationException();
@@ -0,0 +1,278 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.scanning;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.glassfish.jersey.server.ResourceFinder;
+
+/**
+ * Build-time generated index of the JAX-RS root resource and provider classes contained in a class-path root
+ * (a jar file or a directory).
+ * <p>
+ * The index is a UTF-8 encoded text file stored in the class-path root under {@value #LOCATION}. It contains
+ * binary names of the classes annotated with {@link javax.ws.rs.Path &#64;Path} or
+ * {@link javax.ws.rs.ext.Provider &#64;Provider}, one class name per line. Empty lines and lines starting with
+ * {@code '#'} are ignored. The index is typically generated at build time by the Jersey resource index
+ * annotation processor.
+ * </p>
+ * <p>
+ * If a class-path root contains an index, {@link PackageNamesScanner} opens only the indexed class files of the
+ * scanned packages instead of scanning all the entries of the root. Indexes in jar files are always considered
+ * fresh. An index in a directory is accompanied by a class list stored under {@value #CLASSES_LOCATION}. The
+ * class list contains binary names of all the top-level classes known at the time the index was generated, the
+ * names of the classes compiled together with the index (whose class files are written after the index) are
+ * prefixed with {@code '*'}. The index is considered stale and is ignored if the directory contains a class file
+ * of a class missing in the class list, a class file of a class not compiled together with the index modified
+ * after the index, or if a class file of a listed class does not exist.
+ * </p>
+ *
+ * @author Pavel Bucek (pavel.bucek at oracle.com)
+ */
+final class ResourceIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(ResourceIndex.class.getName());
+
+    /**
+     * Location of the index in a class-path root.
+     */
+    static final String LOCATION = "META-INF/jersey/resource-index";
+    /**
+     * Location of the list of classes known to the index in a class-path root.
+     */
+    static final String CLASSES_LOCATION = "META-INF/jersey/resource-index-classes";
+    /**
+     * Prefix of the classes in the class list compiled together with the index.
+     */
+    private static final char COMPILED_PREFIX = '*';
+    private static final String CLASS_FILE_SUFFIX = ".class";
+
+    private final URI root;
+    private final List<String> classNames;
+
+    private ResourceIndex(final URI root, final List<String> classNames) {
+        this.root = root;
+        this.classNames = classNames;
+    }
+
+    /**
+     * Load a fresh resource index from a class-path root.
+     *
+     * @param root class-path root URI (ending with {@code '/'}).
+     * @return resource index of the class-path root or {@code null} if the root does not contain an index
+     *         or the index is stale.
+     */
+    static ResourceIndex load(final URI root) {
+        final String scheme = root.getScheme();
+        try {
+            if ("file".equalsIgnoreCase(scheme)) {
+                final File directory = new File(root);
+                final File index = new File(directory, LOCATION);
+                if (!index.isFile() || !isFresh(directory, index.lastModified())) {
+                    return null;
+                }
+            } else if (!"jar".equalsIgnoreCase(scheme) && !"zip".equalsIgnoreCase(scheme)) {
+                return null;
+            }
+
+            final URLConnection connection = new URL(root.toString() + LOCATION).openConnection();
+            connection.setUseCaches(false);
+            final InputStream in = connection.getInputStream();
+            try {
+                return new ResourceIndex(root, read(in));
+            } finally {
+                in.close();
+            }
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException e) {
+            LOGGER.log(Level.CONFIG, "Unable to read resource index of " + root + ", the root will be scanned.", e);
+            return null;
+        } catch (IllegalArgumentException e) {
+            // root URI cannot be converted to a file or an URL
+            return null;
+        }
+    }
+
+    private static List<String> read(final InputStream in) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+        final List<String> classNames = new ArrayList<String>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (!line.isEmpty() && line.charAt(0) != '#') {
+                classNames.add(line);
+            }
+        }
+        return classNames;
+    }
+
+    private static boolean isFresh(final File directory, final long timestamp) throws IOException {
+        final File classList = new File(directory, CLASSES_LOCATION);
+        if (!classList.isFile()) {
+            return false;
+        }
+
+        final Set<String> classes = new HashSet<String>();
+        final Set<String> compiled = new HashSet<String>();
+        final InputStream in = new FileInputStream(classList);
+        try {
+            for (String line : read(in)) {
+                if (line.charAt(0) == COMPILED_PREFIX) {
+                    line = line.substring(1).trim();
+                    compiled.add(line);
+                }
+                classes.add(line);
+            }
+        } finally {
+            in.close();
+        }
+
+        final Set<String> found = new HashSet<String>();
+        return checkClassFiles(directory, "", timestamp, classes, compiled, found) && found.size() == classes.size();
+    }
+
+    private static boolean checkClassFiles(final File directory, final String packagePrefix, final long timestamp,
+                                           final Set<String> classes, final Set<String> compiled,
+                                           final Set<String> found) {
+        final File[] children = directory.listFiles();
+        if (children == null) {
+            return true;
+        }
+
+        for (File child : children) {
+            final String name = child.getName();
+            if (child.isDirectory()) {
+                if (!checkClassFiles(child, packagePrefix + name + '.', timestamp, classes, compiled, found)) {
+                    return false;
+                }
+            } else if (name.endsWith(CLASS_FILE_SUFFIX)
+                    && !name.startsWith("package-info.") && !name.startsWith("module-info.")) {
+                final String className = packagePrefix + name.substring(0, name.length() - CLASS_FILE_SUFFIX.length());
+                // nested, local and anonymous classes belong to their top-level class
+                final int nested = className.indexOf('$', packagePrefix.length());
+                final String topLevelName = nested < 0 ? className : className.substring(0, nested);
+
+                if (!classes.contains(topLevelName)
+                        || (child.lastModified() > timestamp && !compiled.contains(topLevelName))) {
+                    // class added or recompiled without the index being updated
+                    return false;
+                }
+                if (nested < 0) {
+                    found.add(topLevelName);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Create a resource finder for the indexed classes of a package (including its sub-packages).
+     *
+     * @param packagePath package path ({@code '/'} separated).
+     * @return resource finder returning the class files of the indexed classes in the package.
+     */
+    ResourceFinder finder(final String packagePath) {
+        final String prefix = packagePath.isEmpty() ? "" : packagePath.replace('/', '.') + '.';
+        final List<String> resources = new ArrayList<String>();
+        for (String className : classNames) {
+            if (className.startsWith(prefix)) {
+                resources.add(className.replace('.', '/') + ".class");
+            }
+        }
+
+        return new ResourceFinder() {
+
+            private Iterator<String> iterator = resources.iterator();
+            private String current;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public String next() {
+                if (!iterator.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                current = iterator.next();
+                return current;
+            }
+
+            @Override
+            public InputStream open() {
+                try {
+                    return new URL(root.toString() + current).openStream();
+                } catch (IOException e) {
+                    throw new ResourceFinderException(e);
+                }
+            }
+
+            @Override
+            public void reset() {
+                iterator = resources.iterator();
+                current = null;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
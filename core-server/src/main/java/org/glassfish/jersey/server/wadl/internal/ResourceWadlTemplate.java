@@ -0,0 +1,224 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.jersey.server.wadl.internal;
+
+import java.io.UnsupportedEncodingException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+
+import org.glassfish.jersey.message.internal.BufferPool;
+import org.glassfish.jersey.message.internal.PooledByteArrayOutputStream;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.sun.research.ws.wadl.Application;
+import com.sun.research.ws.wadl.Resource;
+import com.sun.research.ws.wadl.Resources;
+
+/**
+ * Pre-marshalled WADL document describing a single resource, independent of the actual request path.
+ * <p>
+ * The WADL returned for an {@code OPTIONS} request contains the request path of the described resource.
+ * Instead of marshalling the document for each distinct request path (i.e. for each distinct value of
+ * the resource path parameters), the document is marshalled once with a placeholder path and the actual
+ * request path is filled in whenever a {@link WadlDocument document} is {@link #resolve(String) resolved}.
+ * Resolved documents are cached per request path, so that repeated requests to the same path neither copy
+ * the document nor compute its entity tag again.
+ * </p>
+ *
+ * @author Miroslav Fuksa (miroslav.fuksa at oracle.com)
+ */
+public final class ResourceWadlTemplate {
+
+    private static final String CHARSET = "UTF-8";
+    private static final String PATH_PLACEHOLDER = "jersey-wadl-resource-path";
+    /**
+     * Maximum number of distinct request paths the resolved documents are cached for.
+     */
+    private static final int MAX_CACHED_DOCUMENTS = 16;
+
+    private final byte[] prefix;
+    private final byte[] suffix;
+    private final String lastModified;
+    private final Cache<String, WadlDocument> documents =
+            CacheBuilder.newBuilder().maximumSize(MAX_CACHED_DOCUMENTS).build();
+
+    private ResourceWadlTemplate(final byte[] prefix, final byte[] suffix) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.lastModified = new SimpleDateFormat(WadlResource.HTTPDATEFORMAT).format(new Date());
+    }
+
+    /**
+     * Marshal a WADL application describing a single resource into a new template.
+     * <p>
+     * The path of the described resource is replaced by a placeholder for the time of marshalling
+     * and restored afterwards, i.e. the application instance is left unchanged.
+     * </p>
+     *
+     * @param application WADL application describing a single resource.
+     * @param jaxbContext JAXB context used to marshal the application.
+     * @return new template or {@code null} if the application does not describe exactly one resource.
+     * @throws JAXBException in case the application cannot be marshalled.
+     */
+    public static ResourceWadlTemplate marshal(final Application application, final JAXBContext jaxbContext)
+            throws JAXBException {
+        final List<Resources> resourcesList = application.getResources();
+        if (resourcesList.size() != 1 || resourcesList.get(0).getResource().size() != 1) {
+            return null;
+        }
+
+        final Resource resource = resourcesList.get(0).getResource().get(0);
+        final String path = resource.getPath();
+        final PooledByteArrayOutputStream os;
+        resource.setPath(PATH_PLACEHOLDER);
+        try {
+            os = WadlDocument.marshalToStream(application, jaxbContext);
+        } finally {
+            resource.setPath(path);
+        }
+
+        final int length = os.size();
+        final byte[] content = os.detachBuffer();
+        try {
+            final byte[] placeholder = encode(PATH_PLACEHOLDER);
+            final int index = indexOf(content, length, placeholder, 0);
+            if (index < 0 || indexOf(content, length, placeholder, index + placeholder.length) >= 0) {
+                // the placeholder must be found exactly once in the marshalled document
+                return null;
+            }
+
+            final byte[] prefix = new byte[index];
+            System.arraycopy(content, 0, prefix, 0, index);
+            final byte[] suffix = new byte[length - index - placeholder.length];
+            System.arraycopy(content, index + placeholder.length, suffix, 0, suffix.length);
+
+            return new ResourceWadlTemplate(prefix, suffix);
+        } finally {
+            BufferPool.getInstance().release(content);
+        }
+    }
+
+    /**
+     * Get the WADL document describing the resource at the given path.
+     *
+     * @param path path of the resource (relative to the application base URI).
+     * @return WADL document, either cached or a new one.
+     */
+    public WadlDocument resolve(final String path) {
+        WadlDocument document = documents.getIfPresent(path);
+        if (document == null) {
+            document = create(path);
+            documents.put(path, document);
+        }
+        return document;
+    }
+
+    private WadlDocument create(final String path) {
+        final byte[] encodedPath = encode(escapeAttribute(path));
+
+        final byte[] content = new byte[prefix.length + encodedPath.length + suffix.length];
+        System.arraycopy(prefix, 0, content, 0, prefix.length);
+        System.arraycopy(encodedPath, 0, content, prefix.length, encodedPath.length);
+        System.arraycopy(suffix, 0, content, prefix.length + encodedPath.length, suffix.length);
+
+        return new WadlDocument(content, content.length, lastModified);
+    }
+
+    private static String escapeAttribute(final String value) {
+        StringBuilder sb = null;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            final String replacement;
+            switch (c) {
+                case '&':
+                    replacement = "&amp;";
+                    break;
+                case '<':
+                    replacement = "&lt;";
+                    break;
+                case '>':
+                    replacement = "&gt;";
+                    break;
+                case '"':
+                    replacement = "&quot;";
+                    break;
+                default:
+                    replacement = null;
+            }
+            if (replacement != null) {
+                if (sb == null) {
+                    sb = new StringBuilder(value.length() + 16).append(value, 0, i);
+                }
+                sb.append(replacement);
+            } else if (sb != null) {
+                sb.append(c);
+            }
+        }
+        return (sb == null) ? value : sb.toString();
+    }
+
+    private static int indexOf(final byte[] data, final int length, final byte[] pattern, final int from) {
+        outer:
+        for (int i = from; i <= length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static byte[] encode(final String value) {
+        try {
+            return value.getBytes(CHARSET);
+        } catch (UnsupportedEncodingException e) {
+            // UTF-8 is always supported
+            throw new IllegalStateException(e);
+        }
+    }
+}
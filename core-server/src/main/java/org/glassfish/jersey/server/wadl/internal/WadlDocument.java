@@ -0,0 +1,181 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.wadl.internal;
+
+import java.io.ByteArrayInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Response;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+
+import org.glassfish.jersey.message.internal.PooledByteArrayOutputStream;
+
+/**
+ * Pre-marshalled WADL document.
+ * <p>
+ * The document is marshalled once and kept as an immutable byte buffer together with a strong
+ * {@link EntityTag entity tag} computed from its content and the date of its creation, so that
+ * it can be served repeatedly without any locking and without marshalling the WADL again.
+ * </p>
+ *
+ * @author Miroslav Fuksa (miroslav.fuksa at oracle.com)
+ */
+public final class WadlDocument {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final byte[] content;
+    private final int length;
+    private final EntityTag entityTag;
+    private final String lastModified;
+
+    /**
+     * Create new document from already marshalled content.
+     *
+     * @param content buffer containing the marshalled WADL document. The buffer is owned by the document.
+     * @param length length of the marshalled WADL document in the buffer.
+     * @param lastModified document creation date formatted as HTTP date.
+     */
+    WadlDocument(final byte[] content, final int length, final String lastModified) {
+        this.content = content;
+        this.length = length;
+        this.entityTag = new EntityTag(digest(content, length));
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Marshal a WADL JAXB element (typically a {@link com.sun.research.ws.wadl.Application}) into
+     * a new WADL document.
+     *
+     * @param wadl WADL JAXB element.
+     * @param jaxbContext JAXB context used to marshal the element.
+     * @return new pre-marshalled WADL document.
+     * @throws JAXBException in case the element cannot be marshalled.
+     */
+    public static WadlDocument marshal(final Object wadl, final JAXBContext jaxbContext) throws JAXBException {
+        final PooledByteArrayOutputStream os = marshalToStream(wadl, jaxbContext);
+        final int length = os.size();
+        // the marshalled document is kept in the pooled buffer which is handed over to the document
+        return new WadlDocument(os.detachBuffer(), length,
+                new SimpleDateFormat(WadlResource.HTTPDATEFORMAT).format(new Date()));
+    }
+
+    /**
+     * Marshal a WADL JAXB element into a new pooled byte array output stream (using the {@code UTF-8} encoding).
+     * The caller is responsible for {@link PooledByteArrayOutputStream#release() releasing} the stream buffer
+     * or taking over its ownership.
+     *
+     * @param wadl WADL JAXB element.
+     * @param jaxbContext JAXB context used to marshal the element.
+     * @return stream containing the marshalled element.
+     * @throws JAXBException in case the element cannot be marshalled.
+     */
+    static PooledByteArrayOutputStream marshalToStream(final Object wadl, final JAXBContext jaxbContext)
+            throws JAXBException {
+        final Marshaller marshaller = jaxbContext.createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+        final PooledByteArrayOutputStream os = new PooledByteArrayOutputStream();
+        try {
+            marshaller.marshal(wadl, os);
+        } catch (JAXBException e) {
+            os.release();
+            throw e;
+        } catch (RuntimeException e) {
+            os.release();
+            throw e;
+        }
+        return os;
+    }
+
+    /**
+     * Get the strong entity tag of the document.
+     *
+     * @return entity tag computed from the document content.
+     */
+    public EntityTag getEntityTag() {
+        return entityTag;
+    }
+
+    /**
+     * Get the document creation date formatted as HTTP date.
+     *
+     * @return document creation date.
+     */
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Create a new {@code 200 OK} response builder initialized with the document content
+     * (as a new stream over the shared immutable content), entity tag and {@code Last-modified}
+     * header.
+     *
+     * @return new response builder.
+     */
+    public Response.ResponseBuilder ok() {
+        return Response.ok(new ByteArrayInputStream(content, 0, length))
+                .tag(entityTag)
+                .header("Last-modified", lastModified);
+    }
+
+    private static String digest(final byte[] content, final int length) {
+        try {
+            final MessageDigest md = MessageDigest.getInstance("MD5");
+            md.update(content, 0, length);
+            final byte[] digest = md.digest();
+            final char[] hex = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                hex[2 * i] = HEX_DIGITS[(digest[i] >> 4) & 0x0f];
+                hex[2 * i + 1] = HEX_DIGITS[digest[i] & 0x0f];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            // MD5 is available on every Java platform
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -40,11 +40,7 @@
 
 package org.glassfish.jersey.server.wadl.internal;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.net.URI;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -53,17 +49,25 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
 import javax.inject.Singleton;
-import javax.xml.bind.Marshaller;
 
 import org.glassfish.jersey.server.wadl.WadlApplicationContext;
 
-import com.sun.research.ws.wadl.Application;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 /**
+ * Resource serving the application WADL ({@code application.wadl}) and the external grammars
+ * referenced from the WADL.
+ * <p>
+ * The WADL is generated and marshalled once per base URI of the application and cached as
+ * an immutable {@link WadlDocument} with a strong entity tag, so the resource serves the WADL
+ * without any locking and answers conditional {@code GET} requests with {@code 304 Not Modified}.
+ * </p>
  *
  * @author Paul Sandoz (paul.sandoz at oracle.com)
  */
@@ -74,49 +78,55 @@ public final class WadlResource {
     public static final String HTTPDATEFORMAT = "EEE, dd MMM yyyy HH:mm:ss zzz";
     private static final Logger LOGGER = Logger.getLogger(WadlResource.class.getName());
 
-    private URI lastBaseUri;
-    private byte[] wadlXmlRepresentation;
-    private String lastModified;
-
-    public WadlResource() {
-        this.lastModified = new SimpleDateFormat(HTTPDATEFORMAT).format(new Date());
+    /**
+     * Maximum number of base URIs the generated WADL is cached for.
+     */
+    private static final int MAX_CACHED_BASE_URIS = 16;
+
+    /**
+     * WADL application description and the marshalled WADL document generated for a base URI.
+     */
+    private static final class GeneratedWadl {
+
+        private final ApplicationDescription description;
+        /**
+         * Marshalled WADL; {@code null} if the WADL could not be marshalled.
+         */
+        private final WadlDocument document;
+
+        private GeneratedWadl(final ApplicationDescription description, final WadlDocument document) {
+            this.description = description;
+            this.document = document;
+        }
     }
 
+    private final Cache<URI, GeneratedWadl> generated =
+            CacheBuilder.newBuilder().maximumSize(MAX_CACHED_BASE_URIS).build();
+
     @Produces({"application/vnd.sun.wadl+xml", "application/xml"})
     @GET
-    public synchronized Response getWadl(@Context UriInfo uriInfo, @Context WadlApplicationContext wadlContext) {
+    public Response getWadl(@Context UriInfo uriInfo, @Context WadlApplicationContext wadlContext,
+                            @Context Request request) {
         if(!wadlContext.isWadlGenerationEnabled()) {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
 
-        if ((wadlXmlRepresentation == null) || ((lastBaseUri != null) && !lastBaseUri.equals(uriInfo.getBaseUri())) ) {
-            this.lastBaseUri = uriInfo.getBaseUri();
-            this.lastModified = new SimpleDateFormat(HTTPDATEFORMAT).format(new Date());
-
-            ApplicationDescription applicationDescription =
-                    wadlContext.getApplication(uriInfo);
-            Application application = applicationDescription.getApplication();
-
-            try {
-                final Marshaller marshaller = wadlContext.getJAXBContext().createMarshaller();
-                marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-                final ByteArrayOutputStream os = new ByteArrayOutputStream();
-                marshaller.marshal(application, os);
-                wadlXmlRepresentation = os.toByteArray();
-                os.close();
-            } catch (Exception e) {
-                LOGGER.log(Level.WARNING, "Could not marshal wadl Application.", e);
-                return Response.ok(applicationDescription).build();
-            }
+        final GeneratedWadl wadl = getGeneratedWadl(uriInfo, wadlContext);
+        if (wadl.document == null) {
+            return Response.ok(wadl.description).build();
         }
 
-        return Response.ok(new ByteArrayInputStream(wadlXmlRepresentation)).header("Last-modified", lastModified).build();
+        final Response.ResponseBuilder notModified = request.evaluatePreconditions(wadl.document.getEntityTag());
+        if (notModified != null) {
+            return notModified.build();
+        }
+        return wadl.document.ok().build();
     }
 
     @Produces({"application/xml"})
     @GET
     @Path("{path}")
-    public synchronized Response geExternalGrammar(
+    public Response geExternalGrammar(
             @Context UriInfo uriInfo,
             @Context WadlApplicationContext wadlContext,
             @PathParam("path") String path) {
@@ -126,8 +136,7 @@ public final class WadlResource {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
 
-        ApplicationDescription applicationDescription =
-                wadlContext.getApplication(uriInfo);
+        ApplicationDescription applicationDescription = getGeneratedWadl(uriInfo, wadlContext).description;
 
         // Fail is we don't have any metadata for this path
         ApplicationDescription.ExternalGrammar externalMetadata = applicationDescription.getExternalGrammar( path );
@@ -141,4 +150,29 @@ public final class WadlResource {
                 .entity(externalMetadata.getContent())
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Get the WADL generated for the base URI of the request. The WADL is generated and cached
+     * on the first request for the base URI. Concurrent first requests may generate the WADL
+     * more than once, which is harmless, instead of blocking each other.
+     */
+    private GeneratedWadl getGeneratedWadl(final UriInfo uriInfo, final WadlApplicationContext wadlContext) {
+        final URI baseUri = uriInfo.getBaseUri();
+
+        GeneratedWadl wadl = generated.getIfPresent(baseUri);
+        if (wadl == null) {
+            final ApplicationDescription applicationDescription = wadlContext.getApplication(uriInfo);
+
+            WadlDocument document = null;
+            try {
+                document = WadlDocument.marshal(applicationDescription.getApplication(), wadlContext.getJAXBContext());
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Could not marshal wadl Application.", e);
+            }
+
+            wadl = new GeneratedWadl(applicationDescription, document);
+            generated.put(baseUri, wadl);
+        }
+        return wadl;
+    }
+}
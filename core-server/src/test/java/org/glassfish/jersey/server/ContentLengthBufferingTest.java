@@ -0,0 +1,199 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests computing the {@code Content-Length} of response entities by buffering the entity.
+ *
+ * @author Marek Potociar (marek.potociar at oracle.com)
+ */
+public class ContentLengthBufferingTest {
+
+    /**
+     * Signalled once the first flushed part of the streamed entity has been written to the container.
+     */
+    private static volatile CountDownLatch firstPartWritten;
+
+    @Path("/")
+    public static class Resource {
+
+        @GET
+        public Reader get(@QueryParam("size") final int size) {
+            // the size of a reader entity is not known in advance
+            final char[] content = new char[size];
+            Arrays.fill(content, 'a');
+            return new CharArrayReader(content);
+        }
+
+        @GET
+        @Path("stream")
+        public StreamingOutput stream() {
+            return new StreamingOutput() {
+                @Override
+                public void write(OutputStream output) throws IOException, WebApplicationException {
+                    output.write("first".getBytes());
+                    output.flush();
+                    try {
+                        final boolean flushed = firstPartWritten.await(5, TimeUnit.SECONDS);
+                        output.write(flushed ? "-second".getBytes() : "-timeout".getBytes());
+                    } catch (InterruptedException e) {
+                        throw new WebApplicationException(e);
+                    }
+                }
+            };
+        }
+    }
+
+    private ApplicationHandler createApplication(Integer bufferSize) {
+        final ResourceConfig resourceConfig = new ResourceConfig(Resource.class);
+        if (bufferSize != null) {
+            resourceConfig.setProperty(ServerProperties.OUTBOUND_CONTENT_LENGTH_BUFFER, bufferSize);
+        }
+        return new ApplicationHandler(resourceConfig);
+    }
+
+    private ContainerResponse get(ApplicationHandler application, int size, ByteArrayOutputStream entity)
+            throws Exception {
+        return application.apply(RequestContextBuilder.from("/?size=" + size, "GET").build(), entity).get();
+    }
+
+    @Test
+    public void testBufferedEntity() throws Exception {
+        final ByteArrayOutputStream entity = new ByteArrayOutputStream();
+        final ContainerResponse response = get(createApplication(8192), 100, entity);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("100", response.getHeaderString(HttpHeaders.CONTENT_LENGTH));
+        assertEquals(100, entity.size());
+    }
+
+    @Test
+    public void testEntityExceedingBuffer() throws Exception {
+        final ByteArrayOutputStream entity = new ByteArrayOutputStream();
+        final ContainerResponse response = get(createApplication(64), 100, entity);
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeaderString(HttpHeaders.CONTENT_LENGTH));
+        assertEquals(100, entity.size());
+    }
+
+    @Test
+    public void testEntityFillingBuffer() throws Exception {
+        final ByteArrayOutputStream entity = new ByteArrayOutputStream();
+        final ContainerResponse response = get(createApplication(64), 64, entity);
+
+        assertEquals("64", response.getHeaderString(HttpHeaders.CONTENT_LENGTH));
+        assertEquals(64, entity.size());
+    }
+
+    @Test
+    public void testBufferingDisabled() throws Exception {
+        final ByteArrayOutputStream entity = new ByteArrayOutputStream();
+        final ContainerResponse response = get(createApplication(0), 100, entity);
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeaderString(HttpHeaders.CONTENT_LENGTH));
+        assertEquals(100, entity.size());
+    }
+
+    @Test
+    public void testBufferingDisabledByDefault() throws Exception {
+        final ByteArrayOutputStream entity = new ByteArrayOutputStream();
+        final ContainerResponse response = get(createApplication(null), 100, entity);
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeaderString(HttpHeaders.CONTENT_LENGTH));
+        assertEquals(100, entity.size());
+    }
+
+    @Test
+    public void testFlushedStreamingOutputReachesContainer() throws Exception {
+        testFlushedStreamingOutput(createApplication(null));
+    }
+
+    @Test
+    public void testFlushedStreamingOutputNotBuffered() throws Exception {
+        testFlushedStreamingOutput(createApplication(8192));
+    }
+
+    private void testFlushedStreamingOutput(ApplicationHandler application) throws Exception {
+        firstPartWritten = new CountDownLatch(1);
+        final ByteArrayOutputStream entity = new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(byte[] b, int off, int len) {
+                super.write(b, off, len);
+                firstPartWritten.countDown();
+            }
+
+            @Override
+            public synchronized void write(int b) {
+                super.write(b);
+                firstPartWritten.countDown();
+            }
+        };
+
+        final ContainerResponse response = application.apply(
+                RequestContextBuilder.from("/stream", "GET").build(), entity).get();
+
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeaderString(HttpHeaders.CONTENT_LENGTH));
+        assertEquals("first-second", entity.toString());
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.process;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.RequestContextBuilder;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Routing failure responses tests.
+ *
+ * @author Marek Potociar (marek.potociar at oracle.com)
+ */
+public class RoutingExceptionsTest {
+
+    @Path("resource")
+    public static class Resource {
+
+        @GET
+        @Produces("text/plain")
+        public String get() {
+            return "get";
+        }
+
+        @POST
+        @Consumes("text/plain")
+        public String post(String entity) {
+            return entity;
+        }
+    }
+
+    public static class NotFoundMapper implements ExceptionMapper<NotFoundException> {
+
+        @Override
+        public Response toResponse(NotFoundException exception) {
+            return Response.status(Response.Status.NOT_FOUND).entity("mapped").build();
+        }
+    }
+
+    @Test
+    public void testNoStackTrace() {
+        assertEquals(0, RoutingExceptions.notFound().getStackTrace().length);
+        assertEquals(0, RoutingExceptions.notAcceptable().getStackTrace().length);
+    }
+
+    @Test
+    public void testRoutingFailureResponses() throws Exception {
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(Resource.class));
+
+        assertEquals(404, app.apply(RequestContextBuilder.from("/missing", "GET").build()).get().getStatus());
+
+        final ContainerResponse notAllowed = app.apply(RequestContextBuilder.from("/resource", "DELETE").build()).get();
+        assertEquals(405, notAllowed.getStatus());
+        assertTrue(notAllowed.getHeaderString("Allow").contains("GET"));
+
+        assertEquals(415, app.apply(RequestContextBuilder.from("/resource", "POST")
+                .entity("entity").type("application/xml").build()).get().getStatus());
+        assertEquals(406, app.apply(RequestContextBuilder.from("/resource", "GET")
+                .accept("application/xml").build()).get().getStatus());
+    }
+
+    @Test
+    public void testRoutingFailureMapped() throws Exception {
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(Resource.class, NotFoundMapper.class));
+
+        final ContainerResponse response = app.apply(RequestContextBuilder.from("/missing", "GET").build()).get();
+        assertEquals(404, response.getStatus());
+        assertEquals("mapped", response.getEntity());
+    }
+}
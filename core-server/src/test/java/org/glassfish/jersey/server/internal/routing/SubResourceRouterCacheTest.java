@@ -0,0 +1,172 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.routing;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.RequestContextBuilder;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.ServerProperties;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Sub-resource router cache tests.
+ *
+ * @author Marek Potociar (marek.potociar at oracle.com)
+ */
+public class SubResourceRouterCacheTest {
+
+    @Path("root")
+    public static class RootResource {
+
+        @Path("items/{id}")
+        public ItemResource getItem(@PathParam("id") String id) {
+            return new ItemResource(id);
+        }
+
+        @Path("other/{id}")
+        public ItemResource getOther(@PathParam("id") String id) {
+            return new ItemResource("other-" + id);
+        }
+
+        @Path("class")
+        public Class<ClassResource> getClassResource() {
+            return ClassResource.class;
+        }
+    }
+
+    public static class ItemResource {
+
+        private final String id;
+
+        public ItemResource(String id) {
+            this.id = id;
+        }
+
+        @GET
+        public String get() {
+            return id;
+        }
+
+        @GET
+        @Path("name")
+        public String getName() {
+            return "name-" + id;
+        }
+    }
+
+    public static class ClassResource {
+
+        @GET
+        public String get() {
+            return "class";
+        }
+    }
+
+    private ContainerResponse get(ApplicationHandler app, String uri) throws Exception {
+        return app.apply(RequestContextBuilder.from(uri, "GET").build()).get();
+    }
+
+    private SubResourceRouterCache getCache(ApplicationHandler app) {
+        return app.getServiceLocator().getService(SubResourceRouterCache.class);
+    }
+
+    @Test
+    public void testRouterReusedForSameSubResourceClass() throws Exception {
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(RootResource.class));
+
+        assertEquals("1", get(app, "/root/items/1").getEntity());
+        assertEquals("2", get(app, "/root/items/2").getEntity());
+        assertEquals("name-3", get(app, "/root/items/3/name").getEntity());
+        assertEquals("other-4", get(app, "/root/other/4").getEntity());
+
+        final SubResourceRouterCache cache = getCache(app);
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getStatistics().missCount());
+        assertEquals(3, cache.getStatistics().hitCount());
+    }
+
+    @Test
+    public void testClassSubResourceCached() throws Exception {
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(RootResource.class));
+
+        assertEquals("class", get(app, "/root/class").getEntity());
+        assertEquals("class", get(app, "/root/class").getEntity());
+
+        final SubResourceRouterCache cache = getCache(app);
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getStatistics().hitCount());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(RootResource.class)
+                .setProperty(ServerProperties.SUBRESOURCE_LOCATOR_CACHE_SIZE, 1));
+
+        assertEquals("1", get(app, "/root/items/1").getEntity());
+        assertEquals("class", get(app, "/root/class").getEntity());
+        assertEquals("2", get(app, "/root/items/2").getEntity());
+
+        final SubResourceRouterCache cache = getCache(app);
+        assertEquals(1, cache.size());
+        assertEquals(3, cache.getStatistics().missCount());
+        assertEquals(2, cache.getStatistics().evictionCount());
+    }
+
+    @Test
+    public void testCacheDisabled() throws Exception {
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(RootResource.class)
+                .setProperty(ServerProperties.SUBRESOURCE_LOCATOR_CACHE_SIZE, 0));
+
+        assertEquals("1", get(app, "/root/items/1").getEntity());
+        assertEquals("2", get(app, "/root/items/2").getEntity());
+
+        final SubResourceRouterCache cache = getCache(app);
+        assertFalse(cache.isEnabled());
+        assertEquals(0, cache.size());
+    }
+}
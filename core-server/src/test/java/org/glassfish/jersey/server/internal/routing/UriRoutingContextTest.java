@@ -56,6 +56,8 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
 /**
  * @author Marek Potociar (marek.potociar at oracle.com)
@@ -164,4 +166,32 @@ public class UriRoutingContextTest {
         assertEquals("{bar1}", map.getFirst("foo1"));
         assertEquals("{bar2}", map.getFirst("foo2"));
     }
+
+    @Test
+    public void testQueryParamsNotModifiable() throws URISyntaxException {
+        final UriRoutingContext context = createContext("http://example.org/app/resource?foo=bar", "GET");
+        final MultivaluedMap<String, String> map = context.getQueryParameters(true);
+
+        try {
+            map.add("foo", "baz");
+            fail("Query parameters modified.");
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+        try {
+            map.get("foo").add("baz");
+            fail("Query parameter values modified.");
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+        try {
+            map.entrySet().iterator().next().setValue(null);
+            fail("Query parameter entry modified.");
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+
+        assertSame(map, context.getQueryParameters(true));
+        assertEquals(1, map.get("foo").size());
+    }
 }
@@ -0,0 +1,184 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.scanning;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.glassfish.jersey.server.ResourceFinder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * {@link ResourceIndex} tests.
+ *
+ * @author Pavel Bucek (pavel.bucek at oracle.com)
+ */
+public class ResourceIndexTest {
+
+    private File root;
+
+    @Before
+    public void setUp() throws IOException {
+        root = File.createTempFile("resource-index", "");
+        root.delete();
+        root.mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        delete(root);
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private File write(final String path, final String content) throws IOException {
+        final File file = new File(root, path);
+        file.getParentFile().mkdirs();
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    private static List<String> list(final ResourceFinder finder) {
+        final List<String> names = new ArrayList<String>();
+        while (finder.hasNext()) {
+            names.add(finder.next());
+        }
+        return names;
+    }
+
+    @Test
+    public void testPackageFinder() throws IOException {
+        write(ResourceIndex.LOCATION,
+                "# comment\norg.foo.Resource\n\norg.foo.bar.Provider$Nested\norg.foobar.Other\n");
+        write(ResourceIndex.CLASSES_LOCATION,
+                "# comment\n*org.foo.Resource\n*org.foo.bar.Provider\n*org.foobar.Other\n");
+        // class files compiled together with the index are written after the index
+        write("org/foo/Resource.class", "").setLastModified(System.currentTimeMillis() + 10000);
+        write("org/foo/Resource$1.class", "");
+        write("org/foo/bar/Provider.class", "");
+        write("org/foo/bar/Provider$Nested.class", "");
+        write("org/foobar/Other.class", "");
+        write("org/foobar/package-info.class", "");
+
+        final ResourceIndex resourceIndex = ResourceIndex.load(root.toURI());
+        assertNotNull(resourceIndex);
+
+        final List<String> names = list(resourceIndex.finder("org/foo"));
+        assertEquals(2, names.size());
+        assertEquals("org/foo/Resource.class", names.get(0));
+        assertEquals("org/foo/bar/Provider$Nested.class", names.get(1));
+
+        final ResourceFinder finder = resourceIndex.finder("org/foobar");
+        assertEquals("org/foobar/Other.class", finder.next());
+        finder.open().close();
+
+        assertEquals(3, list(resourceIndex.finder("")).size());
+    }
+
+    @Test
+    public void testStaleIndex() throws IOException {
+        write("org/foo/Resource.class", "");
+        write(ResourceIndex.LOCATION, "org.foo.Resource\n");
+        write(ResourceIndex.CLASSES_LOCATION, "org.foo.Resource\n*org.foo.Other\n");
+        write("org/foo/Other.class", "").setLastModified(System.currentTimeMillis() + 10000);
+        assertNotNull(ResourceIndex.load(root.toURI()));
+
+        // recompiled without the index being updated
+        write("org/foo/Resource.class", "").setLastModified(System.currentTimeMillis() + 10000);
+        assertNull(ResourceIndex.load(root.toURI()));
+    }
+
+    @Test
+    public void testAddedClass() throws IOException {
+        write("org/foo/Resource.class", "");
+        write(ResourceIndex.LOCATION, "org.foo.Resource\n");
+        write(ResourceIndex.CLASSES_LOCATION, "org.foo.Resource\n");
+        assertNotNull(ResourceIndex.load(root.toURI()));
+
+        write("org/foo/Added.class", "");
+        assertNull(ResourceIndex.load(root.toURI()));
+    }
+
+    @Test
+    public void testRemovedClass() throws IOException {
+        write("org/foo/Resource.class", "");
+        write(ResourceIndex.LOCATION, "org.foo.Resource\n");
+        write(ResourceIndex.CLASSES_LOCATION, "org.foo.Resource\norg.foo.Removed\n");
+
+        assertNull(ResourceIndex.load(root.toURI()));
+    }
+
+    @Test
+    public void testNoClassList() throws IOException {
+        write("org/foo/Resource.class", "");
+        write(ResourceIndex.LOCATION, "org.foo.Resource\n");
+
+        assertNull(ResourceIndex.load(root.toURI()));
+    }
+
+    @Test
+    public void testNoIndex() throws IOException {
+        write("org/foo/Resource.class", "");
+
+        assertNull(ResourceIndex.load(root.toURI()));
+    }
+}
@@ -47,10 +47,12 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.CookieParam;
@@ -63,8 +65,10 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.client.AsyncInvoker;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.InvocationCallback;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.Cookie;
 import javax.ws.rs.core.Form;
@@ -73,19 +77,43 @@ import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+
+import com.google.common.collect.MapMaker;
 
 /**
  * Factory for client-side representation of a resource.
  * See the <a href="package-summary.html">package overview</a>
  * for an example on how to use this class.
+ * <p>
+ * Each resource interface is analyzed only once; the result of the analysis (the HTTP method, path,
+ * parameter bindings and media types of each interface method) is cached and reused by all the proxies
+ * of the interface, so that a proxy method call only binds the actual arguments and dispatches the request.
+ * </p>
+ * <p>
+ * Besides synchronous resource methods, the proxies support asynchronous invocations: methods returning
+ * {@link Future} are invoked asynchronously and methods declaring an {@link InvocationCallback} parameter
+ * are invoked asynchronously with the supplied callback notified about the invocation result.
+ * </p>
  *
  * @author Martin Matula (martin.matula at oracle.com)
  */
 public final class WebResourceFactory implements InvocationHandler {
+
+    /**
+     * Resource interface analysis cache. Values are weakly referenced so that the cache does not prevent
+     * the resource interfaces (and their class loaders) from being unloaded; the analysis of an interface
+     * is kept alive by the strong references from the proxies of the interface.
+     */
+    private static final ConcurrentMap<Class<?>, ResourcePlan> RESOURCE_PLANS =
+            new MapMaker().weakKeys().weakValues().makeMap();
+
     private final WebTarget target;
     private final MultivaluedMap<String, Object> headers;
     private final List<Cookie> cookies;
     private final Form form;
+    private final ResourcePlan resourcePlan;
+    private final ConcurrentMap<MethodPlan, WebTarget> methodTargets = new ConcurrentHashMap<MethodPlan, WebTarget>();
 
     private static final MultivaluedMap<String, Object> EMPTY_HEADERS = new MultivaluedHashMap<String, Object>();
     private static final Form EMPTY_FORM = new Form();
@@ -123,138 +151,120 @@ public final class WebResourceFactory implements InvocationHandler {
      * @return Instance of a class implementing the resource interface that can
      * be used for making requests to the server.
      */
-    @SuppressWarnings("unchecked")
     public static <C> C newResource(Class<C> resourceInterface, WebTarget target, boolean ignoreResourcePath,
                                     MultivaluedMap<String, Object> headers, List<Cookie> cookies, Form form) {
+        return newResource(resourceInterface, getResourcePlan(resourceInterface), target, ignoreResourcePath,
+                headers, cookies, form);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <C> C newResource(Class<C> resourceInterface, ResourcePlan resourcePlan, WebTarget target,
+                                     boolean ignoreResourcePath, MultivaluedMap<String, Object> headers,
+                                     List<Cookie> cookies, Form form) {
         return (C) Proxy.newProxyInstance(resourceInterface.getClassLoader(),
                 new Class[]{resourceInterface},
                 new WebResourceFactory(ignoreResourcePath ? target : addPathFromAnnotation(resourceInterface, target),
-                        headers, cookies, form));
+                        headers, cookies, form, resourcePlan));
     }
 
     private WebResourceFactory(WebTarget target, MultivaluedMap<String, Object> headers, List<Cookie> cookies,
-                               Form form) {
+                               Form form, ResourcePlan resourcePlan) {
         this.target = target;
         this.headers = headers;
         this.cookies = cookies;
         this.form = form;
+        this.resourcePlan = resourcePlan;
     }
 
-    @Override
-    @SuppressWarnings("unchecked")
-    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        // get the interface describing the resource
-        Class<?> proxyIfc = proxy.getClass().getInterfaces()[0];
-
-        // response type
-        Class<?> responseType = method.getReturnType();
-
-        // determine method name
-        String httpMethod = getHttpMethodName(method);
-        if (httpMethod == null) {
-            for (Annotation ann : method.getAnnotations()) {
-                httpMethod = getHttpMethodName(ann.annotationType());
-                if (httpMethod != null) {
-                    break;
-                }
+    private static ResourcePlan getResourcePlan(Class<?> resourceInterface) {
+        ResourcePlan plan = RESOURCE_PLANS.get(resourceInterface);
+        if (plan == null) {
+            plan = new ResourcePlan(resourceInterface);
+            final ResourcePlan existing = RESOURCE_PLANS.putIfAbsent(resourceInterface, plan);
+            if (existing != null) {
+                plan = existing;
             }
         }
+        return plan;
+    }
 
-        // create a new UriBuilder appending the @Path attached to the method
-        WebTarget newTarget = addPathFromAnnotation(method, target);
-
-        if (httpMethod == null) {
-            if (newTarget == target) {
-                // no path annotation on the method -> fail
-                throw new UnsupportedOperationException("Not a resource method.");
-            } else if (!responseType.isInterface()) {
-                // the method is a subresource locator, but returns class,
-                // not interface - can't help here
-                throw new UnsupportedOperationException("Return type not an interface");
-            }
-        }
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        final MethodPlan plan = resourcePlan.get(method);
 
         // process method params (build maps of (Path|Form|Cookie|Matrix|Header..)Params
-        // and extract entity type
-        MultivaluedHashMap<String, Object> headers = new MultivaluedHashMap<String, Object>(this.headers);
-        LinkedList<Cookie> cookies = new LinkedList<Cookie>(this.cookies);
-        Form form = new Form();
-        form.asMap().putAll(this.form.asMap());
-        Annotation[][] paramAnns = method.getParameterAnnotations();
+        // and extract entity type; the collections inherited from parent resources are copied only if needed
+        WebTarget newTarget = getMethodTarget(plan);
+        MultivaluedMap<String, Object> headers = plan.hasHeaderParams
+                ? new MultivaluedHashMap<String, Object>(this.headers) : this.headers;
+        List<Cookie> cookies = plan.hasCookieParams ? new LinkedList<Cookie>(this.cookies) : this.cookies;
+        Form form = this.form;
+        if (plan.hasFormParams || plan.httpMethod == null) {
+            form = new Form();
+            form.asMap().putAll(this.form.asMap());
+        }
         Object entity = null;
-        Type entityType = null;
-        for (int i = 0; i < paramAnns.length; i++) {
-            Map<Class, Annotation> anns = new HashMap<Class, Annotation>();
-            for (Annotation ann : paramAnns[i]) {
-                anns.put(ann.annotationType(), ann);
-            }
-            Annotation ann;
-            Object value = args[i];
-            if (anns.isEmpty()) {
-                entityType = method.getGenericParameterTypes()[i];
+        for (final ParamBinder binder : plan.binders) {
+            Object value = args[binder.index];
+            if (binder.source == ParamSource.ENTITY) {
                 entity = value;
-            } else {
-                if (value == null && (ann = anns.get(DefaultValue.class)) != null) {
-                    value = ((DefaultValue) ann).value();
-                }
+                continue;
+            }
 
-                if (value != null) {
-                    if ((ann = anns.get(PathParam.class)) != null) {
-                        newTarget = newTarget.resolveTemplate(((PathParam) ann).value(), value);
-                    } else if ((ann = anns.get((QueryParam.class))) != null) {
-                        newTarget = newTarget.queryParam(((QueryParam) ann).value(), value);
-                    } else if ((ann = anns.get((HeaderParam.class))) != null) {
-                        headers.addAll(((HeaderParam) ann).value(), value);
-                    } else if ((ann = anns.get((CookieParam.class))) != null) {
-                        String name = ((CookieParam) ann).value();
-                        Cookie c;
-                        if (!(value instanceof Cookie)) {
-                            c = new Cookie(name, value.toString());
-                        } else {
-                            c = (Cookie) value;
-                            if (!name.equals(((Cookie) value).getName())) {
-                                // is this the right thing to do? or should I fail? or ignore the difference?
-                                c = new Cookie(name, c.getValue(), c.getPath(), c.getDomain(), c.getVersion());
-                            }
+            if (value == null) {
+                value = binder.defaultValue;
+            }
+            if (value == null) {
+                continue;
+            }
+
+            switch (binder.source) {
+                case PATH:
+                    newTarget = newTarget.resolveTemplate(binder.name, value);
+                    break;
+                case QUERY:
+                    newTarget = newTarget.queryParam(binder.name, value);
+                    break;
+                case HEADER:
+                    headers.add(binder.name, value);
+                    break;
+                case COOKIE:
+                    Cookie c;
+                    if (!(value instanceof Cookie)) {
+                        c = new Cookie(binder.name, value.toString());
+                    } else {
+                        c = (Cookie) value;
+                        if (!binder.name.equals(c.getName())) {
+                            // is this the right thing to do? or should I fail? or ignore the difference?
+                            c = new Cookie(binder.name, c.getValue(), c.getPath(), c.getDomain(), c.getVersion());
                         }
-                        cookies.add(c);
-                    } else if ((ann = anns.get((MatrixParam.class))) != null) {
-                        newTarget = newTarget.matrixParam(((MatrixParam) ann).value(), value);
-                    } else if ((ann = anns.get((FormParam.class))) != null) {
-                        form.param(((FormParam) ann).value(), value.toString());
                     }
-                }
+                    cookies.add(c);
+                    break;
+                case MATRIX:
+                    newTarget = newTarget.matrixParam(binder.name, value);
+                    break;
+                case FORM:
+                    form.param(binder.name, value.toString());
+                    break;
+                default:
+                    // not a client-side parameter
             }
         }
 
-        if (httpMethod == null) {
+        if (plan.httpMethod == null) {
             // the method is a subresource locator
-            return WebResourceFactory.newResource(responseType, newTarget, true, headers, cookies, form);
-        }
-
-        // accepted media types
-        Produces produces = method.getAnnotation(Produces.class);
-        if (produces == null) {
-            produces = proxyIfc.getAnnotation(Produces.class);
+            return WebResourceFactory.newResource(plan.responseType, plan.getSubResourcePlan(), newTarget, true,
+                    headers, cookies, form);
         }
-        String[] accepts = produces == null ? null : produces.value();
 
         // determine content type
-        String contentType = null;
-        if (entity != null) {
-            Consumes consumes = method.getAnnotation(Consumes.class);
-            if (consumes == null) {
-                consumes = proxyIfc.getAnnotation(Consumes.class);
-            }
-            if (consumes != null && consumes.value().length > 0) {
-                // TODO: should consider q/qs instead of picking the first one
-                contentType = consumes.value()[0];
-            }
-        }
+        String contentType = (entity != null) ? plan.contentType : null;
 
         Invocation.Builder b;
-        if (accepts != null) {
-            b = newTarget.request(accepts);
+        if (plan.accepts != null) {
+            b = newTarget.request(plan.accepts);
         } else {
             b = newTarget.request();
         }
@@ -270,8 +280,6 @@ public final class WebResourceFactory implements InvocationHandler {
             }
         }
 
-        Object result;
-
         if (entity == null && !form.asMap().isEmpty()) {
             entity = form;
             contentType = MediaType.APPLICATION_FORM_URLENCODED;
@@ -288,17 +296,48 @@ public final class WebResourceFactory implements InvocationHandler {
             }
         }
 
-        GenericType responseGenericType = new GenericType(method.getGenericReturnType());
+        Entity<?> requestEntity = null;
         if (entity != null) {
-            if (entityType instanceof ParameterizedType) {
-                entity = new GenericEntity(entity, entityType);
+            if (plan.entityType instanceof ParameterizedType) {
+                entity = new GenericEntity(entity, plan.entityType);
             }
-            result = b.method(httpMethod, Entity.entity(entity, contentType), responseGenericType);
-        } else {
-            result = b.method(httpMethod, responseGenericType);
+            requestEntity = Entity.entity(entity, contentType);
         }
 
-        return result;
+        switch (plan.invocationType) {
+            case FUTURE: {
+                final AsyncInvoker asyncInvoker = b.async();
+                return (requestEntity != null)
+                        ? asyncInvoker.method(plan.httpMethod, requestEntity, plan.responseGenericType)
+                        : asyncInvoker.method(plan.httpMethod, plan.responseGenericType);
+            }
+            case CALLBACK: {
+                final AsyncInvoker asyncInvoker = b.async();
+                final InvocationCallback callback = (InvocationCallback) args[plan.callbackIndex];
+                final Future<?> future = (requestEntity != null)
+                        ? asyncInvoker.method(plan.httpMethod, requestEntity, callback)
+                        : asyncInvoker.method(plan.httpMethod, callback);
+                return Future.class.isAssignableFrom(plan.responseType) ? future : null;
+            }
+            default:
+                return (requestEntity != null)
+                        ? b.method(plan.httpMethod, requestEntity, plan.responseGenericType)
+                        : b.method(plan.httpMethod, plan.responseGenericType);
+        }
+    }
+
+    private WebTarget getMethodTarget(final MethodPlan plan) {
+        if (plan.path == null) {
+            return target;
+        }
+
+        // create a new WebTarget appending the @Path attached to the method, once per proxy and method
+        WebTarget methodTarget = methodTargets.get(plan);
+        if (methodTarget == null) {
+            methodTarget = target.path(plan.path);
+            methodTargets.putIfAbsent(plan, methodTarget);
+        }
+        return methodTarget;
     }
 
     private static WebTarget addPathFromAnnotation(AnnotatedElement ae, WebTarget target) {
@@ -313,4 +352,233 @@ public final class WebResourceFactory implements InvocationHandler {
         HttpMethod a = ae.getAnnotation(HttpMethod.class);
         return a == null ? null : a.value();
     }
+
+    /**
+     * Cached analysis of a resource interface - lazily populated map of the interface method call plans.
+     */
+    private static final class ResourcePlan {
+
+        private final Class<?> resourceInterface;
+        private final ConcurrentMap<Method, MethodPlan> methods = new ConcurrentHashMap<Method, MethodPlan>();
+
+        ResourcePlan(Class<?> resourceInterface) {
+            this.resourceInterface = resourceInterface;
+        }
+
+        MethodPlan get(Method method) {
+            MethodPlan plan = methods.get(method);
+            if (plan == null) {
+                plan = new MethodPlan(resourceInterface, method);
+                final MethodPlan existing = methods.putIfAbsent(method, plan);
+                if (existing != null) {
+                    plan = existing;
+                }
+            }
+            return plan;
+        }
+    }
+
+    /**
+     * Source of a resource method parameter value.
+     */
+    private static enum ParamSource {
+        PATH, QUERY, HEADER, COOKIE, MATRIX, FORM, ENTITY, CALLBACK, OTHER
+    }
+
+    /**
+     * Type of the invocation of a resource method.
+     */
+    private static enum InvocationType {
+        /**
+         * Synchronous invocation.
+         */
+        SYNC,
+        /**
+         * Asynchronous invocation returning a {@link Future}.
+         */
+        FUTURE,
+        /**
+         * Asynchronous invocation notifying an {@link InvocationCallback} passed as a method parameter.
+         */
+        CALLBACK
+    }
+
+    /**
+     * Pre-computed binding of a single resource method parameter.
+     */
+    private static final class ParamBinder {
+
+        final int index;
+        final ParamSource source;
+        final String name;
+        final String defaultValue;
+
+        ParamBinder(int index, ParamSource source, String name, String defaultValue) {
+            this.index = index;
+            this.source = source;
+            this.name = name;
+            this.defaultValue = defaultValue;
+        }
+    }
+
+    /**
+     * Immutable call plan of a single resource interface method.
+     */
+    private static final class MethodPlan {
+
+        final String httpMethod;
+        final String path;
+        final Class<?> responseType;
+        final GenericType responseGenericType;
+        final ParamBinder[] binders;
+        final Type entityType;
+        final String[] accepts;
+        final String contentType;
+        final InvocationType invocationType;
+        final int callbackIndex;
+        final boolean hasHeaderParams;
+        final boolean hasCookieParams;
+        final boolean hasFormParams;
+
+        private volatile ResourcePlan subResourcePlan;
+
+        MethodPlan(Class<?> proxyIfc, Method method) {
+            // response type
+            this.responseType = method.getReturnType();
+
+            // determine method name
+            String httpMethod = getHttpMethodName(method);
+            if (httpMethod == null) {
+                for (Annotation ann : method.getAnnotations()) {
+                    httpMethod = getHttpMethodName(ann.annotationType());
+                    if (httpMethod != null) {
+                        break;
+                    }
+                }
+            }
+            this.httpMethod = httpMethod;
+
+            final Path methodPath = method.getAnnotation(Path.class);
+            this.path = (methodPath == null) ? null : methodPath.value();
+
+            if (httpMethod == null) {
+                if (methodPath == null) {
+                    // no path annotation on the method -> fail
+                    throw new UnsupportedOperationException("Not a resource method.");
+                } else if (!responseType.isInterface()) {
+                    // the method is a subresource locator, but returns class,
+                    // not interface - can't help here
+                    throw new UnsupportedOperationException("Return type not an interface");
+                }
+            }
+
+            // analyze method params
+            final Annotation[][] paramAnns = method.getParameterAnnotations();
+            final Class<?>[] paramTypes = method.getParameterTypes();
+            final ParamBinder[] binders = new ParamBinder[paramAnns.length];
+            Type entityType = null;
+            int callbackIndex = -1;
+            boolean hasHeaderParams = false;
+            boolean hasCookieParams = false;
+            boolean hasFormParams = false;
+            for (int i = 0; i < paramAnns.length; i++) {
+                ParamSource source = ParamSource.OTHER;
+                String name = null;
+                String defaultValue = null;
+
+                if (paramAnns[i].length == 0) {
+                    if (httpMethod != null && InvocationCallback.class.isAssignableFrom(paramTypes[i])) {
+                        source = ParamSource.CALLBACK;
+                        callbackIndex = i;
+                    } else {
+                        source = ParamSource.ENTITY;
+                        entityType = method.getGenericParameterTypes()[i];
+                    }
+                } else {
+                    for (Annotation ann : paramAnns[i]) {
+                        final Class<? extends Annotation> annType = ann.annotationType();
+                        ParamSource annSource = ParamSource.OTHER;
+                        String annName = null;
+                        if (annType == DefaultValue.class) {
+                            defaultValue = ((DefaultValue) ann).value();
+                        } else if (annType == PathParam.class) {
+                            annSource = ParamSource.PATH;
+                            annName = ((PathParam) ann).value();
+                        } else if (annType == QueryParam.class) {
+                            annSource = ParamSource.QUERY;
+                            annName = ((QueryParam) ann).value();
+                        } else if (annType == HeaderParam.class) {
+                            annSource = ParamSource.HEADER;
+                            annName = ((HeaderParam) ann).value();
+                        } else if (annType == CookieParam.class) {
+                            annSource = ParamSource.COOKIE;
+                            annName = ((CookieParam) ann).value();
+                        } else if (annType == MatrixParam.class) {
+                            annSource = ParamSource.MATRIX;
+                            annName = ((MatrixParam) ann).value();
+                        } else if (annType == FormParam.class) {
+                            annSource = ParamSource.FORM;
+                            annName = ((FormParam) ann).value();
+                        }
+                        // in case of multiple parameter annotations the source declared first in ParamSource wins
+                        if (annSource.ordinal() < source.ordinal()) {
+                            source = annSource;
+                            name = annName;
+                        }
+                    }
+                }
+
+                hasHeaderParams |= source == ParamSource.HEADER;
+                hasCookieParams |= source == ParamSource.COOKIE;
+                hasFormParams |= source == ParamSource.FORM;
+                binders[i] = new ParamBinder(i, source, name, defaultValue);
+            }
+            this.binders = binders;
+            this.entityType = entityType;
+            this.callbackIndex = callbackIndex;
+            this.hasHeaderParams = hasHeaderParams;
+            this.hasCookieParams = hasCookieParams;
+            this.hasFormParams = hasFormParams;
+
+            // determine invocation type and the expected response type
+            if (callbackIndex >= 0) {
+                this.invocationType = InvocationType.CALLBACK;
+                this.responseGenericType = null;
+            } else if (httpMethod != null && responseType == Future.class) {
+                this.invocationType = InvocationType.FUTURE;
+                final Type genericReturnType = method.getGenericReturnType();
+                this.responseGenericType = new GenericType((genericReturnType instanceof ParameterizedType)
+                        ? ((ParameterizedType) genericReturnType).getActualTypeArguments()[0]
+                        : Response.class);
+            } else {
+                this.invocationType = InvocationType.SYNC;
+                this.responseGenericType = new GenericType(method.getGenericReturnType());
+            }
+
+            // accepted media types
+            Produces produces = method.getAnnotation(Produces.class);
+            if (produces == null) {
+                produces = proxyIfc.getAnnotation(Produces.class);
+            }
+            this.accepts = produces == null ? null : produces.value();
+
+            // content type of the request entity
+            Consumes consumes = method.getAnnotation(Consumes.class);
+            if (consumes == null) {
+                consumes = proxyIfc.getAnnotation(Consumes.class);
+            }
+            // TODO: should consider q/qs instead of picking the first one
+            this.contentType = (consumes != null && consumes.value().length > 0) ? consumes.value()[0] : null;
+        }
+
+        ResourcePlan getSubResourcePlan() {
+            ResourcePlan plan = subResourcePlan;
+            if (plan == null) {
+                // keep a strong reference to the sub-resource plan for as long as this plan is alive
+                plan = getResourcePlan(responseType);
+                subResourcePlan = plan;
+            }
+            return plan;
+        }
+    }
 }
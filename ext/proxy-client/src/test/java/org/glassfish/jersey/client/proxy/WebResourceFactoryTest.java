@@ -40,6 +40,12 @@
 package org.glassfish.jersey.client.proxy;
 
 import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.client.ClientException;
+import javax.ws.rs.client.InvocationCallback;
 
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.test.JerseyTest;
@@ -93,4 +99,36 @@ public class WebResourceFactoryTest extends JerseyTest {
     public void testSubResource() {
         assertEquals("Got it!", resource.getSubResource().getMyBean().name);
     }
+
+    @Test
+    public void testRepeatedInvocation() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals("jouda" + i, resource.getId("jouda" + i));
+            assertEquals("jiri" + i, resource.getByName("jiri" + i));
+        }
+    }
+
+    @Test
+    public void testAsyncFuture() throws Exception {
+        final MyResourceAsyncIfc asyncResource = WebResourceFactory.newResource(MyResourceAsyncIfc.class, target());
+        assertEquals("Got it!", asyncResource.getIt().get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testAsyncCallback() throws Exception {
+        final MyResourceAsyncIfc asyncResource = WebResourceFactory.newResource(MyResourceAsyncIfc.class, target());
+        final BlockingQueue<Object> result = new ArrayBlockingQueue<Object>(1);
+        asyncResource.getId("jouda", new InvocationCallback<String>() {
+            @Override
+            public void completed(String response) {
+                result.add(response);
+            }
+
+            @Override
+            public void failed(ClientException error) {
+                result.add(error);
+            }
+        });
+        assertEquals("jouda", result.poll(10, TimeUnit.SECONDS));
+    }
 }
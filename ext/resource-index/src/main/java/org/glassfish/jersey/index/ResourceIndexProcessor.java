@@ -0,0 +1,242 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.index;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor generating the Jersey resource index.
+ * <p>
+ * The processor collects binary names of all the classes annotated with {@link javax.ws.rs.Path &#64;Path}
+ * or {@link javax.ws.rs.ext.Provider &#64;Provider} and writes them, one class name per line, into the
+ * {@value #LOCATION} resource in the class output directory. Jersey package scanning uses the index instead
+ * of scanning the directory or jar file that contains it.
+ * </p>
+ * <p>
+ * Along with the index the processor writes the list of all the known top-level classes into the
+ * {@value #CLASSES_LOCATION} resource, classes compiled in the current run are prefixed with {@code '*'}.
+ * The class files are written by the compiler only after the index, the class list lets Jersey tell
+ * these class files from classes added or recompiled later without the index being updated.
+ * </p>
+ * <p>
+ * To support incremental compilation the processor merges the newly found classes with an existing index
+ * and class list: entries of the classes compiled in the current run are replaced, entries of the other classes
+ * are retained as long as their class files still exist.
+ * </p>
+ *
+ * @author Pavel Bucek (pavel.bucek at oracle.com)
+ */
+@SupportedAnnotationTypes({"javax.ws.rs.Path", "javax.ws.rs.ext.Provider"})
+public class ResourceIndexProcessor extends AbstractProcessor {
+
+    /**
+     * Location of the generated index relative to the class output directory.
+     */
+    public static final String LOCATION = "META-INF/jersey/resource-index";
+    /**
+     * Location of the generated list of classes known to the index relative to the class output directory.
+     */
+    public static final String CLASSES_LOCATION = "META-INF/jersey/resource-index-classes";
+
+    private static final char COMPILED_PREFIX = '*';
+
+    private final SortedSet<String> indexed = new TreeSet<String>();
+    private final Set<String> compiled = new HashSet<String>();
+    private final Set<String> compiledTopLevel = new HashSet<String>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            write();
+            return false;
+        }
+
+        for (Element element : roundEnv.getRootElements()) {
+            if (element instanceof TypeElement) {
+                compiledTopLevel.add(binaryName((TypeElement) element));
+            }
+            collectCompiled(element);
+        }
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind().isClass() || element.getKind().isInterface()) {
+                    indexed.add(binaryName((TypeElement) element));
+                }
+            }
+        }
+        // do not claim the annotations, other processors may be interested in them as well
+        return false;
+    }
+
+    private void collectCompiled(final Element element) {
+        if (element instanceof TypeElement) {
+            compiled.add(binaryName((TypeElement) element));
+            for (Element enclosed : element.getEnclosedElements()) {
+                collectCompiled(enclosed);
+            }
+        }
+    }
+
+    private String binaryName(final TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private void write() {
+        final SortedSet<String> index = new TreeSet<String>(indexed);
+        for (String className : readExisting(LOCATION)) {
+            if (!compiled.contains(className) && classFileExists(className)) {
+                index.add(className);
+            }
+        }
+        if (index.isEmpty()) {
+            return;
+        }
+
+        final SortedSet<String> classes = new TreeSet<String>(compiledTopLevel);
+        for (String className : readExisting(CLASSES_LOCATION)) {
+            if (className.charAt(0) == COMPILED_PREFIX) {
+                className = className.substring(1);
+            }
+            if (!compiledTopLevel.contains(className) && classFileExists(className)) {
+                classes.add(className);
+            }
+        }
+
+        try {
+            final Writer writer = openResource(LOCATION);
+            try {
+                for (String className : index) {
+                    writer.write(className);
+                    writer.write('\n');
+                }
+            } finally {
+                writer.close();
+            }
+
+            final Writer classesWriter = openResource(CLASSES_LOCATION);
+            try {
+                for (String className : classes) {
+                    if (compiledTopLevel.contains(className)) {
+                        classesWriter.write(COMPILED_PREFIX);
+                    }
+                    classesWriter.write(className);
+                    classesWriter.write('\n');
+                }
+            } finally {
+                classesWriter.close();
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Unable to write Jersey resource index " + LOCATION + ": " + e.getMessage());
+        }
+    }
+
+    private Writer openResource(final String location) throws IOException {
+        final FileObject resource = processingEnv.getFiler()
+                .createResource(StandardLocation.CLASS_OUTPUT, "", location);
+        final Writer writer = new OutputStreamWriter(resource.openOutputStream(), "UTF-8");
+        writer.write("# Generated by " + ResourceIndexProcessor.class.getName() + ", do not edit.\n");
+        return writer;
+    }
+
+    private Set<String> readExisting(final String location) {
+        final Set<String> classNames = new HashSet<String>();
+        try {
+            final InputStream in = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", location)
+                    .openInputStream();
+            try {
+                final BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && line.charAt(0) != '#') {
+                        classNames.add(line);
+                    }
+                }
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            // no index from a previous compilation
+        } catch (IllegalArgumentException e) {
+            // no index from a previous compilation
+        }
+        return classNames;
+    }
+
+    private boolean classFileExists(final String className) {
+        final int lastDot = className.lastIndexOf('.');
+        final String packageName = lastDot < 0 ? "" : className.substring(0, lastDot);
+        final String fileName = className.substring(lastDot + 1) + ".class";
+        try {
+            processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, packageName, fileName)
+                    .openInputStream().close();
+            return true;
+        } catch (IOException e) {
+            return false;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.index;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link ResourceIndexProcessor} tests.
+ *
+ * @author Pavel Bucek (pavel.bucek at oracle.com)
+ */
+public class ResourceIndexProcessorTest {
+
+    private File sources;
+    private File classes;
+
+    @Before
+    public void setUp() throws IOException {
+        sources = createDirectory("sources");
+        classes = createDirectory("classes");
+    }
+
+    @After
+    public void tearDown() {
+        delete(sources);
+        delete(classes);
+    }
+
+    private static File createDirectory(final String prefix) throws IOException {
+        final File directory = File.createTempFile(prefix, "");
+        directory.delete();
+        directory.mkdirs();
+        return directory;
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private File source(final String path, final String content) throws IOException {
+        final File file = new File(sources, path);
+        file.getParentFile().mkdirs();
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    private void compile(final File... files) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+        try {
+            final Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjects(files);
+            final List<String> options = Arrays.asList("-d", classes.getPath(), "-classpath",
+                    System.getProperty("java.class.path") + File.pathSeparator + classes.getPath());
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, units);
+            task.setProcessors(Collections.singletonList(new ResourceIndexProcessor()));
+            assertTrue(task.call());
+        } finally {
+            fileManager.close();
+        }
+    }
+
+    private List<String> readIndex() throws IOException {
+        final List<String> lines = new ArrayList<String>();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(new File(classes, ResourceIndexProcessor.LOCATION)), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("#")) {
+                    lines.add(line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return lines;
+    }
+
+    @Test
+    public void testIndex() throws IOException {
+        compile(source("org/foo/Resource.java",
+                "package org.foo;\n"
+                        + "@javax.ws.rs.Path(\"r\") public class Resource {\n"
+                        + "    @javax.ws.rs.Path(\"s\") public String sub() { return null; }\n"
+                        + "    @javax.ws.rs.ext.Provider public static class Nested {}\n"
+                        + "}\n"),
+                source("org/foo/Plain.java", "package org.foo; public class Plain {}\n"));
+
+        assertEquals(Arrays.asList("org.foo.Resource", "org.foo.Resource$Nested"), readIndex());
+    }
+
+    @Test
+    public void testIncrementalCompilation() throws IOException {
+        final File resource = source("org/foo/Resource.java",
+                "package org.foo; @javax.ws.rs.Path(\"r\") public class Resource {}\n");
+        final File other = source("org/foo/Other.java",
+                "package org.foo; @javax.ws.rs.Path(\"o\") public class Other {}\n");
+        compile(resource, other);
+        assertEquals(Arrays.asList("org.foo.Other", "org.foo.Resource"), readIndex());
+
+        // Resource is no longer annotated, Other is not recompiled and must be retained.
+        compile(source("org/foo/Resource.java", "package org.foo; public class Resource {}\n"),
+                source("org/foo/Provider.java",
+                        "package org.foo; @javax.ws.rs.ext.Provider public class Provider {}\n"));
+        assertEquals(Arrays.asList("org.foo.Other", "org.foo.Provider"), readIndex());
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.scanning;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.glassfish.jersey.index.ResourceIndexProcessor;
+import org.glassfish.jersey.server.ResourceFinder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests loading of the {@link ResourceIndex resource index} generated by {@link ResourceIndexProcessor}.
+ *
+ * @author Pavel Bucek (pavel.bucek at oracle.com)
+ */
+public class ResourceIndexProcessorLoadTest {
+
+    private File sources;
+    private File classes;
+
+    @Before
+    public void setUp() throws IOException {
+        sources = createDirectory("sources");
+        classes = createDirectory("classes");
+    }
+
+    @After
+    public void tearDown() {
+        delete(sources);
+        delete(classes);
+    }
+
+    private static File createDirectory(final String prefix) throws IOException {
+        final File directory = File.createTempFile(prefix, "");
+        directory.delete();
+        directory.mkdirs();
+        return directory;
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private File source(final String path, final String content) throws IOException {
+        final File file = new File(sources, path);
+        file.getParentFile().mkdirs();
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    private void compile(final boolean processor, final File... files) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+        try {
+            final Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjects(files);
+            final List<String> options = new ArrayList<String>(Arrays.asList("-d", classes.getPath(), "-classpath",
+                    System.getProperty("java.class.path") + File.pathSeparator + classes.getPath()));
+            if (!processor) {
+                options.add("-proc:none");
+            }
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, units);
+            if (processor) {
+                task.setProcessors(Collections.singletonList(new ResourceIndexProcessor()));
+            }
+            assertTrue(task.call());
+        } finally {
+            fileManager.close();
+        }
+    }
+
+    private static List<String> list(final ResourceFinder finder) {
+        final List<String> names = new ArrayList<String>();
+        while (finder.hasNext()) {
+            names.add(finder.next());
+        }
+        return names;
+    }
+
+    @Test
+    public void testLoadGeneratedIndex() throws IOException {
+        compile(true,
+                source("org/foo/Resource.java",
+                        "package org.foo;\n"
+                                + "@javax.ws.rs.Path(\"r\") public class Resource {\n"
+                                + "    public Runnable task() { return new Runnable() { public void run() {} }; }\n"
+                                + "    @javax.ws.rs.ext.Provider public static class Nested {}\n"
+                                + "}\n"),
+                source("org/foo/Plain.java", "package org.foo; public class Plain {}\n"),
+                source("org/foo/package-info.java", "@Deprecated package org.foo;\n"));
+
+        final ResourceIndex index = ResourceIndex.load(classes.toURI());
+        assertNotNull(index);
+        assertEquals(Arrays.asList("org/foo/Resource.class", "org/foo/Resource$Nested.class"),
+                list(index.finder("org/foo")));
+    }
+
+    @Test
+    public void testIncrementalCompilation() throws IOException {
+        final File resource = source("org/foo/Resource.java",
+                "package org.foo; @javax.ws.rs.Path(\"r\") public class Resource {}\n");
+        compile(true, resource, source("org/foo/Other.java", "package org.foo; public class Other {}\n"));
+        assertNotNull(ResourceIndex.load(classes.toURI()));
+
+        // Other is not recompiled and its class file is older than the new index
+        compile(true, resource, source("org/foo/Provider.java",
+                "package org.foo; @javax.ws.rs.ext.Provider public class Provider {}\n"));
+
+        final ResourceIndex index = ResourceIndex.load(classes.toURI());
+        assertNotNull(index);
+        assertEquals(Arrays.asList("org/foo/Provider.class", "org/foo/Resource.class"), list(index.finder("org")));
+    }
+
+    @Test
+    public void testCompiledWithoutProcessor() throws IOException {
+        compile(true, source("org/foo/Resource.java",
+                "package org.foo; @javax.ws.rs.Path(\"r\") public class Resource {}\n"));
+        assertNotNull(ResourceIndex.load(classes.toURI()));
+
+        compile(false, source("org/foo/Added.java",
+                "package org.foo; @javax.ws.rs.Path(\"a\") public class Added {}\n"));
+        assertNull(ResourceIndex.load(classes.toURI()));
+    }
+}
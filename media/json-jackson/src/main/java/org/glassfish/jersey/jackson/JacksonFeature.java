@@ -44,8 +44,6 @@ import javax.ws.rs.core.Feature;
 import javax.ws.rs.ext.MessageBodyReader;
 import javax.ws.rs.ext.MessageBodyWriter;
 
-import org.codehaus.jackson.jaxrs.JacksonJaxbJsonProvider;
-
 /**
  * Feature used to register Jackson JSON providers.
  *
@@ -55,7 +53,7 @@ public class JacksonFeature implements Feature {
 
     @Override
     public boolean configure(final Configurable config) {
-        registerReaderWriterProvider(config, JacksonJaxbJsonProvider.class);
+        registerReaderWriterProvider(config, JacksonJsonEntityProvider.class);
         return true;
     }
 
@@ -0,0 +1,405 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.jackson;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Configurable;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
+
+import org.glassfish.jersey.internal.util.PropertiesHelper;
+import org.glassfish.jersey.message.StableMessageBodyWorker;
+
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.map.AnnotationIntrospector;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectReader;
+import org.codehaus.jackson.map.ObjectWriter;
+import org.codehaus.jackson.map.annotate.JsonView;
+import org.codehaus.jackson.map.introspect.JacksonAnnotationIntrospector;
+import org.codehaus.jackson.type.JavaType;
+import org.codehaus.jackson.xc.JaxbAnnotationIntrospector;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Jersey JSON entity provider based on the Jackson data binding.
+ * <p>
+ * The {@link ObjectMapper object mapper} is obtained from a {@code ContextResolver<ObjectMapper>} if registered,
+ * otherwise a default mapper is used. Jackson {@link ObjectReader object readers} and {@link ObjectWriter writers}
+ * specialized for the entity type and the {@link JsonView JSON view} (if the entity is annotated with
+ * {@code @JsonView}) are prefetched once and cached per context resolver the object mapper is obtained from, so
+ * that the serializers and deserializers are not resolved for each entity. The cached reader (writer) is replaced
+ * whenever the context resolver provides a different object mapper instance for the entity type.
+ * </p>
+ * <p>
+ * {@link Iterator} and {@link Iterable} (other than {@link Collection}) entities are written as JSON arrays element
+ * by element as the elements are produced, without materializing all the elements first. The JSON generator passes
+ * the produced data to the entity stream whenever its output buffer fills up. Chunked output chunks
+ * are written using the cached writers of the chunk type.
+ * </p>
+ * <p>
+ * The default object mapper introspects both Jackson and JAXB annotations. The JAXB annotations introspection
+ * can be disabled via the {@value org.glassfish.jersey.jackson.JacksonProperties#JAXB_ANNOTATIONS} property.
+ * </p>
+ *
+ * @author Stepan Kopriva (stepan.kopriva at oracle.com)
+ */
+@Produces("*/*")
+@Consumes("*/*")
+public class JacksonJsonEntityProvider implements MessageBodyReader<Object>, MessageBodyWriter<Object>,
+        StableMessageBodyWorker {
+
+    /**
+     * Maximum number of cached object readers (writers).
+     */
+    private static final int MAX_CACHE_SIZE = 1000;
+
+    /**
+     * Types that are never read or written by this provider.
+     */
+    private static final Set<Class<?>> UNTOUCHABLES = new HashSet<Class<?>>();
+
+    static {
+        UNTOUCHABLES.add(String.class);
+        UNTOUCHABLES.add(byte[].class);
+        UNTOUCHABLES.add(char[].class);
+        UNTOUCHABLES.add(InputStream.class);
+        UNTOUCHABLES.add(Reader.class);
+        UNTOUCHABLES.add(OutputStream.class);
+        UNTOUCHABLES.add(Writer.class);
+        UNTOUCHABLES.add(File.class);
+        UNTOUCHABLES.add(StreamingOutput.class);
+        UNTOUCHABLES.add(Response.class);
+    }
+
+    @Context
+    private Providers providers;
+    @Context
+    private Configurable configuration;
+
+    private volatile ObjectMapper defaultMapper;
+
+    private final Cache<Key, Cached<ObjectReader>> readers =
+            CacheBuilder.newBuilder().maximumSize(MAX_CACHE_SIZE).build();
+    private final Cache<Key, Cached<ObjectWriter>> writers =
+            CacheBuilder.newBuilder().maximumSize(MAX_CACHE_SIZE).build();
+
+    /**
+     * Key of the object reader and writer caches.
+     * <p>
+     * The key refers to the context resolver ({@code null} for the default object mapper) rather than to the object
+     * mapper itself, so that the cache does not retain (and is not filled up by) object mappers created
+     * by the resolver on demand.
+     * </p>
+     */
+    private static final class Key {
+        private final ContextResolver<ObjectMapper> resolver;
+        private final Type type;
+        private final Class<?> view;
+
+        private Key(ContextResolver<ObjectMapper> resolver, Type type, Class<?> view) {
+            this.resolver = resolver;
+            this.type = type;
+            this.view = view;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Key that = (Key) o;
+
+            return resolver == that.resolver && type.equals(that.type)
+                    && (view == null ? that.view == null : view.equals(that.view));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(resolver);
+            result = 31 * result + type.hashCode();
+            result = 31 * result + (view != null ? view.hashCode() : 0);
+            return result;
+        }
+    }
+
+    /**
+     * Cached object reader (writer) together with the object mapper it has been created by.
+     */
+    private static final class Cached<T> {
+        private final ObjectMapper mapper;
+        private final T worker;
+
+        private Cached(ObjectMapper mapper, T worker) {
+            this.mapper = mapper;
+            this.worker = worker;
+        }
+    }
+
+    @Override
+    public boolean isDecisionStable(Class<?> type) {
+        return true;
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return isJsonType(mediaType) && isSupported(type);
+    }
+
+    @Override
+    public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                           MultivaluedMap<String, String> httpHeaders, InputStream entityStream)
+            throws IOException, WebApplicationException {
+        final ContextResolver<ObjectMapper> resolver = getResolver(mediaType);
+        final ObjectMapper mapper = getMapper(resolver, type);
+        final ObjectReader reader = getReader(resolver, mapper, genericType != null ? genericType : type);
+
+        final JsonParser parser = mapper.getJsonFactory().createJsonParser(entityStream);
+        parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        return reader.readValue(parser);
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return isJsonType(mediaType) && isSupported(type);
+    }
+
+    @Override
+    public long getSize(Object o, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(Object o, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+            throws IOException, WebApplicationException {
+        final ContextResolver<ObjectMapper> resolver = getResolver(mediaType);
+        final ObjectMapper mapper = getMapper(resolver, type);
+        final Class<?> view = getView(annotations);
+
+        final JsonGenerator generator = mapper.getJsonFactory().createJsonGenerator(entityStream, getEncoding(mediaType));
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        if (o instanceof Iterator || (o instanceof Iterable && !(o instanceof Collection))) {
+            final ObjectWriter writer = getWriter(resolver, mapper, getElementType(genericType), view);
+            final Iterator<?> iterator = (o instanceof Iterator) ? (Iterator<?>) o : ((Iterable<?>) o).iterator();
+
+            // the elements produced so far are passed to the entity stream as the generator buffer fills up
+            generator.writeStartArray();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+            }
+            generator.writeEndArray();
+        } else {
+            getWriter(resolver, mapper, genericType != null ? genericType : type, view).writeValue(generator, o);
+        }
+        generator.flush();
+    }
+
+    private ContextResolver<ObjectMapper> getResolver(MediaType mediaType) {
+        return (providers == null) ? null : providers.getContextResolver(ObjectMapper.class, mediaType);
+    }
+
+    /**
+     * Get the object mapper for the given entity type.
+     *
+     * @param resolver object mapper context resolver, may be {@code null}.
+     * @param type entity type.
+     * @return custom object mapper or the default object mapper if no custom mapper is provided.
+     */
+    private ObjectMapper getMapper(ContextResolver<ObjectMapper> resolver, Class<?> type) {
+        if (resolver != null) {
+            final ObjectMapper mapper = resolver.getContext(type);
+            if (mapper != null) {
+                return mapper;
+            }
+        }
+
+        ObjectMapper mapper = defaultMapper;
+        if (mapper == null) {
+            synchronized (this) {
+                mapper = defaultMapper;
+                if (mapper == null) {
+                    defaultMapper = mapper = createDefaultMapper();
+                }
+            }
+        }
+        return mapper;
+    }
+
+    private ObjectMapper createDefaultMapper() {
+        final ObjectMapper mapper = new ObjectMapper();
+
+        final boolean jaxbAnnotations = configuration == null
+                || PropertiesHelper.getValue(configuration.getProperties(), JacksonProperties.JAXB_ANNOTATIONS, Boolean.TRUE);
+        if (jaxbAnnotations) {
+            final AnnotationIntrospector introspector = new AnnotationIntrospector.Pair(
+                    new JacksonAnnotationIntrospector(), new JaxbAnnotationIntrospector());
+            mapper.setDeserializationConfig(mapper.getDeserializationConfig().withAnnotationIntrospector(introspector));
+            mapper.setSerializationConfig(mapper.getSerializationConfig().withAnnotationIntrospector(introspector));
+        }
+        return mapper;
+    }
+
+    private ObjectReader getReader(final ContextResolver<ObjectMapper> resolver, final ObjectMapper mapper,
+                                   final Type type) {
+        final Key key = new Key(resolver, type, null);
+        final Cached<ObjectReader> cached = readers.getIfPresent(key);
+        if (cached != null && cached.mapper == mapper) {
+            return cached.worker;
+        }
+
+        final ObjectReader reader = mapper.reader(mapper.getTypeFactory().constructType(type));
+        readers.put(key, new Cached<ObjectReader>(mapper, reader));
+        return reader;
+    }
+
+    private ObjectWriter getWriter(final ContextResolver<ObjectMapper> resolver, final ObjectMapper mapper,
+                                   final Type type, final Class<?> view) {
+        final Key key = new Key(resolver, type, view);
+        final Cached<ObjectWriter> cached = writers.getIfPresent(key);
+        if (cached != null && cached.mapper == mapper) {
+            return cached.worker;
+        }
+
+        ObjectWriter writer = (view == null) ? mapper.writer() : mapper.writerWithView(view);
+        // the root type is pinned only for generic types (e.g. collections) whose type arguments are
+        // erased at runtime; entities of plain class types are serialized using their runtime type,
+        // so that the properties of subclasses of the declared type are written as well
+        if (!(type instanceof Class)) {
+            final JavaType rootType = mapper.getTypeFactory().constructType(type);
+            if (rootType.getRawClass() != Object.class) {
+                writer = writer.withType(rootType);
+            }
+        }
+        writers.put(key, new Cached<ObjectWriter>(mapper, writer));
+        return writer;
+    }
+
+    private static Type getElementType(Type genericType) {
+        if (genericType instanceof ParameterizedType) {
+            final Type[] arguments = ((ParameterizedType) genericType).getActualTypeArguments();
+            if (arguments.length == 1) {
+                return arguments[0];
+            }
+        }
+        return Object.class;
+    }
+
+    private static Class<?> getView(Annotation[] annotations) {
+        if (annotations != null) {
+            for (Annotation annotation : annotations) {
+                if (annotation instanceof JsonView) {
+                    final Class<?>[] views = ((JsonView) annotation).value();
+                    if (views.length > 0) {
+                        return views[0];
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static JsonEncoding getEncoding(MediaType mediaType) {
+        final String charset = (mediaType == null) ? null : mediaType.getParameters().get("charset");
+        if (charset != null) {
+            for (JsonEncoding encoding : JsonEncoding.values()) {
+                if (charset.equalsIgnoreCase(encoding.getJavaName())) {
+                    return encoding;
+                }
+            }
+        }
+        return JsonEncoding.UTF8;
+    }
+
+    private static boolean isSupported(Class<?> type) {
+        if (UNTOUCHABLES.contains(type)) {
+            return false;
+        }
+        for (Class<?> untouchable : UNTOUCHABLES) {
+            if (untouchable.isAssignableFrom(type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check whether the media type is a JSON media type, i.e. the media type subtype is {@code json},
+     * ends with {@code +json} or the media type is not known (wildcard).
+     *
+     * @param mediaType media type to be checked.
+     * @return {@code true} if the media type represents JSON.
+     */
+    protected boolean isJsonType(MediaType mediaType) {
+        if (mediaType == null || mediaType.isWildcardType() || mediaType.isWildcardSubtype()) {
+            return true;
+        }
+        final String subtype = mediaType.getSubtype();
+        return "json".equalsIgnoreCase(subtype) || subtype.toLowerCase().endsWith("+json");
+    }
+}
@@ -128,8 +128,8 @@ public final class JettisonJaxbMarshaller extends BaseJsonMarshaller implements
                 throw new PropertyException("property " + name + " must be an instance of type "
                         + "boolean, not " + value.getClass().getName());
             }
-
-            jsonConfig = JettisonConfiguration.createJSONConfiguration(jsonConfig);
+            // formatting is not supported by the Jettison writers, the (immutable) configuration is kept as is
+            // so that the writer resources associated with it can be reused
         } else {
             jaxbMarshaller.setProperty(name, value);
         }
@@ -39,7 +39,6 @@
  */
 package org.glassfish.jersey.jettison.internal;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
@@ -60,14 +59,36 @@ import org.codehaus.jettison.mapped.MappedNamespaceConvention;
 import org.codehaus.jettison.mapped.MappedXMLStreamReader;
 import org.codehaus.jettison.mapped.MappedXMLStreamWriter;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
 /**
  * Factory for creating JSON-enabled StAX readers and writers.
+ * <p>
+ * The mapped namespace conventions are immutable once created and are therefore shared by all the readers and
+ * writers created for the same (immutable) {@link JettisonConfiguration configuration} instance.
+ * </p>
  *
  * @author Jakub Podlesak (jakub.podlesak at oracle.com)
  * @author Michal Gajdos (michal.gajdos at oracle.com)
  */
 public class Stax2JettisonFactory {
 
+    private static final LoadingCache<JettisonConfiguration, MappedNamespaceConvention> conventions =
+            CacheBuilder.newBuilder().weakKeys().build(new CacheLoader<JettisonConfiguration, MappedNamespaceConvention>() {
+                @Override
+                public MappedNamespaceConvention load(final JettisonConfiguration config) {
+                    final Configuration jmConfig;
+                    if (null == config.getXml2JsonNs()) {
+                        jmConfig = new Configuration();
+                    } else {
+                        jmConfig = new Configuration(config.getXml2JsonNs());
+                    }
+                    return new MappedNamespaceConvention(jmConfig);
+                }
+            });
+
     private Stax2JettisonFactory() {
     }
 
@@ -77,13 +98,7 @@ public class Stax2JettisonFactory {
             case BADGERFISH:
                 return new BadgerFishXMLStreamWriter(writer);
             case MAPPED_JETTISON:
-                Configuration jmConfig;
-                if (null == config.getXml2JsonNs()) {
-                    jmConfig = new Configuration();
-                } else {
-                    jmConfig = new Configuration(config.getXml2JsonNs());
-                }
-                return new MappedXMLStreamWriter(new MappedNamespaceConvention(jmConfig), writer);
+                return new MappedXMLStreamWriter(conventions.getUnchecked(config), writer);
             default:
                 return null;
         }
@@ -91,27 +106,20 @@ public class Stax2JettisonFactory {
 
     public static XMLStreamReader createReader(final Reader reader,
                                                final JettisonConfiguration config) throws XMLStreamException {
-        Reader nonEmptyReader = ensureNonEmptyReader(reader);
+        // Jettison readers operate on a parsed JSON object, the JSON expression is tokenized directly
+        // from the entity characters without any additional buffering of the entity stream
+        final String json = readNonEmpty(reader);
 
         switch (config.getNotation()) {
             case MAPPED_JETTISON:
                 try {
-                    Configuration jmConfig;
-                    if (null == config.getXml2JsonNs()) {
-                        jmConfig = new Configuration();
-                    } else {
-                        jmConfig = new Configuration(config.getXml2JsonNs());
-                    }
-                    return new MappedXMLStreamReader(
-                            new JSONObject(new JSONTokener(ReaderWriter.readFromAsString(nonEmptyReader))),
-                            new MappedNamespaceConvention(jmConfig));
+                    return new MappedXMLStreamReader(new JSONObject(new JSONTokener(json)), conventions.getUnchecked(config));
                 } catch (Exception ex) {
                     throw new XMLStreamException(ex);
                 }
             case BADGERFISH:
                 try {
-                    return new BadgerFishXMLStreamReader(new JSONObject(new JSONTokener(ReaderWriter.readFromAsString
-                            (nonEmptyReader))));
+                    return new BadgerFishXMLStreamReader(new JSONObject(new JSONTokener(json)));
                 } catch (Exception ex) {
                     throw new XMLStreamException(ex);
                 }
@@ -120,18 +128,17 @@ public class Stax2JettisonFactory {
         throw new IllegalArgumentException("Unknown JSON config");
     }
 
-    private static Reader ensureNonEmptyReader(Reader reader) throws XMLStreamException {
+    private static String readNonEmpty(Reader reader) throws XMLStreamException {
+        final String json;
         try {
-            Reader mr = reader.markSupported() ? reader : new BufferedReader(reader);
-            mr.mark(1);
-            if (mr.read() == -1) {
-                throw new XMLStreamException("JSON expression can not be empty!");
-            }
-            mr.reset();
-            return mr;
+            json = ReaderWriter.readFromAsString(reader);
         } catch (IOException ex) {
             throw new XMLStreamException(ex);
         }
+        if (json.length() == 0) {
+            throw new XMLStreamException("JSON expression can not be empty!");
+        }
+        return json;
     }
 
 }
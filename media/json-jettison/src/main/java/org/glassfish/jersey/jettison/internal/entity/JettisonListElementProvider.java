@@ -47,7 +47,6 @@ import java.io.OutputStreamWriter;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
-import java.util.Collection;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -118,19 +117,26 @@ public class JettisonListElementProvider extends AbstractCollectionJaxbProvider
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The elements are marshalled one by one, as they are obtained, through a single Jettison writer as children
+     * of the invisible root element, so that the JSON notation (mapped or BadgerFish) of the configuration
+     * determines the produced JSON, including the grouping of elements with different root element names.
+     * Note that the Jettison writer keeps the JSON tree in memory until the end of the document.
+     * </p>
+     */
     @Override
-    public final void writeList(Class<?> elementType, Collection<?> t, MediaType mediaType, Charset c, Marshaller m,
+    public final void writeList(Class<?> elementType, Iterable<?> t, MediaType mediaType, Charset c, Marshaller m,
                                 OutputStream entityStream) throws JAXBException, IOException {
         final OutputStreamWriter osw = new OutputStreamWriter(entityStream, c);
 
-        JettisonConfiguration origJsonConfig = JettisonConfiguration.DEFAULT;
+        JettisonConfiguration jsonConfig = JettisonConfiguration.DEFAULT;
         if (m instanceof JettisonConfigured) {
-            origJsonConfig = ((JettisonConfigured) m).getJSONConfiguration();
+            jsonConfig = ((JettisonConfigured) m).getJSONConfiguration();
         }
 
-        final JettisonConfiguration unwrappingJsonConfig = JettisonConfiguration.createJSONConfiguration(origJsonConfig);
-
-        final XMLStreamWriter jxsw = Stax2JettisonFactory.createWriter(osw, unwrappingJsonConfig);
+        final XMLStreamWriter jxsw = Stax2JettisonFactory.createWriter(osw, jsonConfig);
         final String invisibleRootName = getRootElementName(elementType);
 
         try {
@@ -39,26 +39,53 @@
  */
 package org.glassfish.jersey.moxy.json;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.ext.ContextResolver;
 import javax.ws.rs.ext.Providers;
 
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.bind.PropertyException;
+import javax.xml.bind.UnmarshalException;
 import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.transform.stream.StreamSource;
+
+import org.glassfish.jersey.message.ElementStream;
 
 import org.eclipse.persistence.jaxb.MarshallerProperties;
 import org.eclipse.persistence.jaxb.UnmarshallerProperties;
 import org.eclipse.persistence.jaxb.rs.MOXyJsonProvider;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
 /**
  * Jersey specific {@link MOXyJsonProvider} that can be configured via {@code ContextResolver<JsonMoxyConfiguration>} instance.
  * <p/>
@@ -68,6 +95,19 @@ import org.eclipse.persistence.jaxb.rs.MOXyJsonProvider;
  *     <li>Value wrapper - {@code $}</li>
  *     <li>Namespace separator - {@code :}</li>
  * </ul>
+ * <p/>
+ * The {@link MoxyJsonConfiguration} is resolved once per provider instance. Entities of plain (non-generic) domain
+ * types are marshalled and unmarshalled using marshallers and unmarshallers that are configured once and pooled
+ * per {@link JAXBContext}; the JAXB contexts are obtained from (and cached by) {@link MOXyJsonProvider}. A marshaller
+ * (unmarshaller) is reset to the provider configuration before it is returned to the pool. Other entities are processed
+ * by {@link MOXyJsonProvider}. If a subclass overrides the {@link #preReadFrom preReadFrom} or
+ * {@link #preWriteTo preWriteTo} hooks, the marshallers (unmarshallers) are not pooled and all entities are processed
+ * by {@link MOXyJsonProvider}, which invokes the hooks.
+ * <p/>
+ * In addition to the entities supported by {@link MOXyJsonProvider}, {@code Iterator<T>}, {@code ElementStream<T>} and
+ * {@code Iterable<T>} (if declared as such) entities are written as JSON arrays. The elements are marshalled one by one
+ * as they are obtained from the iterator using a single marshaller, so the elements do not have to be materialized
+ * in memory at once.
  *
  * @author Michal Gajdos (michal.gajdos at oracle.com)
  */
@@ -75,9 +115,47 @@ import org.eclipse.persistence.jaxb.rs.MOXyJsonProvider;
 @Consumes("*/*")
 class ConfigurableMoxyJsonProvider extends MOXyJsonProvider {
 
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * Maximum number of idle marshallers (unmarshallers) pooled per JAXB context.
+     */
+    private static final int MAX_POOL_SIZE = 32;
+    /**
+     * Maximum number of JAXB contexts the marshallers (unmarshallers) are pooled for. A pooled marshaller references
+     * its JAXB context (and so the domain classes), hence the pools are bounded rather than weakly keyed.
+     */
+    private static final int MAX_POOLED_CONTEXTS = 64;
+
     @Context
     private Providers providers;
 
+    private volatile boolean configured = false;
+
+    /**
+     * {@code true} if the marshallers (unmarshallers) are pooled, i.e. if the pre-read and pre-write hooks are not
+     * overridden by a subclass.
+     */
+    private final boolean pooling;
+
+    private final LoadingCache<JAXBContext, Queue<Marshaller>> marshallers = CacheBuilder.newBuilder()
+            .maximumSize(MAX_POOLED_CONTEXTS)
+            .build(new CacheLoader<JAXBContext, Queue<Marshaller>>() {
+                @Override
+                public Queue<Marshaller> load(final JAXBContext context) {
+                    return new ArrayBlockingQueue<Marshaller>(MAX_POOL_SIZE);
+                }
+            });
+
+    private final LoadingCache<JAXBContext, Queue<Unmarshaller>> unmarshallers = CacheBuilder.newBuilder()
+            .maximumSize(MAX_POOLED_CONTEXTS)
+            .build(new CacheLoader<JAXBContext, Queue<Unmarshaller>>() {
+                @Override
+                public Queue<Unmarshaller> load(final JAXBContext context) {
+                    return new ArrayBlockingQueue<Unmarshaller>(MAX_POOL_SIZE);
+                }
+            });
+
     /**
      * Create new configurable moxy JSON provider instance.
      */
@@ -85,28 +163,64 @@ class ConfigurableMoxyJsonProvider extends MOXyJsonProvider {
         setAttributePrefix("@");
         setValueWrapper("$");
         setNamespaceSeparator(':');
+
+        pooling = !overrides("preReadFrom", Class.class, Type.class, Annotation[].class, MediaType.class,
+                MultivaluedMap.class, Unmarshaller.class)
+                && !overrides("preWriteTo", Object.class, Class.class, Type.class, Annotation[].class, MediaType.class,
+                MultivaluedMap.class, Marshaller.class);
     }
 
-    private void initializeProperties() {
-        final ContextResolver<MoxyJsonConfiguration> contextResolver =
-                providers.getContextResolver(MoxyJsonConfiguration.class, MediaType.APPLICATION_JSON_TYPE);
+    /**
+     * Check whether a subclass of this provider declares the given method.
+     */
+    private boolean overrides(final String name, final Class<?>... parameterTypes) {
+        for (Class<?> c = getClass(); c != ConfigurableMoxyJsonProvider.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod(name, parameterTypes);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // not declared by this class
+            }
+        }
+        return false;
+    }
 
-        if (contextResolver != null) {
-            final MoxyJsonConfiguration jsonConfiguration = contextResolver.getContext(MoxyJsonConfiguration.class);
+    /**
+     * Resolve the {@link MoxyJsonConfiguration} and apply it to this provider. The configuration is resolved
+     * only once per provider instance.
+     */
+    private void initializeProperties() {
+        if (configured) {
+            return;
+        }
 
-            if (jsonConfiguration.getAttributePrefix() != null) {
-                setAttributePrefix(jsonConfiguration.getAttributePrefix());
-            }
-            if (jsonConfiguration.getValueWrapper() != null) {
-                setValueWrapper(jsonConfiguration.getValueWrapper());
+        synchronized (this) {
+            if (configured) {
+                return;
             }
 
-            setFormattedOutput(jsonConfiguration.isFormattedOutput());
-            setIncludeRoot(jsonConfiguration.isIncludeRoot());
-            setMarshalEmptyCollections(jsonConfiguration.isMarshalEmptyCollections());
-            setNamespaceSeparator(jsonConfiguration.getNamespaceSeparator());
+            final ContextResolver<MoxyJsonConfiguration> contextResolver = (providers == null) ? null
+                    : providers.getContextResolver(MoxyJsonConfiguration.class, MediaType.APPLICATION_JSON_TYPE);
+
+            if (contextResolver != null) {
+                final MoxyJsonConfiguration jsonConfiguration = contextResolver.getContext(MoxyJsonConfiguration.class);
+
+                if (jsonConfiguration.getAttributePrefix() != null) {
+                    setAttributePrefix(jsonConfiguration.getAttributePrefix());
+                }
+                if (jsonConfiguration.getValueWrapper() != null) {
+                    setValueWrapper(jsonConfiguration.getValueWrapper());
+                }
+
+                setFormattedOutput(jsonConfiguration.isFormattedOutput());
+                setIncludeRoot(jsonConfiguration.isIncludeRoot());
+                setMarshalEmptyCollections(jsonConfiguration.isMarshalEmptyCollections());
+                setNamespaceSeparator(jsonConfiguration.getNamespaceSeparator());
 
-            setNamespacePrefixMapper(jsonConfiguration.getNamespacePrefixMapper());
+                setNamespacePrefixMapper(jsonConfiguration.getNamespacePrefixMapper());
+            }
+
+            configured = true;
         }
     }
 
@@ -148,4 +262,224 @@ class ConfigurableMoxyJsonProvider extends MOXyJsonProvider {
         initializeMarshaller(marshaller);
     }
 
+    @Override
+    public Object readFrom(final Class<Object> type, final Type genericType, final Annotation[] annotations,
+                           final MediaType mediaType, final MultivaluedMap<String, String> httpHeaders,
+                           final InputStream entityStream) throws IOException, WebApplicationException {
+        initializeProperties();
+        if (!pooling || !isPooled(type, genericType)) {
+            return super.readFrom(type, genericType, annotations, mediaType, httpHeaders, entityStream);
+        }
+
+        try {
+            final JAXBContext context = getContext(type, annotations, mediaType, httpHeaders);
+            final Unmarshaller unmarshaller = acquireUnmarshaller(context);
+
+            final String charset = getCharsetName(mediaType);
+            final StreamSource source = (charset == null)
+                    ? new StreamSource(entityStream)
+                    : new StreamSource(new InputStreamReader(entityStream, charset));
+            final Object entity = unmarshaller.unmarshal(source, type).getValue();
+
+            // return the unmarshaller to the pool only if the unmarshalling succeeded
+            releaseUnmarshaller(context, unmarshaller);
+            return entity;
+        } catch (UnmarshalException e) {
+            throw new WebApplicationException(e, Response.Status.BAD_REQUEST);
+        } catch (JAXBException e) {
+            throw new WebApplicationException(e, Response.Status.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @Override
+    public boolean isWriteable(final Class<?> type, final Type genericType, final Annotation[] annotations,
+                               final MediaType mediaType) {
+        if (isStreamed(type, genericType)) {
+            final Class<?> elementType = getElementType(genericType);
+            return elementType != null && super.isWriteable(elementType, elementType, annotations, mediaType);
+        }
+        return super.isWriteable(type, genericType, annotations, mediaType);
+    }
+
+    @Override
+    public void writeTo(final Object object, final Class<?> type, final Type genericType, final Annotation[] annotations,
+                        final MediaType mediaType, final MultivaluedMap<String, Object> httpHeaders,
+                        final OutputStream entityStream) throws IOException, WebApplicationException {
+        initializeProperties();
+        if (!isStreamed(type, genericType)) {
+            if (object != null && pooling && isPooled(type, genericType)) {
+                writePooled(object, type, annotations, mediaType, httpHeaders, entityStream);
+            } else {
+                super.writeTo(object, type, genericType, annotations, mediaType, httpHeaders, entityStream);
+            }
+            return;
+        }
+
+        final Iterator<?> elements = (object instanceof Iterator) ? (Iterator<?>) object : ((Iterable<?>) object).iterator();
+        try {
+            final Class<?> elementType = getElementType(genericType);
+            final JAXBContext context = getContext(elementType, annotations, mediaType, httpHeaders);
+            final Marshaller marshaller;
+            if (pooling) {
+                marshaller = acquireMarshaller(context);
+            } else {
+                marshaller = context.createMarshaller();
+                marshaller.setProperty(MarshallerProperties.MEDIA_TYPE, MediaType.APPLICATION_JSON);
+                preWriteTo(object, elementType, elementType, annotations, mediaType, httpHeaders, marshaller);
+            }
+
+            final Writer writer = new OutputStreamWriter(entityStream, getCharset(mediaType));
+            writer.write('[');
+            boolean first = true;
+            while (elements.hasNext()) {
+                if (!first) {
+                    writer.write(',');
+                }
+                first = false;
+                marshaller.marshal(elements.next(), writer);
+            }
+            writer.write(']');
+            writer.flush();
+
+            if (pooling) {
+                releaseMarshaller(context, marshaller);
+            }
+        } catch (JAXBException e) {
+            throw new WebApplicationException(e, Response.Status.INTERNAL_SERVER_ERROR);
+        } finally {
+            if (object instanceof ElementStream) {
+                ((ElementStream<?>) object).close();
+            }
+        }
+    }
+
+    private void writePooled(final Object object, final Class<?> type, final Annotation[] annotations,
+                             final MediaType mediaType, final MultivaluedMap<String, Object> httpHeaders,
+                             final OutputStream entityStream) throws WebApplicationException {
+        try {
+            final JAXBContext context = getContext(type, annotations, mediaType, httpHeaders);
+            final Marshaller marshaller = acquireMarshaller(context);
+
+            // the encoding is the only request specific marshaller property
+            marshaller.setProperty(Marshaller.JAXB_ENCODING, getCharset(mediaType).name());
+            marshaller.marshal(object, entityStream);
+
+            // return the marshaller to the pool only if the marshalling succeeded
+            releaseMarshaller(context, marshaller);
+        } catch (JAXBException e) {
+            throw new WebApplicationException(e, Response.Status.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Get a pooled marshaller for the given JAXB context or create and configure a new one if the pool is empty.
+     */
+    private Marshaller acquireMarshaller(final JAXBContext context) throws JAXBException {
+        Marshaller marshaller = marshallers.getUnchecked(context).poll();
+        if (marshaller == null) {
+            marshaller = context.createMarshaller();
+            marshaller.setProperty(MarshallerProperties.MEDIA_TYPE, MediaType.APPLICATION_JSON);
+            initializeMarshaller(marshaller);
+        }
+        return marshaller;
+    }
+
+    /**
+     * Reset the marshaller to the provider configuration and return it to the pool of the given JAXB context.
+     */
+    private void releaseMarshaller(final JAXBContext context, final Marshaller marshaller) throws JAXBException {
+        marshaller.setListener(null);
+        marshaller.setSchema(null);
+        marshaller.setEventHandler(null);
+        marshaller.setProperty(Marshaller.JAXB_ENCODING, UTF8.name());
+        marshaller.setProperty(MarshallerProperties.MEDIA_TYPE, MediaType.APPLICATION_JSON);
+        initializeMarshaller(marshaller);
+
+        marshallers.getUnchecked(context).offer(marshaller);
+    }
+
+    /**
+     * Reset the unmarshaller to the provider configuration and return it to the pool of the given JAXB context.
+     */
+    private void releaseUnmarshaller(final JAXBContext context, final Unmarshaller unmarshaller)
+            throws JAXBException {
+        unmarshaller.setListener(null);
+        unmarshaller.setSchema(null);
+        unmarshaller.setEventHandler(null);
+        unmarshaller.setProperty(UnmarshallerProperties.MEDIA_TYPE, MediaType.APPLICATION_JSON);
+        initializeUnmarshaller(unmarshaller);
+
+        unmarshallers.getUnchecked(context).offer(unmarshaller);
+    }
+
+    /**
+     * Get a pooled unmarshaller for the given JAXB context or create and configure a new one if the pool is empty.
+     */
+    private Unmarshaller acquireUnmarshaller(final JAXBContext context) throws JAXBException {
+        Unmarshaller unmarshaller = unmarshallers.getUnchecked(context).poll();
+        if (unmarshaller == null) {
+            unmarshaller = context.createUnmarshaller();
+            unmarshaller.setProperty(UnmarshallerProperties.MEDIA_TYPE, MediaType.APPLICATION_JSON);
+            initializeUnmarshaller(unmarshaller);
+        }
+        return unmarshaller;
+    }
+
+    /**
+     * Get the JAXB context for the given domain type from {@link MOXyJsonProvider}, which prefers a JAXB context
+     * provided by a {@code ContextResolver<JAXBContext>} and caches the JAXB contexts it creates.
+     */
+    private JAXBContext getContext(final Class<?> domainType, final Annotation[] annotations, final MediaType mediaType,
+                                   final MultivaluedMap<String, ?> httpHeaders) throws JAXBException {
+        return getJAXBContext(Collections.<Class<?>>singleton(domainType), annotations, mediaType, httpHeaders);
+    }
+
+    /**
+     * Check whether the entity of the given type is processed using the pooled marshallers (unmarshallers),
+     * i.e. whether the type is a plain domain class. Generic, collection, array, JDK and {@link JAXBElement} types
+     * are left to {@link MOXyJsonProvider}, as are domain classes without a root element if the root is included.
+     */
+    private boolean isPooled(final Class<?> type, final Type genericType) {
+        return (genericType == null || genericType == type)
+                && !type.isArray()
+                && !type.isPrimitive()
+                && !type.getName().startsWith("java.")
+                && !Collection.class.isAssignableFrom(type)
+                && !Map.class.isAssignableFrom(type)
+                && !JAXBElement.class.isAssignableFrom(type)
+                && (!isIncludeRoot() || type.isAnnotationPresent(XmlRootElement.class));
+    }
+
+    /**
+     * Check whether the entity is written element by element, i.e. whether it is an {@link Iterator} (including
+     * an {@link ElementStream}) or an {@link Iterable} declared as {@code Iterable<T>}. Other {@code Iterable}
+     * implementations (e.g. domain classes implementing {@code Iterable}) are left to {@link MOXyJsonProvider}.
+     */
+    private static boolean isStreamed(final Class<?> type, final Type genericType) {
+        if (Iterator.class.isAssignableFrom(type)) {
+            return true;
+        }
+        return Iterable.class.isAssignableFrom(type)
+                && genericType instanceof ParameterizedType
+                && ((ParameterizedType) genericType).getRawType() == Iterable.class;
+    }
+
+    private static Class<?> getElementType(final Type genericType) {
+        if (genericType instanceof ParameterizedType) {
+            final Type[] arguments = ((ParameterizedType) genericType).getActualTypeArguments();
+            if (arguments.length == 1 && arguments[0] instanceof Class) {
+                return (Class<?>) arguments[0];
+            }
+        }
+        return null;
+    }
+
+    private static String getCharsetName(final MediaType mediaType) {
+        return (mediaType == null) ? null : mediaType.getParameters().get("charset");
+    }
+
+    private static Charset getCharset(final MediaType mediaType) {
+        final String name = getCharsetName(mediaType);
+        return (name == null) ? UTF8 : Charset.forName(name);
+    }
 }
@@ -0,0 +1,174 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.jersey.moxy.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link ConfigurableMoxyJsonProvider} tests.
+ *
+ * @author Michal Gajdos (michal.gajdos at oracle.com)
+ */
+public class ConfigurableMoxyJsonProviderTest {
+
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    @XmlRootElement(name = "bean")
+    public static class Bean {
+
+        public String value;
+
+        public Bean() {
+        }
+
+        public Bean(final String value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * Provider overriding the pre-read and pre-write hooks.
+     */
+    private static class HookProvider extends ConfigurableMoxyJsonProvider {
+
+        private int reads = 0;
+        private int writes = 0;
+
+        @Override
+        protected void preReadFrom(final Class<Object> type, final Type genericType, final Annotation[] annotations,
+                                   final MediaType mediaType, final MultivaluedMap<String, String> httpHeaders,
+                                   final Unmarshaller unmarshaller) throws JAXBException {
+            super.preReadFrom(type, genericType, annotations, mediaType, httpHeaders, unmarshaller);
+            reads++;
+        }
+
+        @Override
+        protected void preWriteTo(final Object object, final Class<?> type, final Type genericType,
+                                  final Annotation[] annotations, final MediaType mediaType,
+                                  final MultivaluedMap<String, Object> httpHeaders, final Marshaller marshaller)
+                throws JAXBException {
+            super.preWriteTo(object, type, genericType, annotations, mediaType, httpHeaders, marshaller);
+            writes++;
+        }
+    }
+
+    @SuppressWarnings("UnusedDeclaration")
+    private static Iterator<Bean> elements() {
+        return null;
+    }
+
+    @Test
+    public void testPooledRoundTrip() throws Exception {
+        final ConfigurableMoxyJsonProvider provider = new ConfigurableMoxyJsonProvider();
+
+        // the second round trip uses the pooled marshaller and unmarshaller
+        for (String value : Arrays.asList("first", "second")) {
+            final byte[] json = write(provider, new Bean(value), MediaType.APPLICATION_JSON_TYPE);
+            assertEquals(value, read(provider, json).value);
+        }
+    }
+
+    @Test
+    public void testPooledMarshallerEncodingReset() throws Exception {
+        final ConfigurableMoxyJsonProvider provider = new ConfigurableMoxyJsonProvider();
+        final MediaType utf16 = new MediaType("application", "json", Collections.singletonMap("charset", "UTF-16"));
+
+        final String first = new String(write(provider, new Bean("a"), utf16), "UTF-16");
+        assertTrue(first, first.contains("\"value\":\"a\""));
+
+        final byte[] second = write(provider, new Bean("b"), MediaType.APPLICATION_JSON_TYPE);
+        assertEquals('{', second[0]);
+        assertTrue(new String(second, "UTF-8").contains("\"value\":\"b\""));
+    }
+
+    @Test
+    public void testOverriddenHooksInvoked() throws Exception {
+        final HookProvider provider = new HookProvider();
+
+        for (String value : Arrays.asList("first", "second")) {
+            final byte[] json = write(provider, new Bean(value), MediaType.APPLICATION_JSON_TYPE);
+            assertEquals(value, read(provider, json).value);
+        }
+        assertEquals(2, provider.writes);
+        assertEquals(2, provider.reads);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final Type elementsType =
+                ConfigurableMoxyJsonProviderTest.class.getDeclaredMethod("elements").getGenericReturnType();
+        provider.writeTo(Arrays.asList(new Bean("a"), new Bean("b")).iterator(), Iterator.class, elementsType,
+                NO_ANNOTATIONS, MediaType.APPLICATION_JSON_TYPE, null, out);
+
+        final String array = out.toString("UTF-8");
+        assertTrue(array, array.startsWith("[") && array.contains("\"a\"") && array.contains("\"b\""));
+        assertEquals(3, provider.writes);
+    }
+
+    private static byte[] write(final ConfigurableMoxyJsonProvider provider, final Bean bean, final MediaType mediaType)
+            throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        provider.writeTo(bean, Bean.class, Bean.class, NO_ANNOTATIONS, mediaType, null, out);
+        return out.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Bean read(final ConfigurableMoxyJsonProvider provider, final byte[] json) throws Exception {
+        return (Bean) provider.readFrom((Class<Object>) (Class<?>) Bean.class, Bean.class, NO_ANNOTATIONS,
+                MediaType.APPLICATION_JSON_TYPE, null, new ByteArrayInputStream(json));
+    }
+}
@@ -46,6 +46,7 @@ import org.glassfish.jersey.media.multipart.internal.FormDataParameterInjectionF
 import org.glassfish.jersey.media.multipart.internal.MultiPartReaderClientSide;
 import org.glassfish.jersey.media.multipart.internal.MultiPartReaderServerSide;
 import org.glassfish.jersey.media.multipart.internal.MultiPartWriter;
+import org.glassfish.jersey.media.multipart.internal.StreamingMultiPartReader;
 
 /**
  * Feature used to register Multipart providers.
@@ -61,6 +62,7 @@ public class MultiPartFeature implements javax.ws.rs.core.Feature {
 
         config.register(MultiPartReaderServerSide.class);
         config.register(MultiPartReaderClientSide.class);
+        config.register(StreamingMultiPartReader.class);
 
         config.register(MultiPartWriter.class);
 
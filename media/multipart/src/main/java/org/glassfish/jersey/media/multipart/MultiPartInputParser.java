@@ -0,0 +1,397 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.media.multipart;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response.Status;
+
+import org.glassfish.jersey.media.multipart.internal.LocalizationMessages;
+import org.glassfish.jersey.media.multipart.internal.SizeLimitingInputStream;
+import org.glassfish.jersey.message.MessageProperties;
+import org.glassfish.jersey.message.internal.BufferPool;
+
+import org.jvnet.mimepull.MIMEParsingException;
+
+/**
+ * Incremental parser of a MIME multipart entity stream.
+ * <p>
+ * The parser reads the underlying stream only as far as needed to return the data requested by its caller,
+ * so the body parts are never buffered as a whole. Body part entities are read via {@link #read(byte[], int, int)}
+ * (or {@link #transferTo(WritableByteChannel)}) until the end of the body part is reached; the rest of a body part
+ * that has not been read is skipped when {@link #nextPart(MultivaluedMap) the next body part} is requested.
+ * </p>
+ *
+ * @author Michal Gajdos (michal.gajdos at oracle.com)
+ */
+final class MultiPartInputParser {
+
+    /**
+     * Maximum size of all the header lines of a single body part.
+     */
+    private static final int MAX_HEADERS_SIZE = 16 * 1024;
+
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final byte DASH = '-';
+
+    private final InputStream stream;
+    private final byte[] delimiter;
+    private final long maxPartSize;
+
+    private byte[] buffer;
+    private int position;
+    private int limit;
+    private boolean eof = false;
+
+    private long partSize = 0;
+    private boolean inPart = false;
+    private boolean delimiterConsumed = false;
+    private boolean finished = false;
+
+    /**
+     * Create new parser.
+     *
+     * @param stream multipart entity stream.
+     * @param boundary multipart boundary.
+     * @param maxPartSize maximum size of a body part entity or {@value MultiPartProperties#UNLIMITED}.
+     * @param maxTotalSize maximum size of the whole multipart entity or {@value MultiPartProperties#UNLIMITED}.
+     */
+    MultiPartInputParser(final InputStream stream, final String boundary, final long maxPartSize,
+                         final long maxTotalSize) {
+        this.stream = maxTotalSize < 0 ? stream : new SizeLimitingInputStream(stream, maxTotalSize);
+        this.delimiter = getBytes("\r\n--" + boundary, "US-ASCII");
+        this.maxPartSize = maxPartSize;
+
+        this.buffer = BufferPool.getInstance().acquire(
+                Math.max(MessageProperties.IO_DEFAULT_BUFFER_SIZE, 4 * delimiter.length));
+        // The first delimiter does not need to be preceded by a line break - pretend there is one.
+        buffer[0] = CR;
+        buffer[1] = LF;
+        this.position = 0;
+        this.limit = 2;
+    }
+
+    /**
+     * Advance to the next body part skipping the rest of the current body part (or the preamble).
+     *
+     * @param headers map the headers of the next body part are added to.
+     * @return {@code true} if there is a next body part, {@code false} if the end of the multipart entity has
+     *         been reached.
+     * @throws IOException if an I/O error occurs.
+     */
+    boolean nextPart(final MultivaluedMap<String, String> headers) throws IOException {
+        if (finished) {
+            return false;
+        }
+
+        if (!delimiterConsumed) {
+            int n;
+            // The part size limit applies to the data read by the application only, skipped data count
+            // towards the total size limit.
+            while ((n = available()) >= 0) {
+                position += n;
+            }
+        }
+        inPart = false;
+        delimiterConsumed = false;
+
+        if (!readDelimiterLineEnd()) {
+            finished = true;
+            return false;
+        }
+
+        readHeaders(headers);
+        partSize = 0;
+        inPart = true;
+        return true;
+    }
+
+    /**
+     * Read the entity bytes of the current body part.
+     *
+     * @param b buffer into which the data is read.
+     * @param off start offset in the buffer.
+     * @param len maximum number of bytes to read.
+     * @return number of bytes read or {@code -1} if the end of the body part has been reached.
+     * @throws IOException if an I/O error occurs.
+     */
+    int read(final byte[] b, final int off, final int len) throws IOException {
+        if (!inPart) {
+            return -1;
+        }
+        if (len == 0) {
+            return 0;
+        }
+
+        final int n = available();
+        if (n < 0) {
+            return -1;
+        }
+
+        final int count = Math.min(n, len);
+        System.arraycopy(buffer, position, b, off, count);
+        position += count;
+        countPartBytes(count);
+        return count;
+    }
+
+    /**
+     * Write the rest of the current body part entity to the given channel directly from the parser buffer.
+     *
+     * @param channel channel to write the entity to.
+     * @return number of bytes written.
+     * @throws IOException if an I/O error occurs.
+     */
+    long transferTo(final WritableByteChannel channel) throws IOException {
+        if (!inPart) {
+            return 0;
+        }
+
+        long total = 0;
+        int n;
+        while ((n = available()) >= 0) {
+            countPartBytes(n);
+            final ByteBuffer data = ByteBuffer.wrap(buffer, position, n);
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            position += n;
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * Release the parser buffer. The underlying stream is not closed.
+     */
+    void close() {
+        inPart = false;
+        finished = true;
+        if (buffer != null) {
+            BufferPool.getInstance().release(buffer);
+            buffer = null;
+        }
+    }
+
+    /**
+     * Get the number of entity bytes of the current body part available in the buffer.
+     *
+     * @return number of available bytes or {@code -1} if the delimiter terminating the body part has been reached
+     *         (the delimiter is consumed).
+     */
+    private int available() throws IOException {
+        while (true) {
+            final int index = indexOfDelimiter();
+            if (index > position) {
+                return index - position;
+            } else if (index == position) {
+                position += delimiter.length;
+                inPart = false;
+                delimiterConsumed = true;
+                return -1;
+            }
+
+            // No complete delimiter in the buffer - the bytes that cannot start a delimiter are available.
+            final int safe = limit - position - (delimiter.length - 1);
+            if (safe > 0) {
+                return safe;
+            }
+            if (eof) {
+                throw malformed(LocalizationMessages.MULTIPART_CLOSING_BOUNDARY_MISSING());
+            }
+            fill();
+        }
+    }
+
+    private int indexOfDelimiter() {
+        final int last = limit - delimiter.length;
+        outer:
+        for (int i = position; i <= last; i++) {
+            if (buffer[i] != CR) {
+                continue;
+            }
+            for (int j = 1; j < delimiter.length; j++) {
+                if (buffer[i + j] != delimiter[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Read the rest of the delimiter line.
+     *
+     * @return {@code true} if a body part follows, {@code false} if the delimiter was the closing one.
+     */
+    private boolean readDelimiterLineEnd() throws IOException {
+        int b = readByte();
+        if (b == DASH) {
+            if (readByte() == DASH) {
+                return false;
+            }
+            throw malformed(LocalizationMessages.MULTIPART_BOUNDARY_MALFORMED());
+        }
+        // Skip transport padding.
+        while (b == ' ' || b == '\t') {
+            b = readByte();
+        }
+        if (b == CR) {
+            b = readByte();
+        }
+        if (b != LF) {
+            throw malformed(LocalizationMessages.MULTIPART_BOUNDARY_MALFORMED());
+        }
+        return true;
+    }
+
+    private void readHeaders(final MultivaluedMap<String, String> headers) throws IOException {
+        final int[] headersSize = new int[1];
+        String name = null;
+        StringBuilder value = null;
+
+        while (true) {
+            final String line = readLine(headersSize);
+            if (line.length() == 0) {
+                break;
+            }
+
+            final char first = line.charAt(0);
+            if ((first == ' ' || first == '\t') && name != null) {
+                // Folded header value.
+                value.append(' ').append(line.trim());
+                continue;
+            }
+
+            if (name != null) {
+                headers.add(name, value.toString());
+            }
+            final int colon = line.indexOf(':');
+            if (colon <= 0) {
+                throw malformed(LocalizationMessages.PART_HEADER_MALFORMED(line));
+            }
+            name = line.substring(0, colon).trim();
+            value = new StringBuilder(line.substring(colon + 1).trim());
+        }
+
+        if (name != null) {
+            headers.add(name, value.toString());
+        }
+    }
+
+    private String readLine(final int[] headersSize) throws IOException {
+        final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = readByte()) != LF) {
+            if (++headersSize[0] > MAX_HEADERS_SIZE) {
+                throw new WebApplicationException(
+                        new MIMEParsingException(LocalizationMessages.PART_HEADERS_SIZE_LIMIT_EXCEEDED(MAX_HEADERS_SIZE)),
+                        Status.REQUEST_ENTITY_TOO_LARGE);
+            }
+            line.write(b);
+        }
+
+        final byte[] bytes = line.toByteArray();
+        final int length = (bytes.length > 0 && bytes[bytes.length - 1] == CR) ? bytes.length - 1 : bytes.length;
+        return new String(bytes, 0, length, "UTF-8");
+    }
+
+    private int readByte() throws IOException {
+        if (position == limit) {
+            fill();
+            if (position == limit) {
+                throw malformed(LocalizationMessages.MULTIPART_CLOSING_BOUNDARY_MISSING());
+            }
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    /**
+     * Move the unread data to the beginning of the buffer and read more data from the underlying stream.
+     */
+    private void fill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+
+        final int n = stream.read(buffer, limit, buffer.length - limit);
+        if (n == -1) {
+            eof = true;
+        } else {
+            limit += n;
+        }
+    }
+
+    private void countPartBytes(final int n) {
+        if (!inPart) {
+            // preamble
+            return;
+        }
+        partSize += n;
+        if (maxPartSize >= 0 && partSize > maxPartSize) {
+            throw new WebApplicationException(
+                    new MIMEParsingException(LocalizationMessages.PART_SIZE_LIMIT_EXCEEDED(maxPartSize)),
+                    Status.REQUEST_ENTITY_TOO_LARGE);
+        }
+    }
+
+    private static WebApplicationException malformed(final String message) {
+        return new WebApplicationException(new MIMEParsingException(message), Status.BAD_REQUEST);
+    }
+
+    private static byte[] getBytes(final String value, final String charset) {
+        try {
+            return value.getBytes(charset);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -100,12 +100,59 @@ public class MultiPartProperties {
      */
     public static final String BUFFER_THRESHOLD = "jersey.config.multipart.bufferThreshold";
 
+    /**
+     * Name of the resource property for the directory in which the temporary files of buffered body part entities
+     * and of {@link StreamingBodyPart#transferToTempFile() streamed body parts} are created.
+     *
+     * If not set, the default temporary-file directory ({@code java.io.tmpdir}) is used.
+     */
+    public static final String TEMP_DIR = "jersey.config.multipart.tempDir";
+
+    /**
+     * Name of the resource property for the maximum size (in bytes) of a single body part entity of
+     * a {@link StreamingMultiPart streamed multipart entity}. The limit is enforced while the body part entity is being
+     * read; exceeding it results in a {@code 413 Request Entity Too Large} error. The unread data of the body parts
+     * skipped by the application count towards the {@link #MAX_TOTAL_SIZE total size limit} only.
+     *
+     * The default value is {@value #UNLIMITED}, i.e. the body part size is not limited.
+     */
+    public static final String MAX_PART_SIZE = "jersey.config.multipart.maxPartSize";
+
+    /**
+     * Name of the resource property for the maximum total size (in bytes) of a received multipart entity.
+     * The limit is enforced while the entity is being parsed; exceeding it results in
+     * a {@code 413 Request Entity Too Large} error.
+     *
+     * The default value is {@value #UNLIMITED}, i.e. the entity size is not limited.
+     */
+    public static final String MAX_TOTAL_SIZE = "jersey.config.multipart.maxTotalSize";
+
+    /**
+     * Size limit value indicating that the size is not limited.
+     */
+    public static final long UNLIMITED = -1;
+
     /**
      * The threshold size (in bytes) above which a body part entity will be
      * buffered to disk instead of being held in memory.
      */
     private int bufferThreshold = DEFAULT_BUFFER_THRESHOLD;
 
+    /**
+     * The directory for temporary files or {@code null} if the default one should be used.
+     */
+    private String tempDir = null;
+
+    /**
+     * The maximum size (in bytes) of a streamed body part entity.
+     */
+    private long maxPartSize = UNLIMITED;
+
+    /**
+     * The maximum total size (in bytes) of a multipart entity.
+     */
+    private long maxTotalSize = UNLIMITED;
+
     /**
      * Load and customize (if necessary) the configuration values for the
      * {@code jersey-multipart} injection binder.
@@ -126,6 +173,30 @@ public class MultiPartProperties {
         return bufferThreshold;
     }
 
+    /**
+     * Return the directory in which temporary files are created or {@code null}
+     * if the default temporary-file directory should be used.
+     */
+    public String getTempDir() {
+        return tempDir;
+    }
+
+    /**
+     * Return the maximum size (in bytes) of a streamed body part entity or
+     * {@value #UNLIMITED} if the size is not limited.
+     */
+    public long getMaxPartSize() {
+        return maxPartSize;
+    }
+
+    /**
+     * Return the maximum total size (in bytes) of a received multipart entity or
+     * {@value #UNLIMITED} if the size is not limited.
+     */
+    public long getMaxTotalSize() {
+        return maxTotalSize;
+    }
+
     /**
      * Configure the values returned by this instance's getters based on
      * the contents of a properties resource, if it exists on the classpath
@@ -156,6 +227,18 @@ public class MultiPartProperties {
                 System.out.println("Setting bufferThreshold to " + value);
                 this.bufferThreshold = Integer.valueOf(value);
             }
+            value = props.getProperty(TEMP_DIR);
+            if (value != null) {
+                this.tempDir = value;
+            }
+            value = props.getProperty(MAX_PART_SIZE);
+            if (value != null) {
+                this.maxPartSize = Long.valueOf(value);
+            }
+            value = props.getProperty(MAX_TOTAL_SIZE);
+            if (value != null) {
+                this.maxTotalSize = Long.valueOf(value);
+            }
         } catch (IOException e) {
             throw new IllegalArgumentException(e);
         } finally {
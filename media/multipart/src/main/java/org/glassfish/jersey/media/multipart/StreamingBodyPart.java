@@ -0,0 +1,278 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.media.multipart;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.nio.channels.FileChannel;
+import java.text.ParseException;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.ext.MessageBodyReader;
+
+import org.glassfish.jersey.media.multipart.internal.LocalizationMessages;
+import org.glassfish.jersey.message.MessageBodyWorkers;
+
+/**
+ * A body part of a {@link StreamingMultiPart streaming multipart entity}.
+ * <p>
+ * The body part entity is read directly from the multipart entity stream, either via the
+ * {@link #getInputStream() entity stream} or by {@link #transferTo(FileChannel) transferring} it to a file.
+ * The entity is available only until the multipart entity is advanced to the next body part (or closed).
+ * </p>
+ *
+ * @author Michal Gajdos (michal.gajdos at oracle.com)
+ */
+public final class StreamingBodyPart {
+
+    private final StreamingMultiPart multiPart;
+    private final MultivaluedMap<String, String> headers;
+    private final MediaType mediaType;
+    private final ContentDisposition contentDisposition;
+    private final InputStream entityStream = new EntityInputStream();
+
+    private boolean valid = true;
+
+    /**
+     * Create new body part.
+     *
+     * @param multiPart multipart entity the body part is read from.
+     * @param headers body part headers.
+     * @param formData {@code true} if the body part is a {@code multipart/form-data} body part.
+     * @param fileNameFix {@code true} if the content disposition parser should not treat backslash
+     *                    as an escape character.
+     * @throws WebApplicationException if the {@code Content-Type} or {@code Content-Disposition} header cannot be parsed.
+     */
+    StreamingBodyPart(final StreamingMultiPart multiPart,
+                      final MultivaluedMap<String, String> headers,
+                      final boolean formData,
+                      final boolean fileNameFix) {
+        this.multiPart = multiPart;
+        this.headers = headers;
+
+        try {
+            final String contentType = headers.getFirst("Content-Type");
+            this.mediaType = contentType == null ? MediaType.TEXT_PLAIN_TYPE : MediaType.valueOf(contentType);
+
+            final String disposition = headers.getFirst("Content-Disposition");
+            if (disposition == null) {
+                this.contentDisposition = null;
+            } else if (formData) {
+                this.contentDisposition = new FormDataContentDisposition(disposition, fileNameFix);
+            } else {
+                this.contentDisposition = new ContentDisposition(disposition);
+            }
+        } catch (IllegalArgumentException ex) {
+            throw new WebApplicationException(ex, Status.BAD_REQUEST);
+        } catch (ParseException ex) {
+            throw new WebApplicationException(ex, Status.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Get the headers of this body part.
+     *
+     * @return body part headers.
+     */
+    public MultivaluedMap<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Get the media type of this body part. If the body part does not declare its content type,
+     * {@code text/plain} is returned.
+     *
+     * @return media type of this body part.
+     */
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Get the content disposition of this body part. The content disposition of a {@code multipart/form-data}
+     * body part is an instance of {@link FormDataContentDisposition}.
+     *
+     * @return content disposition or {@code null} if not present.
+     */
+    public ContentDisposition getContentDisposition() {
+        return contentDisposition;
+    }
+
+    /**
+     * Get the name of the form field this {@code multipart/form-data} body part represents.
+     *
+     * @return form field name or {@code null} if this is not a {@code multipart/form-data} body part.
+     */
+    public String getName() {
+        return contentDisposition instanceof FormDataContentDisposition
+                ? ((FormDataContentDisposition) contentDisposition).getName() : null;
+    }
+
+    /**
+     * Get the file name of this body part.
+     *
+     * @return file name from the content disposition or {@code null} if not present.
+     */
+    public String getFileName() {
+        return contentDisposition == null ? null : contentDisposition.getFileName();
+    }
+
+    /**
+     * Get the stream of the raw bytes of this body part entity. The stream reads directly from the multipart
+     * entity stream and reaches its end at the end of this body part.
+     *
+     * @return entity stream of this body part.
+     */
+    public InputStream getInputStream() {
+        return entityStream;
+    }
+
+    /**
+     * Read the (rest of the) body part entity and convert it to the requested type using the available
+     * {@link MessageBodyReader message body readers}.
+     *
+     * @param clazz desired class into which the entity should be converted.
+     * @return converted entity.
+     * @throws IOException if an I/O error occurs.
+     * @throws IllegalArgumentException if no {@link MessageBodyReader} can be found to perform the requested conversion.
+     * @throws IllegalStateException if the message body workers are not available.
+     */
+    public <T> T getEntityAs(final Class<T> clazz) throws IOException {
+        final MessageBodyWorkers workers = multiPart.getMessageBodyWorkers();
+        if (workers == null) {
+            throw new IllegalStateException("Message body workers are not available");
+        }
+
+        final Annotation[] annotations = new Annotation[0];
+        final MessageBodyReader<T> reader = workers.getMessageBodyReader(clazz, clazz, annotations, mediaType);
+
+        if (reader == null) {
+            throw new IllegalArgumentException("No available MessageBodyReader for class " + clazz.getName()
+                    + " and media type " + mediaType);
+        }
+
+        return reader.readFrom(clazz, clazz, annotations, mediaType, headers, entityStream);
+    }
+
+    /**
+     * Write the (rest of the) body part entity to the given channel. The entity is written directly from
+     * the parser buffer, without being buffered.
+     *
+     * @param channel channel to write the entity to, it is not closed.
+     * @return number of bytes written.
+     * @throws IOException if an I/O error occurs.
+     */
+    public long transferTo(final FileChannel channel) throws IOException {
+        checkValid();
+        return multiPart.getParser().transferTo(channel);
+    }
+
+    /**
+     * Write the (rest of the) body part entity to the given file. If the file exists, it is overwritten.
+     *
+     * @param file file to write the entity to.
+     * @return number of bytes written.
+     * @throws IOException if an I/O error occurs.
+     */
+    public long transferTo(final File file) throws IOException {
+        checkValid();
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            return transferTo(out.getChannel());
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Write the (rest of the) body part entity to a new temporary file created in the
+     * {@link MultiPartProperties#TEMP_DIR configured temporary-file directory}. The file is deleted when the
+     * multipart entity is closed, unless it is moved elsewhere.
+     *
+     * @return temporary file containing the entity.
+     * @throws IOException if an I/O error occurs.
+     */
+    public File transferToTempFile() throws IOException {
+        checkValid();
+        final File file = multiPart.createTempFile();
+        transferTo(file);
+        return file;
+    }
+
+    void invalidate() {
+        valid = false;
+    }
+
+    private void checkValid() throws IOException {
+        if (!valid) {
+            throw new IOException(LocalizationMessages.PART_STREAM_NOT_AVAILABLE());
+        }
+    }
+
+    /**
+     * Entity stream reading the body part entity from the multipart parser.
+     */
+    private final class EntityInputStream extends InputStream {
+
+        private final byte[] single = new byte[1];
+
+        @Override
+        public int read() throws IOException {
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            checkValid();
+            return multiPart.getParser().read(b, off, len);
+        }
+
+        @Override
+        public void close() {
+            // The rest of the body part is skipped when the multipart entity is advanced.
+        }
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.media.multipart;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.ws.rs.MessageProcessingException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response.Status;
+
+import org.glassfish.jersey.media.multipart.internal.LocalizationMessages;
+import org.glassfish.jersey.message.ElementStream;
+import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.message.internal.HeadersFactory;
+import org.glassfish.jersey.message.internal.MediaTypes;
+
+import org.jvnet.mimepull.MIMEParsingException;
+
+/**
+ * A received MIME MultiPart entity whose {@link StreamingBodyPart body parts} are parsed on demand, in the order
+ * in which they arrive.
+ * <p>
+ * Unlike {@link MultiPart}, a streaming multipart entity does not parse (and buffer) all the body parts before
+ * it is handed to the application. Each body part is read when the application {@link #next() advances} to it and
+ * its {@link StreamingBodyPart#getInputStream() entity stream} reads directly from the underlying entity stream.
+ * Consequently only the current body part can be read - advancing to the next body part skips the rest of the current
+ * one. The size limits configured via {@link MultiPartProperties} are enforced while the entity is being parsed.
+ * </p>
+ * <pre>
+ * &#64;POST
+ * &#64;Consumes(MediaType.MULTIPART_FORM_DATA)
+ * public String upload(StreamingMultiPart multiPart) throws IOException {
+ *     while (multiPart.hasNext()) {
+ *         StreamingBodyPart part = multiPart.next();
+ *         if (part.getFileName() != null) {
+ *             part.transferTo(new File(uploadDir, part.getName()));
+ *         } else {
+ *             ...
+ *         }
+ *     }
+ *     ...
+ * }
+ * </pre>
+ * <p>
+ * Closing the multipart entity deletes the {@link StreamingBodyPart#transferToTempFile() temporary files} created
+ * for its body parts. On the server side, the entity is closed automatically once the request has been processed.
+ * </p>
+ *
+ * @author Michal Gajdos (michal.gajdos at oracle.com)
+ */
+public final class StreamingMultiPart implements ElementStream<StreamingBodyPart> {
+
+    private final MultiPartInputParser parser;
+    private final MediaType mediaType;
+    private final MultivaluedMap<String, String> headers;
+    private final MessageBodyWorkers messageBodyWorkers;
+    private final File tempDir;
+    private final boolean formData;
+    private final boolean fileNameFix;
+    private final List<File> tempFiles = new ArrayList<File>();
+
+    private StreamingBodyPart current = null;
+    private StreamingBodyPart next = null;
+    private boolean closed = false;
+
+    /**
+     * Create new streaming multipart entity reading the body parts from the given entity stream.
+     *
+     * @param stream multipart entity stream.
+     * @param mediaType media type ({@code multipart/*}) of the entity.
+     * @param headers headers of the entity.
+     * @param properties multipart configuration.
+     * @param messageBodyWorkers message body workers used to {@link StreamingBodyPart#getEntityAs(Class) convert}
+     *                           body part entities, may be {@code null}.
+     * @throws WebApplicationException if the media type does not contain the {@code boundary} parameter.
+     */
+    public StreamingMultiPart(final InputStream stream,
+                              final MediaType mediaType,
+                              final MultivaluedMap<String, String> headers,
+                              final MultiPartProperties properties,
+                              final MessageBodyWorkers messageBodyWorkers) {
+        final String boundary = mediaType.getParameters().get("boundary");
+        if (boundary == null) {
+            throw new WebApplicationException(
+                    new MIMEParsingException(LocalizationMessages.MULTIPART_BOUNDARY_MISSING(mediaType)),
+                    Status.BAD_REQUEST);
+        }
+
+        this.parser = new MultiPartInputParser(stream, boundary,
+                properties.getMaxPartSize(), properties.getMaxTotalSize());
+        this.mediaType = mediaType;
+        this.headers = headers;
+        this.messageBodyWorkers = messageBodyWorkers;
+        this.tempDir = properties.getTempDir() == null ? null : new File(properties.getTempDir());
+        this.formData = MediaTypes.typeEqual(mediaType, MediaType.MULTIPART_FORM_DATA_TYPE);
+
+        // see if the User-Agent header corresponds to some version of MS Internet Explorer
+        // if so, need to set fileNameFix to true to handle issue http://java.net/jira/browse/JERSEY-759
+        final String userAgent = headers.getFirst(HttpHeaders.USER_AGENT);
+        this.fileNameFix = formData && userAgent != null && userAgent.contains(" MSIE ");
+    }
+
+    /**
+     * Get the media type of this multipart entity.
+     *
+     * @return media type of the entity.
+     */
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Get the headers of this multipart entity.
+     *
+     * @return headers of the entity.
+     */
+    public MultivaluedMap<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Check whether there is another body part. Any unread data of the current body part are skipped.
+     *
+     * @return {@code true} if there is another body part.
+     * @throws WebApplicationException if the entity is malformed or if it exceeds the configured size limits.
+     * @throws MessageProcessingException if an I/O error occurs while reading the entity.
+     */
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (closed) {
+            return false;
+        }
+
+        invalidateCurrent();
+
+        final MultivaluedMap<String, String> partHeaders = HeadersFactory.createInbound();
+        try {
+            if (!parser.nextPart(partHeaders)) {
+                return false;
+            }
+        } catch (IOException e) {
+            throw new MessageProcessingException(LocalizationMessages.MULTIPART_READING_FAILED(), e);
+        }
+
+        next = new StreamingBodyPart(this, partHeaders, formData, fileNameFix);
+        return true;
+    }
+
+    /**
+     * Advance to the next body part. Any unread data of the current body part are skipped and the entity stream
+     * of the current body part is not available anymore.
+     *
+     * @return next body part.
+     * @throws NoSuchElementException if there is no other body part.
+     * @throws WebApplicationException if the entity is malformed or if it exceeds the configured size limits.
+     * @throws MessageProcessingException if an I/O error occurs while reading the entity.
+     */
+    @Override
+    public StreamingBodyPart next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        current = next;
+        next = null;
+        return current;
+    }
+
+    /**
+     * Not supported.
+     *
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Close this multipart entity and delete the temporary files created for its body parts. The underlying entity
+     * stream is not closed.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        next = null;
+        invalidateCurrent();
+        parser.close();
+
+        for (File file : tempFiles) {
+            file.delete();
+        }
+        tempFiles.clear();
+    }
+
+    private void invalidateCurrent() {
+        if (current != null) {
+            current.invalidate();
+            current = null;
+        }
+    }
+
+    MultiPartInputParser getParser() {
+        return parser;
+    }
+
+    MessageBodyWorkers getMessageBodyWorkers() {
+        return messageBodyWorkers;
+    }
+
+    File createTempFile() throws IOException {
+        final File file = File.createTempFile("MIME", null, tempDir);
+        tempFiles.add(file);
+        return file;
+    }
+}
@@ -97,12 +97,32 @@ public class MultiPartReaderClientSide implements MessageBodyReader<MultiPart> {
     private Provider<MessageBodyWorkers> messageBodyWorkers;
 
     private final MIMEConfig mimeConfig;
+    private final long maxTotalSize;
 
     /**
      * Accepts constructor injection of the configuration parameters for this
      * application.
      */
     public MultiPartReaderClientSide(@Context final Providers providers) {
+        final MultiPartProperties config = getMultiPartProperties(providers, this.getClass());
+
+        mimeConfig = new MIMEConfig();
+        mimeConfig.setMemoryThreshold(config.getBufferThreshold());
+        if (config.getTempDir() != null) {
+            mimeConfig.setDir(config.getTempDir());
+        }
+        maxTotalSize = config.getMaxTotalSize();
+    }
+
+    /**
+     * Get the {@link MultiPartProperties multipart configuration} of the application.
+     *
+     * @param providers providers of the application.
+     * @param type type of the component the configuration is obtained for.
+     * @return multipart configuration.
+     * @throws IllegalArgumentException if the configuration is not available.
+     */
+    static MultiPartProperties getMultiPartProperties(final Providers providers, final Class<?> type) {
         final ContextResolver<MultiPartProperties> contextResolver =
                 providers.getContextResolver(MultiPartProperties.class, MediaType.WILDCARD_TYPE);
 
@@ -110,14 +130,12 @@ public class MultiPartReaderClientSide implements MessageBodyReader<MultiPart> {
             throw new IllegalArgumentException(LocalizationMessages.CONTEXT_RESOLVER_NOT_PRESENT());
         }
 
-        final MultiPartProperties config = contextResolver.getContext(this.getClass());
+        final MultiPartProperties config = contextResolver.getContext(type);
 
         if (config == null) {
             throw new IllegalArgumentException(LocalizationMessages.CONFIG_NOT_PRESENT());
         }
-
-        mimeConfig = new MIMEConfig();
-        mimeConfig.setMemoryThreshold(config.getBufferThreshold());
+        return config;
     }
 
     public boolean isReadable(final Class<?> type,
@@ -163,7 +181,8 @@ public class MultiPartReaderClientSide implements MessageBodyReader<MultiPart> {
                                       final MediaType mediaType,
                                       final MultivaluedMap<String, String> headers,
                                       final InputStream stream) throws IOException, MIMEParsingException {
-        final MIMEMessage mimeMessage = new MIMEMessage(stream,
+        final MIMEMessage mimeMessage = new MIMEMessage(
+                maxTotalSize < 0 ? stream : new SizeLimitingInputStream(stream, maxTotalSize),
                 mediaType.getParameters().get("boundary"),
                 mimeConfig);
 
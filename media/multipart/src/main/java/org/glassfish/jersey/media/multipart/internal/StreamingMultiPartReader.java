@@ -0,0 +1,116 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.media.multipart.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import javax.ws.rs.ConstrainedTo;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.Providers;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+import org.glassfish.jersey.media.multipart.MultiPartProperties;
+import org.glassfish.jersey.media.multipart.StreamingMultiPart;
+import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.server.CloseableService;
+
+/**
+ * {@link MessageBodyReader} implementation for {@link StreamingMultiPart} entities.
+ * <p>
+ * The reader does not parse the entity, the body parts are parsed as the resource iterates over them.
+ * The streaming multipart entity is closed once the request has been processed.
+ * </p>
+ *
+ * @author Michal Gajdos (michal.gajdos at oracle.com)
+ */
+@Consumes("multipart/*")
+@Singleton
+@ConstrainedTo(ConstrainedTo.Type.SERVER)
+public class StreamingMultiPartReader implements MessageBodyReader<StreamingMultiPart> {
+
+    /**
+     * Injectable helper to look up appropriate {@link MessageBodyReader}s
+     * for our body parts.
+     */
+    @Inject
+    private Provider<MessageBodyWorkers> messageBodyWorkers;
+
+    private final Provider<CloseableService> closeableServiceProvider;
+    private final MultiPartProperties config;
+
+    @Inject
+    public StreamingMultiPartReader(@Context final Providers providers,
+                                    final Provider<CloseableService> closeableServiceProvider) {
+        this.config = MultiPartReaderClientSide.getMultiPartProperties(providers, this.getClass());
+        this.closeableServiceProvider = closeableServiceProvider;
+    }
+
+    @Override
+    public boolean isReadable(final Class<?> type,
+                              final Type genericType,
+                              final Annotation[] annotations,
+                              final MediaType mediaType) {
+        return type == StreamingMultiPart.class;
+    }
+
+    @Override
+    public StreamingMultiPart readFrom(final Class<StreamingMultiPart> type,
+                                       final Type genericType,
+                                       final Annotation[] annotations,
+                                       final MediaType mediaType,
+                                       final MultivaluedMap<String, String> headers,
+                                       final InputStream stream) throws IOException, WebApplicationException {
+        final StreamingMultiPart multiPart =
+                new StreamingMultiPart(stream, mediaType, headers, config, messageBodyWorkers.get());
+        closeableServiceProvider.get().add(multiPart);
+        return multiPart;
+    }
+}
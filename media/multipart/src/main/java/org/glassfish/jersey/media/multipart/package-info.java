@@ -85,6 +85,10 @@
  *     responses.  It is accepted, but not required, on processed requests.</li>
  * <li>A <code>MessageBodyReader</code> implementation for consuming MIME
  *     MultiPart entities.  See below for usage restrictions.</li>
+ * <li>A server-side <code>MessageBodyReader</code> implementation for consuming
+ *     MIME MultiPart entities as a <code>StreamingMultiPart</code>, whose body
+ *     parts are parsed one by one while the resource reads them, without being
+ *     buffered in memory or in temporary files.</li>
  * <li>A <code>MessageBodyWriter</code> implementation for producing MIME
  *     MultiPart entities.  The appropriate <code>Provider</code> is used to
  *     serialize each body part, based on its media type.</li>
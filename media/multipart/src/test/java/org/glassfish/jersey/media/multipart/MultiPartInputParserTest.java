@@ -0,0 +1,231 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.media.multipart;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.glassfish.jersey.message.internal.HeadersFactory;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Test case for {@link MultiPartInputParser}.
+ *
+ * @author Michal Gajdos (michal.gajdos at oracle.com)
+ */
+public class MultiPartInputParserTest {
+
+    private static final String ENTITY = "preamble\r\n"
+            + "--BOUNDARY\r\n"
+            + "Content-Disposition: form-data;\r\n"
+            + " name=\"field\"\r\n"
+            + "\r\n"
+            + "value\r\n"
+            + "--BOUNDARY  \r\n"
+            + "Content-Type: text/plain\r\n"
+            + "Content-Disposition: form-data; name=\"file\"; filename=\"file.txt\"\r\n"
+            + "\r\n"
+            + "line 1\r\n--BOUNDAR\r\nline 2\r\n"
+            + "--BOUNDARY\r\n"
+            + "\r\n"
+            + "\r\n"
+            + "--BOUNDARY--\r\n"
+            + "epilogue";
+
+    /**
+     * Stream returning at most one byte per read to exercise the delimiter detection at buffer boundaries.
+     */
+    private static class OneByteInputStream extends FilterInputStream {
+
+        OneByteInputStream(final InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            return super.read(b, off, Math.min(len, 1));
+        }
+    }
+
+    private static MultiPartInputParser parser(final InputStream stream, final long maxPartSize, final long maxTotalSize)
+            throws IOException {
+        return new MultiPartInputParser(stream, "BOUNDARY", maxPartSize, maxTotalSize);
+    }
+
+    private static InputStream stream(final String entity) throws IOException {
+        return new ByteArrayInputStream(entity.getBytes("UTF-8"));
+    }
+
+    private static String readPart(final MultiPartInputParser parser) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[3];
+        int n;
+        while ((n = parser.read(buffer, 0, buffer.length)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toString("UTF-8");
+    }
+
+    private void assertParts(final InputStream stream) throws IOException {
+        final MultiPartInputParser parser = parser(stream, MultiPartProperties.UNLIMITED, MultiPartProperties.UNLIMITED);
+
+        MultivaluedMap<String, String> headers = HeadersFactory.createInbound();
+        assertTrue(parser.nextPart(headers));
+        assertEquals("form-data; name=\"field\"", headers.getFirst("Content-Disposition"));
+        assertEquals("value", readPart(parser));
+
+        headers = HeadersFactory.createInbound();
+        assertTrue(parser.nextPart(headers));
+        assertEquals("text/plain", headers.getFirst("Content-Type"));
+        assertEquals("line 1\r\n--BOUNDAR\r\nline 2", readPart(parser));
+
+        headers = HeadersFactory.createInbound();
+        assertTrue(parser.nextPart(headers));
+        assertTrue(headers.isEmpty());
+        assertEquals("", readPart(parser));
+
+        assertFalse(parser.nextPart(HeadersFactory.createInbound()));
+        assertFalse(parser.nextPart(HeadersFactory.createInbound()));
+        parser.close();
+    }
+
+    @Test
+    public void testParts() throws IOException {
+        assertParts(stream(ENTITY));
+    }
+
+    @Test
+    public void testPartsReadByteByByte() throws IOException {
+        assertParts(new OneByteInputStream(stream(ENTITY)));
+    }
+
+    @Test
+    public void testUnreadPartsSkipped() throws IOException {
+        final MultiPartInputParser parser = parser(new OneByteInputStream(stream(ENTITY)),
+                MultiPartProperties.UNLIMITED, MultiPartProperties.UNLIMITED);
+
+        assertTrue(parser.nextPart(HeadersFactory.createInbound()));
+        final byte[] buffer = new byte[2];
+        assertEquals(1, parser.read(buffer, 0, 2));
+
+        assertTrue(parser.nextPart(HeadersFactory.createInbound()));
+        assertTrue(parser.nextPart(HeadersFactory.createInbound()));
+        assertFalse(parser.nextPart(HeadersFactory.createInbound()));
+    }
+
+    @Test
+    public void testTransferTo() throws IOException {
+        final MultiPartInputParser parser = parser(stream(ENTITY), MultiPartProperties.UNLIMITED, MultiPartProperties.UNLIMITED);
+        assertTrue(parser.nextPart(HeadersFactory.createInbound()));
+        assertTrue(parser.nextPart(HeadersFactory.createInbound()));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(25, parser.transferTo(Channels.newChannel(out)));
+        assertEquals("line 1\r\n--BOUNDAR\r\nline 2", out.toString("UTF-8"));
+    }
+
+    @Test
+    public void testPartSizeLimit() throws IOException {
+        final MultiPartInputParser parser = parser(stream(ENTITY), 10, MultiPartProperties.UNLIMITED);
+        assertTrue(parser.nextPart(HeadersFactory.createInbound()));
+        assertEquals("value", readPart(parser));
+
+        assertTrue(parser.nextPart(HeadersFactory.createInbound()));
+        try {
+            readPart(parser);
+            fail("Body part size limit not enforced.");
+        } catch (WebApplicationException e) {
+            assertEquals(413, e.getResponse().getStatus());
+        }
+    }
+
+    @Test
+    public void testPartSizeLimitNotEnforcedOnSkippedParts() throws IOException {
+        final MultiPartInputParser parser = parser(stream(ENTITY), 10, MultiPartProperties.UNLIMITED);
+        assertTrue(parser.nextPart(HeadersFactory.createInbound()));
+
+        // partially read body part exceeding the limit
+        assertTrue(parser.nextPart(HeadersFactory.createInbound()));
+        final byte[] buffer = new byte[3];
+        assertEquals(3, parser.read(buffer, 0, 3));
+
+        assertTrue(parser.nextPart(HeadersFactory.createInbound()));
+        assertEquals("", readPart(parser));
+        assertFalse(parser.nextPart(HeadersFactory.createInbound()));
+    }
+
+    @Test
+    public void testTotalSizeLimit() throws IOException {
+        final MultiPartInputParser parser = parser(stream(ENTITY), MultiPartProperties.UNLIMITED, 100);
+        try {
+            while (parser.nextPart(HeadersFactory.createInbound())) {
+                readPart(parser);
+            }
+            fail("Multipart entity size limit not enforced.");
+        } catch (WebApplicationException e) {
+            assertEquals(413, e.getResponse().getStatus());
+        }
+    }
+
+    @Test
+    public void testMissingClosingBoundary() throws IOException {
+        final MultiPartInputParser parser = parser(stream("--BOUNDARY\r\n\r\nvalue"),
+                MultiPartProperties.UNLIMITED, MultiPartProperties.UNLIMITED);
+        assertTrue(parser.nextPart(HeadersFactory.createInbound()));
+        try {
+            readPart(parser);
+            fail("Malformed entity not detected.");
+        } catch (WebApplicationException e) {
+            assertEquals(400, e.getResponse().getStatus());
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.media.multipart.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.client.Entity;
+
+import org.glassfish.jersey.media.multipart.FormDataMultiPart;
+import org.glassfish.jersey.media.multipart.StreamingBodyPart;
+import org.glassfish.jersey.media.multipart.StreamingMultiPart;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Test cases for consuming multipart entities as {@link StreamingMultiPart}.
+ *
+ * @author Michal Gajdos (michal.gajdos at oracle.com)
+ */
+public class StreamingMultiPartReaderTest extends MultiPartJerseyTest {
+
+    @Override
+    protected Set<Class<?>> getResourceClasses() {
+        return Sets.<Class<?>>newHashSet(StreamingResource.class);
+    }
+
+    @Path("/StreamingResource")
+    public static class StreamingResource {
+
+        @POST
+        @Consumes("multipart/form-data")
+        @Produces("text/plain")
+        public String post(final StreamingMultiPart multiPart) throws IOException {
+            final StringBuilder result = new StringBuilder();
+            while (multiPart.hasNext()) {
+                final StreamingBodyPart part = multiPart.next();
+                result.append(part.getName()).append('=');
+
+                if ("file".equals(part.getName())) {
+                    final File file = part.transferToTempFile();
+                    result.append(file.length());
+                } else if ("skipped".equals(part.getName())) {
+                    result.append("skipped");
+                } else {
+                    result.append(part.getEntityAs(String.class));
+                }
+                result.append(';');
+            }
+            return result.toString();
+        }
+    }
+
+    @Test
+    public void testStreamedParts() {
+        final StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            content.append("0123456789");
+        }
+
+        final FormDataMultiPart entity = new FormDataMultiPart()
+                .field("foo", "bar")
+                .field("skipped", content.toString())
+                .field("file", content.toString())
+                .field("baz", "bop");
+
+        final String response = target()
+                .path("StreamingResource")
+                .request("text/plain")
+                .post(Entity.entity(entity, "multipart/form-data"), String.class);
+
+        assertEquals("foo=bar;skipped=skipped;file=100000;baz=bop;", response);
+    }
+}
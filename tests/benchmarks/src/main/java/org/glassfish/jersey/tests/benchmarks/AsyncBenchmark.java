@@ -0,0 +1,150 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.benchmarks;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.MediaType;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Measures the overhead of suspending and resuming a request compared to a synchronous
+ * resource method returning the same entity.
+ *
+ * @author Marek Potociar (marek.potociar at oracle.com)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class AsyncBenchmark {
+
+    private ExecutorService executor;
+    private ApplicationHandler handler;
+
+    @Setup
+    public void setup() {
+        executor = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("async-benchmark-%d").setDaemon(true).build());
+        handler = new ApplicationHandler(new ResourceConfig().register(new AsyncResource(executor)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public ContainerResponse sync() throws Exception {
+        return Pipeline.invoke(handler, Pipeline.request(HttpMethod.GET, "async/sync", MediaType.TEXT_PLAIN_TYPE));
+    }
+
+    @Benchmark
+    public ContainerResponse resumeInRequestThread() throws Exception {
+        return Pipeline.invoke(handler, Pipeline.request(HttpMethod.GET, "async/resume", MediaType.TEXT_PLAIN_TYPE));
+    }
+
+    @Benchmark
+    public ContainerResponse resumeInExecutorThread() throws Exception {
+        return Pipeline.invoke(handler,
+                Pipeline.request(HttpMethod.GET, "async/resume-executor", MediaType.TEXT_PLAIN_TYPE));
+    }
+
+    @Path("async")
+    @Produces(MediaType.TEXT_PLAIN)
+    public static class AsyncResource {
+
+        private final ExecutorService executor;
+
+        public AsyncResource(final ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        @GET
+        @Path("sync")
+        public String sync() {
+            return "resumed";
+        }
+
+        @GET
+        @Path("resume")
+        public void resume(@Suspended final AsyncResponse asyncResponse) {
+            asyncResponse.resume("resumed");
+        }
+
+        @GET
+        @Path("resume-executor")
+        public void resumeFromExecutor(@Suspended final AsyncResponse asyncResponse) {
+            executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    asyncResponse.resume("resumed");
+                }
+            });
+        }
+    }
+}
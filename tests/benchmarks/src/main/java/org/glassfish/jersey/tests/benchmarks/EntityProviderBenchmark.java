@@ -0,0 +1,191 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.glassfish.jersey.jackson.JacksonFeature;
+import org.glassfish.jersey.jettison.JettisonFeature;
+import org.glassfish.jersey.media.multipart.MultiPart;
+import org.glassfish.jersey.media.multipart.MultiPartFeature;
+import org.glassfish.jersey.moxy.json.MoxyJsonFeature;
+import org.glassfish.jersey.moxy.xml.MoxyXmlFeature;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of writing a response entity with each of the message body writers bundled
+ * with Jersey.
+ * <p>
+ * Every {@link Writer writer} is deployed in a separate application so that the providers do not
+ * compete for the same media type.
+ * </p>
+ *
+ * @author Marek Potociar (marek.potociar at oracle.com)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class EntityProviderBenchmark {
+
+    private static final MediaType MULTIPART_MIXED_TYPE = new MediaType("multipart", "mixed");
+
+    /**
+     * Benchmarked message body writer.
+     */
+    public static enum Writer {
+        /**
+         * Plain text {@code String} writer.
+         */
+        TEXT("text", MediaType.TEXT_PLAIN_TYPE),
+        /**
+         * JAXB XML writer provided by Jersey core.
+         */
+        JAXB("bean", MediaType.APPLICATION_XML_TYPE),
+        /**
+         * JAXB XML writer backed by the MOXy JAXB implementation.
+         */
+        MOXY_XML("bean", MediaType.APPLICATION_XML_TYPE, new MoxyXmlFeature()),
+        /**
+         * MOXy JSON writer.
+         */
+        MOXY_JSON("bean", MediaType.APPLICATION_JSON_TYPE, new MoxyJsonFeature()),
+        /**
+         * Jackson JSON writer.
+         */
+        JACKSON("bean", MediaType.APPLICATION_JSON_TYPE, new JacksonFeature()),
+        /**
+         * Jettison JSON writer.
+         */
+        JETTISON("bean", MediaType.APPLICATION_JSON_TYPE, new JettisonFeature()),
+        /**
+         * Multipart writer writing a text and a JAXB XML body part.
+         */
+        MULTIPART("multipart", MULTIPART_MIXED_TYPE, new MultiPartFeature());
+
+        private final String path;
+        private final MediaType mediaType;
+        private final Object[] features;
+
+        private Writer(final String path, final MediaType mediaType, final Object... features) {
+            this.path = path;
+            this.mediaType = mediaType;
+            this.features = features;
+        }
+    }
+
+    @Param({"TEXT", "JAXB", "MOXY_XML", "MOXY_JSON", "JACKSON", "JETTISON", "MULTIPART"})
+    public Writer writer;
+
+    private ApplicationHandler handler;
+
+    @Setup
+    public void setup() {
+        final ResourceConfig resourceConfig = new ResourceConfig(EntityResource.class);
+        for (Object feature : writer.features) {
+            resourceConfig.register(feature);
+        }
+        handler = new ApplicationHandler(resourceConfig);
+    }
+
+    @Benchmark
+    public ContainerResponse write() throws Exception {
+        return Pipeline.invoke(handler, Pipeline.request(HttpMethod.GET, writer.path, writer.mediaType));
+    }
+
+    @Path("/")
+    public static class EntityResource {
+
+        private static final String TEXT;
+
+        static {
+            final StringBuilder sb = new StringBuilder(1024);
+            while (sb.length() < 1024) {
+                sb.append("Lorem ipsum dolor sit amet. ");
+            }
+            TEXT = sb.toString();
+        }
+
+        @GET
+        @Path("text")
+        @Produces(MediaType.TEXT_PLAIN)
+        public String text() {
+            return TEXT;
+        }
+
+        @GET
+        @Path("bean")
+        @Produces({MediaType.APPLICATION_XML, MediaType.APPLICATION_JSON})
+        public Person bean() {
+            return new Person("Duke", 17, 10);
+        }
+
+        @GET
+        @Path("multipart")
+        @Produces("multipart/mixed")
+        public MultiPart multipart() {
+            return new MultiPart()
+                    .bodyPart(TEXT, MediaType.TEXT_PLAIN_TYPE)
+                    .bodyPart(new Person("Duke", 17, 10), MediaType.APPLICATION_XML_TYPE);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.benchmarks;
+
+import java.io.IOException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.NameBinding;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.DynamicFeature;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Configurable;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the overhead of request/response filters and reader/writer interceptors depending on the
+ * way they are bound to the invoked resource method.
+ * <p>
+ * The same set of providers is deployed in each of the {@link Binding binding modes}, so the difference
+ * between the modes reflects the cost of the binding itself and the {@link Binding#NONE} mode provides
+ * the baseline.
+ * </p>
+ *
+ * @author Marek Potociar (marek.potociar at oracle.com)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class FilterBenchmark {
+
+    private static final byte[] ENTITY = "Hello benchmark!".getBytes();
+
+    /**
+     * Filter and interceptor binding mode.
+     */
+    public static enum Binding {
+        /**
+         * No filters nor interceptors are deployed.
+         */
+        NONE,
+        /**
+         * Filters and interceptors are bound globally.
+         */
+        GLOBAL,
+        /**
+         * Filters and interceptors are bound to the resource using a {@link NameBinding name binding} annotation.
+         */
+        NAME_BOUND,
+        /**
+         * Filters and interceptors are bound to the resource by a {@link DynamicFeature dynamic feature}.
+         */
+        DYNAMIC
+    }
+
+    @Param({"NONE", "GLOBAL", "NAME_BOUND", "DYNAMIC"})
+    public Binding binding;
+
+    private ApplicationHandler handler;
+
+    @Setup
+    public void setup() {
+        final ResourceConfig resourceConfig;
+        switch (binding) {
+            case GLOBAL:
+                resourceConfig = new ResourceConfig(PlainResource.class, GlobalFilter.class, GlobalInterceptor.class);
+                break;
+            case NAME_BOUND:
+                resourceConfig = new ResourceConfig(NameBoundResource.class, NameBoundFilter.class,
+                        NameBoundInterceptor.class);
+                break;
+            case DYNAMIC:
+                resourceConfig = new ResourceConfig(PlainResource.class, DynamicBinding.class);
+                break;
+            default:
+                resourceConfig = new ResourceConfig(PlainResource.class);
+        }
+        handler = new ApplicationHandler(resourceConfig);
+    }
+
+    @Benchmark
+    public ContainerResponse get() throws Exception {
+        return Pipeline.invoke(handler, Pipeline.request(HttpMethod.GET, "text", MediaType.TEXT_PLAIN_TYPE));
+    }
+
+    @Benchmark
+    public ContainerResponse post() throws Exception {
+        return Pipeline.invoke(handler, Pipeline.request(HttpMethod.POST, "text", MediaType.TEXT_PLAIN_TYPE, ENTITY));
+    }
+
+    @NameBinding
+    @Retention(RetentionPolicy.RUNTIME)
+    public static @interface Filtered {
+    }
+
+    @Path("text")
+    @Produces(MediaType.TEXT_PLAIN)
+    public static class PlainResource {
+
+        @GET
+        public String get() {
+            return "text";
+        }
+
+        @POST
+        public String echo(String text) {
+            return text;
+        }
+    }
+
+    @Path("text")
+    @Produces(MediaType.TEXT_PLAIN)
+    @Filtered
+    public static class NameBoundResource {
+
+        @GET
+        public String get() {
+            return "text";
+        }
+
+        @POST
+        public String echo(String text) {
+            return text;
+        }
+    }
+
+    public static class GlobalFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+        @Override
+        public void filter(ContainerRequestContext requestContext) throws IOException {
+            requestContext.setProperty("filtered", Boolean.TRUE);
+        }
+
+        @Override
+        public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext)
+                throws IOException {
+            responseContext.getHeaders().putSingle("X-Filtered", "true");
+        }
+    }
+
+    public static class GlobalInterceptor implements ReaderInterceptor, WriterInterceptor {
+
+        @Override
+        public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException, WebApplicationException {
+            return context.proceed();
+        }
+
+        @Override
+        public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException {
+            context.proceed();
+        }
+    }
+
+    @Filtered
+    public static class NameBoundFilter extends GlobalFilter {
+    }
+
+    @Filtered
+    public static class NameBoundInterceptor extends GlobalInterceptor {
+    }
+
+    public static class DynamicBinding implements DynamicFeature {
+
+        @Override
+        public void configure(ResourceInfo resourceInfo, Configurable configurable) {
+            if (PlainResource.class == resourceInfo.getResourceClass()) {
+                configurable.register(GlobalFilter.class);
+                configurable.register(GlobalInterceptor.class);
+            }
+        }
+    }
+}
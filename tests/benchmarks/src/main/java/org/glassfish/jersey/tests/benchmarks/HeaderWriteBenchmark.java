@@ -0,0 +1,139 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.RuntimeDelegate;
+
+import org.glassfish.jersey.message.internal.HeadersFactory;
+import org.glassfish.jersey.message.internal.OutboundJaxrsResponse;
+import org.glassfish.jersey.message.internal.OutboundMessageContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of converting response headers to strings when a container commits a response.
+ * <p>
+ * {@link #stringHeadersView()} iterates the {@link OutboundMessageContext#getStringHeaders() string headers view}
+ * (the original container write path), {@link #renderedHeaders()} iterates the raw headers and renders the values
+ * using {@link HeadersFactory#asString(Object, RuntimeDelegate)} which reuses the strings of
+ * {@link HeadersFactory#preRender(Object) pre-rendered} values. Run with {@code -prof gc} to compare the
+ * allocation rate per response.
+ * </p>
+ *
+ * @author Marek Potociar (marek.potociar at oracle.com)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class HeaderWriteBenchmark {
+
+    private static final CacheControl CACHE_CONTROL = new CacheControl();
+    private static final EntityTag ENTITY_TAG = new EntityTag("8c1f3a");
+
+    static {
+        CACHE_CONTROL.setMaxAge(3600);
+        CACHE_CONTROL.setPrivate(true);
+    }
+
+    @Setup
+    public void setup() {
+        HeadersFactory.preRender(CACHE_CONTROL);
+        HeadersFactory.preRender(ENTITY_TAG);
+    }
+
+    @Benchmark
+    public int stringHeadersView() {
+        int length = 0;
+        for (Map.Entry<String, List<String>> e : response().getStringHeaders().entrySet()) {
+            for (String value : e.getValue()) {
+                length += e.getKey().length() + value.length();
+            }
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int renderedHeaders() {
+        final RuntimeDelegate delegate = RuntimeDelegate.getInstance();
+        int length = 0;
+        for (Map.Entry<String, List<Object>> e : response().getHeaders().entrySet()) {
+            for (Object value : e.getValue()) {
+                length += e.getKey().length() + HeadersFactory.asString(value, delegate).length();
+            }
+        }
+        return length;
+    }
+
+    private static OutboundMessageContext response() {
+        final OutboundMessageContext context = ((OutboundJaxrsResponse) Response.ok()
+                .type(MediaType.APPLICATION_JSON_TYPE)
+                .cacheControl(CACHE_CONTROL)
+                .tag(ENTITY_TAG)
+                .allow(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .build()).getContext();
+        final MultivaluedMap<String, Object> headers = context.getHeaders();
+        headers.add(HttpHeaders.CONTENT_LENGTH, 42);
+        return context;
+    }
+}
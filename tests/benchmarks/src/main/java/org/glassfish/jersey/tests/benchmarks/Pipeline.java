@@ -0,0 +1,143 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.concurrent.ExecutionException;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+
+import org.glassfish.jersey.internal.MapPropertiesDelegate;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.ContainerResponse;
+
+/**
+ * Utility methods shared by the benchmarks for driving an {@link ApplicationHandler} directly,
+ * without any container or network transport in between.
+ *
+ * @author Marek Potociar (marek.potociar at oracle.com)
+ */
+final class Pipeline {
+
+    /**
+     * Base URI used for all in-process requests.
+     */
+    static final URI BASE_URI = URI.create("http://localhost/");
+
+    /**
+     * Output stream that discards everything written to it so that the benchmarks measure the
+     * cost of entity serialization and not the cost of buffering the serialized bytes.
+     */
+    static final OutputStream NULL_OUTPUT_STREAM = new OutputStream() {
+        @Override
+        public void write(int b) throws IOException {
+            // discard
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            // discard
+        }
+    };
+
+    /**
+     * Prevents instantiation.
+     */
+    private Pipeline() {
+        throw new AssertionError("No instances allowed.");
+    }
+
+    /**
+     * Create a new container request without an entity.
+     *
+     * @param method HTTP method of the request.
+     * @param path   request path relative to the {@link #BASE_URI base URI}.
+     * @param accept accepted response media type, may be {@code null}.
+     * @return new container request.
+     */
+    static ContainerRequest request(final String method, final String path, final MediaType accept) {
+        final ContainerRequest request = new ContainerRequest(BASE_URI, BASE_URI.resolve(path), method, null,
+                new MapPropertiesDelegate());
+        if (accept != null) {
+            request.header(HttpHeaders.ACCEPT, accept.toString());
+        }
+        return request;
+    }
+
+    /**
+     * Create a new container request carrying the given entity bytes.
+     *
+     * @param method      HTTP method of the request.
+     * @param path        request path relative to the {@link #BASE_URI base URI}.
+     * @param contentType media type of the entity.
+     * @param entity      entity bytes.
+     * @return new container request.
+     */
+    static ContainerRequest request(final String method, final String path, final MediaType contentType,
+                                    final byte[] entity) {
+        final ContainerRequest request = request(method, path, contentType);
+        request.header(HttpHeaders.CONTENT_TYPE, contentType.toString());
+        request.header(HttpHeaders.CONTENT_LENGTH, String.valueOf(entity.length));
+        request.setEntityStream(new ByteArrayInputStream(entity));
+        return request;
+    }
+
+    /**
+     * Process the request synchronously, discarding the response entity.
+     *
+     * @param handler application handler processing the request.
+     * @param request request to be processed.
+     * @return processed response.
+     * @throws Exception in case the request processing failed.
+     */
+    static ContainerResponse invoke(final ApplicationHandler handler, final ContainerRequest request) throws Exception {
+        try {
+            return handler.apply(request, NULL_OUTPUT_STREAM).get();
+        } catch (ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            throw (cause instanceof Exception) ? (Exception) cause : ex;
+        }
+    }
+}
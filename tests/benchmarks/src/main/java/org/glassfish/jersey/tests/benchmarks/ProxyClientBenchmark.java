@@ -0,0 +1,153 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientFactory;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MediaType;
+
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.proxy.WebResourceFactory;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.inmemory.internal.InMemoryConnector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the proxy-based client API ({@link WebResourceFactory}) with equivalent hand-written
+ * {@link WebTarget} calls. Both variants use the in-memory connector, so the difference between them
+ * is the overhead of the proxy.
+ *
+ * @author Martin Matula (martin.matula at oracle.com)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class ProxyClientBenchmark {
+
+    private Client client;
+    private WebTarget target;
+    private ItemResource proxy;
+
+    @Setup
+    public void setup() {
+        final ApplicationHandler handler = new ApplicationHandler(new ResourceConfig(ItemResourceImpl.class));
+        client = ClientFactory.newClient(new ClientConfig().connector(new InMemoryConnector(Pipeline.BASE_URI, handler)));
+        target = client.target(Pipeline.BASE_URI);
+        proxy = WebResourceFactory.newResource(ItemResource.class, target);
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+    }
+
+    @Benchmark
+    public String proxyGet() {
+        return proxy.get();
+    }
+
+    @Benchmark
+    public String webTargetGet() {
+        return target.path("items").request(MediaType.TEXT_PLAIN).get(String.class);
+    }
+
+    @Benchmark
+    public String proxyGetWithParams() {
+        return proxy.get("42", "full");
+    }
+
+    @Benchmark
+    public String webTargetGetWithParams() {
+        return target.path("items").path("{id}").resolveTemplate("id", "42").queryParam("view", "full")
+                .request(MediaType.TEXT_PLAIN).get(String.class);
+    }
+
+    /**
+     * Resource interface shared by the server-side resource and the client-side proxy.
+     */
+    @Path("items")
+    public static interface ItemResource {
+
+        @GET
+        @Produces(MediaType.TEXT_PLAIN)
+        String get();
+
+        @GET
+        @Path("{id}")
+        @Produces(MediaType.TEXT_PLAIN)
+        String get(@PathParam("id") String id, @QueryParam("view") String view);
+    }
+
+    public static class ItemResourceImpl implements ItemResource {
+
+        @Override
+        public String get() {
+            return "items";
+        }
+
+        @Override
+        public String get(String id, String view) {
+            return id + ":" + view;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.core.MediaType;
+
+import org.glassfish.jersey.process.Inflector;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.model.Resource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures request matching cost as a function of the number of root resources deployed
+ * in the application.
+ * <p>
+ * Each deployed resource exposes a resource method and a templated sub-resource method. The benchmarks
+ * request the first and the last deployed resource so that both ends of the root resource
+ * matching order are covered.
+ * </p>
+ *
+ * @author Marek Potociar (marek.potociar at oracle.com)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class RoutingBenchmark {
+
+    private static final Inflector<ContainerRequestContext, String> INFLECTOR =
+            new Inflector<ContainerRequestContext, String>() {
+                @Override
+                public String apply(ContainerRequestContext request) {
+                    return "ok";
+                }
+            };
+
+    /**
+     * Number of deployed root resources.
+     */
+    @Param({"1", "10", "100", "1000"})
+    public int resources;
+
+    private ApplicationHandler handler;
+    private String firstPath;
+    private String lastPath;
+
+    @Setup
+    public void setup() {
+        final ResourceConfig resourceConfig = new ResourceConfig();
+        for (int i = 0; i < resources; i++) {
+            final Resource.Builder builder = Resource.builder("resource" + i);
+            builder.addMethod(HttpMethod.GET).produces(MediaType.TEXT_PLAIN_TYPE).handledBy(INFLECTOR);
+            builder.addChildResource("items/{id}").addMethod(HttpMethod.GET)
+                    .produces(MediaType.TEXT_PLAIN_TYPE).handledBy(INFLECTOR);
+            resourceConfig.addResources(builder.build());
+        }
+        handler = new ApplicationHandler(resourceConfig);
+
+        firstPath = "resource0/items/42";
+        lastPath = "resource" + (resources - 1) + "/items/42";
+    }
+
+    @Benchmark
+    public ContainerResponse resourceMethod() throws Exception {
+        return Pipeline.invoke(handler, Pipeline.request(HttpMethod.GET, "resource0", MediaType.TEXT_PLAIN_TYPE));
+    }
+
+    @Benchmark
+    public ContainerResponse firstSubResourceMethod() throws Exception {
+        return Pipeline.invoke(handler, Pipeline.request(HttpMethod.GET, firstPath, MediaType.TEXT_PLAIN_TYPE));
+    }
+
+    @Benchmark
+    public ContainerResponse lastSubResourceMethod() throws Exception {
+        return Pipeline.invoke(handler, Pipeline.request(HttpMethod.GET, lastPath, MediaType.TEXT_PLAIN_TYPE));
+    }
+
+    @Benchmark
+    public ContainerResponse notFound() throws Exception {
+        return Pipeline.invoke(handler, Pipeline.request(HttpMethod.GET, "missing/items/42", MediaType.TEXT_PLAIN_TYPE));
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.glassfish.jersey.media.sse.EventOutput;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+import org.glassfish.jersey.media.sse.SseBroadcaster;
+import org.glassfish.jersey.media.sse.SseFeature;
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the fan-out cost of broadcasting a server-sent event to a varying number of connected
+ * subscribers.
+ * <p>
+ * Subscribers are connected once per trial by invoking the event stream resource through the application
+ * handler; the event streams stay open and every benchmark invocation broadcasts a single event to all of them.
+ * </p>
+ *
+ * @author Marek Potociar (marek.potociar at oracle.com)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class SseBroadcastBenchmark {
+
+    /**
+     * Number of connected event stream subscribers.
+     */
+    @Param({"1", "10", "100", "1000"})
+    public int subscribers;
+
+    private SseBroadcaster broadcaster;
+    private OutboundEvent event;
+
+    @Setup
+    public void setup() throws Exception {
+        broadcaster = new SseBroadcaster();
+        final ApplicationHandler handler = new ApplicationHandler(
+                new ResourceConfig(SseFeature.class).register(new BroadcastResource(broadcaster)));
+
+        for (int i = 0; i < subscribers; i++) {
+            // the event stream is never closed by the server, so do not wait for the response to complete
+            handler.apply(Pipeline.request(HttpMethod.GET, "events", SseFeature.SERVER_SENT_EVENTS_TYPE),
+                    Pipeline.NULL_OUTPUT_STREAM);
+        }
+
+        event = new OutboundEvent.Builder().name("benchmark").data(String.class, "Hello subscribers!").build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        broadcaster.closeAll();
+    }
+
+    @Benchmark
+    public void broadcast() {
+        broadcaster.broadcast(event);
+    }
+
+    @Path("events")
+    public static class BroadcastResource {
+
+        private final SseBroadcaster broadcaster;
+
+        public BroadcastResource(final SseBroadcaster broadcaster) {
+            this.broadcaster = broadcaster;
+        }
+
+        @GET
+        @Produces(SseFeature.SERVER_SENT_EVENTS)
+        public EventOutput subscribe() {
+            final EventOutput eventOutput = new EventOutput();
+            broadcaster.add(eventOutput);
+            return eventOutput;
+        }
+    }
+}
@@ -42,12 +42,14 @@ package org.glassfish.jersey.tests.e2e.client;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.util.logging.Logger;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.MessageProcessingException;
 import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
 import javax.ws.rs.client.ClientRequestContext;
 import javax.ws.rs.client.ClientResponseContext;
 import javax.ws.rs.client.ClientResponseFilter;
@@ -55,6 +57,7 @@ import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.Application;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.xml.bind.annotation.XmlRootElement;
 
 import org.glassfish.jersey.filter.LoggingFilter;
 import org.glassfish.jersey.server.ResourceConfig;
@@ -63,6 +66,7 @@ import org.glassfish.jersey.test.TestProperties;
 
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 /**
@@ -93,11 +97,26 @@ public class ResponseBufferEntityTest extends JerseyTest {
         }
     }
 
+    @XmlRootElement
+    public static class Bean {
+
+        public String value;
+    }
+
     @Path("response")
     public static class Resource {
 
         public static final String ENTITY = "ENtiTy";
 
+        @GET
+        @Path("bean")
+        @Produces(MediaType.APPLICATION_XML)
+        public Bean bean() {
+            final Bean bean = new Bean();
+            bean.value = ENTITY;
+            return bean;
+        }
+
         @GET
         @Path("corrupted")
         public CorruptedInputStream corrupted() {
@@ -183,4 +202,20 @@ public class ResponseBufferEntityTest extends JerseyTest {
         String entityFromBytes = new String(buffer);
         assertEquals(Resource.ENTITY, entityFromBytes);
     }
+
+    @Test
+    public void testBufferedReadAfterStreamClosed() throws Exception {
+        final Response response = target("response/bean").request(MediaType.APPLICATION_XML).get();
+        response.bufferEntity();
+
+        // JAXB unmarshaller closes the entity stream
+        assertEquals(Resource.ENTITY, response.readEntity(Bean.class).value);
+
+        final InputStream stream = response.readEntity(InputStream.class);
+        stream.close();
+
+        final String entity = response.readEntity(String.class);
+        assertTrue(entity.contains("<value>" + Resource.ENTITY + "</value>"));
+        assertEquals(Resource.ENTITY, response.readEntity(Bean.class).value);
+    }
 }
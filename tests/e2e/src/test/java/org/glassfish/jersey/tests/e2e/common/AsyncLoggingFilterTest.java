@@ -0,0 +1,143 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.e2e.common;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Application;
+
+import org.glassfish.jersey.filter.LoggingFilter;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests asynchronous and sampled logging of the {@link LoggingFilter}.
+ *
+ * @author Pavel Bucek (pavel.bucek at oracle.com)
+ */
+public class AsyncLoggingFilterTest extends JerseyTest {
+
+    private static final Logger LOGGER = Logger.getLogger(AsyncLoggingFilterTest.class.getName());
+    private static final Queue<String> MESSAGES = new ConcurrentLinkedQueue<String>();
+
+    static {
+        LOGGER.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                MESSAGES.add(record.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+    }
+
+    @Path("/")
+    public static class Resource {
+
+        @POST
+        @Path("echo")
+        public String echo(String entity) {
+            return entity;
+        }
+
+        @GET
+        @Path("quiet")
+        public String quiet() {
+            return "quiet";
+        }
+    }
+
+    @Override
+    protected Application configure() {
+        MESSAGES.clear();
+        return new ResourceConfig(Resource.class).addSingletons(
+                LoggingFilter.builder(LOGGER).printEntity(4).async(64).sampleRate("/quiet", 0.0).build());
+    }
+
+    private static String awaitMessage(String fragment) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            for (String message : MESSAGES) {
+                if (message.contains(fragment)) {
+                    return message;
+                }
+            }
+            Thread.sleep(50);
+        }
+        return null;
+    }
+
+    @Test
+    public void testEntityPrefixLoggedAsynchronously() throws InterruptedException {
+        assertEquals("0123456789", target("echo").request().post(Entity.text("0123456789"), String.class));
+
+        final String request = awaitMessage("echo");
+        assertTrue(request != null);
+        final String entity = awaitMessage("0123...more...");
+        assertTrue(entity != null);
+    }
+
+    @Test
+    public void testUnsampledPathNotLogged() throws InterruptedException {
+        assertEquals("quiet", target("quiet").request().get(String.class));
+        assertEquals("0123456789", target("echo").request().post(Entity.text("0123456789"), String.class));
+
+        // records are logged in order, so once the subsequent request is logged the unsampled one would be too
+        assertTrue(awaitMessage("echo") != null);
+        assertTrue(awaitMessage("quiet") == null);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.e2e.common;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+
+import org.glassfish.jersey.message.MessageProperties;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests lazy initialization of message body workers enabled via
+ * {@link MessageProperties#LAZY_WORKERS_INITIALIZATION}.
+ *
+ * @author Pavel Bucek (pavel.bucek at oracle.com)
+ */
+public class LazyProvidersTest extends JerseyTest {
+
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    public static class Bean {
+        private final String value;
+
+        public Bean(String value) {
+            this.value = value;
+        }
+    }
+
+    @Produces("application/bean")
+    public static class BeanWriter implements MessageBodyWriter<Bean> {
+
+        public BeanWriter() {
+            INSTANCES.incrementAndGet();
+        }
+
+        @Override
+        public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return type == Bean.class;
+        }
+
+        @Override
+        public long getSize(Bean bean, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(Bean bean, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+                throws IOException, WebApplicationException {
+            entityStream.write(("bean:" + bean.value).getBytes("UTF-8"));
+        }
+    }
+
+    @Path("/")
+    public static class Resource {
+
+        @GET
+        @Path("text")
+        @Produces("text/plain")
+        public String text() {
+            return "text";
+        }
+
+        @GET
+        @Path("bean")
+        @Produces("application/bean")
+        public Bean bean() {
+            return new Bean("value");
+        }
+    }
+
+    @Override
+    protected Application configure() {
+        INSTANCES.set(0);
+        return new ResourceConfig(Resource.class, BeanWriter.class)
+                .setProperty(MessageProperties.LAZY_WORKERS_INITIALIZATION, true);
+    }
+
+    @Test
+    public void testWriterInstantiatedOnFirstUse() {
+        assertEquals(0, INSTANCES.get());
+
+        assertEquals("text", target("text").request().get(String.class));
+        assertEquals(0, INSTANCES.get());
+
+        assertEquals("bean:value", target("bean").request().get(String.class));
+        assertEquals("bean:value", target("bean").request().get(String.class));
+        assertEquals(1, INSTANCES.get());
+    }
+}
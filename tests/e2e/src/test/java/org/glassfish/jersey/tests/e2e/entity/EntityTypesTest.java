@@ -51,6 +51,7 @@ import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -84,6 +85,7 @@ import javax.activation.DataSource;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
+import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.transform.dom.DOMSource;
@@ -93,6 +95,7 @@ import javax.xml.transform.stream.StreamSource;
 import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.internal.util.collection.MultivaluedStringMap;
 import org.glassfish.jersey.jettison.JettisonFeature;
+import org.glassfish.jersey.message.ElementStream;
 import org.glassfish.jersey.message.internal.FileProvider;
 import org.glassfish.jersey.server.ResourceConfig;
 
@@ -104,6 +107,7 @@ import org.w3c.dom.Document;
 import org.xml.sax.InputSource;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
 
 /**
  * @author Paul Sandoz (paul.sandoz at oracle.com)
@@ -843,6 +847,106 @@ public class EntityTypesTest extends AbstractTypeTester {
                 beans.add(new JaxbBean(t.value));
             return beans;
         }
+
+        @GET
+        @Path("iterator")
+        public Iterator<JaxbBean> getIterator() {
+            return get().iterator();
+        }
+
+        @GET
+        @Path("iterable")
+        public Iterable<JaxbBean> getIterable() {
+            return new Iterable<JaxbBean>() {
+                @Override
+                public Iterator<JaxbBean> iterator() {
+                    return get().iterator();
+                }
+            };
+        }
+
+        @GET
+        @Path("iterableBean")
+        public IterableJaxbBean<JaxbBean> getIterableBean() {
+            return new IterableJaxbBean<JaxbBean>("bean");
+        }
+
+        @GET
+        @Path("stream")
+        public ElementStream<JaxbBean> getStream() {
+            final Iterator<JaxbBean> iterator = get().iterator();
+            streamClosed = false;
+            return new ElementStream<JaxbBean>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public JaxbBean next() {
+                    return iterator.next();
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public void close() {
+                    streamClosed = true;
+                }
+            };
+        }
+    }
+
+    private static volatile boolean streamClosed;
+
+    /**
+     * JAXB bean implementing {@link Iterable}, i.e. not a collection of elements.
+     */
+    @XmlRootElement(name = "iterableBean")
+    public static class IterableJaxbBean<T> implements Iterable<T> {
+
+        public String value;
+
+        public IterableJaxbBean() {
+        }
+
+        public IterableJaxbBean(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return Collections.<T>emptyList().iterator();
+        }
+    }
+
+    @Test
+    public void testJAXBIterableBeanNotWrittenAsCollection() {
+        IterableJaxbBean<?> bean = target("JAXBListResource").path("iterableBean").request().get(IterableJaxbBean.class);
+        assertEquals("bean", bean.value);
+    }
+
+    @Test
+    public void testJAXBListRepresentationStreamed() {
+        WebTarget target = target("JAXBListResource");
+
+        List<JaxbBean> a = target.request().get(new GenericType<List<JaxbBean>>() {
+        });
+        List<JaxbBean> b = target.path("iterator").request().get(new GenericType<List<JaxbBean>>() {
+        });
+        assertEquals(a, b);
+
+        b = target.path("iterable").request().get(new GenericType<List<JaxbBean>>() {
+        });
+        assertEquals(a, b);
+
+        b = target.path("stream").request().get(new GenericType<List<JaxbBean>>() {
+        });
+        assertEquals(a, b);
+        assertTrue(streamClosed);
     }
 
     @Path("JAXBArrayResource")
@@ -0,0 +1,312 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.jersey.tests.e2e.entity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.ContextResolver;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.jackson.JacksonFeature;
+import org.glassfish.jersey.jackson.JacksonJsonEntityProvider;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.annotate.JsonSerialize;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link JacksonJsonEntityProvider} tests.
+ *
+ * @author Stepan Kopriva (stepan.kopriva at oracle.com)
+ */
+public class JacksonJsonEntityProviderTest extends JerseyTest {
+
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    @XmlRootElement
+    public static class JaxbAnnotatedBean {
+
+        @XmlElement(name = "renamed")
+        public String value;
+
+        public JaxbAnnotatedBean() {
+        }
+
+        public JaxbAnnotatedBean(final String value) {
+            this.value = value;
+        }
+    }
+
+    public static class PojoBean {
+
+        public String value;
+        public String missing;
+
+        public PojoBean() {
+        }
+
+        public PojoBean(final String value) {
+            this.value = value;
+        }
+    }
+
+    public static class Animal {
+
+        public String name;
+
+        public Animal() {
+        }
+
+        public Animal(final String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Dog extends Animal {
+
+        public String breed;
+
+        public Dog() {
+        }
+
+        public Dog(final String name, final String breed) {
+            super(name);
+            this.breed = breed;
+        }
+    }
+
+    /**
+     * Provides an object mapper omitting {@code null} properties for {@link PojoBean} only.
+     */
+    public static class PojoMapperResolver implements ContextResolver<ObjectMapper> {
+
+        private final ObjectMapper mapper = new ObjectMapper();
+
+        public PojoMapperResolver() {
+            mapper.setSerializationInclusion(JsonSerialize.Inclusion.NON_NULL);
+        }
+
+        @Override
+        public ObjectMapper getContext(final Class<?> type) {
+            return type == PojoBean.class ? mapper : null;
+        }
+    }
+
+    @Path("/")
+    @Produces(MediaType.APPLICATION_JSON)
+    public static class JacksonResource {
+
+        @POST
+        @Path("jaxb")
+        @Consumes(MediaType.APPLICATION_JSON)
+        public JaxbAnnotatedBean echoJaxb(final JaxbAnnotatedBean bean) {
+            return bean;
+        }
+
+        @GET
+        @Path("jaxb")
+        public JaxbAnnotatedBean getJaxb() {
+            return new JaxbAnnotatedBean("jaxb");
+        }
+
+        @GET
+        @Path("pojo")
+        public PojoBean getPojo() {
+            return new PojoBean("pojo");
+        }
+
+        @GET
+        @Path("animal")
+        public Animal getAnimal() {
+            return new Dog("rex", "beagle");
+        }
+
+        @GET
+        @Path("iterator")
+        public Iterator<JaxbAnnotatedBean> getIterator() {
+            return Arrays.asList(new JaxbAnnotatedBean("a"), new JaxbAnnotatedBean("b")).iterator();
+        }
+
+        @GET
+        @Path("iterable")
+        public Iterable<JaxbAnnotatedBean> getIterable() {
+            return new Iterable<JaxbAnnotatedBean>() {
+                @Override
+                public Iterator<JaxbAnnotatedBean> iterator() {
+                    return getIterator();
+                }
+            };
+        }
+
+        @GET
+        @Path("empty")
+        public Iterator<JaxbAnnotatedBean> getEmpty() {
+            return Collections.<JaxbAnnotatedBean>emptyList().iterator();
+        }
+    }
+
+    @Override
+    protected Application configure() {
+        return new ResourceConfig(JacksonResource.class)
+                .register(new JacksonFeature())
+                .register(new PojoMapperResolver());
+    }
+
+    @Override
+    protected void configureClient(final ClientConfig clientConfig) {
+        super.configureClient(clientConfig);
+        clientConfig.register(new JacksonFeature());
+    }
+
+    @Test
+    public void testJaxbAnnotations() {
+        final String json = target("jaxb").request(MediaType.APPLICATION_JSON).get(String.class);
+        assertTrue(json, json.contains("\"renamed\":\"jaxb\""));
+
+        final JaxbAnnotatedBean bean = target("jaxb").request(MediaType.APPLICATION_JSON)
+                .post(Entity.json(new JaxbAnnotatedBean("echo")), JaxbAnnotatedBean.class);
+        assertEquals("echo", bean.value);
+    }
+
+    @Test
+    public void testContextResolverMapper() {
+        final String pojo = target("pojo").request(MediaType.APPLICATION_JSON).get(String.class);
+        assertTrue(pojo, pojo.contains("\"value\":\"pojo\""));
+        assertFalse(pojo, pojo.contains("missing"));
+
+        // the resolver does not provide a mapper for other types - the default mapper is used
+        final String jaxb = target("jaxb").request(MediaType.APPLICATION_JSON).get(String.class);
+        assertTrue(jaxb, jaxb.contains("\"renamed\":\"jaxb\""));
+    }
+
+    @Test
+    public void testSubclassEntity() {
+        final String json = target("animal").request(MediaType.APPLICATION_JSON).get(String.class);
+        assertTrue(json, json.contains("\"name\":\"rex\""));
+        assertTrue(json, json.contains("\"breed\":\"beagle\""));
+    }
+
+    @Test
+    public void testIterator() {
+        assertElements(target("iterator").request(MediaType.APPLICATION_JSON)
+                .get(new GenericType<List<JaxbAnnotatedBean>>() {}), "a", "b");
+    }
+
+    @Test
+    public void testIterable() {
+        assertElements(target("iterable").request(MediaType.APPLICATION_JSON)
+                .get(new GenericType<List<JaxbAnnotatedBean>>() {}), "a", "b");
+    }
+
+    @Test
+    public void testEmptyIterator() {
+        assertEquals("[]", target("empty").request(MediaType.APPLICATION_JSON).get(String.class).trim());
+    }
+
+    @Test
+    public void testMalformedEntity() throws Exception {
+        try {
+            read(JaxbAnnotatedBean.class, "{\"renamed\":");
+            fail("Malformed JSON entity read.");
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testUnknownProperty() throws Exception {
+        try {
+            read(JaxbAnnotatedBean.class, "{\"unknown\":\"value\"}");
+            fail("JSON entity with an unknown property read.");
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testUnsupportedTypes() {
+        final JacksonJsonEntityProvider provider = new JacksonJsonEntityProvider();
+
+        assertTrue(provider.isWriteable(JaxbAnnotatedBean.class, null, NO_ANNOTATIONS, MediaType.APPLICATION_JSON_TYPE));
+        assertFalse(provider.isWriteable(JaxbAnnotatedBean.class, null, NO_ANNOTATIONS, MediaType.TEXT_PLAIN_TYPE));
+        assertFalse(provider.isWriteable(String.class, null, NO_ANNOTATIONS, MediaType.APPLICATION_JSON_TYPE));
+        assertFalse(provider.isReadable(ByteArrayInputStream.class, null, NO_ANNOTATIONS,
+                MediaType.APPLICATION_JSON_TYPE));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object read(final Class<?> type, final String json) throws IOException {
+        return new JacksonJsonEntityProvider().readFrom((Class<Object>) type, type, NO_ANNOTATIONS,
+                MediaType.APPLICATION_JSON_TYPE, null, new ByteArrayInputStream(json.getBytes("UTF-8")));
+    }
+
+    private static void assertElements(final List<JaxbAnnotatedBean> beans, final String... values) {
+        assertEquals(values.length, beans.size());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], beans.get(i).value);
+        }
+    }
+}
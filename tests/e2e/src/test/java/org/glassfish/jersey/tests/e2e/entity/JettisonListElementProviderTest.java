@@ -0,0 +1,235 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.jersey.tests.e2e.entity;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlSeeAlso;
+
+import org.glassfish.jersey.jettison.JettisonConfiguration;
+import org.glassfish.jersey.jettison.JettisonJaxbContext;
+import org.glassfish.jersey.jettison.internal.entity.JettisonListElementProvider;
+
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of the JSON representation of collections written by {@link JettisonListElementProvider}.
+ *
+ * @author Jakub Podlesak (jakub.podlesak at oracle.com)
+ */
+public class JettisonListElementProviderTest {
+
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+    @XmlRootElement(name = "shape")
+    @XmlSeeAlso({Circle.class, Square.class})
+    public static class Shape {
+
+        public String name;
+
+        public Shape() {
+        }
+
+        public Shape(String name) {
+            this.name = name;
+        }
+    }
+
+    @XmlRootElement(name = "circle")
+    public static class Circle extends Shape {
+
+        public Circle() {
+        }
+
+        public Circle(String name) {
+            super(name);
+        }
+    }
+
+    @XmlRootElement(name = "square")
+    public static class Square extends Shape {
+
+        public Square() {
+        }
+
+        public Square(String name) {
+            super(name);
+        }
+    }
+
+    @Test
+    public void testSingleElement() throws Exception {
+        final JSONObject root = write(new JettisonJaxbContext(JaxbBean.class),
+                Collections.singletonList(new JaxbBean("one")), new GenericType<List<JaxbBean>>() {}.getType());
+
+        // a single element is not written as an array in the mapped notation
+        final Object element = root.get("jaxbBean");
+        assertTrue(element.toString(), element instanceof JSONObject);
+        assertEquals("one", ((JSONObject) element).getString("value"));
+    }
+
+    @Test
+    public void testMultipleElements() throws Exception {
+        final JSONObject root = write(new JettisonJaxbContext(JaxbBean.class),
+                Arrays.asList(new JaxbBean("one"), new JaxbBean("two")),
+                new GenericType<List<JaxbBean>>() {}.getType());
+
+        final JSONArray elements = root.getJSONArray("jaxbBean");
+        assertEquals(2, elements.length());
+        assertEquals("one", elements.getJSONObject(0).getString("value"));
+        assertEquals("two", elements.getJSONObject(1).getString("value"));
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        final String json = writeToString(new JettisonJaxbContext(JaxbBean.class), Collections.<JaxbBean>emptyList(),
+                new GenericType<List<JaxbBean>>() {}.getType());
+
+        final JSONObject document = new JSONObject(json);
+        assertEquals(1, document.length());
+        final Object root = document.get((String) document.keys().next());
+        assertFalse(json, root instanceof JSONObject && ((JSONObject) root).has("jaxbBean"));
+    }
+
+    @Test
+    public void testPolymorphicElements() throws Exception {
+        final JSONObject root = write(new JettisonJaxbContext(Shape.class),
+                Arrays.asList(new Circle("c1"), new Square("s1"), new Circle("c2")),
+                new GenericType<List<Shape>>() {}.getType());
+
+        // each element is written under its own root element name
+        assertEquals(2, root.getJSONArray("circle").length());
+        assertEquals("s1", root.getJSONObject("square").getString("name"));
+        assertFalse(root.has("shape"));
+    }
+
+    @Test
+    public void testBadgerFish() throws Exception {
+        final JAXBContext context = new JettisonJaxbContext(JettisonConfiguration.badgerFish().build(), JaxbBean.class);
+
+        final JSONObject single = write(context, Collections.singletonList(new JaxbBean("one")),
+                new GenericType<List<JaxbBean>>() {}.getType());
+        assertEquals("one", single.getJSONObject("jaxbBean").getJSONObject("value").getString("$"));
+
+        final JSONObject multiple = write(context, Arrays.asList(new JaxbBean("one"), new JaxbBean("two")),
+                new GenericType<List<JaxbBean>>() {}.getType());
+        final JSONArray elements = multiple.getJSONArray("jaxbBean");
+        assertEquals(2, elements.length());
+        assertEquals("two", elements.getJSONObject(1).getJSONObject("value").getString("$"));
+    }
+
+    /**
+     * Write the collection and return the JSON object of the (invisible) collection root element.
+     */
+    private static JSONObject write(final JAXBContext context, final List<?> elements, final Type genericType)
+            throws Exception {
+        final JSONObject document = new JSONObject(writeToString(context, elements, genericType));
+        assertEquals(1, document.length());
+        return document.getJSONObject((String) document.keys().next());
+    }
+
+    private static String writeToString(final JAXBContext context, final List<?> elements, final Type genericType)
+            throws Exception {
+        final JettisonListElementProvider provider = new JettisonListElementProvider.App(providers(context));
+        assertTrue(provider.isWriteable(elements.getClass(), genericType, NO_ANNOTATIONS,
+                MediaType.APPLICATION_JSON_TYPE));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        provider.writeTo(elements, elements.getClass(), genericType, NO_ANNOTATIONS, MediaType.APPLICATION_JSON_TYPE,
+                null, out);
+        return out.toString("UTF-8");
+    }
+
+    private static Providers providers(final JAXBContext context) {
+        return new Providers() {
+            @Override
+            public <T> MessageBodyReader<T> getMessageBodyReader(Class<T> type, Type genericType,
+                                                                 Annotation[] annotations, MediaType mediaType) {
+                return null;
+            }
+
+            @Override
+            public <T> MessageBodyWriter<T> getMessageBodyWriter(Class<T> type, Type genericType,
+                                                                 Annotation[] annotations, MediaType mediaType) {
+                return null;
+            }
+
+            @Override
+            public <T extends Throwable> ExceptionMapper<T> getExceptionMapper(Class<T> type) {
+                return null;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> ContextResolver<T> getContextResolver(Class<T> contextType, MediaType mediaType) {
+                if (contextType != JAXBContext.class) {
+                    return null;
+                }
+                return (ContextResolver<T>) new ContextResolver<JAXBContext>() {
+                    @Override
+                    public JAXBContext getContext(Class<?> type) {
+                        return context;
+                    }
+                };
+            }
+        };
+    }
+}
@@ -49,6 +49,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Response;
 
 import javax.xml.bind.annotation.XmlRootElement;
 
@@ -62,6 +63,7 @@ import org.glassfish.jersey.test.spi.TestContainer;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -246,6 +248,19 @@ public class JsonWithPaddingTest extends JerseyTest {
         test("JsonWithPaddingCallback", "eval", "lave", true);
     }
 
+    @Test
+    public void testJsonWithPaddingQueryCallbackParamQualifiedName() throws Exception {
+        test("JsonWithPaddingQueryCallbackParam", "eval", "jQuery1720_13.handlers[0]", "jQuery1720_13\\.handlers\\[0\\]");
+    }
+
+    @Test
+    public void testJsonWithPaddingQueryCallbackParamInvalidName() throws Exception {
+        final Response response = target("jsonp").path("JsonWithPaddingQueryCallbackParam")
+                .queryParam("eval", "alert(document.cookie);parse").request("application/x-javascript").get();
+
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+    }
+
     private void test(final String path, final String callback) {
         test(path, null, null, callback);
     }
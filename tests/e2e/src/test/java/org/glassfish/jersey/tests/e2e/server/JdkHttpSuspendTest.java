@@ -0,0 +1,173 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2012 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.e2e.server;
+
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientFactory;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.container.TimeoutHandler;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriBuilder;
+
+import org.glassfish.jersey.jdkhttp.JdkHttpServerFactory;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+import org.glassfish.jersey.test.jdkhttp.JdkHttpServerTestContainerFactory;
+import org.glassfish.jersey.test.spi.TestContainerFactory;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests suspended responses and custom executors of the JDK HTTP server container.
+ *
+ * @author Miroslav Fuksa (miroslav.fuksa at oracle.com)
+ */
+public class JdkHttpSuspendTest extends JerseyTest {
+
+    @Path("/")
+    public static class Resource {
+
+        @GET
+        @Path("resume")
+        public void resume(@Suspended final AsyncResponse asyncResponse) {
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        // ignore
+                    }
+                    asyncResponse.resume("resumed");
+                }
+            }.start();
+        }
+
+        @GET
+        @Path("timeout")
+        public void timeout(@Suspended final AsyncResponse asyncResponse) {
+            asyncResponse.setTimeoutHandler(new TimeoutHandler() {
+                @Override
+                public void handleTimeout(AsyncResponse asyncResponse) {
+                    asyncResponse.resume("timeout");
+                }
+            });
+            asyncResponse.setTimeout(200, TimeUnit.MILLISECONDS);
+        }
+
+        @GET
+        @Path("default-timeout")
+        public void defaultTimeout(@Suspended final AsyncResponse asyncResponse) {
+            asyncResponse.setTimeout(200, TimeUnit.MILLISECONDS);
+        }
+
+        @GET
+        @Path("sync")
+        public String sync() {
+            return "sync";
+        }
+    }
+
+    @Override
+    protected Application configure() {
+        return new ResourceConfig(Resource.class);
+    }
+
+    @Override
+    protected TestContainerFactory getTestContainerFactory() {
+        return new JdkHttpServerTestContainerFactory();
+    }
+
+    @Test
+    public void testResume() {
+        assertEquals("resumed", target("resume").request().get(String.class));
+    }
+
+    @Test
+    public void testSuspendTimeout() {
+        assertEquals("timeout", target("timeout").request().get(String.class));
+    }
+
+    @Test
+    public void testSuspendDefaultTimeout() {
+        final Response response = target("default-timeout").request().get();
+        assertEquals(503, response.getStatus());
+    }
+
+    @Test
+    public void testCustomExecutor() {
+        final AtomicInteger executions = new AtomicInteger();
+        final ExecutorService pool = Executors.newCachedThreadPool();
+        final Executor executor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                executions.incrementAndGet();
+                pool.execute(command);
+            }
+        };
+
+        final URI uri = UriBuilder.fromUri("http://localhost/").port(getPort() + 1).build();
+        final HttpServer server = JdkHttpServerFactory.createHttpServer(uri, new ResourceConfig(Resource.class), executor);
+        try {
+            final Client client = ClientFactory.newClient();
+            assertEquals("sync", client.target(uri).path("sync").request().get(String.class));
+            assertEquals("resumed", client.target(uri).path("resume").request().get(String.class));
+            assertTrue(executions.get() >= 2);
+        } finally {
+            server.stop(0);
+            pool.shutdown();
+        }
+    }
+}
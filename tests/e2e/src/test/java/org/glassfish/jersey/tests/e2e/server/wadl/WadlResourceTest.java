@@ -66,7 +66,9 @@ import javax.ws.rs.QueryParam;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.Application;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.Form;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 
 import javax.xml.XMLConstants;
@@ -116,6 +118,8 @@ import com.sun.research.ws.wadl.Resources;
 
 import junit.framework.Assert;
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertTrue;
 
 /**
@@ -369,6 +373,25 @@ public class WadlResourceTest {
             assertTrue(r.getHeaders().containsKey("Last-modified"));
         }
 
+        @Test
+        public void testConditionalGET() {
+            final WebTarget target = target("/application.wadl");
+
+            final Response r = target.request().get(Response.class);
+            assertEquals(200, r.getStatus());
+            final EntityTag entityTag = r.getEntityTag();
+            assertNotNull(entityTag);
+            final String wadl = r.readEntity(String.class);
+
+            // the WADL is generated only once
+            final Response r2 = target.request().get(Response.class);
+            assertEquals(entityTag, r2.getEntityTag());
+            assertEquals(wadl, r2.readEntity(String.class));
+
+            final Response notModified = target.request().header(HttpHeaders.IF_NONE_MATCH, entityTag).get();
+            assertEquals(304, notModified.getStatus());
+        }
+
         @Test
         public void testLastModifiedOPTIONS() {
             final WebTarget target = target("/widgets/3/verbose");
@@ -508,6 +531,46 @@ public class WadlResourceTest {
             assertEquals(val, "3");
         }
 
+        @Test
+        public void testOptionsSubResourceWadlPerPathParamValue() throws ParserConfigurationException, SAXException,
+                IOException, XPathExpressionException {
+            // the marshalled WADL is shared by all requests matching the same template
+            DocumentBuilderFactory bf = DocumentBuilderFactory.newInstance();
+            bf.setNamespaceAware(true);
+            bf.setValidating(false);
+            if (!SaxHelper.isXdkDocumentBuilderFactory(bf)) {
+                bf.setXIncludeAware(false);
+            }
+            DocumentBuilder b = bf.newDocumentBuilder();
+            XPath xp = XPathFactory.newInstance().newXPath();
+            xp.setNamespaceContext(new NsResolver("wadl", "http://wadl.dev.java.net/2009/02"));
+
+            EntityTag previous = null;
+            for (String id : new String[] {"3", "4", "a&b"}) {
+                final Response response = target("/widgets").path(id).request(MediaTypes.WADL).options();
+                assertEquals(200, response.getStatus());
+                final EntityTag entityTag = response.getEntityTag();
+                assertNotNull(entityTag);
+                assertFalse(entityTag.equals(previous));
+                previous = entityTag;
+
+                // the document resolved for the same path is reused
+                final Response repeated = target("/widgets").path(id).request(MediaTypes.WADL).options();
+                assertEquals(200, repeated.getStatus());
+                assertEquals(entityTag, repeated.getEntityTag());
+
+                Document d = b.parse(response.readEntity(InputStream.class));
+                String val = (String) xp.evaluate("count(//wadl:resource)", d, XPathConstants.STRING);
+                assertEquals(val, "1");
+                val = (String) xp.evaluate("count(//wadl:resource[@path='widgets/" + id + "'])", d,
+                        XPathConstants.STRING);
+                assertEquals(val, "1");
+                val = (String) xp.evaluate("count(//wadl:resource[@path='widgets/" + id + "']/wadl:method)", d,
+                        XPathConstants.STRING);
+                assertEquals(val, "3");
+            }
+        }
+
         // TODO: migrate rest of tests
         //    @Path("root")
 //    public static class RootResource {
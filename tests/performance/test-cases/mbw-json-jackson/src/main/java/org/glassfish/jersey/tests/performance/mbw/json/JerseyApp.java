@@ -44,6 +44,7 @@ import java.net.URI;
 import org.glassfish.grizzly.http.server.HttpServer;
 import org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpServerFactory;
 import org.glassfish.jersey.jackson.JacksonFeature;
+import org.glassfish.jersey.jackson.JacksonProperties;
 import org.glassfish.jersey.server.ResourceConfig;
 
 /**
@@ -60,6 +61,8 @@ public class JerseyApp {
 
             final ResourceConfig resourceConfig = new ResourceConfig(JsonEntityResource.class);
             resourceConfig.register(JacksonFeature.class);
+            // the test entities are not annotated with JAXB annotations
+            resourceConfig.setProperty(JacksonProperties.JAXB_ANNOTATIONS, false);
             URI baseUri = args.length > 0 ? URI.create(args[0]) : BASE_URI;
             final HttpServer server = GrizzlyHttpServerFactory.createHttpServer(baseUri, resourceConfig);
 
@@ -49,6 +49,8 @@ import javax.ws.rs.core.MediaType;
 import com.yammer.metrics.Metrics;
 import com.yammer.metrics.core.TimerContext;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import javax.ws.rs.GET;
 import javax.ws.rs.PUT;
@@ -69,6 +71,16 @@ public class JsonEntityResource {
             Metrics.newTimer(JsonEntityResource.class, "gets", TimeUnit.MILLISECONDS, TimeUnit.SECONDS);
     private static final com.yammer.metrics.core.Timer putTimer =
             Metrics.newTimer(JsonEntityResource.class, "puts", TimeUnit.MILLISECONDS, TimeUnit.SECONDS);
+    private static final com.yammer.metrics.core.Timer getListTimer =
+            Metrics.newTimer(JsonEntityResource.class, "listGets", TimeUnit.MILLISECONDS, TimeUnit.SECONDS);
+
+    private static final List<Person> PEOPLE = new ArrayList<Person>();
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            PEOPLE.add(new Person("Wolfgang", i, "Salzburg"));
+        }
+    }
 
     @POST
     public Person echo(final Person person) {
@@ -95,4 +107,15 @@ public class JsonEntityResource {
             timer.stop();
         }
     }
+
+    @GET
+    @Path("list")
+    public List<Person> getList() {
+        final TimerContext timer = getListTimer.time();
+        try {
+            return PEOPLE;
+        } finally {
+            timer.stop();
+        }
+    }
 }